@@ -143,6 +143,8 @@ public class OutlineShape implements Comparable<OutlineShape> {
 
     private float sharpness;
 
+    private Triangulation.Type triangulationType;
+
     private final float[] tmpV1 = new float[3];
     private final float[] tmpV2 = new float[3];
     private final float[] tmpV3 = new float[3];
@@ -160,6 +162,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
         this.addedVerticeCount = 0;
         this.dirtyBits = 0;
         this.sharpness = DEFAULT_SHARPNESS;
+        this.triangulationType = Triangulation.DEFAULT_TYPE;
     }
 
     /**
@@ -182,6 +185,23 @@ public class OutlineShape implements Comparable<OutlineShape> {
         }
     }
 
+    /** Triangulation algorithm, defaults to {@link Triangulation#DEFAULT_TYPE}. */
+    public Triangulation.Type getTriangulationType() { return triangulationType; }
+
+    /**
+     * Sets the triangulation algorithm used by {@link #getTriangles(VerticesState)},
+     * defaults to {@link Triangulation#DEFAULT_TYPE}.
+     * <p>
+     * {@link Triangulation.Type#MONOTONE} is recommended for complex shapes with many vertices.
+     * </p>
+     */
+    public void setTriangulationType(final Triangulation.Type type) {
+        if( this.triangulationType != type ) {
+            clearCache();
+            triangulationType = type;
+        }
+    }
+
     /** Clears all data and reset all states as if this instance was newly created */
     public void clear() {
         outlines.clear();
@@ -660,7 +680,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
             generateVertexIds();
 
             triangles.clear();
-            final Triangulator triangulator2d = Triangulation.create();
+            final Triangulator triangulator2d = Triangulation.create(triangulationType);
             for(int index = 0; index<outlines.size(); index++) {
                 triangulator2d.addCurve(triangles, outlines.get(index), sharpness);
             }
@@ -28,9 +28,12 @@
 package com.jogamp.graph.curve;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import jogamp.graph.geom.plane.AffineTransform;
+import jogamp.nativewindow.ParallelBands;
 import jogamp.opengl.Debug;
 
 import com.jogamp.graph.geom.Triangle;
@@ -116,6 +119,9 @@ public abstract class Region {
     protected final AABBox box = new AABBox();
     protected Frustum frustum = null;
 
+    /** Parallel runner of {@link #addOutlineShapes(List, AffineTransform, float[], Executor)}, w/o default executor. */
+    private static final ParallelBands parallelShapes = new ParallelBands("Region-Worker-", 0, 1, 1);
+
     public static boolean isVBAA(final int renderModes) {
         return 0 != (renderModes & Region.VBAA_RENDERING_BIT);
     }
@@ -173,8 +179,14 @@ public abstract class Region {
         this.quality = MAX_QUALITY;
     }
 
-    // FIXME: Better handling of impl. buffer growth .. !
-    // protected abstract void setupInitialComponentCount(int attributeCount, int indexCount);
+    /**
+     * Ensures the implementation's buffers can hold the given number of additional vertices and indices,
+     * allowing them to be sized once for a shape or a list of shapes instead of growing incrementally.
+     * <p>
+     * Default implementation does nothing.
+     * </p>
+     */
+    protected void setupInitialComponentCount(final int vertexCount, final int indexCount) { }
 
     protected abstract void pushVertex(final float[] coords, final float[] texParams, float[] rgba);
     protected abstract void pushIndex(int idx);
@@ -279,33 +291,29 @@ public abstract class Region {
      * @param rgbaColor TODO
      */
     public final void addOutlineShape(final OutlineShape shape, final AffineTransform t, final float[] rgbaColor) {
-        if( null != frustum ) {
-            final AABBox shapeBox = shape.getBounds();
-            final AABBox shapeBoxT;
-            if( null != t ) {
-                t.transform(shapeBox, tmpBox);
-                shapeBoxT = tmpBox;
-            } else {
-                shapeBoxT = shapeBox;
-            }
-            if( frustum.isAABBoxOutside(shapeBoxT) ) {
-                if(DEBUG_INSTANCE) {
-                    System.err.println("Region.addOutlineShape(): Dropping outside shapeBoxT: "+shapeBoxT);
-                }
-                return;
-            }
+        if( isCulled(shape, t) ) {
+            return;
         }
         final List<Triangle> trisIn = shape.getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+        final int vertsInCount = shape.getVertices().size();
+        if( vertsInCount >= 3 ) {
+            setupInitialComponentCount(vertsInCount + shape.getAddedVerticeCount(), trisIn.size() * 3);
+        }
+        addOutlineShapeImpl(shape, trisIn, t, rgbaColor);
+    }
+
+    /**
+     * Pushes the vertices and indices of the given {@link OutlineShape} and its triangles,
+     * not being culled and w/o {@link #setupInitialComponentCount(int, int) buffer sizing}.
+     */
+    private void addOutlineShapeImpl(final OutlineShape shape, final List<Triangle> trisIn, final AffineTransform t, final float[] rgbaColor) {
         final ArrayList<Vertex> vertsIn = shape.getVertices();
         if(DEBUG_INSTANCE) {
             final int addedVerticeCount = shape.getAddedVerticeCount();
-            final int verticeCount = vertsIn.size() + addedVerticeCount;
-            final int indexCount = trisIn.size() * 3;
             System.err.println("Region.addOutlineShape().0: tris: "+trisIn.size()+", verts "+vertsIn.size()+", transform "+t);
-            System.err.println("Region.addOutlineShape().0: VerticeCount "+vertsIn.size()+" + "+addedVerticeCount+" = "+verticeCount);
-            System.err.println("Region.addOutlineShape().0: IndexCount "+indexCount);
+            System.err.println("Region.addOutlineShape().0: VerticeCount "+vertsIn.size()+" + "+addedVerticeCount+" = "+(vertsIn.size() + addedVerticeCount));
+            System.err.println("Region.addOutlineShape().0: IndexCount "+(trisIn.size() * 3));
         }
-        // setupInitialComponentCount(verticeCount, indexCount); // FIXME: Use it ?
 
         final int idxOffset = numVertices;
         int vertsVNewIdxCount = 0, vertsTMovIdxCount = 0, vertsTNewIdxCount = 0, tris = 0;
@@ -330,7 +338,7 @@ public abstract class Region {
                 // triangles.add( triEx );
                 final Vertex[] triInVertices = triIn.getVertices();
                 final int tv0Idx = triInVertices[0].getId();
-                if( Integer.MAX_VALUE-idxOffset > tv0Idx ) { // Integer.MAX_VALUE != i0 // FIXME: renderer uses SHORT!
+                if( Integer.MAX_VALUE-idxOffset > tv0Idx ) { // Integer.MAX_VALUE != i0
                     // valid 'known' idx - move by offset
                     if(Region.DEBUG_INSTANCE) {
                         System.err.println("T["+i+"]: Moved "+tv0Idx+" + "+idxOffset+" -> "+(tv0Idx+idxOffset));
@@ -363,9 +371,232 @@ public abstract class Region {
         markShapeDirty();
     }
 
+    /**
+     * Returns true if {@link #setFrustum(Frustum) frustum culling is set}
+     * and the given {@link OutlineShape}'s bounding-box, transformed by the optional {@link AffineTransform},
+     * is fully outside of the frustum.
+     */
+    private boolean isCulled(final OutlineShape shape, final AffineTransform t) {
+        if( null != frustum ) {
+            final AABBox shapeBox = shape.getBounds();
+            final AABBox shapeBoxT;
+            if( null != t ) {
+                t.transform(shapeBox, tmpBox);
+                shapeBoxT = tmpBox;
+            } else {
+                shapeBoxT = shapeBox;
+            }
+            if( frustum.isAABBoxOutside(shapeBoxT) ) {
+                if(DEBUG_INSTANCE) {
+                    System.err.println("Region.addOutlineShape(): Dropping outside shapeBoxT: "+shapeBoxT);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the given {@link OutlineShape}s to this region with the given optional {@link AffineTransform},
+     * see {@link #addOutlineShape(OutlineShape, AffineTransform, float[])}.
+     * <p>
+     * All shapes are triangulated upfront, allowing the region's buffers to be sized once for all of them.
+     * </p>
+     */
     public final void addOutlineShapes(final List<OutlineShape> shapes, final AffineTransform transform, final float[] rgbaColor) {
+        final ArrayList<List<Triangle>> shapeTris = new ArrayList<List<Triangle>>(shapes.size());
+        int vertexCount = 0, indexCount = 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            final OutlineShape shape = shapes.get(i);
+            if( isCulled(shape, transform) ) {
+                shapeTris.add(null);
+            } else {
+                final List<Triangle> tris = shape.getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+                final int vertCount = shape.getVertices().size();
+                if( vertCount >= 3 ) {
+                    vertexCount += vertCount + shape.getAddedVerticeCount();
+                    indexCount += tris.size() * 3;
+                }
+                shapeTris.add(tris);
+            }
+        }
+        setupInitialComponentCount(vertexCount, indexCount);
+        for (int i = 0; i < shapes.size(); i++) {
+            final List<Triangle> tris = shapeTris.get(i);
+            if( null != tris ) {
+                addOutlineShapeImpl(shapes.get(i), tris, transform, rgbaColor);
+            }
+        }
+    }
+
+    /**
+     * Add the given {@link OutlineShape}s to this region with the given optional {@link AffineTransform},
+     * as {@link #addOutlineShapes(List, AffineTransform, float[])} but preparing the shapes in parallel.
+     * <p>
+     * Each distinct shape is {@link #setFrustum(Frustum) frustum culled}, {@link OutlineShape#getTriangles(OutlineShape.VerticesState) triangulated}
+     * and transformed in groups of shapes, one group per task on the given {@link Executor}, limited by its parallelism,
+     * while the caller thread prepares the first group and each group not started by the executor.
+     * Thereafter all vertices and indices are pushed in one sequential pass in the given order.
+     * A task failure is rethrown as {@link RuntimeException}.
+     * </p>
+     * <p>
+     * The shapes are triangulated concurrently, hence they must not be modified or used by other threads during this call.
+     * A shape contained multiple times is prepared only once.
+     * </p>
+     * @param executor the {@link Executor} to prepare the shapes, may be {@code null} to prepare them on the caller thread only.
+     */
+    public final void addOutlineShapes(final List<OutlineShape> shapes, final AffineTransform transform, final float[] rgbaColor,
+                                       final Executor executor) {
+        final IdentityHashMap<OutlineShape, ShapeData> shapeData = new IdentityHashMap<OutlineShape, ShapeData>(shapes.size());
+        final ArrayList<ShapeData> distinct = new ArrayList<ShapeData>(shapes.size());
+        for (int i = 0; i < shapes.size(); i++) {
+            final OutlineShape shape = shapes.get(i);
+            if( !shapeData.containsKey(shape) ) {
+                final ShapeData d = new ShapeData(shape);
+                shapeData.put(shape, d);
+                distinct.add(d);
+            }
+        }
+        prepareShapes(distinct, transform, executor);
+
+        int vertexCount = 0, indexCount = 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            final ShapeData d = shapeData.get(shapes.get(i));
+            if( !d.culled ) {
+                vertexCount += d.vertexCount;
+                indexCount += d.indices.length;
+            }
+        }
+        setupInitialComponentCount(vertexCount, indexCount);
+
+        final float[] coords = new float[3];
+        final float[] texCoords = new float[3];
+        int tris = 0;
         for (int i = 0; i < shapes.size(); i++) {
-            addOutlineShape(shapes.get(i), transform, rgbaColor);
+            final ShapeData d = shapeData.get(shapes.get(i));
+            if( d.culled ) {
+                continue;
+            }
+            final int idxOffset = numVertices;
+            for(int j=0; j<d.vertexCount; j++) {
+                System.arraycopy(d.coords, j*3, coords, 0, 3);
+                System.arraycopy(d.texCoords, j*3, texCoords, 0, 3);
+                pushVertex(coords, texCoords, rgbaColor);
+            }
+            numVertices += d.vertexCount;
+            if( 0 < d.vertexCount ) {
+                box.resize(d.box);
+            }
+            for(int j=0; j<d.indices.length; j++) {
+                pushIndex(d.indices[j] + idxOffset);
+            }
+            tris += d.indices.length / 3;
+        }
+        if(DEBUG_INSTANCE) {
+            System.err.println("Region.addOutlineShapes().X: shapes "+shapes.size()+", distinct "+distinct.size()+", tris "+tris+", numVertices "+numVertices+", box "+box);
+        }
+        markShapeDirty();
+    }
+
+    /**
+     * Prepares the given shapes in parallel groups using the given {@link Executor}, where the caller thread prepares the first group.
+     * Returns after all shapes have been prepared.
+     */
+    private void prepareShapes(final List<ShapeData> distinct, final AffineTransform transform, final Executor executor) {
+        parallelShapes.run(new ParallelBands.RowBand() {
+            @Override
+            public void run(final int shape0, final int shape1) {
+                final AABBox tmpBox = new AABBox();
+                final float[] tmpCoords = new float[3];
+                for(int i=shape0; i<shape1; i++) {
+                    distinct.get(i).prepare(frustum, transform, tmpBox, tmpCoords);
+                }
+            } }, executor, 1, distinct.size(), "Parallel shape preparation failed");
+    }
+
+    /**
+     * Triangulated and transformed {@link OutlineShape} data,
+     * using shape local vertex indices.
+     */
+    private static final class ShapeData {
+        final OutlineShape shape;
+        boolean culled;
+        int vertexCount;
+        float[] coords;
+        float[] texCoords;
+        int[] indices;
+        final AABBox box = new AABBox();
+
+        ShapeData(final OutlineShape shape) {
+            this.shape = shape;
+        }
+
+        /** Same semantics as {@link Region#addOutlineShape(OutlineShape, AffineTransform, float[])}. */
+        void prepare(final Frustum frustum, final AffineTransform t, final AABBox tmpBox, final float[] tmpCoords) {
+            if( null != frustum ) {
+                final AABBox shapeBox = shape.getBounds();
+                final AABBox shapeBoxT;
+                if( null != t ) {
+                    t.transform(shapeBox, tmpBox);
+                    shapeBoxT = tmpBox;
+                } else {
+                    shapeBoxT = shapeBox;
+                }
+                if( frustum.isAABBoxOutside(shapeBoxT) ) {
+                    culled = true;
+                    return;
+                }
+            }
+            final List<Triangle> trisIn = shape.getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+            final ArrayList<Vertex> vertsIn = shape.getVertices();
+            final int vertsInCount = vertsIn.size();
+            if( vertsInCount < 3 ) {
+                vertexCount = 0;
+                indices = new int[0];
+                return;
+            }
+            int newVertsCount = 0;
+            for(int i=0; i<trisIn.size(); i++) {
+                if( Integer.MAX_VALUE == trisIn.get(i).getVertices()[0].getId() ) {
+                    newVertsCount += 3;
+                }
+            }
+            vertexCount = vertsInCount + newVertsCount;
+            coords = new float[vertexCount*3];
+            texCoords = new float[vertexCount*3];
+            indices = new int[trisIn.size()*3];
+            for(int i=0; i<vertsInCount; i++) {
+                put(i, vertsIn.get(i), t, tmpCoords);
+            }
+            int newIdx = vertsInCount;
+            for(int i=0, j=0; i<trisIn.size(); i++) {
+                final Vertex[] triInVertices = trisIn.get(i).getVertices();
+                if( Integer.MAX_VALUE != triInVertices[0].getId() ) {
+                    indices[j++] = triInVertices[0].getId();
+                    indices[j++] = triInVertices[1].getId();
+                    indices[j++] = triInVertices[2].getId();
+                } else {
+                    for(int k=0; k<3; k++) {
+                        put(newIdx, triInVertices[k], t, tmpCoords);
+                        indices[j++] = newIdx++;
+                    }
+                }
+            }
+        }
+
+        private void put(final int idx, final Vertex vertIn, final AffineTransform t, final float[] tmpCoords) {
+            final float[] coordsIn = vertIn.getCoord();
+            final float[] coordsEx;
+            if( null != t ) {
+                t.transform(coordsIn, tmpCoords);
+                tmpCoords[2] = coordsIn[2];
+                coordsEx = tmpCoords;
+            } else {
+                coordsEx = coordsIn;
+            }
+            box.resize(coordsEx[0], coordsEx[1], coordsEx[2]);
+            System.arraycopy(coordsEx, 0, coords, idx*3, 3);
+            System.arraycopy(vertIn.getTexCoord(), 0, texCoords, idx*3, 3);
         }
     }
 
@@ -29,16 +29,50 @@
 package com.jogamp.graph.curve.tess;
 
 import jogamp.graph.curve.tess.CDTriangulator2D;
+import jogamp.graph.curve.tess.MonotoneTriangulator2D;
+import jogamp.opengl.Debug;
 
+import com.jogamp.common.util.PropertyAccess;
 
+/**
+ * The optional property <i>jogl.graph.curve.triangulation.monotone</i>
+ * selects {@link Type#MONOTONE} as the {@link #DEFAULT_TYPE}.
+ */
 public class Triangulation {
-    /** Create a new instance of a triangulation.
-     *  Currently only a modified version of Constraint Delaunay
-     *  is implemented.
+    /** Triangulation algorithm, see {@link Triangulation#create(Type)}. */
+    public enum Type {
+        /** Modified version of Constraint Delaunay, cutting the loops of all outlines, see {@link CDTriangulator2D}. */
+        CDT,
+        /** Sweep-line partition into y-monotone polygons in O(n log n), see {@link MonotoneTriangulator2D}. */
+        MONOTONE;
+    }
+
+    /** Default {@link Type}, i.e. {@link Type#CDT} unless <i>jogl.graph.curve.triangulation.monotone</i> is set. */
+    public static final Type DEFAULT_TYPE;
+
+    static {
+        Debug.initSingleton();
+        DEFAULT_TYPE = PropertyAccess.isPropertyDefined("jogl.graph.curve.triangulation.monotone", true) ? Type.MONOTONE : Type.CDT;
+    }
+
+    /** Create a new instance of the {@link #DEFAULT_TYPE} triangulation.
      * @return instance of a triangulator
      * @see Triangulator
      */
     public static Triangulator create() {
-        return new CDTriangulator2D();
+        return create(DEFAULT_TYPE);
+    }
+
+    /** Create a new instance of the given triangulation {@link Type}.
+     * @return instance of a triangulator
+     * @see Triangulator
+     */
+    public static Triangulator create(final Type type) {
+        switch( type ) {
+            case MONOTONE:
+                return new MonotoneTriangulator2D();
+            default:
+                return new CDTriangulator2D();
+        }
     }
 }
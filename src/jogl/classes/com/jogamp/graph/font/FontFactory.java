@@ -52,6 +52,11 @@ import jogamp.graph.font.UbuntuFontLoader;
  * Default {@link FontConstructor} is {@link jogamp.graph.font.typecast.TypecastFontConstructor},
  * i.e. using our internal <i>typecast</i> branch.
  * </p>
+ * <p>
+ * The optional property <i>jogl.graph.font.lazy</i> enables lazy loading
+ * for the default {@link FontConstructor}, i.e. font files are memory mapped
+ * and glyphs are read on first access.
+ * </p>
  */
 public class FontFactory {
     private static final String FontConstructorPropKey = "jogamp.graph.font.ctor";
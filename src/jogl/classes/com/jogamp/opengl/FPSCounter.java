@@ -33,6 +33,9 @@ import java.io.PrintStream;
  * FPSCounter feature.<br>
  * An implementation initially has the FPSCounter feature disabled.<br>
  * Use {@link #setUpdateFPSFrames(int, PrintStream)} to enable and disable the FPSCounter feature.
+ * <p>
+ * Implementations may also record frame time histograms, see {@link FrameTimeStats}.
+ * </p>
  */
 public interface FPSCounter {
     public static final int DEFAULT_FRAMES_PER_INTERVAL = 5*60;
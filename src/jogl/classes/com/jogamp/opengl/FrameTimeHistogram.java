@@ -0,0 +1,297 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, e.g. frame times.
+ * <p>
+ * Values are stored in log-linear buckets, i.e. each power of two range is divided
+ * into {@link #SUB_BUCKET_HALF_COUNT} linear sub-buckets, resulting in a relative error
+ * of less than 1/{@link #SUB_BUCKET_HALF_COUNT} for all values up to {@link #MAX_VALUE}.
+ * Values below {@link #SUB_BUCKET_COUNT} nanoseconds are stored exact.
+ * </p>
+ * <p>
+ * {@link #record(long)} is wait-free w/ the exception of the min/max CAS loops
+ * and does not allocate any memory, hence it may be called on the rendering thread for each frame.
+ * </p>
+ * <p>
+ * {@link #snapshot(Snapshot)} may be called from any thread at any time w/o pausing the recording thread.
+ * A snapshot taken while recording is not atomic, i.e. it may miss a value recorded concurrently,
+ * however it is consistent in itself since all statistics are computed from the copied buckets.
+ * </p>
+ */
+public class FrameTimeHistogram {
+    /** Number of bits per linear sub-bucket range, {@value} */
+    public static final int SUB_BUCKET_BITS = 6;
+    /** Number of linear sub-buckets of the first range, {@value} */
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** Number of linear sub-buckets of each following power of two range, {@value} */
+    public static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >>> 1;
+    /** Maximum recordable value in nanoseconds, ~68.7 seconds. Greater values are clamped. */
+    public static final long MAX_VALUE = ( 1L << 36 ) - 1;
+    /** Default jank threshold in nanoseconds, {@value}, i.e. one frame period @ 60Hz. */
+    public static final long DEFAULT_JANK_THRESHOLD = 16666667L;
+
+    private static final int BUCKET_COUNT = getIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+    private final AtomicLong jankCount = new AtomicLong();
+    private volatile long jankThreshold;
+
+    /** Creates an empty instance using {@link #DEFAULT_JANK_THRESHOLD}. */
+    public FrameTimeHistogram() {
+        jankThreshold = DEFAULT_JANK_THRESHOLD;
+    }
+
+    /**
+     * Sets the threshold in nanoseconds, above which a recorded value is counted as jank.
+     * <p>
+     * The jank count is accumulated at {@link #record(long)}, hence changing the threshold
+     * only affects values recorded afterwards. Use {@link #reset()} to restart counting.
+     * </p>
+     * @param nanos threshold in nanoseconds, zero or negative disables jank counting.
+     */
+    public final void setJankThreshold(final long nanos) {
+        jankThreshold = nanos;
+    }
+
+    /** Returns the jank threshold in nanoseconds, see {@link #setJankThreshold(long)}. */
+    public final long getJankThreshold() {
+        return jankThreshold;
+    }
+
+    /**
+     * Records the given duration.
+     * <p>
+     * Negative values are recorded as zero, values above {@link #MAX_VALUE} are clamped.
+     * </p>
+     * @param nanos duration in nanoseconds
+     */
+    public final void record(long nanos) {
+        if( 0 > nanos ) {
+            nanos = 0;
+        } else if( MAX_VALUE < nanos ) {
+            nanos = MAX_VALUE;
+        }
+        counts.incrementAndGet(getIndex(nanos));
+        sum.addAndGet(nanos);
+        count.incrementAndGet();
+        final long _jankThreshold = jankThreshold;
+        if( 0 < _jankThreshold && nanos > _jankThreshold ) {
+            jankCount.incrementAndGet();
+        }
+        long v = max.get();
+        while( nanos > v && !max.compareAndSet(v, nanos) ) {
+            v = max.get();
+        }
+        v = min.get();
+        while( nanos < v && !min.compareAndSet(v, nanos) ) {
+            v = min.get();
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     * <p>
+     * Values recorded concurrently may be partially lost.
+     * </p>
+     */
+    public final void reset() {
+        for(int i=0; i<BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+        jankCount.set(0);
+    }
+
+    /** Returns the number of recorded values. */
+    public final long getCount() {
+        return count.get();
+    }
+
+    /** Returns a new {@link Snapshot} of the current state. */
+    public final Snapshot snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * Stores the current state into the given {@link Snapshot} and returns it.
+     * <p>
+     * Reusing a snapshot instance avoids any memory allocation.
+     * </p>
+     * @param result the target snapshot, if <code>null</code> a new instance is created.
+     */
+    public final Snapshot snapshot(Snapshot result) {
+        if( null == result ) {
+            result = new Snapshot();
+        }
+        final long[] c = result.counts;
+        long n = 0, s = 0, lo = Long.MAX_VALUE, hi = 0;
+        for(int i=0; i<BUCKET_COUNT; i++) {
+            final long ci = counts.get(i);
+            c[i] = ci;
+            if( 0 < ci ) {
+                n += ci;
+                s += ci * getMidValue(i);
+                if( lo == Long.MAX_VALUE ) {
+                    lo = getLowestValue(i);
+                }
+                hi = getHighestValue(i);
+            }
+        }
+        // exact sum, min and max if recording did not interfere
+        final long _count = count.get();
+        result.count = n;
+        if( 0 < n ) {
+            result.mean = ( _count == n ? sum.get() : s ) / n;
+            result.min = Math.max(lo, Math.min(min.get(), hi));
+            result.max = Math.min(hi, Math.max(max.get(), lo));
+        } else {
+            result.mean = 0;
+            result.min = 0;
+            result.max = 0;
+        }
+        result.jankCount = jankCount.get();
+        result.jankThreshold = jankThreshold;
+        result.p50 = result.getValueAtPercentile(50.0);
+        result.p95 = result.getValueAtPercentile(95.0);
+        result.p99 = result.getValueAtPercentile(99.0);
+        return result;
+    }
+
+    /** Returns the bucket index for the given non negative value. */
+    static int getIndex(final long value) {
+        final int msb = 63 - Long.numberOfLeadingZeros(value | ( SUB_BUCKET_COUNT - 1 ));
+        final int shift = msb - ( SUB_BUCKET_BITS - 1 );
+        return ( shift * SUB_BUCKET_HALF_COUNT ) + (int) ( value >>> shift );
+    }
+    private static int getShift(final int index) {
+        return Math.max(0, index / SUB_BUCKET_HALF_COUNT - 1);
+    }
+    /** Returns the lowest value of the given bucket. */
+    static long getLowestValue(final int index) {
+        final int shift = getShift(index);
+        return (long) ( index - shift * SUB_BUCKET_HALF_COUNT ) << shift;
+    }
+    /** Returns the highest value of the given bucket. */
+    static long getHighestValue(final int index) {
+        final int shift = getShift(index);
+        return ( (long) ( index - shift * SUB_BUCKET_HALF_COUNT + 1 ) << shift ) - 1;
+    }
+    private static long getMidValue(final int index) {
+        return ( getLowestValue(index) + getHighestValue(index) ) >>> 1;
+    }
+
+    /**
+     * Result of {@link FrameTimeHistogram#snapshot(Snapshot)}, all values in nanoseconds.
+     * <p>
+     * Percentile values are the highest value of their bucket, bounded by {@link #max}.
+     * </p>
+     */
+    public static class Snapshot {
+        private final long[] counts = new long[BUCKET_COUNT];
+
+        /** Number of recorded values */
+        public long count;
+        /** Minimum recorded value */
+        public long min;
+        /** Maximum recorded value */
+        public long max;
+        /** Mean of all recorded values */
+        public long mean;
+        /** 50th percentile, median */
+        public long p50;
+        /** 95th percentile */
+        public long p95;
+        /** 99th percentile */
+        public long p99;
+        /** Number of recorded values above {@link #jankThreshold} */
+        public long jankCount;
+        /** The jank threshold at snapshot time, see {@link FrameTimeHistogram#setJankThreshold(long)}. */
+        public long jankThreshold;
+
+        /**
+         * Returns the value at the given percentile, i.e. the value below or equal which
+         * the given percentage of all recorded values fall.
+         * @param percentile [0..100]
+         */
+        public final long getValueAtPercentile(final double percentile) {
+            if( 0 == count ) {
+                return 0;
+            }
+            if( 0.0 >= percentile ) {
+                return min;
+            }
+            final double p = Math.min(percentile, 100.0);
+            final long rank = Math.max(1, (long) Math.ceil( p / 100.0 * count ));
+            long n = 0;
+            for(int i=0; i<BUCKET_COUNT; i++) {
+                n += counts[i];
+                if( n >= rank ) {
+                    return Math.max(min, Math.min(max, getHighestValue(i)));
+                }
+            }
+            return max;
+        }
+
+        /** Returns the ratio of jank values to all values [0..1]. */
+        public final float getJankRatio() {
+            return 0 < count ? (float)jankCount / (float)count : 0f;
+        }
+
+        public StringBuilder toString(StringBuilder sb) {
+            if(null==sb) {
+                sb = new StringBuilder();
+            }
+            sb.append(count).append(" f, min ").append(toMillis(min)).append(", mean ").append(toMillis(mean))
+              .append(", p50 ").append(toMillis(p50)).append(", p95 ").append(toMillis(p95))
+              .append(", p99 ").append(toMillis(p99)).append(", max ").append(toMillis(max))
+              .append(" ms; jank ").append(jankCount).append(" > ").append(toMillis(jankThreshold)).append(" ms");
+            return sb;
+        }
+
+        @Override
+        public String toString() {
+            return toString(null).toString();
+        }
+
+        private static String toMillis(final long nanos) {
+            return String.format("%.3f", nanos / 1000000.0);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl;
+
+/**
+ * Optional frame time statistics of an {@link FPSCounter},
+ * recording frame periods and durations into {@link FrameTimeHistogram}s.
+ * <p>
+ * Implemented by the {@link GLAutoDrawable}s based on JOGL's internal <code>GLAutoDrawableBase</code>,
+ * i.e. NEWT's <code>GLWindow</code>, {@link GLAutoDrawableDelegate} and {@link GLOffscreenAutoDrawable},
+ * as well as by the {@link GLAnimatorControl}s derived from {@link com.jogamp.opengl.util.AnimatorBase}.
+ * The AWT and SWT <code>GLCanvas</code> and the <code>GLJPanel</code> do not implement it,
+ * hence support shall be queried via <code>instanceof</code>.
+ * </p>
+ */
+public interface FrameTimeStats {
+    /**
+     * Enables or disables recording of frame times into the {@link FrameTimeHistogram}s
+     * {@link #getFrameTimes()}, {@link #getDisplayTimes()} and {@link #getSwapBufferTimes()}.
+     * <p>
+     * Frame time recording is independent of {@link FPSCounter#setUpdateFPSFrames(int, java.io.PrintStream)}
+     * and initially disabled. Enabling it resets the histograms.
+     * </p>
+     */
+    void setFrameTimeStats(boolean enable);
+
+    /**
+     * @return true if frame time recording is enabled
+     *
+     * @see #setFrameTimeStats(boolean)
+     */
+    boolean getFrameTimeStats();
+
+    /**
+     * Returns the {@link FrameTimeHistogram} of frame periods, i.e. the time between two subsequent frames.
+     * <p>
+     * The histogram may be {@link FrameTimeHistogram#snapshot(FrameTimeHistogram.Snapshot) snapshot} at any time
+     * from any thread w/o pausing rendering. It is reset via {@link FPSCounter#resetFPSCounter()}.
+     * </p>
+     *
+     * @see #setFrameTimeStats(boolean)
+     */
+    FrameTimeHistogram getFrameTimes();
+
+    /**
+     * Returns the {@link FrameTimeHistogram} of the duration of each frame's rendering,
+     * i.e. the {@link GLAutoDrawable#display()} action running the {@link GLEventListener}'s <code>display</code> calls
+     * as well as pending <code>init</code> and <code>reshape</code> calls and {@link GLAutoDrawable#invoke(boolean, GLRunnable) GLRunnable}s,
+     * excluding {@link GLDrawable#swapBuffers()}.
+     * <p>
+     * Other actions performed with the context made current, e.g. the initialization of a new context
+     * or disposing {@link GLEventListener}s, are not recorded.
+     * </p>
+     * <p>
+     * An animator records the duration of displaying all its {@link GLAutoDrawable}s,
+     * which includes their {@link GLDrawable#swapBuffers()}.
+     * </p>
+     *
+     * @see #setFrameTimeStats(boolean)
+     * @see #getFrameTimes()
+     */
+    FrameTimeHistogram getDisplayTimes();
+
+    /**
+     * Returns the {@link FrameTimeHistogram} of the duration of {@link GLDrawable#swapBuffers()} per frame,
+     * if performed automatically, see {@link GLAutoDrawable#setAutoSwapBufferMode(boolean)}.
+     * <p>
+     * An animator does not record any values here.
+     * </p>
+     *
+     * @see #setFrameTimeStats(boolean)
+     * @see #getFrameTimes()
+     */
+    FrameTimeHistogram getSwapBufferTimes();
+}
@@ -55,6 +55,8 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
 import java.beans.Beans;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.util.List;
 
@@ -106,11 +108,13 @@ import com.jogamp.common.util.locks.RecursiveLock;
 import com.jogamp.nativewindow.awt.AWTPrintLifecycle;
 import com.jogamp.nativewindow.awt.AWTWindowClosingProtocol;
 import com.jogamp.opengl.FBObject;
+import com.jogamp.opengl.FrameTimeHistogram;
 import com.jogamp.opengl.GLRendererQuirks;
 import com.jogamp.opengl.util.GLPixelBuffer.GLPixelAttributes;
 import com.jogamp.opengl.util.GLPixelBuffer.SingletonGLPixelBufferProvider;
 import com.jogamp.opengl.util.GLDrawableUtil;
 import com.jogamp.opengl.util.GLPixelStorageModes;
+import com.jogamp.opengl.util.GLReadBufferUtil;
 import com.jogamp.opengl.util.TileRenderer;
 import com.jogamp.opengl.util.awt.AWTGLPixelBuffer;
 import com.jogamp.opengl.util.awt.AWTGLPixelBuffer.AWTGLPixelBufferProvider;
@@ -177,6 +181,19 @@ import com.jogamp.opengl.util.texture.TextureState;
     We may change this behavior in the future, i.e. preserve all influencing states.
     </p>
     <p>
+    <a name="pipelinedReadback"><h5>Pipelined and Dirty Region Readback</h5></a>
+    The offscreen backend reads back each frame synchronously via {@link GL#glReadPixels(int, int, int, int, int, int, java.nio.Buffer) glReadPixels(..)} by default.
+    {@link #setPipelinedReadback(boolean) Pipelined readback} uses two pixel pack buffer objects instead,
+    i.e. frame N is transferred while frame N+1 renders and the displayed image lags one frame behind.
+    It can also be enabled via system property <code>jogl.gljpanel.pipelinedreadback</code>.
+    </p>
+    <p>
+    If only a part of the scene was redrawn, the readback of the frame can be limited to it via {@link #addReadbackDirtyRegion(Rectangle)}.
+    </p>
+    <p>
+    Readback FPS and latency may be compared via {@link #setReadbackStats(boolean)}.
+    </p>
+    <p>
     <a name="contextSharing"><h5>OpenGL Context Sharing</h5></a>
     To share a {@link GLContext} see the following note in the documentation overview:
     <a href="../../../../overview-summary.html#SHARING">context sharing</a>
@@ -191,6 +208,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
   private static final boolean DEBUG_VIEWPORT;
   private static final boolean USE_GLSL_TEXTURE_RASTERIZER;
   private static final boolean SKIP_VERTICAL_FLIP_DEFAULT;
+  private static final boolean PIPELINED_READBACK_DEFAULT;
 
   /** Indicates whether the Java 2D OpenGL pipeline is requested by user. */
   private static final boolean java2dOGLEnabledByProp;
@@ -208,6 +226,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
       DEBUG_VIEWPORT = PropertyAccess.isPropertyDefined("jogl.debug.GLJPanel.Viewport", true);
       USE_GLSL_TEXTURE_RASTERIZER = !PropertyAccess.isPropertyDefined("jogl.gljpanel.noglsl", true);
       SKIP_VERTICAL_FLIP_DEFAULT = PropertyAccess.isPropertyDefined("jogl.gljpanel.noverticalflip", true);
+      PIPELINED_READBACK_DEFAULT = PropertyAccess.isPropertyDefined("jogl.gljpanel.pipelinedreadback", true);
       boolean enabled = PropertyAccess.getBooleanProperty("sun.java2d.opengl", false);
       java2dOGLEnabledByProp = enabled && !PropertyAccess.isPropertyDefined("jogl.gljpanel.noogl", true);
 
@@ -228,6 +247,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
           System.err.println("GLJPanel: DEBUG_VIEWPORT "+DEBUG_VIEWPORT);
           System.err.println("GLJPanel: USE_GLSL_TEXTURE_RASTERIZER "+USE_GLSL_TEXTURE_RASTERIZER);
           System.err.println("GLJPanel: SKIP_VERTICAL_FLIP_DEFAULT "+SKIP_VERTICAL_FLIP_DEFAULT);
+          System.err.println("GLJPanel: PIPELINED_READBACK_DEFAULT "+PIPELINED_READBACK_DEFAULT);
           System.err.println("GLJPanel: java2dOGLEnabledByProp "+java2dOGLEnabledByProp);
           System.err.println("GLJPanel: useJava2DGLPipeline "+useJava2DGLPipeline);
           System.err.println("GLJPanel: java2DGLPipelineOK "+java2DGLPipelineOK);
@@ -290,6 +310,15 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
 
   private boolean skipGLOrientationVerticalFlip = SKIP_VERTICAL_FLIP_DEFAULT;
 
+  // Readback of the offscreen backend, see setPipelinedReadback(..), addReadbackDirtyRegion(..) and setReadbackStats(..)
+  private volatile boolean pipelinedReadback = PIPELINED_READBACK_DEFAULT;
+  private final Object readbackDirtyRegionLock = new Object();
+  private Rectangle readbackDirtyRegion = null;
+  private volatile boolean readbackStats = false;
+  private final FrameTimeHistogram readbackFramePeriods = new FrameTimeHistogram();
+  private final FrameTimeHistogram readbackTimes = new FrameTimeHistogram();
+  private final FrameTimeHistogram readbackLatencies = new FrameTimeHistogram();
+
   // Used by all backends either directly or indirectly to hook up callbacks
   private final Updater updater = new Updater();
 
@@ -1227,6 +1256,110 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
       return skipGLOrientationVerticalFlip;
   }
 
+  /**
+   * Enables or disables <a href="#pipelinedReadback">pipelined readback</a> of the offscreen backend.
+   * <p>
+   * If enabled, the rendered frame is transferred into one of two pixel pack buffer objects (PBO)
+   * w/o waiting for its completion, while the previous frame's PBO is mapped and copied into the {@link BufferedImage}.
+   * Hence the displayed image lags one frame behind the rendered scene,
+   * while the GPU transfer overlaps w/ rendering of the next frame.
+   * The first frame after a reshape is read back synchronously.
+   * In case the <a href="#verticalFlip">vertical flip</a> is performed on the CPU,
+   * it is merged w/ copying the mapped PBO.
+   * </p>
+   * <p>
+   * Pipelined readback requires {@link GLReadBufferUtil#isAsyncReadbackAvailable(GL) PBO support},
+   * otherwise the synchronous readback is used. It has no effect if the Java2D OpenGL pipeline is used.
+   * </p>
+   * <p>
+   * May be changed at any time, default is <code>false</code>
+   * unless system property <code>jogl.gljpanel.pipelinedreadback</code> is set.
+   * </p>
+   */
+  public final void setPipelinedReadback(final boolean v) {
+      pipelinedReadback = v;
+  }
+  /** See {@link #setPipelinedReadback(boolean)}. */
+  public final boolean isPipelinedReadback() {
+      return pipelinedReadback;
+  }
+
+  /**
+   * Adds the given region to the dirty region of the next readback of the offscreen backend,
+   * i.e. only the union of all added regions is read back for the next frame
+   * and the remaining content of the {@link BufferedImage} is kept.
+   * <p>
+   * The region is given in pixel units, see {@link #getSurfaceWidth()}, and AWT orientation, i.e. top-left origin.
+   * It shall be added within {@link GLEventListener#display(GLAutoDrawable)} of the frame which partially redraws the scene.
+   * The dirty region is reset after each readback, i.e. the following frames are read back completely again.
+   * </p>
+   * <p>
+   * The dirty region is ignored and the whole frame is read back if the
+   * previous content is unknown, e.g. after a reshape or if the {@link BufferedImage} is shared
+   * w/ other instances via the default singleton {@link AWTGLPixelBufferProvider}, see {@link #setPixelBufferProvider(AWTGLPixelBufferProvider)}.
+   * It also requires {@link GL#isGL2ES3() GL2ES3}.
+   * </p>
+   */
+  public final void addReadbackDirtyRegion(final Rectangle region) {
+      synchronized( readbackDirtyRegionLock ) {
+          if( null == readbackDirtyRegion ) {
+              readbackDirtyRegion = new Rectangle(region);
+          } else {
+              readbackDirtyRegion.add(region);
+          }
+      }
+  }
+  private Rectangle getAndClearReadbackDirtyRegion() {
+      synchronized( readbackDirtyRegionLock ) {
+          final Rectangle r = readbackDirtyRegion;
+          readbackDirtyRegion = null;
+          return r;
+      }
+  }
+
+  /**
+   * Enables or disables recording of the offscreen backend's readback statistics,
+   * see {@link #getReadbackFramePeriods()}, {@link #getReadbackTimes()} and {@link #getReadbackLatencies()}.
+   * <p>
+   * Enabling resets all readback statistics. Default is <code>false</code>.
+   * </p>
+   */
+  public final void setReadbackStats(final boolean enable) {
+      if( enable && !readbackStats ) {
+          readbackFramePeriods.reset();
+          readbackTimes.reset();
+          readbackLatencies.reset();
+      }
+      readbackStats = enable;
+  }
+  /** See {@link #setReadbackStats(boolean)}. */
+  public final boolean getReadbackStats() {
+      return readbackStats;
+  }
+  /**
+   * Returns the periods between the readback of two consecutive frames, its mean denotes the readback frame rate.
+   * See {@link #setReadbackStats(boolean)}.
+   */
+  public final FrameTimeHistogram getReadbackFramePeriods() {
+      return readbackFramePeriods;
+  }
+  /**
+   * Returns the durations blocking the rendering thread for readback per frame,
+   * including the <a href="#verticalFlip">vertical flip</a> and copying into the {@link BufferedImage}.
+   * See {@link #setReadbackStats(boolean)}.
+   */
+  public final FrameTimeHistogram getReadbackTimes() {
+      return readbackTimes;
+  }
+  /**
+   * Returns the durations from issuing a frame's readback until its content is available in the {@link BufferedImage},
+   * which includes one frame period if using {@link #setPipelinedReadback(boolean) pipelined readback}.
+   * See {@link #setReadbackStats(boolean)}.
+   */
+  public final FrameTimeHistogram getReadbackLatencies() {
+      return readbackLatencies;
+  }
+
   @Override
   public GLCapabilitiesImmutable getChosenGLCapabilities() {
     final Backend b = backend;
@@ -1650,6 +1783,16 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
   // Base class used by both the software (pixmap) and pbuffer
   // backends, both of which rely on reading back the OpenGL frame
   // buffer and drawing it with a BufferedImage
+  /** Pixel pack buffer object of the {@link #setPipelinedReadback(boolean) pipelined readback} w/ its pending frame's region. */
+  private static class ReadbackPBO {
+    int name;
+    int size;
+    boolean pending;
+    // read region in GL orientation
+    int x, y, width, height;
+    long issueTime;
+  }
+
   class OffscreenBackend implements Backend {
     private final AWTGLPixelBufferProvider pixelBufferProvider;
     private final boolean useSingletonBuffer;
@@ -1673,6 +1816,15 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
     // For saving/restoring of OpenGL state during ReadPixels
     private final GLPixelStorageModes psm =  new GLPixelStorageModes();
 
+    // Pipelined readback, see setPipelinedReadback(..)
+    private ReadbackPBO[] readbackPBOs = null;
+    private int readbackPBOIdx = 0;
+    /** True if the content of alignedImage is unknown, i.e. the next frame must be read back completely w/o latency */
+    private boolean readbackReset = true;
+    private int readbackWidth = 0, readbackHeight = 0;
+    private boolean readbackCPUFlip = false;
+    private long lastReadbackTime = 0;
+
     OffscreenBackend(final AWTGLPixelBufferProvider custom) {
         if(null == custom) {
             pixelBufferProvider = getSingleAWTGLPixelBufferProvider();
@@ -1812,6 +1964,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
                 if(null != fboFlipped) {
                     fboFlipped.destroy(gl);
                 }
+                disposeReadbackPBOs(gl);
             } finally {
                 offscreenContext.destroy();
             }
@@ -1821,6 +1974,9 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
       glslTextureRaster = null;
       fboFlipped = null;
       offscreenContext = null;
+      readbackPBOs = null;
+      readbackReset = true;
+      lastReadbackTime = 0;
 
       if (offscreenDrawable != null) {
         final AbstractGraphicsDevice adevice = offscreenDrawable.getNativeSurface().getGraphicsConfiguration().getScreen().getDevice();
@@ -1943,6 +2099,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
               return;
           }
           pixelBuffer = pixelBufferProvider.allocate(gl, awtPixelFormat.comp, pixelAttribs, true, panelWidth, panelHeight, 1, 0);
+          readbackReset = true;
           if(DEBUG) {
               System.err.println(getThreadName()+": GLJPanel.OffscreenBackend.postGL.0: "+GLJPanel.this.getName()+" pixelBufferProvider isSingletonBufferProvider "+useSingletonBuffer+", 0x"+Integer.toHexString(pixelBufferProvider.hashCode())+", "+pixelBufferProvider.getClass().getSimpleName());
               System.err.println(getThreadName()+": GLJPanel.OffscreenBackend.postGL.0: "+GLJPanel.this.getName()+" pixelBuffer 0x"+Integer.toHexString(pixelBuffer.hashCode())+", "+pixelBuffer+", alignment "+alignment);
@@ -1964,6 +2121,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
             panelWidth != alignedImage.getWidth() || panelHeight != alignedImage.getHeight() ||
             !pixelBuffer.isDataBufferSource(alignedImage) ) {
             alignedImage = pixelBuffer.getAlignedImage(panelWidth, panelHeight);
+            readbackReset = true;
             if(DEBUG) {
                 System.err.println(getThreadName()+": GLJPanel.OffscreenBackend.postGL.0: "+GLJPanel.this.getName()+" new alignedImage "+alignedImage.getWidth()+"x"+alignedImage.getHeight()+" @ scale "+getPixelScaleStr()+", "+alignedImage+", pixelBuffer "+pixelBuffer.width+"x"+pixelBuffer.height+", "+pixelBuffer);
             }
@@ -1983,6 +2141,37 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
         if( DEBUG_FRAMES ) {
             System.err.println(getThreadName()+": GLJPanel.OffscreenBackend.postGL.readPixels: - frameCount "+frameCount);
         }
+        final long readbackT0 = System.nanoTime();
+        final boolean cpuFlip = flipVertical && null == glslTextureRaster;
+        if( readbackWidth != panelWidth || readbackHeight != panelHeight || readbackCPUFlip != cpuFlip ) {
+            readbackWidth = panelWidth;
+            readbackHeight = panelHeight;
+            readbackCPUFlip = cpuFlip;
+            readbackReset = true;
+        }
+        final boolean pipelined = pipelinedReadback && GLReadBufferUtil.isAsyncReadbackAvailable(gl);
+        if( pipelined ) {
+            if( null == readbackPBOs ) {
+                final int[] names = new int[2];
+                gl.glGenBuffers(2, names, 0);
+                readbackPBOs = new ReadbackPBO[] { new ReadbackPBO(), new ReadbackPBO() };
+                readbackPBOs[0].name = names[0];
+                readbackPBOs[1].name = names[1];
+                readbackPBOIdx = 0;
+                readbackReset = true;
+            }
+        } else if( null != readbackPBOs ) {
+            disposeReadbackPBOs(gl); // drops a pending frame
+        }
+        final Rectangle readRegion;
+        {
+            final Rectangle dirty = getAndClearReadbackDirtyRegion();
+            if( null != dirty && !readbackReset && !useSingletonBuffer && gl.isGL2ES3() ) {
+                readRegion = dirty.intersection(new Rectangle(0, 0, panelWidth, panelHeight));
+            } else {
+                readRegion = new Rectangle(0, 0, panelWidth, panelHeight);
+            }
+        }
 
         // Save PACK modes, reset them to defaults and set alignment
         psm.setPackAlignment(gl, alignment);
@@ -2034,7 +2223,7 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
               System.err.println(getThreadName()+": GLJPanel.OffscreenBackend.postGL.0.1: bound-readFBO  0x"+Integer.toHexString(gl.getBoundFramebuffer(GL.GL_READ_FRAMEBUFFER)));
               System.err.println(getThreadName()+": GLJPanel.OffscreenBackend.postGL.0.1: "+GLJPanel.this.getName()+" pixelAttribs "+pixelAttribs);
             }
-            gl.glReadPixels(0, 0, panelWidth, panelHeight, pixelAttribs.format, pixelAttribs.type, readBackInts);
+            readPixels(gl, pixelAttribs, readBackInts, false, pipelined, readRegion);
 
             fboFlipped.unbind(gl);
             if( DEBUG_INIT ) {
@@ -2049,24 +2238,9 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
                 gl.glViewport(usrViewport[0], usrViewport[1], usrViewport[2], usrViewport[3]);
             }
         } else {
-            gl.glReadPixels(0, 0, panelWidth, panelHeight, pixelAttribs.format, pixelAttribs.type, readBackInts);
-
-            if ( flipVertical ) {
-                // Copy temporary data into raster of BufferedImage for faster
-                // blitting Note that we could avoid this copy in the cases
-                // where !offscreenDrawable.isGLOriented(),
-                // but that's the software rendering path which is very slow anyway.
-                final BufferedImage image = alignedImage;
-                final int[] src = readBackInts.array();
-                final int[] dest = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
-                final int incr = panelWidth;
-                int srcPos = 0;
-                int destPos = (panelHeight - 1) * panelWidth;
-                for (; destPos >= 0; srcPos += incr, destPos -= incr) {
-                  System.arraycopy(src, srcPos, dest, destPos, incr);
-                }
-            }
+            readPixels(gl, pixelAttribs, readBackInts, cpuFlip, pipelined, readRegion);
         }
+        readbackReset = false;
         if( 0 != fboTexUnit ) { // implies offscreenIsFBO
             fboTexState.restore(gl);
             if( fboTexUnit != usrTexState.getUnit() ) {
@@ -2077,11 +2251,132 @@ public class GLJPanel extends JPanel implements AWTGLAutoDrawable, WindowClosing
         // Restore saved modes.
         psm.restore(gl);
 
+        if( readbackStats ) {
+            final long t1 = System.nanoTime();
+            readbackTimes.record(t1 - readbackT0);
+            if( 0 != lastReadbackTime ) {
+                readbackFramePeriods.record(readbackT0 - lastReadbackTime);
+            }
+            lastReadbackTime = readbackT0;
+        } else {
+            lastReadbackTime = 0;
+        }
+
         // Note: image will be drawn back in paintComponent() for
         // correctness on all platforms
       }
     }
 
+    /**
+     * Reads back the given region of the bound read framebuffer into {@link #alignedImage},
+     * either synchronously or via the {@link #setPipelinedReadback(boolean) pipelined} PBOs.
+     * @param readBackInts the image's buffer, or the temporary buffer for the vertical flip on the CPU
+     * @param cpuFlip if true, the framebuffer is in GL orientation and flipped on the CPU
+     * @param region region in AWT orientation
+     */
+    private void readPixels(final GL gl, final GLPixelAttributes pixelAttribs, final IntBuffer readBackInts,
+                            final boolean cpuFlip, final boolean pipelined, final Rectangle region) {
+        final int x = region.x;
+        final int y = cpuFlip ? panelHeight - region.y - region.height : region.y;
+        final int width = region.width;
+        final int height = region.height;
+        if( 0 >= width || 0 >= height ) {
+            return;
+        }
+        // pack row length is panelWidth, hence a region is read at its full frame offset
+        final int offset = y * panelWidth + x;
+        if( pipelined ) {
+            final ReadbackPBO cur = readbackPBOs[readbackPBOIdx];
+            final ReadbackPBO prev = readbackPBOs[readbackPBOIdx ^ 1];
+            readbackPBOIdx ^= 1;
+            final int size = panelWidth * panelHeight * 4;
+            gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, cur.name);
+            try {
+                if( cur.size != size ) {
+                    gl.glBufferData(GL2ES3.GL_PIXEL_PACK_BUFFER, size, null, GL2ES3.GL_STREAM_READ);
+                    cur.size = size;
+                }
+                gl.glReadPixels(x, y, width, height, pixelAttribs.format, pixelAttribs.type, 4L * offset);
+            } finally {
+                gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, 0);
+            }
+            cur.x = x;
+            cur.y = y;
+            cur.width = width;
+            cur.height = height;
+            cur.issueTime = System.nanoTime();
+            cur.pending = true;
+            if( readbackReset ) {
+                // previous frame is obsolete, deliver current frame w/o latency
+                prev.pending = false;
+                deliverReadbackPBO(gl, cur, cpuFlip);
+            } else if( prev.pending ) {
+                deliverReadbackPBO(gl, prev, cpuFlip);
+            }
+        } else {
+            final long t0 = System.nanoTime();
+            readBackInts.position(offset);
+            gl.glReadPixels(x, y, width, height, pixelAttribs.format, pixelAttribs.type, readBackInts);
+            readBackInts.position(0);
+            if ( cpuFlip ) {
+                // Copy temporary data into raster of BufferedImage for faster
+                // blitting Note that we could avoid this copy in the cases
+                // where !offscreenDrawable.isGLOriented(),
+                // but that's the software rendering path which is very slow anyway.
+                final int[] src = readBackInts.array();
+                final int[] dest = ((DataBufferInt) alignedImage.getRaster().getDataBuffer()).getData();
+                for(int row = y; row < y + height; row++) {
+                    final int srcPos = row * panelWidth + x;
+                    System.arraycopy(src, srcPos, dest, (panelHeight - 1 - row) * panelWidth + x, width);
+                }
+            }
+            if( readbackStats ) {
+                readbackLatencies.record(System.nanoTime() - t0);
+            }
+        }
+    }
+
+    /** Maps the given PBO and copies its region into {@link #alignedImage}, performing the vertical flip if requested. */
+    private void deliverReadbackPBO(final GL gl, final ReadbackPBO pbo, final boolean cpuFlip) {
+        pbo.pending = false;
+        final int[] dest = ((DataBufferInt) alignedImage.getRaster().getDataBuffer()).getData();
+        boolean mapped = false;
+        gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, pbo.name);
+        try {
+            final ByteBuffer src = gl.glMapBufferRange(GL2ES3.GL_PIXEL_PACK_BUFFER, 0, pbo.size, GL.GL_MAP_READ_BIT);
+            if( null != src ) {
+                mapped = true;
+                final IntBuffer srcInts = src.order(ByteOrder.nativeOrder()).asIntBuffer();
+                if( !cpuFlip && pbo.width == panelWidth ) {
+                    srcInts.position(pbo.y * panelWidth);
+                    srcInts.get(dest, pbo.y * panelWidth, pbo.height * panelWidth);
+                } else {
+                    for(int row = pbo.y; row < pbo.y + pbo.height; row++) {
+                        final int destRow = cpuFlip ? panelHeight - 1 - row : row;
+                        srcInts.position(row * panelWidth + pbo.x);
+                        srcInts.get(dest, destRow * panelWidth + pbo.x, pbo.width);
+                    }
+                }
+            }
+        } finally {
+            if( mapped ) {
+                gl.glUnmapBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER);
+            }
+            gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, 0);
+        }
+        if( readbackStats ) {
+            readbackLatencies.record(System.nanoTime() - pbo.issueTime);
+        }
+    }
+
+    private void disposeReadbackPBOs(final GL gl) {
+        if( null != readbackPBOs ) {
+            gl.glDeleteBuffers(2, new int[] { readbackPBOs[0].name, readbackPBOs[1].name }, 0);
+            readbackPBOs = null;
+            readbackReset = true;
+        }
+    }
+
     @Override
     public final int getTextureUnit() {
         if(null != glslTextureRaster && null != offscreenDrawable) { // implies flippedVertical
@@ -35,6 +35,8 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Locale;
 
+import com.jogamp.opengl.FrameTimeHistogram;
+import com.jogamp.opengl.FrameTimeStats;
 import com.jogamp.opengl.GLAnimatorControl;
 import com.jogamp.opengl.GLAutoDrawable;
 import com.jogamp.opengl.GLException;
@@ -52,7 +54,7 @@ import com.jogamp.common.util.InterruptedRuntimeException;
  * as they are not expected to be called at every frame.
  * </p>
  */
-public abstract class AnimatorBase implements GLAnimatorControl {
+public abstract class AnimatorBase implements GLAnimatorControl, FrameTimeStats {
     protected static final boolean DEBUG = Debug.debug("Animator");
 
     /** A 1s timeout while waiting for a native action response, limiting {@link #finishLifecycleAction(Condition, long)} */
@@ -450,7 +452,13 @@ public abstract class AnimatorBase implements GLAnimatorControl {
         components this Animator manages, in particular when multiple
         lightweight widgets are continually being redrawn. */
     protected final void display() throws UncaughtAnimatorException {
-        impl.display(drawables, ignoreExceptions, printExceptions);
+        if( fpsCounter.getFrameTimeStats() ) {
+            final long t0 = System.nanoTime();
+            impl.display(drawables, ignoreExceptions, printExceptions);
+            fpsCounter.recordDisplayTime(System.nanoTime() - t0);
+        } else {
+            impl.display(drawables, ignoreExceptions, printExceptions);
+        }
         fpsCounter.tickFPS();
     }
 
@@ -504,6 +512,31 @@ public abstract class AnimatorBase implements GLAnimatorControl {
         return fpsCounter.getTotalFPS();
     }
 
+    @Override
+    public final void setFrameTimeStats(final boolean enable) {
+        fpsCounter.setFrameTimeStats(enable);
+    }
+
+    @Override
+    public final boolean getFrameTimeStats() {
+        return fpsCounter.getFrameTimeStats();
+    }
+
+    @Override
+    public final FrameTimeHistogram getFrameTimes() {
+        return fpsCounter.getFrameTimes();
+    }
+
+    @Override
+    public final FrameTimeHistogram getDisplayTimes() {
+        return fpsCounter.getDisplayTimes();
+    }
+
+    @Override
+    public final FrameTimeHistogram getSwapBufferTimes() {
+        return fpsCounter.getSwapBufferTimes();
+    }
+
     /** Sets a flag causing this Animator to ignore exceptions produced
     while redrawing the drawables. By default this flag is set to
     false, causing any exception thrown to halt the Animator. */
@@ -39,6 +39,7 @@ import com.jogamp.opengl.GL;
 import com.jogamp.opengl.GLException;
 import com.jogamp.opengl.fixedfunc.GLPointerFuncUtil;
 
+import jogamp.opengl.util.DirectBufferCleaner;
 import jogamp.opengl.util.GLArrayHandler;
 import jogamp.opengl.util.GLFixedArrayHandler;
 import jogamp.opengl.util.glsl.GLSLArrayHandler;
@@ -49,6 +50,12 @@ import com.jogamp.opengl.util.glsl.ShaderState;
 
 public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayDataEditable {
 
+  /**
+   * Default {@link #setGrowthFactor(float) growth factor}, {@value},
+   * i.e. the buffer capacity grows by at least 50% if exceeded.
+   */
+  public static final float DEFAULT_GROWTH_FACTOR = 1.5f;
+
   /**
    * Create a client side buffer object, using a predefined fixed function array index
    * and starting with a new created Buffer object with initialElementCount size
@@ -184,6 +191,10 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
   @Override
   public void destroy(final GL gl) {
     reset(gl);
+    if( null != bufferStorage && !bufferExposed ) {
+        DirectBufferCleaner.clean(bufferStorage);
+    }
+    bufferStorage = null;
     super.destroy(gl);
   }
 
@@ -227,6 +238,24 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
     enableBufferAlways = always;
   }
 
+  /**
+   * Sets the growth factor applied to the buffer capacity if exceeded, defaults to {@link #DEFAULT_GROWTH_FACTOR}.
+   * <p>
+   * A factor greater than 1 grows the buffer geometrically, i.e. filling it incrementally takes amortized constant time per component.
+   * A factor of 1 grows it linearly by at least the <code>initialElementCount</code> given at creation.
+   * </p>
+   * @throws IllegalArgumentException if the factor is less than 1
+   */
+  public final void setGrowthFactor(final float v) {
+    if( !( v >= 1f ) ) {
+        throw new IllegalArgumentException("Growth factor "+v+" < 1");
+    }
+    growthFactor = v;
+  }
+
+  /** Returns the growth factor, see {@link #setGrowthFactor(float)}. */
+  public final float getGrowthFactor() { return growthFactor; }
+
   //
   // Data modification ..
   //
@@ -321,7 +350,110 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
   public void putf(final float v) {
     if ( sealed ) return;
     growBufferIfNecessary(1);
-    Buffers.putf(buffer, v);
+    if( FloatBuffer.class == componentClazz ) {
+        ((FloatBuffer)buffer).put(v);
+    } else {
+        Buffers.putf(buffer, v);
+    }
+  }
+
+  /**
+   * Relative bulk put of <code>length</code> components from the given array,
+   * growing the buffer at most once.
+   * <p>
+   * The buffer class must be {@link ByteBuffer}.
+   * </p>
+   */
+  public final void put(final byte[] src, final int offset, final int length) {
+    if ( sealed ) return;
+    checkBufferClass(ByteBuffer.class);
+    growBufferIfNecessary(length);
+    ((ByteBuffer)buffer).put(src, offset, length);
+  }
+
+  /**
+   * Relative bulk put of <code>length</code> components from the given array,
+   * growing the buffer at most once.
+   * <p>
+   * The buffer class must be {@link ShortBuffer}.
+   * </p>
+   */
+  public final void put(final short[] src, final int offset, final int length) {
+    if ( sealed ) return;
+    checkBufferClass(ShortBuffer.class);
+    growBufferIfNecessary(length);
+    ((ShortBuffer)buffer).put(src, offset, length);
+  }
+
+  /**
+   * Relative bulk put of <code>length</code> components from the given array,
+   * growing the buffer at most once.
+   * <p>
+   * The buffer class must be {@link IntBuffer}.
+   * </p>
+   */
+  public final void put(final int[] src, final int offset, final int length) {
+    if ( sealed ) return;
+    checkBufferClass(IntBuffer.class);
+    growBufferIfNecessary(length);
+    ((IntBuffer)buffer).put(src, offset, length);
+  }
+
+  /**
+   * Relative bulk put of <code>length</code> components from the given array,
+   * growing the buffer at most once.
+   * <p>
+   * The buffer class must be {@link FloatBuffer}.
+   * </p>
+   */
+  public final void put(final float[] src, final int offset, final int length) {
+    if ( sealed ) return;
+    checkBufferClass(FloatBuffer.class);
+    growBufferIfNecessary(length);
+    ((FloatBuffer)buffer).put(src, offset, length);
+  }
+
+  /**
+   * Relative bulk put of <code>elementCount</code> elements, each of {@link #getComponentCount()} components,
+   * from the given array starting at element <code>elementOffset</code>, growing the buffer at most once.
+   * <p>
+   * The buffer class must be {@link FloatBuffer} and this array must not be interleaved.
+   * </p>
+   */
+  public final void putElements(final float[] src, final int elementOffset, final int elementCount) {
+    if( strideL != componentsPerElement ) {
+        throw new GLException("Interleaved array not supported: "+this);
+    }
+    put(src, elementOffset * componentsPerElement, elementCount * componentsPerElement);
+  }
+
+  /**
+   * Grows the buffer once if its capacity is less than the given total number of elements,
+   * allowing them to be put without further growth.
+   * <p>
+   * Does nothing if {@link #sealed()}, since put operations are ignored in that state.
+   * </p>
+   * @param elementCount total number of elements
+   * @return true if the buffer has been grown, otherwise false
+   * @see #growIfNeeded(int)
+   */
+  public final boolean reserve(final int elementCount) {
+    final int position = null != buffer ? buffer.position() : 0;
+    return growIfNeeded(elementCount * strideL - position);
+  }
+
+  /**
+   * Grows the buffer once if it has less than the given number of remaining components,
+   * allowing a known amount of data to be put without incremental growth.
+   * <p>
+   * Does nothing if {@link #sealed()}, since put operations are ignored in that state.
+   * </p>
+   * @param spareComponents number of components to be put
+   * @return true if the buffer has been grown, otherwise false
+   */
+  public final boolean growIfNeeded(final int spareComponents) {
+    if ( sealed ) return false;
+    return growBufferIfNecessary(spareComponents);
   }
 
   @Override
@@ -347,8 +479,27 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
                        "]";
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned buffer stays valid after this array has grown,
+   * i.e. it is no longer released by {@link #growBuffer(int)}.
+   * </p>
+   */
+  @Override
+  public Buffer getBuffer() {
+    bufferExposed = true;
+    return buffer;
+  }
+
   // non public matters
 
+  private void checkBufferClass(final Class<?> clazz) {
+    if( clazz != componentClazz ) {
+        throw new GLException("Given Buffer Class "+clazz+" doesn't match "+componentClazz+":\n\t"+this);
+    }
+  }
+
   protected final boolean growBufferIfNecessary(final int spareComponents) {
     if( buffer==null || buffer.remaining()<spareComponents ) {
         if( 0 != mappedElementCount ) {
@@ -356,12 +507,21 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
                                   "mappedElementCount "+mappedElementCount+
                                   ", has mapped buffer "+buffer+"; "+this);
         }
-        growBuffer(Math.max(initialElementCount, (spareComponents+componentsPerElement-1)/componentsPerElement));
+        final int remaining = null != buffer ? buffer.remaining() : 0;
+        growBuffer(Math.max(initialElementCount, (spareComponents-remaining+componentsPerElement-1)/componentsPerElement));
         return true;
     }
     return false;
   }
 
+  /**
+   * Grows the buffer by at least the given number of elements,
+   * or geometrically by the {@link #setGrowthFactor(float) growth factor} if larger.
+   * <p>
+   * The previous buffer is released immediately if it has been allocated by this instance
+   * and has not been exposed via {@link #getBuffer()}.
+   * </p>
+   */
   protected final void growBuffer(int additionalElements) {
     if(!alive || sealed) {
        throw new GLException("Invalid state: "+this);
@@ -371,43 +531,43 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
     additionalElements += (additionalElements/componentsPerElement)*(strideL-componentsPerElement);
 
     final int osize = (buffer!=null) ? buffer.capacity() : 0;
-    final int nsize = osize + ( additionalElements * componentsPerElement );
+    final long gsize = (long) ( osize * (double)growthFactor );
+    final int nsize = Math.max( osize + ( additionalElements * componentsPerElement ),
+                                (int) Math.min( Integer.MAX_VALUE - 8, gsize - gsize % componentsPerElement ) );
     final Buffer oldBuffer = buffer;
+    final ByteBuffer oldStorage = bufferStorage;
+    final boolean releaseOld = null != oldStorage && !bufferExposed;
 
+    final ByteBuffer storage;
+    final Buffer newBuffer;
     if(componentClazz==ByteBuffer.class) {
-        final ByteBuffer newBBuffer = Buffers.newDirectByteBuffer( nsize );
-        if(buffer!=null) {
-            buffer.flip();
-            newBBuffer.put((ByteBuffer)buffer);
-        }
-        buffer = newBBuffer;
+        storage = Buffers.newDirectByteBuffer( nsize );
+        newBuffer = storage;
     } else if(componentClazz==ShortBuffer.class) {
-        final ShortBuffer newSBuffer = Buffers.newDirectShortBuffer( nsize );
-        if(buffer!=null) {
-            buffer.flip();
-            newSBuffer.put((ShortBuffer)buffer);
-        }
-        buffer = newSBuffer;
+        storage = Buffers.newDirectByteBuffer( nsize * Buffers.SIZEOF_SHORT );
+        newBuffer = storage.asShortBuffer();
     } else if(componentClazz==IntBuffer.class) {
-        final IntBuffer newIBuffer = Buffers.newDirectIntBuffer( nsize );
-        if(buffer!=null) {
-            buffer.flip();
-            newIBuffer.put((IntBuffer)buffer);
-        }
-        buffer = newIBuffer;
+        storage = Buffers.newDirectByteBuffer( nsize * Buffers.SIZEOF_INT );
+        newBuffer = storage.asIntBuffer();
     } else if(componentClazz==FloatBuffer.class) {
-        final FloatBuffer newFBuffer = Buffers.newDirectFloatBuffer( nsize );
-        if(buffer!=null) {
-            buffer.flip();
-            newFBuffer.put((FloatBuffer)buffer);
-        }
-        buffer = newFBuffer;
+        storage = Buffers.newDirectByteBuffer( nsize * Buffers.SIZEOF_FLOAT );
+        newBuffer = storage.asFloatBuffer();
     } else {
         throw new GLException("Given Buffer Class not supported: "+componentClazz+":\n\t"+this);
     }
+    if(buffer!=null) {
+        buffer.flip();
+        Buffers.put(newBuffer, buffer);
+    }
+    buffer = newBuffer;
+    bufferStorage = storage;
+    bufferExposed = false;
+    if( releaseOld ) {
+        DirectBufferCleaner.clean(oldStorage);
+    }
     if(DEBUG) {
         System.err.println("*** Grow: comps: "+componentsPerElement+", "+(osize/componentsPerElement)+"/"+osize+" -> "+(nsize/componentsPerElement)+"/"+nsize+
-                           "; "+oldBuffer+" -> "+buffer+"; "+this);
+                           ", released "+releaseOld+"; "+oldBuffer+" -> "+buffer+"; "+this);
     }
   }
 
@@ -476,6 +636,11 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
     this.bufferWritten = src.bufferWritten;
     this.enableBufferAlways = src.enableBufferAlways;
     this.initialElementCount = src.initialElementCount;
+    this.growthFactor = src.growthFactor;
+    // buffer content is shared, hence neither instance may release it
+    this.bufferStorage = null;
+    this.bufferExposed = true;
+    src.bufferExposed = true;
     if( null != src.glArrayHandler ) {
         final Class<? extends GLArrayHandler> clazz = src.glArrayHandler.getClass();
         try {
@@ -497,6 +662,11 @@ public class GLArrayDataClient extends GLArrayDataWrapper implements GLArrayData
   protected boolean enableBufferAlways;
 
   protected int initialElementCount;
+  protected float growthFactor = DEFAULT_GROWTH_FACTOR;
+  /** Direct storage of {@link #buffer} if allocated by {@link #growBuffer(int)}, otherwise null */
+  private ByteBuffer bufferStorage = null;
+  /** True if {@link #buffer} may be referenced by others, i.e. must not be released */
+  private boolean bufferExposed = false;
 
   protected GLArrayHandler glArrayHandler;
   protected boolean usesGLSL;
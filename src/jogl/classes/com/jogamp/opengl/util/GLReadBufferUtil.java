@@ -30,10 +30,15 @@ package com.jogamp.opengl.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 
 import com.jogamp.nativewindow.util.PixelFormat;
 import com.jogamp.opengl.GL;
 import com.jogamp.opengl.GL2ES3;
+import com.jogamp.opengl.GL3ES3;
 import com.jogamp.opengl.GLAutoDrawable;
 import com.jogamp.opengl.GLDrawable;
 import com.jogamp.opengl.GLException;
@@ -58,6 +63,12 @@ public class GLReadBufferUtil {
     protected boolean hasAlpha;
     protected GLPixelBuffer readPixelBuffer = null;
     protected TextureData readTextureData = null;
+    protected int asyncLatency = 0;
+    private AsyncSlot[] asyncSlots = null;
+    private int asyncSlotIdx = 0;
+
+    /** Timeout per fence sync wait in nanoseconds, repeated until signaled. */
+    private static final long ASYNC_SYNC_TIMEOUT = 100000000L;
 
     /**
      * @param alpha true for RGBA readPixels, otherwise RGB readPixels. Disclaimer: Alpha maybe forced on ES platforms!
@@ -191,6 +202,56 @@ public class GLReadBufferUtil {
         final int tmp[] = new int[1];
         final int readPixelSize = GLBuffers.sizeof(gl, tmp, pixelAttribs.pfmt.comp.bytesPerPixel(), width, height, 1, true);
 
+        if( 0 < asyncLatency && isAsyncReadbackAvailable(gl) ) {
+            return readPixelsAsyncImpl(gl, inX, inY, width, height, hostPixelComp, pixelAttribs,
+                                       alignment, internalFormat, flipVertically, readPixelSize);
+        } else if( null != asyncSlots ) {
+            disposeAsync(gl);
+        }
+
+        final boolean newData = prepareReadPixelBuffer(gl, hostPixelComp, pixelAttribs, internalFormat,
+                                                       width, height, flipVertically, readPixelSize);
+        boolean res = null!=readPixelBuffer && readPixelBuffer.isValid();
+        if(res) {
+            setPackModes(gl, alignment, width);
+            readPixelBuffer.clear();
+            try {
+                gl.glReadPixels(inX, inY, width, height, pixelAttribs.format, pixelAttribs.type, readPixelBuffer.buffer);
+            } catch(final GLException gle) { res = false; gle.printStackTrace(); }
+            readPixelBuffer.position( readPixelSize );
+            readPixelBuffer.flip();
+            final int glerr1 = gl.glGetError();
+            if(GL.GL_NO_ERROR != glerr1) {
+                System.err.println("GLReadBufferUtil.readPixels: readPixels error 0x"+Integer.toHexString(glerr1)+
+                                   " "+width+"x"+height+
+                                   ", "+pixelAttribs+
+                                   ", "+readPixelBuffer+", sz "+readPixelSize);
+                res = false;
+            }
+            if(res) {
+                updateReadTexture(gl, newData, inX, inY, width, height);
+            }
+            psm.restore(gl);
+        }
+        return res;
+    }
+
+    private void setPackModes(final GL gl, final int alignment, final int width) {
+        psm.setPackAlignment(gl, alignment);
+        if(gl.isGL2ES3()) {
+            final GL2ES3 gl2es3 = gl.getGL2ES3();
+            psm.setPackRowLength(gl2es3, width);
+            gl2es3.glReadBuffer(gl2es3.getDefaultReadBuffer());
+        }
+    }
+
+    /**
+     * Allocates or updates {@link #readPixelBuffer} and {@link #readTextureData} for the given pixel parameter.
+     * @return true if new {@link #readTextureData} has been created
+     */
+    private boolean prepareReadPixelBuffer(final GL gl, final PixelFormat.Composition hostPixelComp, final GLPixelAttributes pixelAttribs,
+                                           final int internalFormat, final int width, final int height,
+                                           final boolean flipVertically, final int readPixelSize) {
         boolean newData = false;
         if( null == readPixelBuffer || readPixelBuffer.requiresNewBuffer(gl, width, height, readPixelSize) ) {
             readPixelBuffer = pixelBufferProvider.allocate(gl, hostPixelComp, pixelAttribs, true, width, height, 1, readPixelSize);
@@ -218,45 +279,253 @@ public class GLReadBufferUtil {
             readTextureData.setHeight(height);
             readTextureData.setPixelAttributes(pixelAttribs);
         }
-        boolean res = null!=readPixelBuffer && readPixelBuffer.isValid();
-        if(res) {
-            psm.setPackAlignment(gl, alignment);
-            if(gl.isGL2ES3()) {
-                final GL2ES3 gl2es3 = gl.getGL2ES3();
-                psm.setPackRowLength(gl2es3, width);
-                gl2es3.glReadBuffer(gl2es3.getDefaultReadBuffer());
+        return newData;
+    }
+
+    private void updateReadTexture(final GL gl, final boolean newData, final int inX, final int inY, final int width, final int height) {
+        if(null != readTexture) {
+            if(newData) {
+                readTexture.updateImage(gl, readTextureData);
+            } else {
+                readTexture.updateSubImage(gl, readTextureData, 0,
+                                           inX, inY, // dst offset
+                                           0,   0,   // src offset
+                                           width, height);
             }
-            readPixelBuffer.clear();
-            try {
-                gl.glReadPixels(inX, inY, width, height, pixelAttribs.format, pixelAttribs.type, readPixelBuffer.buffer);
-            } catch(final GLException gle) { res = false; gle.printStackTrace(); }
-            readPixelBuffer.position( readPixelSize );
-            readPixelBuffer.flip();
-            final int glerr1 = gl.glGetError();
-            if(GL.GL_NO_ERROR != glerr1) {
-                System.err.println("GLReadBufferUtil.readPixels: readPixels error 0x"+Integer.toHexString(glerr1)+
-                                   " "+width+"x"+height+
-                                   ", "+pixelAttribs+
-                                   ", "+readPixelBuffer+", sz "+readPixelSize);
-                res = false;
+            readPixelBuffer.rewind();
+        }
+    }
+
+    //
+    // Asynchronous PBO readback
+    //
+
+    /** Pixel pack buffer object of the asynchronous readback ring w/ its pending frame's parameter. */
+    private static class AsyncSlot {
+        int pbo;
+        long pboSize;
+        long sync;
+        boolean pending;
+        int x, y, width, height, size, alignment, internalFormat;
+        PixelFormat.Composition hostPixelComp;
+        GLPixelAttributes pixelAttribs;
+        boolean flipVertically;
+    }
+
+    /**
+     * Returns true if asynchronous readback via pixel pack buffer objects is supported by the given GL,
+     * i.e. it is {@link GL#isGL2ES3() GL2ES3} and supports {@link GL#glMapBufferRange(int, long, long, int) glMapBufferRange}.
+     * @see #setAsyncLatency(int)
+     */
+    public static boolean isAsyncReadbackAvailable(final GL gl) {
+        return gl.isGL2ES3() && gl.isFunctionAvailable("glMapBufferRange");
+    }
+
+    /**
+     * Enables the asynchronous readback mode using a ring of <code>frames</code> pixel pack buffer objects (PBO).
+     * <p>
+     * In asynchronous mode, {@link #readPixels(GL, int, int, int, int, boolean) readPixels(..)} only issues the transfer
+     * of the current frame into the next PBO of the ring, w/o waiting for its completion.
+     * It delivers the frame read <code>frames</code> calls before, now expected to be complete,
+     * into the {@link #getTextureData() TextureData} and {@link #getTexture() Texture}
+     * by mapping its PBO via <code>glMapBufferRange</code>.
+     * If fence sync objects are available, they are used to wait for the transfer before mapping.
+     * </p>
+     * <p>
+     * Hence <code>readPixels(..)</code> returns <code>false</code> for the first <code>frames</code> calls,
+     * since no data is yet available. Use {@link #readPendingPixels(GL)} to fetch the remaining frames,
+     * e.g. at the end of a capture.
+     * </p>
+     * <p>
+     * If {@link #isAsyncReadbackAvailable(GL) not supported} by the GL profile,
+     * the synchronous mode is used as a fallback.
+     * </p>
+     * @param frames the number of frames the delivered data lags behind, zero for synchronous mode (default).
+     *               A value of 2 usually suffices to avoid pipeline stalls.
+     */
+    public void setAsyncLatency(final int frames) {
+        asyncLatency = Math.max(0, frames);
+    }
+
+    /** Returns the asynchronous readback latency in frames, zero if using the synchronous mode. See {@link #setAsyncLatency(int)}. */
+    public int getAsyncLatency() { return asyncLatency; }
+
+    /** Returns the number of frames issued in asynchronous mode but not yet delivered. See {@link #setAsyncLatency(int)}. */
+    public int getAsyncPendingCount() {
+        int n = 0;
+        if( null != asyncSlots ) {
+            for(int i=0; i<asyncSlots.length; i++) {
+                if( asyncSlots[i].pending ) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Delivers the oldest pending frame of the asynchronous readback mode into the
+     * {@link #getTextureData() TextureData} and {@link #getTexture() Texture} w/o issuing a new transfer.
+     * @param gl the current GL context object
+     * @return true if a pending frame has been delivered, otherwise false
+     * @see #setAsyncLatency(int)
+     */
+    public boolean readPendingPixels(final GL gl) {
+        if( null != asyncSlots ) {
+            final int n = asyncSlots.length;
+            for(int i=0; i<n; i++) {
+                final AsyncSlot slot = asyncSlots[ ( asyncSlotIdx + i ) % n ];
+                if( slot.pending ) {
+                    return deliverAsync(gl, slot);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean readPixelsAsyncImpl(final GL gl, final int inX, final int inY, final int width, final int height,
+                                        final PixelFormat.Composition hostPixelComp, final GLPixelAttributes pixelAttribs,
+                                        final int alignment, final int internalFormat, final boolean flipVertically,
+                                        final int readPixelSize) {
+        if( null == asyncSlots || asyncSlots.length != asyncLatency ) {
+            disposeAsync(gl);
+            asyncSlots = new AsyncSlot[asyncLatency];
+            final int[] names = new int[asyncLatency];
+            gl.glGenBuffers(asyncLatency, names, 0);
+            for(int i=0; i<asyncLatency; i++) {
+                asyncSlots[i] = new AsyncSlot();
+                asyncSlots[i].pbo = names[i];
+            }
+            asyncSlotIdx = 0;
+        }
+        final AsyncSlot slot = asyncSlots[asyncSlotIdx];
+        asyncSlotIdx = ( asyncSlotIdx + 1 ) % asyncSlots.length;
+
+        // deliver the completed frame, frees the slot
+        final boolean res = slot.pending ? deliverAsync(gl, slot) : false;
+
+        // issue the transfer of the current frame
+        slot.x = inX;
+        slot.y = inY;
+        slot.width = width;
+        slot.height = height;
+        slot.size = readPixelSize;
+        slot.alignment = alignment;
+        slot.internalFormat = internalFormat;
+        slot.hostPixelComp = hostPixelComp;
+        slot.pixelAttribs = pixelAttribs;
+        slot.flipVertically = flipVertically;
+        boolean packModesSet = false;
+        gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, slot.pbo);
+        try {
+            if( slot.pboSize != readPixelSize ) {
+                gl.glBufferData(GL2ES3.GL_PIXEL_PACK_BUFFER, readPixelSize, null, GL2ES3.GL_STREAM_READ);
+                slot.pboSize = readPixelSize;
             }
-            if(res && null != readTexture) {
-                if(newData) {
-                    readTexture.updateImage(gl, readTextureData);
+            setPackModes(gl, alignment, width);
+            packModesSet = true;
+            gl.glReadPixels(inX, inY, width, height, pixelAttribs.format, pixelAttribs.type, 0L);
+            if( gl.isGL3ES3() && gl.isFunctionAvailable("glFenceSync") ) {
+                slot.sync = gl.getGL3ES3().glFenceSync(GL3ES3.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            }
+            slot.pending = true;
+        } catch(final GLException gle) {
+            gle.printStackTrace();
+        } finally {
+            if( packModesSet ) {
+                psm.restore(gl);
+            }
+            gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, 0);
+        }
+        final int glerr1 = gl.glGetError();
+        if(GL.GL_NO_ERROR != glerr1) {
+            System.err.println("GLReadBufferUtil.readPixels: async readPixels error 0x"+Integer.toHexString(glerr1)+
+                               " "+width+"x"+height+
+                               ", "+pixelAttribs+
+                               ", sz "+readPixelSize);
+            slot.pending = false;
+        }
+        return res;
+    }
+
+    /** Maps the slot's PBO and copies its frame into {@link #readPixelBuffer}, frees the slot. */
+    private boolean deliverAsync(final GL gl, final AsyncSlot slot) {
+        slot.pending = false;
+        if( 0 != slot.sync ) {
+            final GL3ES3 gl3es3 = gl.getGL3ES3();
+            int r;
+            do {
+                r = gl3es3.glClientWaitSync(slot.sync, GL3ES3.GL_SYNC_FLUSH_COMMANDS_BIT, ASYNC_SYNC_TIMEOUT);
+            } while( GL3ES3.GL_TIMEOUT_EXPIRED == r );
+            gl3es3.glDeleteSync(slot.sync);
+            slot.sync = 0;
+            if( GL3ES3.GL_WAIT_FAILED == r ) {
+                System.err.println("GLReadBufferUtil.readPixels: async wait failed");
+                return false;
+            }
+        }
+        final boolean newData = prepareReadPixelBuffer(gl, slot.hostPixelComp, slot.pixelAttribs, slot.internalFormat,
+                                                       slot.width, slot.height, slot.flipVertically, slot.size);
+        if( null == readPixelBuffer || !readPixelBuffer.isValid() ) {
+            return false;
+        }
+        boolean res = true;
+        boolean mapped = false;
+        readPixelBuffer.clear();
+        gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, slot.pbo);
+        try {
+            final ByteBuffer src = gl.glMapBufferRange(GL2ES3.GL_PIXEL_PACK_BUFFER, 0, slot.size, GL.GL_MAP_READ_BIT);
+            if( null != src ) {
+                mapped = true;
+                src.order(ByteOrder.nativeOrder());
+                src.limit(slot.size);
+                final Buffer dst = readPixelBuffer.buffer;
+                if( dst instanceof ByteBuffer ) {
+                    ((ByteBuffer)dst).put(src);
+                } else if( dst instanceof IntBuffer ) {
+                    ((IntBuffer)dst).put(src.asIntBuffer());
                 } else {
-                    readTexture.updateSubImage(gl, readTextureData, 0,
-                                               inX, inY, // dst offset
-                                               0,   0,   // src offset
-                                               width, height);
+                    throw new GLException("Unsupported pixel buffer type "+dst.getClass().getName());
                 }
-                readPixelBuffer.rewind();
+            } else {
+                res = false;
             }
-            psm.restore(gl);
+        } catch(final GLException gle) {
+            res = false;
+            gle.printStackTrace();
+        } finally {
+            if( mapped ) {
+                gl.glUnmapBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER);
+            }
+            gl.glBindBuffer(GL2ES3.GL_PIXEL_PACK_BUFFER, 0);
+        }
+        readPixelBuffer.position( slot.size );
+        readPixelBuffer.flip();
+        if(res) {
+            updateReadTexture(gl, newData, slot.x, slot.y, slot.width, slot.height);
         }
         return res;
     }
 
+    private void disposeAsync(final GL gl) {
+        if( null != asyncSlots ) {
+            final int[] names = new int[asyncSlots.length];
+            for(int i=0; i<asyncSlots.length; i++) {
+                final AsyncSlot slot = asyncSlots[i];
+                if( 0 != slot.sync ) {
+                    gl.getGL3ES3().glDeleteSync(slot.sync);
+                    slot.sync = 0;
+                }
+                names[i] = slot.pbo;
+            }
+            gl.glDeleteBuffers(names.length, names, 0);
+            asyncSlots = null;
+            asyncSlotIdx = 0;
+        }
+    }
+
     public void dispose(final GL gl) {
+        disposeAsync(gl);
         if(null != readTexture) {
             readTexture.destroy(gl);
             readTextureData = null;
@@ -516,8 +516,11 @@ public class ImmModeSink {
         }
 
         if (buffer!=null) {
+            // Fixed function emulation performs GL_QUADS emulation itself w/ a single draw call, see FixedFuncPipeline
+            final boolean emulateQuads = GL_QUADS == mode && !gl.isGL2() &&
+                                         ( null != shaderState || 0 != shaderProgram || gl.isGLES1() );
             if(null==indices) {
-                if ( GL_QUADS == mode && !gl.isGL2() ) {
+                if ( emulateQuads ) {
                     for (int j = 0; j < vElems - 3; j += 4) {
                         gl.glDrawArrays(GL.GL_TRIANGLE_FAN, j, 4);
                     }
@@ -542,7 +545,7 @@ public class ImmModeSink {
                 final int idxLen = indices.remaining();
                 final int idx0 = indices.position();
 
-                if ( GL_QUADS == mode && !gl.isGL2() ) {
+                if ( emulateQuads ) {
                     if( GL.GL_UNSIGNED_BYTE == type ) {
                         final ByteBuffer b = (ByteBuffer) indices;
                         for (int j = 0; j < idxLen; j++) {
@@ -33,6 +33,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.util.concurrent.Executor;
 
 import com.jogamp.nativewindow.util.Dimension;
 import com.jogamp.nativewindow.util.DimensionImmutable;
@@ -78,6 +79,32 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
     public static PNGPixelRect read(final InputStream in,
                                     final PixelFormat ddestFmt, final boolean destDirectBuffer, final int destMinStrideInBytes,
                                     final boolean destIsGLOriented) throws IOException {
+        return read(in, ddestFmt, destDirectBuffer, destMinStrideInBytes, destIsGLOriented, null);
+    }
+
+    /**
+     * Reads a PNG image from the specified InputStream,
+     * see {@link #read(InputStream, PixelFormat, boolean, int, boolean)}.
+     * <p>
+     * If <code>executor</code> is not <code>null</code>, decoding is pipelined:
+     * The IDAT stream is inflated by a task on <code>executor</code>,
+     * while the calling thread unfilters each row and converts it straight into the destination buffer,
+     * see {@link PngReader#readRowsByte(PngReader.RowByteListener, Executor)}.
+     * Interlaced images and non-indexed images w/ a bit depth other than 8 are decoded sequentially.
+     * </p>
+     *
+     * @param in input stream
+     * @param destFmt desired destination {@link PixelFormat} incl. conversion, maybe <code>null</code> to use source {@link PixelFormat}
+     * @param destDirectBuffer if true, using a direct NIO buffer, otherwise an array backed buffer
+     * @param destMinStrideInBytes used if greater than PNG's stride, otherwise using PNG's stride. Stride is width * bytes-per-pixel.
+     * @param destIsGLOriented
+     * @param executor {@link Executor} for the inflater task, maybe <code>null</code> for sequential decoding
+     * @return the newly created PNGPixelRect instance
+     * @throws IOException
+     */
+    public static PNGPixelRect read(final InputStream in,
+                                    final PixelFormat ddestFmt, final boolean destDirectBuffer, final int destMinStrideInBytes,
+                                    final boolean destIsGLOriented, final Executor executor) throws IOException {
         final BufferedInputStream bin = (in instanceof BufferedInputStream) ? (BufferedInputStream)in : new BufferedInputStream(in);
         final PngReader pngr = new PngReader(bin, null);
         final ImageInfo imgInfo = pngr.imgInfo;
@@ -148,23 +175,34 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
             }
         }
         final boolean vert_flip = destIsGLOriented;
+        final boolean pipelined = null != executor && !pngr.isInterlaced() &&
+                                  ( indexed ? 8 >= imgInfo.bitDepth : 8 == imgInfo.bitDepth );
 
-        int[] rgbaScanline = indexed ? new int[width * channels] : null;
+        int[] rgbaScanline = indexed && !pipelined ? new int[width * channels] : null;
         if(DEBUG) {
             System.err.println("PNGPixelRect: indexed "+indexed+", alpha "+hasAlpha+", grayscale "+imgInfo.greyscale+", channels "+channels+"/"+imgInfo.channels+
                                ", bytesPerPixel "+bytesPerPixel+"/"+imgInfo.bytesPixel+
                                ", grayAlpha "+isGrayAlpha+", pixels "+width+"x"+height+", dpi "+dpiX+"x"+dpiY+", format "+srcFmt);
             System.err.println("PNGPixelRect: destFormat "+destFmt+" ("+ddestFmt+", fast-path "+(destFmt==srcFmt)+"), destDirectBuffer "+destDirectBuffer+", destIsGLOriented (flip) "+destIsGLOriented);
-            System.err.println("PNGPixelRect: destStrideInBytes "+destStrideInBytes+" (destMinStrideInBytes "+destMinStrideInBytes+")");
+            System.err.println("PNGPixelRect: destStrideInBytes "+destStrideInBytes+" (destMinStrideInBytes "+destMinStrideInBytes+"), pipelined "+pipelined);
         }
 
+        if( pipelined ) {
+            if( indexed ) {
+                pngr.setUnpackedMode(true); // one palette index per byte
+            }
+            pngr.readRowsByte(new RowWriter(srcFmt, destFmt, destPixels, destStrideInBytes, width, height, vert_flip,
+                                            isGrayAlpha, indexed ? getPaletteRGBA8(plte, trns, channels) : null), executor);
+            pngr.end();
+            return new PNGPixelRect(destFmt, new Dimension(width, height), destStrideInBytes, destIsGLOriented, destPixels, dpiX, dpiY);
+        }
         for (int row = 0; row < height; row++) {
             final ImageLine l1 = pngr.readRow(row);
             int lineOff = 0;
             int dataOff = vert_flip ? ( height - 1 - row ) * destStrideInBytes : row * destStrideInBytes;
             if( indexed ) {
+                rgbaScanline = ImageLineHelper.palette2rgb(l1, plte, trns, rgbaScanline); // reuse rgbaScanline and update if resized
                 for (int j = width - 1; j >= 0; j--) {
-                    rgbaScanline = ImageLineHelper.palette2rgb(l1, plte, trns, rgbaScanline); // reuse rgbaScanline and update if resized
                     dataOff = getPixelRGBA8ToAny(destFmt, destPixels, dataOff, rgbaScanline, lineOff, hasAlpha);
                     lineOff += bytesPerPixel;
                 }
@@ -193,6 +231,95 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
         return new PNGPixelRect(destFmt, new Dimension(width, height), destStrideInBytes, destIsGLOriented, destPixels, dpiX, dpiY);
     }
 
+    /** Returns the palette as RGB888 or RGBA8888 bytes, 256 entries, see {@link ImageLineHelper#palette2rgb(ImageLine, PngChunkPLTE, PngChunkTRNS, int[])}. */
+    private static byte[] getPaletteRGBA8(final PngChunkPLTE plte, final PngChunkTRNS trns, final int channels) {
+        final byte[] palette = new byte[256 * channels];
+        final int[] alpha = null != trns ? trns.getPalletteAlpha() : null;
+        final int n = plte.getNentries();
+        for(int i=0, p=0; i<n; i++, p+=channels) {
+            final int rgb = plte.getEntry(i);
+            palette[p    ] = (byte) ( rgb >>> 16 );
+            palette[p + 1] = (byte) ( rgb >>>  8 );
+            palette[p + 2] = (byte) ( rgb        );
+            if( 4 == channels ) {
+                palette[p + 3] = i < alpha.length ? (byte) alpha[i] : (byte)0xff;
+            }
+        }
+        return palette;
+    }
+
+    /**
+     * Converts the byte rows of {@link PngReader#readRowsByte(PngReader.RowByteListener, Executor)}
+     * straight into the destination buffer.
+     * <p>
+     * RGB888 and RGBA8888 rows use the {@link PixelFormatUtil} row conversion,
+     * luminance sources and luminance destinations use the same per pixel conversion as the sequential path.
+     * </p>
+     */
+    private static final class RowWriter implements PngReader.RowByteListener {
+        private final PixelFormat srcFmt, destFmt;
+        private final ByteBuffer dest;
+        private final int destStrideInBytes, width, height;
+        private final boolean vert_flip, isGrayAlpha;
+        private final byte[] palette;
+        private final byte[] paletteScanline;
+
+        RowWriter(final PixelFormat srcFmt, final PixelFormat destFmt, final ByteBuffer destPixels, final int destStrideInBytes,
+                  final int width, final int height, final boolean vert_flip, final boolean isGrayAlpha, final byte[] palette) {
+            this.srcFmt = srcFmt;
+            this.destFmt = destFmt;
+            this.dest = destPixels.duplicate();
+            this.destStrideInBytes = destStrideInBytes;
+            this.width = width;
+            this.height = height;
+            this.vert_flip = vert_flip;
+            this.isGrayAlpha = isGrayAlpha;
+            this.palette = palette;
+            this.paletteScanline = null != palette ? new byte[width * srcFmt.comp.bytesPerPixel()] : null;
+        }
+
+        @Override
+        public void rowRead(final byte[] row, final int nrow) {
+            int dataOff = vert_flip ? ( height - 1 - nrow ) * destStrideInBytes : nrow * destStrideInBytes;
+            final int srcBpp = srcFmt.comp.bytesPerPixel();
+            final byte[] scanline;
+            if( null != palette ) {
+                for (int i = 0, lineOff = 0; i < width; i++) {
+                    final int p = ( 0xff & row[i] ) * srcBpp;
+                    for (int c = 0; c < srcBpp; c++) {
+                        paletteScanline[lineOff++] = palette[p + c];
+                    }
+                }
+                scanline = paletteScanline;
+            } else {
+                scanline = row;
+            }
+            if( isGrayAlpha ) {
+                for (int j = width - 1, lineOff = 0; j >= 0; j--, lineOff += 2) {
+                    dataOff = getPixelLUMToAny(destFmt, dest, dataOff, scanline[lineOff], scanline[lineOff+1]); // Luminance+Alpha, 2 bytesPerPixel
+                }
+            } else if( srcFmt == destFmt ) { // fast-path
+                dest.position(dataOff);
+                dest.put(scanline, 0, width * srcBpp);
+            } else if( PixelFormat.LUMINANCE == srcFmt ) {
+                for (int j = width - 1, lineOff = 0; j >= 0; j--) {
+                    dataOff = getPixelLUMToAny(destFmt, dest, dataOff, scanline[lineOff++], (byte)0xff); // Luminance, 1 bytesPerPixel
+                }
+            } else if( PixelFormat.LUMINANCE == destFmt ) {
+                final boolean hasAlpha = 4 == srcBpp;
+                for (int j = width - 1, lineOff = 0; j >= 0; j--, lineOff += srcBpp) {
+                    final int p = PixelFormatUtil.convertToInt32(destFmt, scanline[lineOff], scanline[lineOff+1], scanline[lineOff+2],
+                                                                 hasAlpha ? scanline[lineOff+3] : (byte)0xff);
+                    dest.put(dataOff++, (byte) p);
+                }
+            } else {
+                dest.position(dataOff);
+                PixelFormatUtil.convert(width, 1, ByteBuffer.wrap(scanline, 0, width * srcBpp), srcFmt, false, 0,
+                                        dest.slice(), destFmt, false, 0, null);
+            }
+        }
+    }
+
     private static final int getPixelLUMToAny(final PixelFormat dest_fmt, final ByteBuffer d, int dOff, final byte lum, final byte alpha) {
         switch(dest_fmt) {
             case LUMINANCE:
@@ -303,6 +430,21 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
     public double[] getDpi() { return dpi; }
 
     public void write(final OutputStream outstream, final boolean closeOutstream) throws IOException {
+        write(outstream, closeOutstream, null);
+    }
+
+    /**
+     * Writes this image as PNG to the given stream.
+     * <p>
+     * If <code>executor</code> is not <code>null</code>, row bands are filtered and deflated
+     * in parallel tasks on <code>executor</code>, see {@link PngWriter#setParallelEncoding(Executor, int)}.
+     * </p>
+     * @param outstream output stream
+     * @param closeOutstream if true, <code>outstream</code> is closed at the end
+     * @param executor {@link Executor} for parallel encoding, maybe <code>null</code> for sequential encoding
+     * @throws IOException
+     */
+    public void write(final OutputStream outstream, final boolean closeOutstream, final Executor executor) throws IOException {
         final int width = size.getWidth();
         final int height = size.getHeight();
         final int bytesPerPixel = pixelformat.comp.bytesPerPixel();
@@ -314,6 +456,7 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
         // open image for writing to a output stream
         try {
             final PngWriter png = new PngWriter(outstream, imi);
+            png.setParallelEncoding(executor, 0 /* bandRows */);
             // add some optional metadata (chunks)
             png.getMetadata().setDpi(dpi[0], dpi[1]);
             png.getMetadata().setTimeNow(0); // 0 seconds from now = now
@@ -348,6 +491,17 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
                              int strideInPixels, final boolean isGLOriented, final IntBuffer pixels,
                              final double dpiX, final double dpiY,
                              final OutputStream outstream, final boolean closeOutstream) throws IOException {
+        write(pixelformat, size, strideInPixels, isGLOriented, pixels, dpiX, dpiY, outstream, closeOutstream, null);
+    }
+
+    /**
+     * Writes the given 32bit pixels as PNG to the given stream,
+     * optionally encoding in parallel on <code>executor</code>, see {@link #write(OutputStream, boolean, Executor)}.
+     */
+    public static void write(final PixelFormat pixelformat, final DimensionImmutable size,
+                             int strideInPixels, final boolean isGLOriented, final IntBuffer pixels,
+                             final double dpiX, final double dpiY,
+                             final OutputStream outstream, final boolean closeOutstream, final Executor executor) throws IOException {
         final int width = size.getWidth();
         final int height = size.getHeight();
         final int bytesPerPixel = pixelformat.comp.bytesPerPixel();
@@ -370,6 +524,7 @@ public class PNGPixelRect extends PixelRectangle.GenericPixelRect {
         // open image for writing to a output stream
         try {
             final PngWriter png = new PngWriter(outstream, imi);
+            png.setParallelEncoding(executor, 0 /* bandRows */);
             // add some optional metadata (chunks)
             png.getMetadata().setDpi(dpiX, dpiY);
             png.getMetadata().setTimeNow(0); // 0 seconds from now = now
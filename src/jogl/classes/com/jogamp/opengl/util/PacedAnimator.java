@@ -0,0 +1,513 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.jogamp.common.ExceptionUtils;
+import com.jogamp.common.util.InterruptSource;
+import com.jogamp.common.util.SourcedInterruptedException;
+import com.jogamp.opengl.FrameTimeHistogram;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLException;
+
+/**
+ * An Animator which renders all its {@link GLAutoDrawable}s at a target frames-per-second rate
+ * using {@link System#nanoTime()} based frame deadlines.
+ * <p>
+ * In contrast to {@link FPSAnimator}, which uses a {@link java.util.Timer} w/ millisecond periods,
+ * frame deadlines are placed on an exact nanosecond grid <code>origin + n * period</code>, hence they do not drift.
+ * The animation thread sleeps until {@link #setSpinThreshold(long) shortly before} the next deadline
+ * and spin-waits for the remaining time, compensating coarse operating system sleep granularity.
+ * </p>
+ * <p>
+ * All added {@link GLAutoDrawable}s are rendered in phase, i.e. one after another at the same deadline.
+ * Multiple PacedAnimator instances may share the same deadline grid via {@link #setTimeOrigin(long)}.
+ * </p>
+ * <p>
+ * Deadlines missed due to long frames are handled according to the {@link MissedFramePolicy}.
+ * The pacing error, i.e. the delay of each frame's start past its deadline,
+ * is recorded in {@link #getPacingErrors()}, dropped frames are counted in {@link #getDroppedFrames()}.
+ * </p>
+ * <p>
+ * The Animator execution thread does not run as a daemon thread,
+ * so it is able to keep an application from terminating.<br>
+ * Call {@link #stop() } to terminate the animation and it's execution thread.
+ * </p>
+ */
+public class PacedAnimator extends AnimatorBase {
+    /** Policy on missed frame deadlines, see {@link PacedAnimator#setMissedFramePolicy(MissedFramePolicy, int)}. */
+    public static enum MissedFramePolicy {
+        /**
+         * Missed frames are rendered back-to-back w/o waiting until the deadline grid is reached again,
+         * up to a maximum number of frames. Frames exceeding the maximum are dropped.
+         * Preserves the total number of frames for short stalls, e.g. for animations advancing a fixed time step per frame.
+         */
+        CATCH_UP,
+        /**
+         * Missed frame deadlines are dropped, the next frame is rendered at the next deadline of the grid.
+         * Preserves the frame phase, e.g. for animations using the actual time per frame.
+         */
+        DROP
+    }
+
+    /** Default spin threshold in nanoseconds, {@value}, see {@link #setSpinThreshold(long)}. */
+    public static final long DEFAULT_SPIN_THRESHOLD = 1000000L;
+    /** Default maximum number of caught up frames, {@value}, see {@link #setMissedFramePolicy(MissedFramePolicy, int)}. */
+    public static final int DEFAULT_MAX_CATCH_UP_FRAMES = 4;
+
+    private Runnable runnable;
+    private float fps;
+    private long period;
+    private volatile long spinThreshold;
+    private volatile MissedFramePolicy missedFramePolicy;
+    private volatile int maxCatchUpFrames;
+    private volatile long timeOrigin;
+    private final FrameTimeHistogram pacingErrors = new FrameTimeHistogram();
+    private volatile long droppedFrames;
+    /** Next frame deadline, animation thread only. */
+    private long nextDeadline;
+    /** Align {@link #nextDeadline} to the grid at next frame, animation thread only. */
+    private boolean alignDeadline;
+    boolean isAnimating;
+    volatile boolean pauseIssued;
+    volatile boolean stopIssued;
+
+    /**
+     * Creates a new, empty PacedAnimator w/ the given target frames-per-second value.
+     * @param fps target frames-per-second, see {@link #setFPS(float)}
+     */
+    public PacedAnimator(final float fps) {
+        this(null, fps);
+    }
+
+    /**
+     * Creates a new PacedAnimator w/ the given target frames-per-second value and an initial drawable to animate.
+     * @param drawable the initial drawable, may be <code>null</code>
+     * @param fps target frames-per-second, see {@link #setFPS(float)}
+     */
+    public PacedAnimator(final GLAutoDrawable drawable, final float fps) {
+        super();
+        setFPSImpl(fps);
+        spinThreshold = DEFAULT_SPIN_THRESHOLD;
+        missedFramePolicy = MissedFramePolicy.CATCH_UP;
+        maxCatchUpFrames = DEFAULT_MAX_CATCH_UP_FRAMES;
+        timeOrigin = 0;
+        if (drawable != null) {
+            add(drawable);
+        }
+        if(DEBUG) {
+            System.err.println("PacedAnimator created, fps "+fps+", w/ "+drawable);
+        }
+    }
+
+    @Override
+    protected final String getBaseName(final String prefix) {
+        return "Paced" + prefix + "Animator" ;
+    }
+
+    /**
+     * Sets the target frames-per-second value.
+     * @param fps target frames-per-second, a value <= 0 disables pacing, i.e. renders as fast as possible.
+     * @throws GLException if the animator has already been started
+     */
+    public final synchronized void setFPS(final float fps) throws GLException {
+        if ( isStarted() ) {
+            throw new GLException("Animator already started.");
+        }
+        setFPSImpl(fps);
+    }
+    private void setFPSImpl(final float fps) {
+        this.fps = fps;
+        this.period = 0f < fps ? (long) ( 1000000000.0 / fps ) : 0;
+    }
+    /** Returns the target frames-per-second value. */
+    public final synchronized float getFPS() { return fps; }
+
+    /** Returns the frame period in nanoseconds, zero if pacing is disabled. */
+    public final synchronized long getFramePeriod() { return period; }
+
+    /**
+     * Sets the duration in nanoseconds before each frame deadline, for which the animation thread spin-waits instead of sleeping.
+     * <p>
+     * Should be greater than the sleep granularity of the operating system to hit the deadline.
+     * Zero disables spin-waiting, trading pacing accuracy for CPU usage.
+     * Default is {@link #DEFAULT_SPIN_THRESHOLD}.
+     * </p>
+     */
+    public final void setSpinThreshold(final long nanos) {
+        spinThreshold = Math.max(0, nanos);
+    }
+    /** Returns the spin threshold in nanoseconds, see {@link #setSpinThreshold(long)}. */
+    public final long getSpinThreshold() { return spinThreshold; }
+
+    /**
+     * Sets the policy on missed frame deadlines.
+     * <p>
+     * Default is {@link MissedFramePolicy#CATCH_UP} w/ {@link #DEFAULT_MAX_CATCH_UP_FRAMES}.
+     * </p>
+     * @param policy the {@link MissedFramePolicy}
+     * @param maxCatchUpFrames maximum number of missed frames rendered back-to-back w/ {@link MissedFramePolicy#CATCH_UP}
+     */
+    public final void setMissedFramePolicy(final MissedFramePolicy policy, final int maxCatchUpFrames) {
+        if( null == policy ) {
+            throw new IllegalArgumentException("Null MissedFramePolicy");
+        }
+        this.missedFramePolicy = policy;
+        this.maxCatchUpFrames = Math.max(0, maxCatchUpFrames);
+    }
+    /** Returns the {@link MissedFramePolicy}. */
+    public final MissedFramePolicy getMissedFramePolicy() { return missedFramePolicy; }
+    /** Returns the maximum number of caught up frames, see {@link #setMissedFramePolicy(MissedFramePolicy, int)}. */
+    public final int getMaxCatchUpFrames() { return maxCatchUpFrames; }
+
+    /**
+     * Sets the time origin of the frame deadline grid in {@link System#nanoTime()} units,
+     * i.e. frame deadlines are <code>origin + n * period</code>.
+     * <p>
+     * Multiple PacedAnimator w/ the same frame rate and time origin render their drawables in phase.
+     * </p>
+     * <p>
+     * Default is zero, i.e. the grid is aligned to the start or resume of the animation.
+     * </p>
+     * @param origin time origin in nanoseconds as retrieved via {@link System#nanoTime()}, or zero.
+     */
+    public final void setTimeOrigin(final long origin) {
+        timeOrigin = origin;
+    }
+    /** Returns the time origin of the frame deadline grid, see {@link #setTimeOrigin(long)}. */
+    public final long getTimeOrigin() { return timeOrigin; }
+
+    /**
+     * Returns the {@link FrameTimeHistogram} of pacing errors, i.e. the delay of each frame's start past its deadline.
+     * <p>
+     * The histogram is reset at {@link #start()} and may be {@link FrameTimeHistogram#snapshot() snapshot}
+     * at any time w/o pausing the animation.
+     * Its {@link FrameTimeHistogram#setJankThreshold(long) jank threshold} is set to the frame period at {@link #start()}.
+     * </p>
+     */
+    public final FrameTimeHistogram getPacingErrors() { return pacingErrors; }
+
+    /** Returns the number of dropped frames since {@link #start()}, see {@link MissedFramePolicy}. */
+    public final long getDroppedFrames() { return droppedFrames; }
+
+    /**
+     * Waits until the next frame deadline via sleeping and spin-waiting.
+     * @return true if the deadline has been reached, false if pause or stop has been issued.
+     */
+    private boolean waitForDeadline() throws InterruptedException {
+        final long _period = period;
+        if( 0 == _period ) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if( alignDeadline ) {
+            alignDeadline = false;
+            final long origin = timeOrigin;
+            if( 0 == origin ) {
+                nextDeadline = now;
+            } else {
+                // next deadline of the grid
+                final long n = now - origin;
+                nextDeadline = origin + ( ( n + _period - 1 ) / _period ) * _period;
+            }
+        }
+        long remaining;
+        while( 0 < ( remaining = nextDeadline - now ) ) {
+            if( pauseIssued || stopIssued ) {
+                return false;
+            }
+            final long _spinThreshold = spinThreshold;
+            if( remaining > _spinThreshold ) {
+                LockSupport.parkNanos(this, remaining - _spinThreshold);
+                if( Thread.interrupted() ) {
+                    throw new InterruptedException();
+                }
+            } else {
+                Thread.yield();
+            }
+            now = System.nanoTime();
+        }
+        pacingErrors.record(now - nextDeadline);
+        return true;
+    }
+
+    /** Advances the frame deadline after rendering a frame, applying the {@link MissedFramePolicy}. */
+    private void advanceDeadline() {
+        final long _period = period;
+        if( 0 == _period ) {
+            return;
+        }
+        nextDeadline += _period;
+        final long late = System.nanoTime() - nextDeadline;
+        if( 0 < late ) {
+            final long missed = late / _period + 1; // number of passed deadlines
+            final long drop;
+            if( MissedFramePolicy.CATCH_UP == missedFramePolicy ) {
+                drop = Math.max(0, missed - maxCatchUpFrames);
+            } else {
+                drop = missed;
+            }
+            if( 0 < drop ) {
+                nextDeadline += drop * _period;
+                droppedFrames += drop;
+            }
+        }
+    }
+
+    class MainLoop implements Runnable {
+        @Override
+        public String toString() {
+            return "[started "+isStarted()+", animating "+isAnimating()+", paused "+isPaused()+", drawable "+drawables.size()+", drawablesEmpty "+drawablesEmpty+"]";
+        }
+
+        @Override
+        public void run() {
+            ThreadDeath caughtThreadDeath = null;
+            UncaughtAnimatorException caughtException = null;
+
+            try {
+                synchronized (PacedAnimator.this) {
+                    if(DEBUG) {
+                        System.err.println("PacedAnimator start on " + getThreadName() + ": " + toString());
+                    }
+                    fpsCounter.resetFPSCounter();
+                    animThread = Thread.currentThread();
+                    isAnimating = false;
+                    alignDeadline = true;
+                    // 'waitForStartedCondition' wake-up is handled below!
+                }
+
+                while (!stopIssued) {
+                    synchronized (PacedAnimator.this) {
+                        // Pause; Also don't consume CPU unless there is work to be done and not paused
+                        boolean ectCleared = false;
+                        while ( !stopIssued && ( pauseIssued || drawablesEmpty ) ) {
+                            if( drawablesEmpty ) {
+                                pauseIssued = true;
+                            }
+                            final boolean wasPaused = pauseIssued;
+                            if (DEBUG) {
+                                System.err.println("PacedAnimator pause on " + animThread.getName() + ": " + toString());
+                            }
+                            if ( exclusiveContext && !drawablesEmpty && !ectCleared ) {
+                                ectCleared = true;
+                                setDrawablesExclCtxState(false);
+                                try {
+                                    display(); // propagate exclusive context -> off!
+                                } catch (final UncaughtAnimatorException dre) {
+                                    caughtException = dre;
+                                    stopIssued = true;
+                                    break; // end pause loop
+                                }
+                            }
+                            isAnimating = false;
+                            PacedAnimator.this.notifyAll();
+                            try {
+                                PacedAnimator.this.wait();
+                            } catch (final InterruptedException e) {
+                                caughtException = new UncaughtAnimatorException(null, SourcedInterruptedException.wrap(e));
+                                stopIssued = true;
+                                break; // end pause loop
+                            }
+                            if (wasPaused) {
+                                // resume from pause -> reset counter and re-align deadline
+                                fpsCounter.resetFPSCounter();
+                                alignDeadline = true;
+                                if (DEBUG) {
+                                    System.err.println("PacedAnimator resume on " + animThread.getName() + ": " + toString());
+                                }
+                            }
+                        }
+                        if (!stopIssued && !isAnimating) {
+                            // Wakes up 'waitForStartedCondition' sync
+                            // - and -
+                            // Resume from pause or drawablesEmpty,
+                            // implies !pauseIssued and !drawablesEmpty
+                            isAnimating = true;
+                            setDrawablesExclCtxState(exclusiveContext); // may re-enable exclusive context
+                            PacedAnimator.this.notifyAll();
+                        }
+                    } // sync PacedAnimator.this
+                    if ( !pauseIssued && !stopIssued ) {
+                        try {
+                            if( waitForDeadline() ) {
+                                display();
+                                advanceDeadline();
+                            }
+                        } catch (final InterruptedException e) {
+                            caughtException = new UncaughtAnimatorException(null, SourcedInterruptedException.wrap(e));
+                            stopIssued = true;
+                            break; // end animation loop
+                        } catch (final UncaughtAnimatorException dre) {
+                            caughtException = dre;
+                            stopIssued = true;
+                            break; // end animation loop
+                        }
+                    }
+                }
+            } catch(final ThreadDeath td) {
+                if(DEBUG) {
+                    ExceptionUtils.dumpThrowable("", td);
+                }
+                caughtThreadDeath = td;
+            }
+            if( exclusiveContext && !drawablesEmpty ) {
+                setDrawablesExclCtxState(false);
+                try {
+                    display(); // propagate exclusive context -> off!
+                } catch (final UncaughtAnimatorException dre) {
+                    if( null == caughtException ) {
+                        caughtException = dre;
+                    } else {
+                        ExceptionUtils.dumpThrowable("(setExclusiveContextThread)", dre);
+                    }
+                }
+            }
+            boolean flushGLRunnables = false;
+            boolean throwCaughtException = false;
+            synchronized (PacedAnimator.this) {
+                if(DEBUG) {
+                    System.err.println("PacedAnimator stop on " + animThread.getName() + ": " + toString());
+                    if( null != caughtException ) {
+                        ExceptionUtils.dumpThrowable("", caughtException);
+                    }
+                }
+                stopIssued = false;
+                pauseIssued = false;
+                isAnimating = false;
+                if( null != caughtException ) {
+                    flushGLRunnables = true;
+                    throwCaughtException = !handleUncaughtException(caughtException);
+                }
+                animThread = null;
+                PacedAnimator.this.notifyAll();
+            }
+            if( flushGLRunnables ) {
+                flushGLRunnables();
+            }
+            if( throwCaughtException ) {
+                throw caughtException;
+            }
+            if( null != caughtThreadDeath ) {
+                throw caughtThreadDeath;
+            }
+        }
+    }
+
+    /** Wakes up the animation thread while sleeping until the next deadline. */
+    private final void unparkAnimThread() {
+        final Thread t = animThread;
+        if( null != t ) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    @Override
+    public final synchronized boolean isAnimating() {
+        return animThread != null && isAnimating ;
+    }
+
+    @Override
+    public final synchronized boolean isPaused() {
+        return animThread != null && pauseIssued ;
+    }
+
+    @Override
+    public final synchronized boolean start() {
+        if ( isStarted() ) {
+            return false;
+        }
+        if (runnable == null) {
+            runnable = new MainLoop();
+        }
+        fpsCounter.resetFPSCounter();
+        pacingErrors.reset();
+        pacingErrors.setJankThreshold(period);
+        droppedFrames = 0;
+        final Thread thread = new InterruptSource.Thread(null, runnable, getThreadName()+"-"+baseName);
+        thread.setDaemon(false); // force to be non daemon, regardless of parent thread
+        if(DEBUG) {
+            final Thread ct = Thread.currentThread();
+            System.err.println("PacedAnimator "+ct.getName()+"[daemon "+ct.isDaemon()+"]: starting "+thread.getName()+"[daemon "+thread.isDaemon()+"]");
+        }
+        thread.start();
+        return finishLifecycleAction(waitForStartedCondition, 0);
+    }
+    private final Condition waitForStartedCondition = new Condition() {
+        @Override
+        public boolean eval() {
+            return !isStarted() || (!drawablesEmpty && !isAnimating) ;
+        } };
+
+    @Override
+    public final synchronized boolean stop() {
+        if ( !isStarted() ) {
+            return false;
+        }
+        stopIssued = true;
+        unparkAnimThread();
+        return finishLifecycleAction(waitForStoppedCondition, 0);
+    }
+    private final Condition waitForStoppedCondition = new Condition() {
+        @Override
+        public boolean eval() {
+            return isStarted();
+        } };
+
+    @Override
+    public final synchronized boolean pause() {
+        if ( !isStarted() || pauseIssued ) {
+            return false;
+        }
+        pauseIssued = true;
+        unparkAnimThread();
+        return finishLifecycleAction(waitForPausedCondition, 0);
+    }
+    private final Condition waitForPausedCondition = new Condition() {
+        @Override
+        public boolean eval() {
+            // end waiting if stopped as well
+            return isStarted() && isAnimating;
+        } };
+
+    @Override
+    public final synchronized boolean resume() {
+        if ( !isStarted() || !pauseIssued ) {
+            return false;
+        }
+        pauseIssued = false;
+        return finishLifecycleAction(waitForResumeCondition, 0);
+    }
+    private final Condition waitForResumeCondition = new Condition() {
+        @Override
+        public boolean eval() {
+            // end waiting if stopped as well
+            return isStarted() && ( !drawablesEmpty && !isAnimating || drawablesEmpty && !pauseIssued ) ;
+        } };
+}
@@ -34,6 +34,7 @@ import com.jogamp.opengl.GLDrawable;
 import com.jogamp.opengl.GLProfile;
 
 import com.jogamp.opengl.util.GLReadBufferUtil;
+import com.jogamp.opengl.util.texture.TextureData;
 
 /**
  * {@link GLReadBufferUtil} specialization allowing to
@@ -101,8 +102,10 @@ public class AWTGLReadBufferUtil extends GLReadBufferUtil {
             height= inHeight;
         }
         if( readPixelsImpl(drawable, gl, inX, inY, width, height, awtOrientation) ) {
-            final BufferedImage image = getAWTGLPixelBuffer().getAlignedImage(width, height);
-            if( getTextureData().getMustFlipVertically()  ) {
+            // size of the delivered frame, may differ in asynchronous mode
+            final TextureData data = getTextureData();
+            final BufferedImage image = getAWTGLPixelBuffer().getAlignedImage(data.getWidth(), data.getHeight());
+            if( data.getMustFlipVertically()  ) {
                 ImageUtil.flipImageVertically(image);
             }
             return image;
@@ -0,0 +1,500 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.glsl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES2;
+import com.jogamp.opengl.GLContext;
+import com.jogamp.opengl.GLException;
+import com.jogamp.opengl.GLExtensions;
+
+import jogamp.opengl.Debug;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.PropertyAccess;
+
+/**
+ * Persistent on-disk cache of linked GLSL program binaries,
+ * allowing {@link ShaderProgram#link(GL2ES2, java.io.PrintStream)} to skip compiling and linking
+ * the {@link ShaderCode} on subsequent runs.
+ * <p>
+ * The program binary is retrieved via {@link GL2ES2#glGetProgramBinary(int, int, IntBuffer, IntBuffer, Buffer) glGetProgramBinary}
+ * after a successful link and reloaded via {@link GL2ES2#glProgramBinary(int, int, Buffer, int) glProgramBinary},
+ * see {@link #isAvailable(GL)}.
+ * A reloaded binary is validated by its link status.
+ * A rejected binary, e.g. due to a driver update, is removed and the program is compiled and linked from its sources.
+ * </p>
+ * <p>
+ * Each entry is keyed by a digest of all shader sources, including their inserted defines,
+ * the shader types and the GL vendor, renderer and version strings, see {@link #getKey(GL2ES2, Collection)}.
+ * Attribute locations bound and transform feedback varyings set before linking are not part of the key,
+ * hence must be deterministic for the same shader sources.
+ * </p>
+ * <p>
+ * The least recently used entries are evicted if the total size of all entries exceeds {@link #getMaxSize()}.
+ * Hits, misses, stores and evictions are counted, see {@link #toString()} for a report.
+ * </p>
+ * <p>
+ * Using the cache is opt-in, either per {@link ShaderProgram#setBinaryCache(ProgramBinaryCache) program},
+ * or via the {@link #getDefault() default} cache used for all new programs,
+ * which may be enabled via the property <code>jogl.glsl.programcache</code> denoting the cache directory
+ * and the optional property <code>jogl.glsl.programcache.maxsize</code> denoting the maximum size in MiB, defaults to 32.
+ * </p>
+ * <p>
+ * All methods are thread safe, hence one cache may be shared by multiple GL contexts.
+ * </p>
+ */
+public class ProgramBinaryCache {
+    public static final boolean DEBUG;
+
+    /** Default maximum size in MiB, i.e. {@value}. */
+    public static final int DEFAULT_MAX_SIZE_MIB = 32;
+
+    private static final String FILE_SUFFIX = ".bin";
+    private static final int FILE_MAGIC = 0x4A504243; // 'JPBC'
+    private static final int FILE_VERSION = 1;
+
+    static {
+        Debug.initSingleton();
+        DEBUG = PropertyAccess.isPropertyDefined("jogl.debug.GLSLProgramCache", true);
+    }
+
+    private static ProgramBinaryCache defaultCache = null;
+    private static boolean defaultCacheInit = false;
+
+    /**
+     * Returns the default cache used by new {@link ShaderProgram}s,
+     * or <code>null</code> if not {@link #setDefault(ProgramBinaryCache) set}
+     * and not enabled via the property <code>jogl.glsl.programcache</code>.
+     */
+    public static synchronized ProgramBinaryCache getDefault() {
+        if( !defaultCacheInit ) {
+            defaultCacheInit = true;
+            final String dir = PropertyAccess.getProperty("jogl.glsl.programcache", true);
+            if( null != dir && dir.length() > 0 ) {
+                final int maxSizeMiB = PropertyAccess.getIntProperty("jogl.glsl.programcache.maxsize", true, DEFAULT_MAX_SIZE_MIB);
+                defaultCache = new ProgramBinaryCache(new File(dir), (long)maxSizeMiB * 1024L * 1024L);
+            }
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Sets the default cache used by new {@link ShaderProgram}s,
+     * overriding the property <code>jogl.glsl.programcache</code>.
+     * @param cache the default cache, may be <code>null</code> to disable the default cache
+     */
+    public static synchronized void setDefault(final ProgramBinaryCache cache) {
+        defaultCacheInit = true;
+        defaultCache = cache;
+    }
+
+    /**
+     * Returns true if retrieving and loading program binaries is supported,
+     * i.e. a {@link GL#isGLES3Compatible() ES3 compatible} context or
+     * {@link GLExtensions#ARB_get_program_binary} or {@link GLExtensions#OES_get_program_binary}
+     * w/ at least one program binary format.
+     */
+    public static boolean isAvailable(final GL gl) {
+        if( !gl.isGL2ES2() ) {
+            return false;
+        }
+        final GLContext ctx = gl.getContext();
+        if( !gl.isGLES3Compatible() &&
+            !ctx.isExtensionAvailable(GLExtensions.ARB_get_program_binary) &&
+            !ctx.isExtensionAvailable(GLExtensions.OES_get_program_binary) ) {
+            return false;
+        }
+        if( !gl.isFunctionAvailable("glGetProgramBinary") || !gl.isFunctionAvailable("glProgramBinary") ) {
+            return false;
+        }
+        final int[] numFormats = new int[] { 0 };
+        gl.glGetIntegerv(GL2ES2.GL_NUM_PROGRAM_BINARY_FORMATS, numFormats, 0);
+        return GL.GL_NO_ERROR == gl.glGetError() && 0 < numFormats[0];
+    }
+
+    private final File directory;
+    private final long maxSize;
+    private int hitCount = 0;
+    private int missCount = 0;
+    private int rejectCount = 0;
+    private int storeCount = 0;
+    private int evictCount = 0;
+
+    /**
+     * Creates a cache using the given directory, which is created if not existing.
+     * @param directory the cache directory
+     * @param maxSize the maximum total size of all entries in bytes
+     */
+    public ProgramBinaryCache(final File directory, final long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        if( !directory.isDirectory() && !directory.mkdirs() ) {
+            System.err.println("ProgramBinaryCache: Could not create directory "+directory);
+        }
+    }
+
+    /** Returns the cache directory. */
+    public final File getDirectory() { return directory; }
+
+    /** Returns the maximum total size of all entries in bytes. */
+    public final long getMaxSize() { return maxSize; }
+
+    /** Returns the number of programs loaded from this cache. */
+    public final synchronized int getHitCount() { return hitCount; }
+
+    /** Returns the number of programs not loaded from this cache, including {@link #getRejectCount() rejected} entries. */
+    public final synchronized int getMissCount() { return missCount; }
+
+    /** Returns the number of existing entries rejected while loading, e.g. due to an invalid link status. */
+    public final synchronized int getRejectCount() { return rejectCount; }
+
+    /** Returns the number of stored entries. */
+    public final synchronized int getStoreCount() { return storeCount; }
+
+    /** Returns the number of evicted entries. */
+    public final synchronized int getEvictCount() { return evictCount; }
+
+    /** Resets the hit, miss, reject, store and evict counter. */
+    public final synchronized void resetCounter() {
+        hitCount = 0;
+        missCount = 0;
+        rejectCount = 0;
+        storeCount = 0;
+        evictCount = 0;
+    }
+
+    /** Returns the number of entries. */
+    public final synchronized int getEntryCount() {
+        return listEntries().length;
+    }
+
+    /** Returns the total size of all entries in bytes. */
+    public final synchronized long getSize() {
+        long size = 0;
+        final File[] files = listEntries();
+        for(int i=0; i<files.length; i++) {
+            size += files[i].length();
+        }
+        return size;
+    }
+
+    /** Removes all entries. */
+    public final synchronized void clear() {
+        final File[] files = listEntries();
+        for(int i=0; i<files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * Returns the key of the program composed of the given {@link ShaderCode},
+     * i.e. the hex encoded SHA-1 digest of all shader types, sources or binaries
+     * and the GL vendor, renderer and version strings.
+     * <p>
+     * The key does not depend on the order of the given {@link ShaderCode}.
+     * </p>
+     * @return the key or <code>null</code> if a {@link ShaderCode} has neither source nor binary.
+     */
+    public static String getKey(final GL2ES2 gl, final Collection<ShaderCode> shaderCodes) {
+        final MessageDigest md = createDigest();
+        final ArrayList<String> codeDigests = new ArrayList<String>(shaderCodes.size());
+        for(final Iterator<ShaderCode> iter = shaderCodes.iterator(); iter.hasNext(); ) {
+            final ShaderCode code = iter.next();
+            md.reset();
+            update(md, code.shaderTypeStr());
+            final CharSequence[][] sources = code.shaderSource();
+            final Buffer binary = code.shaderBinary();
+            if( null != sources ) {
+                for(int i=0; i<sources.length; i++) {
+                    update(md, "#"+i);
+                    for(int j=0; j<sources[i].length; j++) {
+                        update(md, sources[i][j]);
+                    }
+                }
+            } else if( binary instanceof ByteBuffer ) {
+                update(md, "binary "+code.shaderBinaryFormat());
+                final ByteBuffer bb = ((ByteBuffer)binary).duplicate();
+                bb.rewind();
+                md.update(bb);
+            } else {
+                return null;
+            }
+            codeDigests.add(toHexString(md.digest()));
+        }
+        Collections.sort(codeDigests);
+        md.reset();
+        update(md, "ProgramBinaryCache "+FILE_VERSION);
+        update(md, gl.glGetString(GL.GL_VENDOR));
+        update(md, gl.glGetString(GL.GL_RENDERER));
+        update(md, gl.glGetString(GL.GL_VERSION));
+        for(int i=0; i<codeDigests.size(); i++) {
+            update(md, codeDigests.get(i));
+        }
+        return toHexString(md.digest());
+    }
+
+    /**
+     * Loads the program binary of the given key into the given program object.
+     * <p>
+     * A rejected entry, i.e. failing to load or w/o a valid link status, is removed.
+     * </p>
+     * @param gl the current GL
+     * @param program the program object
+     * @param key the key as retrieved via {@link #getKey(GL2ES2, Collection)}
+     * @param verboseOut optional verbose output stream
+     * @return true if the program binary was loaded and the program is linked, otherwise false.
+     */
+    public final synchronized boolean load(final GL2ES2 gl, final int program, final String key, final PrintStream verboseOut) {
+        final File file = getFile(key);
+        if( !file.isFile() ) {
+            missCount++;
+            if( DEBUG ) {
+                System.err.println("ProgramBinaryCache: Miss "+key);
+            }
+            return false;
+        }
+        final int binaryFormat;
+        final ByteBuffer binary;
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if( FILE_MAGIC != in.readInt() || FILE_VERSION != in.readInt() ) {
+                    throw new IOException("Invalid header");
+                }
+                binaryFormat = in.readInt();
+                final int length = in.readInt();
+                if( 0 >= length || length > file.length() ) {
+                    throw new IOException("Invalid length "+length);
+                }
+                final byte[] data = new byte[length];
+                in.readFully(data);
+                binary = Buffers.newDirectByteBuffer(length);
+                binary.put(data);
+                binary.rewind();
+            } finally {
+                in.close();
+            }
+        } catch (final IOException ioe) {
+            reject(file, key, ioe.getMessage(), verboseOut);
+            return false;
+        }
+        gl.glGetError(); // flush previous errors ..
+        gl.glProgramBinary(program, binaryFormat, binary, binary.remaining());
+        final int err = gl.glGetError();
+        if( GL.GL_NO_ERROR != err ) {
+            reject(file, key, "GL error 0x"+Integer.toHexString(err), verboseOut);
+            return false;
+        }
+        if( !ShaderUtil.isProgramLinkStatusValid(gl, program, verboseOut) ) {
+            reject(file, key, "invalid link status", verboseOut);
+            return false;
+        }
+        file.setLastModified(System.currentTimeMillis()); // LRU
+        hitCount++;
+        if( DEBUG ) {
+            System.err.println("ProgramBinaryCache: Hit "+key+", "+binary.remaining()+" bytes, format 0x"+Integer.toHexString(binaryFormat));
+        }
+        return true;
+    }
+
+    private void reject(final File file, final String key, final String reason, final PrintStream verboseOut) {
+        file.delete();
+        rejectCount++;
+        missCount++;
+        if( DEBUG || null != verboseOut ) {
+            ( null != verboseOut ? verboseOut : System.err ).println("ProgramBinaryCache: Rejected "+key+": "+reason);
+        }
+    }
+
+    /**
+     * Stores the program binary of the given linked program object using the given key,
+     * evicting the least recently used entries if exceeding {@link #getMaxSize()}.
+     * @param gl the current GL
+     * @param program the linked program object
+     * @param key the key as retrieved via {@link #getKey(GL2ES2, Collection)}
+     * @return true if stored, otherwise false.
+     */
+    public final synchronized boolean store(final GL2ES2 gl, final int program, final String key) {
+        final int[] binaryLength = new int[] { 0 };
+        gl.glGetProgramiv(program, GL2ES2.GL_PROGRAM_BINARY_LENGTH, binaryLength, 0);
+        if( GL.GL_NO_ERROR != gl.glGetError() || 0 >= binaryLength[0] || binaryLength[0] > maxSize ) {
+            if( DEBUG ) {
+                System.err.println("ProgramBinaryCache: Not storing "+key+", binary length "+binaryLength[0]);
+            }
+            return false;
+        }
+        final ByteBuffer binary = Buffers.newDirectByteBuffer(binaryLength[0]);
+        final IntBuffer length = Buffers.newDirectIntBuffer(1);
+        final IntBuffer binaryFormat = Buffers.newDirectIntBuffer(1);
+        gl.glGetProgramBinary(program, binaryLength[0], length, binaryFormat, binary);
+        if( GL.GL_NO_ERROR != gl.glGetError() || 0 >= length.get(0) ) {
+            return false;
+        }
+        final byte[] data = new byte[length.get(0)];
+        binary.get(data);
+
+        final File file = getFile(key);
+        final File tmpFile = new File(directory, key+".tmp");
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            try {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(binaryFormat.get(0));
+                out.writeInt(data.length);
+                out.write(data);
+            } finally {
+                out.close();
+            }
+            file.delete();
+            if( !tmpFile.renameTo(file) ) {
+                throw new IOException("Could not rename "+tmpFile+" to "+file);
+            }
+        } catch (final IOException ioe) {
+            tmpFile.delete();
+            if( DEBUG ) {
+                System.err.println("ProgramBinaryCache: Could not store "+key+": "+ioe.getMessage());
+            }
+            return false;
+        }
+        storeCount++;
+        if( DEBUG ) {
+            System.err.println("ProgramBinaryCache: Stored "+key+", "+data.length+" bytes, format 0x"+Integer.toHexString(binaryFormat.get(0)));
+        }
+        evict();
+        return true;
+    }
+
+    /** Evicts the least recently used entries until the total size is within {@link #getMaxSize()}. */
+    private void evict() {
+        final File[] files = listEntries();
+        long size = 0;
+        for(int i=0; i<files.length; i++) {
+            size += files[i].length();
+        }
+        if( size <= maxSize ) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File f1, final File f2) {
+                final long t1 = f1.lastModified(), t2 = f2.lastModified();
+                return t1 < t2 ? -1 : ( t1 > t2 ? 1 : 0 );
+            } });
+        for(int i=0; i<files.length && size > maxSize; i++) {
+            final long fileSize = files[i].length();
+            if( files[i].delete() ) {
+                size -= fileSize;
+                evictCount++;
+                if( DEBUG ) {
+                    System.err.println("ProgramBinaryCache: Evicted "+files[i].getName()+", "+fileSize+" bytes");
+                }
+            }
+        }
+    }
+
+    private File getFile(final String key) {
+        return new File(directory, key+FILE_SUFFIX);
+    }
+
+    private File[] listEntries() {
+        final File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(final File f) {
+                return f.isFile() && f.getName().endsWith(FILE_SUFFIX);
+            } });
+        return null != files ? files : new File[0];
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new GLException(e);
+        }
+    }
+
+    private static void update(final MessageDigest md, final CharSequence cs) {
+        if( null != cs ) {
+            try {
+                md.update(cs.toString().getBytes("UTF-8"));
+            } catch (final java.io.UnsupportedEncodingException e) {
+                throw new GLException(e);
+            }
+        }
+        md.update((byte)0); // separator
+    }
+
+    private static String toHexString(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length*2);
+        for(int i=0; i<bytes.length; i++) {
+            final int b = bytes[i] & 0xff;
+            if( 0x10 > b ) {
+                sb.append('0');
+            }
+            sb.append(Integer.toHexString(b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a report of this cache, i.e. its directory, entry count and size
+     * as well as the hit, miss, reject, store and evict counter.
+     */
+    @Override
+    public synchronized String toString() {
+        final int lookups = hitCount + missCount;
+        return "ProgramBinaryCache["+directory+", entries "+getEntryCount()+", size "+getSize()+" / "+maxSize+
+               " bytes, hits "+hitCount+", misses "+missCount+" (rejected "+rejectCount+"), hit ratio "+
+               ( 0 < lookups ? String.format("%.1f%%", hitCount * 100f / lookups) : "n/a" )+
+               ", stores "+storeCount+", evictions "+evictCount+"]";
+    }
+}
@@ -40,6 +40,7 @@ public class ShaderProgram {
 
     public ShaderProgram() {
         id = getNextID();
+        binaryCache = ProgramBinaryCache.getDefault();
     }
 
     public boolean linked() {
@@ -225,6 +226,24 @@ public class ShaderProgram {
         return programLinked;
     }
 
+    /**
+     * Sets the {@link ProgramBinaryCache} used by {@link #link(GL2ES2, PrintStream)},
+     * defaults to {@link ProgramBinaryCache#getDefault()}.
+     * @param cache the cache, may be <code>null</code> to disable caching
+     */
+    public synchronized void setBinaryCache(final ProgramBinaryCache cache) {
+        binaryCache = cache;
+    }
+
+    /** Returns the {@link ProgramBinaryCache} used by {@link #link(GL2ES2, PrintStream)}, may be <code>null</code>. */
+    public ProgramBinaryCache getBinaryCache() { return binaryCache; }
+
+    /**
+     * Returns true if the program has been loaded from its {@link #getBinaryCache() binary cache} by the last {@link #link(GL2ES2, PrintStream)},
+     * i.e. its shader code has neither been compiled nor attached.
+     */
+    public boolean isBinaryCacheHit() { return binaryCacheHit; }
+
     /**
      * Links the shader code to the program.
      *
@@ -232,6 +251,10 @@ public class ShaderProgram {
      *
      * <p>Within this process, all GL resources (shader and program objects) are created if necessary.</p>
      *
+     * <p>If a {@link #setBinaryCache(ProgramBinaryCache) binary cache} is used and {@link ProgramBinaryCache#isAvailable(GL) available},
+     * the program is loaded from the cache if possible, skipping compilation and linking.
+     * Otherwise the successfully linked program is stored in the cache.</p>
+     *
      * @param gl
      * @param verboseOut
      * @return true if program was successfully linked and is valid, otherwise false
@@ -239,11 +262,27 @@ public class ShaderProgram {
      * @see #init(GL2ES2)
      */
     public synchronized boolean link(final GL2ES2 gl, final PrintStream verboseOut) {
+        binaryCacheHit = false;
         if( !init(gl) ) {
             programLinked = false; // mark unlinked due to user attempt to [re]link
             return false;
         }
 
+        String binaryCacheKey = null;
+        if( null != binaryCache && ProgramBinaryCache.isAvailable(gl) ) {
+            binaryCacheKey = ProgramBinaryCache.getKey(gl, allShaderCode);
+            if( null != binaryCacheKey ) {
+                if( binaryCache.load(gl, shaderProgram, binaryCacheKey, verboseOut) ) {
+                    binaryCacheHit = true;
+                    programLinked = true;
+                    return true;
+                }
+                if( gl.isGL2ES3() ) {
+                    gl.getGL2ES3().glProgramParameteri(shaderProgram, GL2ES3.GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL.GL_TRUE);
+                }
+            }
+        }
+
         for(final Iterator<ShaderCode> iter=allShaderCode.iterator(); iter.hasNext(); ) {
             final ShaderCode shaderCode = iter.next();
             if(!shaderCode.compile(gl, verboseOut)) {
@@ -260,6 +299,9 @@ public class ShaderProgram {
 
         programLinked = ShaderUtil.isProgramLinkStatusValid(gl, shaderProgram, verboseOut);
 
+        if( programLinked && null != binaryCacheKey ) {
+            binaryCache.store(gl, shaderProgram, binaryCacheKey);
+        }
         return programLinked;
     }
 
@@ -318,6 +360,8 @@ public class ShaderProgram {
 
     private boolean programLinked = false;
     private boolean programInUse = false;
+    private ProgramBinaryCache binaryCache;
+    private boolean binaryCacheHit = false;
     private int shaderProgram = 0; // non zero is valid!
     private final HashSet<ShaderCode> allShaderCode = new HashSet<ShaderCode>();
     private final HashSet<ShaderCode> attachedShaderCode = new HashSet<ShaderCode>();
@@ -28,6 +28,8 @@
 
 package com.jogamp.opengl.util.glsl;
 
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -56,6 +58,30 @@ import com.jogamp.opengl.util.GLArrayDataEditable;
  * A {@link #useProgram(GL2ES2, boolean) used} ShaderState is attached to the current GL context
  * and can be retrieved via {@link #getShaderState(GL)}.
  * </p>
+ * <a name="handles"><h5>Uniform and Attribute Handles</h5></a>
+ * <p>
+ * For high draw call rates, uniforms and attributes may be registered once
+ * via {@link #getUniformHandle(GL2ES2, GLUniformData)} and {@link #getAttribHandle(GL2ES2, GLArrayData)}.
+ * The returned integer handles allow updating the GL state w/o name based lookups,
+ * see {@link #uniform(GL2ES2, int)}, {@link #enableVertexAttribArray(GL2ES2, int)}
+ * and {@link #vertexAttribPointer(GL2ES2, int)}.
+ * Handles stay valid when switching programs via {@link #attachShaderProgram(GL2ES2, ShaderProgram, boolean)},
+ * their locations are updated as usual. They are lost with {@link #releaseAllUniforms(GL2ES2)}
+ * and {@link #releaseAllAttributes(GL2ES2)} respectively.
+ * </p>
+ * <p>
+ * The last uploaded value of each uniform handle is shadowed,
+ * hence uploading an unchanged value is skipped.
+ * This also applies to {@link #uniform(GL2ES2, GLUniformData)} for registered uniforms.
+ * Uniform handles may also be {@link #setUniformDirty(int) marked dirty} while updating the data
+ * and {@link #uploadDirtyUniforms(GL2ES2) uploaded in one batch} before issuing the draw call.
+ * If uniforms are set bypassing this ShaderState, e.g. via {@link GL2ES2#glUniform(GLUniformData)},
+ * the shadow must be {@link #invalidateUniformShadow() invalidated}.
+ * </p>
+ * <p>
+ * The number of issued and skipped uniform uploads is counted,
+ * see {@link #getUniformUploadCount()} and {@link #getUniformSkipCount()}.
+ * </p>
  */
 public class ShaderState {
     public static final boolean DEBUG;
@@ -121,8 +147,14 @@ public class ShaderState {
                 if(!shaderProgram.link(gl, System.err)) {
                     throw new GLException("could not link program: "+shaderProgram);
                 }
+                // new program object state, all uniforms are reset
+                invalidateUniformShadow();
                 shaderProgram.useProgram(gl, true);
                 if(resetAllShaderData) {
+                    if( shaderProgram.isBinaryCacheHit() ) {
+                        // attribute locations are those bound when the cached binary was created
+                        resetAllAttributes(gl);
+                    }
                     resetAllUniforms(gl);
                 }
             }
@@ -478,6 +510,7 @@ public class ShaderState {
 
     private boolean enableVertexAttribArray(final GL2ES2 gl, final String name, int location) {
         activedAttribEnabledMap.put(name, Boolean.TRUE);
+        setAttribHandleEnabled(name, true);
         if(0>location) {
             location = getAttribLocation(gl, name);
             if(0>location) {
@@ -553,6 +586,7 @@ public class ShaderState {
 
     private boolean disableVertexAttribArray(final GL2ES2 gl, final String name, int location) {
         activedAttribEnabledMap.put(name, Boolean.FALSE);
+        setAttribHandleEnabled(name, false);
         if(0>location) {
             location = getAttribLocation(gl, name);
             if(0>location) {
@@ -683,6 +717,8 @@ public class ShaderState {
         activedAttribEnabledMap.clear();
         activeAttribLocationMap.clear();
         managedAttributes.clear();
+        attribHandles.clear();
+        attribHandleMap.clear();
     }
 
     /**
@@ -713,6 +749,9 @@ public class ShaderState {
                 gl.glDisableVertexAttribArray(index);
             }
         }
+        for(int i=0; i<attribHandles.size(); i++) {
+            attribHandles.get(i).enabled = false;
+        }
     }
 
     private final void relocateAttribute(final GL2ES2 gl, final GLArrayData attribute) {
@@ -804,6 +843,113 @@ public class ShaderState {
         }
     }
 
+    //
+    // Attribute handles
+    //
+
+    /**
+     * Registers the given {@link GLArrayData} attribute and returns its handle,
+     * allowing to enable and pass the attribute w/o name based lookups.
+     * <p>
+     * The location is validated via {@link #getAttribLocation(GL2ES2, GLArrayData)}.
+     * A handle is returned even if the attribute is not used by the current program.
+     * </p>
+     * <p>
+     * Registering another {@link GLArrayData} instance of the same name
+     * returns the same handle, now referencing the given instance.
+     * </p>
+     *
+     * @return the attribute handle, &ge; 0
+     *
+     * @throws GLException if no program is attached
+     * @throws GLException if the program is not linked and no location was cached.
+     *
+     * @see <a href="#handles">Uniform and Attribute Handles</a>
+     */
+    public final int getAttribHandle(final GL2ES2 gl, final GLArrayData data) {
+        getAttribLocation(gl, data);
+        final String name = data.getName();
+        AttribHandle ah = attribHandleMap.get(name);
+        if( null == ah ) {
+            ah = new AttribHandle(attribHandles.size(), data);
+            attribHandles.add(ah);
+            attribHandleMap.put(name, ah);
+        } else {
+            ah.data = data;
+        }
+        ah.enabled = isVertexAttribArrayEnabled(name);
+        return ah.handle;
+    }
+
+    /**
+     * @return the {@link GLArrayData} attribute of the given handle
+     * @see #getAttribHandle(GL2ES2, GLArrayData)
+     */
+    public final GLArrayData getAttribute(final int handle) {
+        return attribHandles.get(handle).data;
+    }
+
+    /**
+     * Enables the vertex attribute array of the given handle,
+     * skipping the GL call if already enabled within this state.
+     *
+     * @return false, if the attribute is not used by the current program, otherwise true
+     *
+     * @see #getAttribHandle(GL2ES2, GLArrayData)
+     * @see #enableVertexAttribArray(GL2ES2, GLArrayData)
+     */
+    public final boolean enableVertexAttribArray(final GL2ES2 gl, final int handle) {
+        final AttribHandle ah = attribHandles.get(handle);
+        if( ah.enabled ) {
+            return 0 <= ah.data.getLocation();
+        }
+        return enableVertexAttribArray(gl, ah.data);
+    }
+
+    /**
+     * Disables the vertex attribute array of the given handle,
+     * skipping the GL call if already disabled within this state.
+     *
+     * @return false, if the attribute is not used by the current program, otherwise true
+     *
+     * @see #getAttribHandle(GL2ES2, GLArrayData)
+     * @see #disableVertexAttribArray(GL2ES2, GLArrayData)
+     */
+    public final boolean disableVertexAttribArray(final GL2ES2 gl, final int handle) {
+        final AttribHandle ah = attribHandles.get(handle);
+        if( !ah.enabled ) {
+            return 0 <= ah.data.getLocation();
+        }
+        return disableVertexAttribArray(gl, ah.data);
+    }
+
+    /**
+     * Set the {@link GLArrayData} vertex attribute data of the given handle,
+     * if it is used by the current program.
+     *
+     * @return false, if the attribute is not used by the current program, otherwise true
+     *
+     * @see #getAttribHandle(GL2ES2, GLArrayData)
+     * @see #vertexAttribPointer(GL2ES2, GLArrayData)
+     */
+    public final boolean vertexAttribPointer(final GL2ES2 gl, final int handle) {
+        final GLArrayData data = attribHandles.get(handle).data;
+        if( 0 <= data.getLocation() ) {
+            gl.glVertexAttribPointer(data);
+            return true;
+        }
+        return false;
+    }
+
+    private final void setAttribHandleEnabled(final String name, final boolean enabled) {
+        if( !attribHandleMap.isEmpty() ) {
+            final AttribHandle ah = attribHandleMap.get(name);
+            if( null != ah ) {
+                ah.enabled = enabled;
+            }
+        }
+    }
+
     //
     // Shader Uniform handling
     //
@@ -949,10 +1095,20 @@ public class ShaderState {
         }
         if(0<=location) {
             // only pass the data, if the uniform exists in the current shader
+            if( !uniformHandleMap.isEmpty() ) {
+                final UniformHandle uh = uniformHandleMap.get(data.getName());
+                if( null != uh ) {
+                    if( uh.data == data ) {
+                        return uniformImpl(gl, uh);
+                    }
+                    uh.invalidateShadow();
+                }
+            }
             if(DEBUG) {
                 System.err.println("ShaderState: glUniform: "+data);
             }
             gl.glUniform(data);
+            uniformUploadCount++;
             return true;
         }
         return false;
@@ -975,6 +1131,9 @@ public class ShaderState {
         activeUniformDataMap.clear();
         activeUniformLocationMap.clear();
         managedUniforms.clear();
+        uniformHandles.clear();
+        uniformHandleMap.clear();
+        dirtyUniforms.clear();
     }
 
     /**
@@ -1008,8 +1167,176 @@ public class ShaderState {
                     System.err.println("ShaderState: resetAllUniforms: "+data);
                 }
                 gl.glUniform(data);
+                uniformUploadCount++;
+            }
+        }
+        // all values are uploaded, update the shadow of the new program
+        for(int i=0; i<uniformHandles.size(); i++) {
+            final UniformHandle uh = uniformHandles.get(i);
+            final GLUniformData data = uh.data;
+            uh.invalidateShadow();
+            uh.dirty = false;
+            if( activeUniformDataMap.get(data.getName()) != data ) {
+                // replaced by name, relocate the handle's instance
+                if( 0 <= data.setLocation(gl, shaderProgram.program()) ) {
+                    gl.glUniform(data);
+                    uniformUploadCount++;
+                }
+            }
+            if( 0 <= data.getLocation() ) {
+                uh.updateShadow();
             }
         }
+        dirtyUniforms.clear();
+    }
+
+    //
+    // Uniform handles
+    //
+
+    /**
+     * Registers the given {@link GLUniformData} uniform and returns its handle,
+     * allowing to upload the uniform w/o name based lookups and to skip uploading unchanged values.
+     * <p>
+     * The location is validated via {@link #getUniformLocation(GL2ES2, GLUniformData)},
+     * hence the current shader program must be in use.
+     * A handle is returned even if the uniform is not used by the current program.
+     * </p>
+     * <p>
+     * Registering another {@link GLUniformData} instance of the same name
+     * returns the same handle, now referencing the given instance.
+     * </p>
+     * <p>
+     * The data will not be transfered to the GPU, use {@link #uniform(GL2ES2, int)} additionally.
+     * </p>
+     *
+     * @return the uniform handle, &ge; 0
+     *
+     * @throws GLException if the program is not in use
+     *
+     * @see <a href="#handles">Uniform and Attribute Handles</a>
+     */
+    public final int getUniformHandle(final GL2ES2 gl, final GLUniformData data) {
+        getUniformLocation(gl, data);
+        final String name = data.getName();
+        UniformHandle uh = uniformHandleMap.get(name);
+        if( null == uh ) {
+            uh = new UniformHandle(uniformHandles.size(), data);
+            uniformHandles.add(uh);
+            uniformHandleMap.put(name, uh);
+        } else if( uh.data != data ) {
+            uh.data = data;
+            uh.invalidateShadow();
+        }
+        return uh.handle;
+    }
+
+    /**
+     * @return the {@link GLUniformData} uniform of the given handle
+     * @see #getUniformHandle(GL2ES2, GLUniformData)
+     */
+    public final GLUniformData getUniform(final int handle) {
+        return uniformHandles.get(handle).data;
+    }
+
+    /**
+     * Set the uniform data of the given handle, if it is used by the current program.
+     * <p>
+     * The upload is skipped if the value is unchanged since the last upload to the current program.
+     * </p>
+     *
+     * @return false, if the uniform is not used by the current program, otherwise true
+     *
+     * @throws GLException if the program is not in use
+     *
+     * @see #getUniformHandle(GL2ES2, GLUniformData)
+     * @see #uniform(GL2ES2, GLUniformData)
+     */
+    public final boolean uniform(final GL2ES2 gl, final int handle) {
+        if(!shaderProgram.inUse()) throw new GLException("Program is not in use");
+        final UniformHandle uh = uniformHandles.get(handle);
+        if( 0 > uh.data.getLocation() ) {
+            return false;
+        }
+        return uniformImpl(gl, uh);
+    }
+
+    private final boolean uniformImpl(final GL2ES2 gl, final UniformHandle uh) {
+        if( uh.updateShadow() ) {
+            if(DEBUG) {
+                System.err.println("ShaderState: glUniform: "+uh.data);
+            }
+            gl.glUniform(uh.data);
+            uniformUploadCount++;
+        } else {
+            uniformSkipCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Marks the uniform of the given handle dirty,
+     * i.e. scheduling its upload with the next {@link #uploadDirtyUniforms(GL2ES2)}.
+     *
+     * @see #getUniformHandle(GL2ES2, GLUniformData)
+     */
+    public final void setUniformDirty(final int handle) {
+        final UniformHandle uh = uniformHandles.get(handle);
+        if( !uh.dirty ) {
+            uh.dirty = true;
+            dirtyUniforms.add(uh);
+        }
+    }
+
+    /**
+     * Uploads all {@link #setUniformDirty(int) dirty} uniforms used by the current program,
+     * skipping unchanged values. Should be called right before issuing the draw call.
+     *
+     * @return the number of issued uploads
+     *
+     * @throws GLException if the program is not in use
+     */
+    public final int uploadDirtyUniforms(final GL2ES2 gl) {
+        final int n = dirtyUniforms.size();
+        if( 0 == n ) {
+            return 0;
+        }
+        if(!shaderProgram.inUse()) throw new GLException("Program is not in use");
+        final long c0 = uniformUploadCount;
+        for(int i=0; i<n; i++) {
+            final UniformHandle uh = dirtyUniforms.get(i);
+            uh.dirty = false;
+            if( 0 <= uh.data.getLocation() ) {
+                uniformImpl(gl, uh);
+            }
+        }
+        dirtyUniforms.clear();
+        return (int) ( uniformUploadCount - c0 );
+    }
+
+    /**
+     * Invalidates the shadowed uniform values,
+     * forcing the next upload of each uniform handle.
+     * <p>
+     * Must be called if uniforms were set bypassing this ShaderState.
+     * </p>
+     */
+    public final void invalidateUniformShadow() {
+        for(int i=0; i<uniformHandles.size(); i++) {
+            uniformHandles.get(i).invalidateShadow();
+        }
+    }
+
+    /** Returns the number of uniform uploads issued by this state. */
+    public final long getUniformUploadCount() { return uniformUploadCount; }
+
+    /** Returns the number of uniform uploads skipped by this state due to an unchanged value. */
+    public final long getUniformSkipCount() { return uniformSkipCount; }
+
+    /** Resets the {@link #getUniformUploadCount() issued} and {@link #getUniformSkipCount() skipped} uniform upload counter. */
+    public final void resetUniformUploadCounter() {
+        uniformUploadCount = 0;
+        uniformSkipCount = 0;
     }
 
     public StringBuilder toString(StringBuilder sb, final boolean alsoUnlocated) {
@@ -1084,5 +1411,96 @@ public class ShaderState {
 
     private final HashMap<String, Object> attachedObjectsByString = new HashMap<String, Object>();
     private boolean resetAllShaderData = false;
+
+    private final ArrayList<AttribHandle> attribHandles = new ArrayList<AttribHandle>();
+    private final HashMap<String, AttribHandle> attribHandleMap = new HashMap<String, AttribHandle>();
+    private final ArrayList<UniformHandle> uniformHandles = new ArrayList<UniformHandle>();
+    private final HashMap<String, UniformHandle> uniformHandleMap = new HashMap<String, UniformHandle>();
+    private final ArrayList<UniformHandle> dirtyUniforms = new ArrayList<UniformHandle>();
+    private long uniformUploadCount = 0;
+    private long uniformSkipCount = 0;
+
+    private static final class AttribHandle {
+        final int handle;
+        GLArrayData data;
+        boolean enabled;
+
+        AttribHandle(final int handle, final GLArrayData data) {
+            this.handle = handle;
+            this.data = data;
+        }
+    }
+
+    /** Uniform handle w/ shadow of the last uploaded value, stored as raw int bits. */
+    private static final class UniformHandle {
+        final int handle;
+        GLUniformData data;
+        int[] shadow = new int[0];
+        int shadowLen = -1; // invalid
+        boolean shadowFloat;
+        boolean dirty;
+
+        UniformHandle(final int handle, final GLUniformData data) {
+            this.handle = handle;
+            this.data = data;
+        }
+
+        void invalidateShadow() {
+            shadowLen = -1;
+        }
+
+        /**
+         * Compares the current value w/ the shadow and updates the latter.
+         * @return true if the value has changed or the shadow was invalid, i.e. the value must be uploaded.
+         */
+        boolean updateShadow() {
+            final Object o = data.getObject();
+            final int n;
+            if( o instanceof FloatBuffer || o instanceof IntBuffer ) {
+                n = data.count() * data.components();
+            } else if( o instanceof Float || o instanceof Integer ) {
+                n = 1;
+            } else {
+                shadowLen = -1; // unknown, always upload
+                return true;
+            }
+            final boolean isFloat = o instanceof FloatBuffer || o instanceof Float;
+            boolean changed = n != shadowLen || isFloat != shadowFloat;
+            if( shadow.length < n ) {
+                shadow = new int[n];
+                changed = true;
+            }
+            if( o instanceof FloatBuffer ) {
+                final FloatBuffer fb = (FloatBuffer)o;
+                final int pos = fb.position();
+                for(int i=0; i<n; i++) {
+                    final int v = Float.floatToRawIntBits(fb.get(pos+i));
+                    if( v != shadow[i] ) {
+                        shadow[i] = v;
+                        changed = true;
+                    }
+                }
+            } else if( o instanceof IntBuffer ) {
+                final IntBuffer ib = (IntBuffer)o;
+                final int pos = ib.position();
+                for(int i=0; i<n; i++) {
+                    final int v = ib.get(pos+i);
+                    if( v != shadow[i] ) {
+                        shadow[i] = v;
+                        changed = true;
+                    }
+                }
+            } else {
+                final int v = isFloat ? Float.floatToRawIntBits(((Float)o).floatValue()) : ((Integer)o).intValue();
+                if( v != shadow[0] ) {
+                    shadow[0] = v;
+                    changed = true;
+                }
+            }
+            shadowLen = n;
+            shadowFloat = isFloat;
+            return changed;
+        }
+    }
 }
 
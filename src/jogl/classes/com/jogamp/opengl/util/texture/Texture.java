@@ -726,7 +726,11 @@ public class Texture {
             }
         }
 
-        final int minFilter = (data.getMipmap() ? GL.GL_LINEAR_MIPMAP_LINEAR : GL.GL_LINEAR);
+        // A complete chain of given mipmap levels, e.g. via TextureMipmapBuilder, is used for minification as well
+        final Buffer[] mipmapLevels = data.getMipmapData();
+        final boolean mipmapped = data.getMipmap() ||
+                                  ( null != mipmapLevels && mipmapLevels.length >= TextureMipmapBuilder.getLevelCount(texWidth, texHeight) );
+        final int minFilter = (mipmapped ? GL.GL_LINEAR_MIPMAP_LINEAR : GL.GL_LINEAR);
         final int magFilter = GL.GL_LINEAR;
         final int wrapMode = (gl.isExtensionAvailable(GLExtensions.VERSION_1_2) || !gl.isGL2()) ? GL.GL_CLAMP_TO_EDGE : GL2.GL_CLAMP;
 
@@ -56,6 +56,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import com.jogamp.nativewindow.util.Dimension;
 import com.jogamp.nativewindow.util.DimensionImmutable;
@@ -200,6 +201,12 @@ public class TextureIO {
     // observation)
     private static boolean texRectEnabled = true;
 
+    // Optional executor for pipelined PNG decoding and parallel PNG encoding
+    private static volatile Executor pngExecutor = null;
+
+    // Optional executor for parallel JPEG decoding
+    private static volatile Executor jpgExecutor = null;
+
     //----------------------------------------------------------------------
     // methods that *do not* require a current context
     // These methods assume RGB or RGBA textures.
@@ -236,7 +243,7 @@ public class TextureIO {
         if (fileSuffix == null) {
             fileSuffix = IOUtil.getFileSuffix(file);
         }
-        return newTextureDataImpl(glp, file, 0, 0, mipmap, fileSuffix);
+        return newTextureDataImpl(glp, file, 0, 0, mipmap, fileSuffix, 0);
     }
 
     /**
@@ -263,7 +270,7 @@ public class TextureIO {
     public static TextureData newTextureData(final GLProfile glp, final InputStream stream,
                                              final boolean mipmap,
                                              final String fileSuffix) throws IOException {
-        return newTextureDataImpl(glp, stream, 0, 0, mipmap, fileSuffix);
+        return newTextureDataImpl(glp, stream, 0, 0, mipmap, fileSuffix, 0);
     }
 
     /**
@@ -293,7 +300,80 @@ public class TextureIO {
         if (fileSuffix == null) {
             fileSuffix = IOUtil.getFileSuffix(url.getPath());
         }
-        return newTextureDataImpl(glp, url, 0, 0, mipmap, fileSuffix);
+        return newTextureDataImpl(glp, url, 0, 0, mipmap, fileSuffix, 0);
+    }
+
+    /**
+     * Creates a TextureData from the given file at a reduced resolution
+     * fitting into <code>maxDimension</code> if supported by the image format.
+     * Does no OpenGL work.
+     * <p>
+     * See {@link #newTextureData(GLProfile, InputStream, boolean, String, int)}.
+     * </p>
+     */
+    public static TextureData newTextureData(final GLProfile glp, final File file,
+                                             final boolean mipmap,
+                                             String fileSuffix,
+                                             final int maxDimension) throws IOException {
+        if (fileSuffix == null) {
+            fileSuffix = IOUtil.getFileSuffix(file);
+        }
+        return newTextureDataImpl(glp, file, 0, 0, mipmap, fileSuffix, maxDimension);
+    }
+
+    /**
+     * Creates a TextureData from the given stream at a reduced resolution
+     * fitting into <code>maxDimension</code> if supported by the image format.
+     * Does no OpenGL work.
+     * <p>
+     * Currently only JPEG images are decoded at a reduced resolution,
+     * i.e. 1/2, 1/4 or 1/8 in the DCT domain, which takes a fraction of the memory
+     * and time of decoding the full resolution,
+     * see {@link JPEGImage#read(InputStream, TextureData.ColorSpace, Executor, int)}.
+     * If the image reduced to 1/8 still exceeds <code>maxDimension</code>, it is read at 1/8.
+     * Other image formats are read at full resolution.
+     * </p>
+     *
+     * @param glp the OpenGL Profile this texture data should be
+     *                  created for.
+     * @param stream the stream from which to read the texture data
+     * @param mipmap     whether mipmaps should be produced for this
+     *                   texture either by autogenerating them or
+     *                   reading them from the file.
+     * @param fileSuffix the suffix of the file name to be used as a
+     *                   hint of the file format to the underlying
+     *                   texture provider, or null if none and should be
+     *                   auto-detected (some texture providers do not
+     *                   support this)
+     * @param maxDimension the maximum width and height of the texture data,
+     *                   zero or negative to read at full resolution
+     * @return the texture data from the stream, or null if none of the
+     *         registered texture providers could read the stream
+     * @throws IOException if an error occurred while reading the stream
+     */
+    public static TextureData newTextureData(final GLProfile glp, final InputStream stream,
+                                             final boolean mipmap,
+                                             final String fileSuffix,
+                                             final int maxDimension) throws IOException {
+        return newTextureDataImpl(glp, stream, 0, 0, mipmap, fileSuffix, maxDimension);
+    }
+
+    /**
+     * Creates a TextureData from the given URL at a reduced resolution
+     * fitting into <code>maxDimension</code> if supported by the image format.
+     * Does no OpenGL work.
+     * <p>
+     * See {@link #newTextureData(GLProfile, InputStream, boolean, String, int)}.
+     * </p>
+     */
+    public static TextureData newTextureData(final GLProfile glp, final URL url,
+                                             final boolean mipmap,
+                                             String fileSuffix,
+                                             final int maxDimension) throws IOException {
+        if (fileSuffix == null) {
+            fileSuffix = IOUtil.getFileSuffix(url.getPath());
+        }
+        return newTextureDataImpl(glp, url, 0, 0, mipmap, fileSuffix, maxDimension);
     }
 
     //----------------------------------------------------------------------
@@ -348,7 +428,7 @@ public class TextureIO {
             fileSuffix = IOUtil.getFileSuffix(file);
         }
 
-        return newTextureDataImpl(glp, file, internalFormat, pixelFormat, mipmap, fileSuffix);
+        return newTextureDataImpl(glp, file, internalFormat, pixelFormat, mipmap, fileSuffix, 0);
     }
 
     /**
@@ -392,7 +472,7 @@ public class TextureIO {
             throw new IllegalArgumentException("internalFormat and pixelFormat must be non-zero");
         }
 
-        return newTextureDataImpl(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix);
+        return newTextureDataImpl(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix, 0);
     }
 
     /**
@@ -440,7 +520,7 @@ public class TextureIO {
             fileSuffix = IOUtil.getFileSuffix(url.getPath());
         }
 
-        return newTextureDataImpl(glp, url, internalFormat, pixelFormat, mipmap, fileSuffix);
+        return newTextureDataImpl(glp, url, internalFormat, pixelFormat, mipmap, fileSuffix, 0);
     }
 
     //----------------------------------------------------------------------
@@ -761,6 +841,38 @@ public class TextureIO {
         return texRectEnabled;
     }
 
+    /** Sets the {@link Executor} used by the PNG provider to inflate
+        the image data concurrently to unfiltering and pixel conversion,
+        see {@link PNGPixelRect#read(InputStream, PixelFormat, boolean, int, boolean, Executor)},
+        and by the PNG writer to filter and deflate row bands in parallel,
+        see {@link PNGPixelRect#write(OutputStream, boolean, Executor)}.
+        The default is <code>null</code>, i.e. PNG images are decoded and
+        encoded sequentially on the calling thread. */
+    public static void setPNGExecutor(final Executor executor) {
+        pngExecutor = executor;
+    }
+
+    /** Returns the {@link Executor} used for PNG decoding and encoding,
+        maybe <code>null</code>; see {@link #setPNGExecutor setPNGExecutor}. */
+    public static Executor getPNGExecutor() {
+        return pngExecutor;
+    }
+
+    /** Sets the {@link Executor} used by the JPEG provider to decode
+        restart intervals, the inverse DCT and the color conversion in parallel,
+        see {@link JPEGImage#read(InputStream, TextureData.ColorSpace, Executor)}.
+        The default is <code>null</code>, i.e. JPEG images are decoded
+        sequentially on the calling thread. */
+    public static void setJPGExecutor(final Executor executor) {
+        jpgExecutor = executor;
+    }
+
+    /** Returns the {@link Executor} used for JPEG decoding,
+        maybe <code>null</code>; see {@link #setJPGExecutor setJPGExecutor}. */
+    public static Executor getJPGExecutor() {
+        return jpgExecutor;
+    }
+
     //----------------------------------------------------------------------
     // Internals only below this point
     //
@@ -822,7 +934,8 @@ public class TextureIO {
                                                   final int internalFormat,
                                                   final int pixelFormat,
                                                   final boolean mipmap,
-                                                  String fileSuffix) throws IOException {
+                                                  String fileSuffix,
+                                                  final int maxDimension) throws IOException {
         if (stream == null) {
             throw new IOException("Stream was null");
         }
@@ -839,11 +952,12 @@ public class TextureIO {
             if( imageType.isDefined() ) {
                 final TextureProvider mappedProvider = imageType2TextureProvider.get(imageType);
                 if( null != mappedProvider ) {
-                    final TextureData data = mappedProvider.newTextureData(glp, stream,
-                                                                           internalFormat,
-                                                                           pixelFormat,
-                                                                           mipmap,
-                                                                           imageType.type);
+                    final TextureData data = newTextureData(mappedProvider, glp, stream,
+                                                            internalFormat,
+                                                            pixelFormat,
+                                                            mipmap,
+                                                            imageType.type,
+                                                            maxDimension);
                     if (data != null) {
                         data.srcImageType = imageType;
                         return data;
@@ -861,11 +975,12 @@ public class TextureIO {
 
         for (final Iterator<TextureProvider> iter = textureProviders.iterator(); iter.hasNext(); ) {
             final TextureProvider provider = iter.next();
-            final TextureData data = provider.newTextureData(glp, stream,
-                                                             internalFormat,
-                                                             pixelFormat,
-                                                             mipmap,
-                                                             fileSuffix);
+            final TextureData data = newTextureData(provider, glp, stream,
+                                                    internalFormat,
+                                                    pixelFormat,
+                                                    mipmap,
+                                                    fileSuffix,
+                                                    maxDimension);
             if (data != null) {
                 final ImageType[] imageTypes = provider.getImageTypes();
                 data.srcImageType = null != imageTypes ? imageTypes[0] : null;
@@ -875,18 +990,31 @@ public class TextureIO {
 
         throw new IOException("No suitable reader for given stream");
     }
+    /** Reads the texture data via the given provider, at a reduced resolution if <code>maxDimension</code> is given and supported. */
+    private static TextureData newTextureData(final TextureProvider provider, final GLProfile glp, final InputStream stream,
+                                              final int internalFormat,
+                                              final int pixelFormat,
+                                              final boolean mipmap,
+                                              final String fileSuffix,
+                                              final int maxDimension) throws IOException {
+        if( 0 < maxDimension && provider instanceof JPGTextureProvider ) {
+            return ((JPGTextureProvider)provider).newTextureData(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix, maxDimension);
+        }
+        return provider.newTextureData(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix);
+    }
     private static TextureData newTextureDataImpl(final GLProfile glp, final File file,
                                                   final int internalFormat,
                                                   final int pixelFormat,
                                                   final boolean mipmap,
-                                                  final String fileSuffix) throws IOException {
+                                                  final String fileSuffix,
+                                                  final int maxDimension) throws IOException {
         if (file == null) {
             throw new IOException("File was null");
         }
         final InputStream stream = new BufferedInputStream(new FileInputStream(file));
         try {
             return newTextureDataImpl( glp, stream, internalFormat, pixelFormat, mipmap,
-                                       (fileSuffix != null) ? fileSuffix : IOUtil.getFileSuffix(file) );
+                                       (fileSuffix != null) ? fileSuffix : IOUtil.getFileSuffix(file), maxDimension );
         } catch(final IOException ioe) {
             throw new IOException(ioe.getMessage()+", given file "+file.getAbsolutePath(), ioe);
         } finally {
@@ -897,13 +1025,14 @@ public class TextureIO {
                                                   final int internalFormat,
                                                   final int pixelFormat,
                                                   final boolean mipmap,
-                                                  final String fileSuffix) throws IOException {
+                                                  final String fileSuffix,
+                                                  final int maxDimension) throws IOException {
         if (url == null) {
             throw new IOException("URL was null");
         }
         final InputStream stream = new BufferedInputStream(url.openStream());
         try {
-            return newTextureDataImpl(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix);
+            return newTextureDataImpl(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix, maxDimension);
         } catch(final IOException ioe) {
             throw new IOException(ioe.getMessage()+", given URL "+url, ioe);
         } finally {
@@ -1124,7 +1253,8 @@ public class TextureIO {
                                           final String fileSuffix) throws IOException {
             if (ImageType.T_PNG.equals(fileSuffix) ||
             	ImageType.T_PNG.equals(ImageType.Util.getFileSuffix(stream))) {
-                final PNGPixelRect image = PNGPixelRect.read(stream, null, true /* directBuffer */, 0 /* destMinStrideInBytes */, true /* destIsGLOriented */);
+                final PNGPixelRect image = PNGPixelRect.read(stream, null, true /* directBuffer */, 0 /* destMinStrideInBytes */, true /* destIsGLOriented */,
+                                                             pngExecutor);
                 final GLPixelAttributes glpa = new GLPixelAttributes(glp, image.getPixelformat(), false /* pack */);
                 if ( 0 == pixelFormat ) {
                     pixelFormat = glpa.format;
@@ -1164,14 +1294,24 @@ public class TextureIO {
         }
 
         @Override
+        public TextureData newTextureData(final GLProfile glp, final InputStream stream,
+                                          final int internalFormat,
+                                          final int pixelFormat,
+                                          final boolean mipmap,
+                                          final String fileSuffix) throws IOException {
+            return newTextureData(glp, stream, internalFormat, pixelFormat, mipmap, fileSuffix, 0);
+        }
+
+        /** Reads the JPEG image at a reduced resolution fitting into <code>maxDimension</code>, if positive. */
         public TextureData newTextureData(final GLProfile glp, final InputStream stream,
                                           int internalFormat,
                                           int pixelFormat,
                                           final boolean mipmap,
-                                          final String fileSuffix) throws IOException {
+                                          final String fileSuffix,
+                                          final int maxDimension) throws IOException {
             if (ImageType.T_JPG.equals(fileSuffix) ||
             	ImageType.T_JPG.equals(ImageType.Util.getFileSuffix(stream))) {
-                final JPEGImage image = JPEGImage.read(/*glp, */ stream);
+                final JPEGImage image = JPEGImage.read(/*glp, */ stream, TextureData.ColorSpace.RGB, jpgExecutor, maxDimension);
                 if (pixelFormat == 0) {
                     pixelFormat = image.getGLFormat();
                 }
@@ -1377,7 +1517,7 @@ public class TextureIO {
                                                                     0 /* stride */, !data.getMustFlipVertically() /* isGLOriented */, buf /* pixels */,
                                                                     -1f, -1f);
                         final OutputStream outs = new BufferedOutputStream(IOUtil.getFileOutputStream(file, true /* allowOverwrite */));
-                        image.write(outs, true /* close */);
+                        image.write(outs, true /* close */, pngExecutor);
                         return true;
                     } else if( buf0 instanceof IntBuffer ) {
                         final IntBuffer buf = (IntBuffer) buf0;
@@ -1385,7 +1525,7 @@ public class TextureIO {
                         final OutputStream outs = new BufferedOutputStream(IOUtil.getFileOutputStream(file, true /* allowOverwrite */));
                         PNGPixelRect.write(pixFmt, size,
                                            0 /* stride */, !data.getMustFlipVertically() /* isGLOriented */, buf /* pixels */,
-                                           -1f, -1f, outs, true /* closeOutstream */);
+                                           -1f, -1f, outs, true /* closeOutstream */, pngExecutor);
                         return true;
                     } else {
                         throw new IOException("PNG writer doesn't support pixel storage buffer of type "+buf0.getClass().getName());
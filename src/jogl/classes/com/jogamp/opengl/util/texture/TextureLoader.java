@@ -0,0 +1,818 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.texture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES2;
+import com.jogamp.opengl.GL2ES3;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawableFactory;
+import com.jogamp.opengl.GLException;
+import com.jogamp.opengl.GLOffscreenAutoDrawable;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.GLRunnable;
+
+import jogamp.opengl.Debug;
+
+import com.jogamp.opengl.util.GLBuffers;
+
+/**
+ * Asynchronous {@link Texture} loading service.
+ * <p>
+ * In contrast to {@link TextureIO#newTexture(File, boolean) TextureIO.newTexture(..)},
+ * which decodes and uploads on the thread holding the GL context,
+ * the {@link TextureData} is decoded on a pool of worker threads
+ * via the registered {@link TextureIO.TextureProvider}s
+ * and uploaded on the GL thread of the given {@link GLAutoDrawable}
+ * via {@link GLAutoDrawable#invoke(boolean, GLRunnable)}.
+ * </p>
+ * <p>
+ * Uploads are performed in slices, where each {@link GLAutoDrawable#display() display} call
+ * only spends the {@link #setUploadBudget(long) upload budget} of time on uploading.
+ * Large uncompressed single level {@link ByteBuffer} textures are allocated once and
+ * uploaded in horizontal bands of about {@link #setSliceSize(int) slice size} bytes,
+ * all other textures are uploaded at once within one slice.
+ * On {@link GL#isGL2ES3() GL2ES3} profiles, bands are streamed through
+ * two alternating pixel unpack buffer objects, if {@link #setUsePBO(boolean) enabled}.
+ * </p>
+ * <p>
+ * If {@link #setUseSharedContext(boolean) enabled}, uploads are performed
+ * on an offscreen drawable sharing its context with the given {@link GLAutoDrawable},
+ * not stalling its rendering at all. Here each loaded texture is
+ * finished via {@link GL#glFinish()} before being handed out.
+ * </p>
+ * <p>
+ * Each request is represented by a {@link Future}, which can be waited for,
+ * {@link Future#cancel(boolean) cancelled} or {@link Request#setPriority(int) re-prioritized}.
+ * Requests of higher priority are decoded and uploaded first,
+ * requests of equal priority in their issuing order.
+ * A cancelled request's partially uploaded texture is destroyed on the GL thread.
+ * </p>
+ * <p>
+ * If mipmaps are requested and a {@link #setMipmapBuilder(TextureMipmapBuilder) mipmap builder} is set,
+ * supported {@link TextureData} is completed by the latter on the worker thread,
+ * otherwise mipmaps are generated by {@link Texture} on the GL thread.
+ * </p>
+ * <p>
+ * Example:
+ * <pre>
+ *   final TextureLoader loader = new TextureLoader(glad, 0);
+ *   final Future&lt;Texture&gt; tex = loader.load(url, true, null, 0);
+ *   ...
+ *   // in display(..)
+ *   if( tex.isDone() ) { ... tex.get().bind(gl) ... }
+ *   ...
+ *   loader.shutdown();
+ * </pre>
+ * </p>
+ */
+public class TextureLoader {
+    private static final boolean DEBUG = Debug.debug("TextureLoader");
+
+    /** Default {@link #setUploadBudget(long) upload budget} of 4 ms per frame. */
+    public static final long DEFAULT_UPLOAD_BUDGET = 4000000L;
+
+    /** Default {@link #setSliceSize(int) slice size} of 1 MiB. */
+    public static final int DEFAULT_SLICE_SIZE = 1 << 20;
+
+    private static final int QUEUED = 0;
+    private static final int DECODING = 1;
+    private static final int PENDING = 2;
+    private static final int UPLOADING = 3;
+    private static final int DONE = 4;
+    private static final int FAILED = 5;
+    private static final int CANCELLED = 6;
+
+    private final GLAutoDrawable drawable;
+    private final GLProfile glp;
+    private final ThreadPoolExecutor decoder;
+    private final ScheduledExecutorService dispatcher;
+    /** Requests ready for upload, guarded by itself. */
+    private final PriorityQueue<Request> uploadQueue = new PriorityQueue<Request>();
+    private final AtomicBoolean uploadScheduled = new AtomicBoolean(false);
+    private final AtomicLong sequence = new AtomicLong(0);
+    private final UploadPump uploadPump = new UploadPump();
+
+    private volatile long uploadBudget = DEFAULT_UPLOAD_BUDGET;
+    private volatile int sliceSize = DEFAULT_SLICE_SIZE;
+    private volatile boolean usePBO = true;
+    private volatile boolean useSharedContext = false;
+    private volatile TextureMipmapBuilder mipmapBuilder = null;
+    private volatile boolean shutdown = false;
+
+    /** Only accessed on the dispatcher thread. */
+    private GLOffscreenAutoDrawable sharedDrawable = null;
+    /** Only accessed on the GL thread of the upload drawable. */
+    private final int[] pbos = { 0, 0 };
+    private int pboIdx = 0;
+
+    /**
+     * Creates a new loader uploading to the given {@link GLAutoDrawable}.
+     * @param drawable the {@link GLAutoDrawable} to upload to, or to share the context with.
+     * @param threadCount number of decoding worker threads, if &le; 0 the number of available processors minus one, but at least one.
+     */
+    public TextureLoader(final GLAutoDrawable drawable, final int threadCount) {
+        if( null == drawable ) {
+            throw new IllegalArgumentException("Null drawable");
+        }
+        this.drawable = drawable;
+        this.glp = drawable.getGLProfile();
+        final int n = 0 < threadCount ? threadCount : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        decoder = new ThreadPoolExecutor(n, n, 60L, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(),
+                                         new DaemonThreadFactory("TextureLoader-Decoder"));
+        decoder.allowCoreThreadTimeOut(true);
+        dispatcher = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("TextureLoader-Dispatcher"));
+    }
+
+    /** Returns the {@link GLAutoDrawable} textures are uploaded to, or shared with. */
+    public final GLAutoDrawable getDrawable() { return drawable; }
+
+    /**
+     * Sets the time in nanoseconds to spend on uploading per {@link GLAutoDrawable#display() display} call,
+     * defaults to {@link #DEFAULT_UPLOAD_BUDGET}. At least one slice is uploaded per call.
+     */
+    public final void setUploadBudget(final long nanos) { uploadBudget = Math.max(0L, nanos); }
+    /** Returns the time in nanoseconds to spend on uploading per display call. */
+    public final long getUploadBudget() { return uploadBudget; }
+
+    /** Sets the approximate size in bytes of one upload slice, defaults to {@link #DEFAULT_SLICE_SIZE}. */
+    public final void setSliceSize(final int bytes) { sliceSize = Math.max(1, bytes); }
+    /** Returns the approximate size in bytes of one upload slice. */
+    public final int getSliceSize() { return sliceSize; }
+
+    /** Enables streaming slices through pixel unpack buffer objects on {@link GL#isGL2ES3() GL2ES3}, defaults to <code>true</code>. */
+    public final void setUsePBO(final boolean v) { usePBO = v; }
+    /** Returns whether streaming through pixel unpack buffer objects is enabled. */
+    public final boolean getUsePBO() { return usePBO; }
+
+    /**
+     * Enables uploading via an offscreen drawable sharing its context with {@link #getDrawable()},
+     * defaults to <code>false</code>.
+     * <p>
+     * Must be set before issuing the first request.
+     * </p>
+     */
+    public final void setUseSharedContext(final boolean v) { useSharedContext = v; }
+    /** Returns whether uploading via a shared context is enabled. */
+    public final boolean getUseSharedContext() { return useSharedContext; }
+
+    /**
+     * Sets the {@link TextureMipmapBuilder} completing the mipmap chain of requests with mipmaps on the worker thread,
+     * defaults to <code>null</code>.
+     */
+    public final void setMipmapBuilder(final TextureMipmapBuilder builder) { mipmapBuilder = builder; }
+    /** Returns the {@link TextureMipmapBuilder} used on the worker thread, may be <code>null</code>. */
+    public final TextureMipmapBuilder getMipmapBuilder() { return mipmapBuilder; }
+
+    /**
+     * Loads the texture from the given file.
+     * @param file the file to read
+     * @param mipmap whether mipmaps shall be produced or read, see {@link TextureIO#newTextureData(GLProfile, File, boolean, String)}
+     * @param fileSuffix file format hint, may be <code>null</code>
+     * @param priority requests of higher priority are processed first
+     * @return the {@link Request}
+     */
+    public final Request load(final File file, final boolean mipmap, final String fileSuffix, final int priority) {
+        return enqueue(new Callable<TextureData>() {
+            @Override
+            public TextureData call() throws IOException {
+                return TextureIO.newTextureData(glp, file, mipmap, fileSuffix);
+            } }, file.toString(), mipmap, priority);
+    }
+
+    /**
+     * Loads the texture from the given URL.
+     * @param url the URL to read
+     * @param mipmap whether mipmaps shall be produced or read, see {@link TextureIO#newTextureData(GLProfile, URL, boolean, String)}
+     * @param fileSuffix file format hint, may be <code>null</code>
+     * @param priority requests of higher priority are processed first
+     * @return the {@link Request}
+     */
+    public final Request load(final URL url, final boolean mipmap, final String fileSuffix, final int priority) {
+        return enqueue(new Callable<TextureData>() {
+            @Override
+            public TextureData call() throws IOException {
+                return TextureIO.newTextureData(glp, url, mipmap, fileSuffix);
+            } }, url.toString(), mipmap, priority);
+    }
+
+    /**
+     * Loads the texture from the given stream, which is closed after decoding.
+     * @param stream the stream to read
+     * @param mipmap whether mipmaps shall be produced or read, see {@link TextureIO#newTextureData(GLProfile, InputStream, boolean, String)}
+     * @param fileSuffix file format hint, may be <code>null</code>
+     * @param priority requests of higher priority are processed first
+     * @return the {@link Request}
+     */
+    public final Request load(final InputStream stream, final boolean mipmap, final String fileSuffix, final int priority) {
+        return enqueue(new Callable<TextureData>() {
+            @Override
+            public TextureData call() throws IOException {
+                try {
+                    return TextureIO.newTextureData(glp, stream, mipmap, fileSuffix);
+                } finally {
+                    stream.close();
+                }
+            } }, stream.toString(), mipmap, priority);
+    }
+
+    /**
+     * Uploads the given already decoded {@link TextureData}, which is {@link TextureData#flush() flushed} after uploading.
+     * @param data the texture data
+     * @param priority requests of higher priority are processed first
+     * @return the {@link Request}
+     */
+    public final Request load(final TextureData data, final int priority) {
+        return enqueue(new Callable<TextureData>() {
+            @Override
+            public TextureData call() {
+                return data;
+            } }, data.toString(), data.getMipmap(), priority);
+    }
+
+    private Request enqueue(final Callable<TextureData> source, final String name, final boolean mipmap, final int priority) {
+        if( shutdown ) {
+            throw new RejectedExecutionException("TextureLoader shut down");
+        }
+        final Request r = new Request(source, name, mipmap, priority, sequence.getAndIncrement());
+        decoder.execute(r.decodeTask);
+        return r;
+    }
+
+    /** Returns the number of requests neither done, failed nor cancelled. */
+    public final int getPendingCount() {
+        final int uploading;
+        synchronized( uploadQueue ) {
+            uploading = uploadQueue.size();
+        }
+        return decoder.getQueue().size() + decoder.getActiveCount() + uploading;
+    }
+
+    /**
+     * Shuts down this loader, cancelling all pending requests.
+     * <p>
+     * Resources of partially uploaded textures, the pixel buffer objects
+     * and the optional shared offscreen drawable are released asynchronously.
+     * </p>
+     */
+    public final void shutdown() {
+        if( shutdown ) {
+            return;
+        }
+        shutdown = true;
+        for(final Runnable t : decoder.shutdownNow()) {
+            ((DecodeTask)t).request.cancel(false);
+        }
+        final ArrayList<Request> pending;
+        synchronized( uploadQueue ) {
+            pending = new ArrayList<Request>(uploadQueue);
+        }
+        for(final Request r : pending) {
+            r.cancel(false);
+        }
+        dispatcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                final GLAutoDrawable d = null != sharedDrawable ? sharedDrawable : drawable;
+                d.invoke(false, new GLRunnable() {
+                    @Override
+                    public boolean run(final GLAutoDrawable glad) {
+                        final GL gl = glad.getGL();
+                        uploadPump.run(glad); // release cancelled requests
+                        if( 0 != pbos[0] ) {
+                            gl.glDeleteBuffers(2, pbos, 0);
+                            pbos[0] = 0;
+                            pbos[1] = 0;
+                        }
+                        return true;
+                    } } );
+                if( null != sharedDrawable ) {
+                    sharedDrawable.destroy();
+                    sharedDrawable = null;
+                }
+            } } );
+        dispatcher.shutdown();
+    }
+
+    /** Schedules the {@link UploadPump} on the upload drawable, if not yet scheduled. */
+    private void scheduleUpload(final long delayMS) {
+        if( !shutdown && uploadScheduled.compareAndSet(false, true) ) {
+            try {
+                dispatcher.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        final GLAutoDrawable d = getUploadDrawable();
+                        if( null == d ) {
+                            // shared context not yet available, retry
+                            uploadScheduled.set(false);
+                            scheduleUpload(10);
+                        } else if( !d.invoke(false, uploadPump) ) {
+                            uploadScheduled.set(false);
+                        }
+                    } }, delayMS, TimeUnit.MILLISECONDS);
+            } catch (final RejectedExecutionException ree) {
+                uploadScheduled.set(false); // shut down
+            }
+        }
+    }
+
+    /** Returns the drawable to upload with, or <code>null</code> if the shared context is not yet available. Dispatcher thread only. */
+    private GLAutoDrawable getUploadDrawable() {
+        if( !useSharedContext ) {
+            return drawable;
+        }
+        if( null == sharedDrawable ) {
+            final GLCapabilities caps = new GLCapabilities(glp);
+            caps.setOnscreen(false);
+            final GLDrawableFactory factory = GLDrawableFactory.getFactory(glp);
+            sharedDrawable = factory.createOffscreenAutoDrawable(null, caps, null, 1, 1);
+            sharedDrawable.setSharedAutoDrawable(drawable);
+        }
+        if( null == sharedDrawable.getContext() || !sharedDrawable.isRealized() ) {
+            sharedDrawable.display(); // creates the shared context once the master's context exists
+            if( null == sharedDrawable.getContext() || !sharedDrawable.isRealized() ) {
+                return null;
+            }
+        }
+        return sharedDrawable;
+    }
+
+    /** Uploads pending requests within the {@link #getUploadBudget() upload budget} on the GL thread. */
+    private class UploadPump implements GLRunnable {
+        @Override
+        public boolean run(final GLAutoDrawable glad) {
+            uploadScheduled.set(false);
+            final GL gl = glad.getGL();
+            final long budget = uploadBudget;
+            final long t0 = System.nanoTime();
+            final ArrayList<Request> uploaded = new ArrayList<Request>();
+            do {
+                final Request r;
+                synchronized( uploadQueue ) {
+                    r = uploadQueue.peek();
+                }
+                if( null == r ) {
+                    break;
+                }
+                if( r.uploadStep(gl) ) {
+                    synchronized( uploadQueue ) {
+                        uploadQueue.remove(r);
+                    }
+                    if( null != r.texture ) {
+                        uploaded.add(r);
+                    }
+                }
+            } while( System.nanoTime() - t0 < budget );
+
+            if( uploaded.size() > 0 ) {
+                if( glad != drawable ) {
+                    gl.glFinish(); // make textures complete for the sharing context
+                }
+                for(int i=0; i<uploaded.size(); i++) {
+                    uploaded.get(i).finish(gl);
+                }
+            }
+            if( DEBUG ) {
+                System.err.println("TextureLoader.upload: "+uploaded.size()+" done in "+(System.nanoTime()-t0)/1000+" us, pending "+getPendingCount());
+            }
+            final boolean more;
+            synchronized( uploadQueue ) {
+                more = !uploadQueue.isEmpty();
+            }
+            if( more ) {
+                scheduleUpload(0);
+            }
+            return true;
+        }
+    }
+
+    private static class DecodeTask implements Runnable, Comparable<DecodeTask> {
+        final Request request;
+
+        DecodeTask(final Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            request.decode();
+        }
+
+        @Override
+        public int compareTo(final DecodeTask o) {
+            return request.compareTo(o.request);
+        }
+    }
+
+    /**
+     * A pending or completed texture request, see {@link TextureLoader}.
+     */
+    public class Request implements Future<Texture>, Comparable<Request> {
+        private final Callable<TextureData> source;
+        private final String name;
+        private final boolean mipmap;
+        private final long seq;
+        private final DecodeTask decodeTask;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile int priority;
+        /** Guarded by this instance */
+        private int state = QUEUED;
+        private TextureData decoded = null;
+        private TextureData data = null;
+        private Throwable error = null;
+        /** Only accessed on the GL thread */
+        private Texture texture = null;
+        private int nextRow = -1;
+        private int rowStride = 0;
+        private int rowsPerSlice = 0;
+
+        Request(final Callable<TextureData> source, final String name, final boolean mipmap, final int priority, final long seq) {
+            this.source = source;
+            this.name = name;
+            this.mipmap = mipmap;
+            this.priority = priority;
+            this.seq = seq;
+            this.decodeTask = new DecodeTask(this);
+        }
+
+        /** Returns the name of the source of this request. */
+        public final String getName() { return name; }
+
+        /** Returns the priority of this request. */
+        public final int getPriority() { return priority; }
+
+        /**
+         * Changes the priority of this request,
+         * effective for its decoding if not yet started and for its uploading.
+         */
+        public final void setPriority(final int p) {
+            if( p == priority ) {
+                return;
+            }
+            if( decoder.remove(decodeTask) ) {
+                priority = p;
+                try {
+                    decoder.execute(decodeTask);
+                } catch (final RejectedExecutionException ree) {
+                    cancel(false);
+                }
+                return;
+            }
+            synchronized( uploadQueue ) {
+                if( uploadQueue.remove(this) ) {
+                    priority = p;
+                    uploadQueue.add(this);
+                    return;
+                }
+                priority = p;
+            }
+        }
+
+        @Override
+        public final int compareTo(final Request o) {
+            final int p0 = priority, p1 = o.priority;
+            if( p0 != p1 ) {
+                return p0 > p1 ? -1 : 1;
+            }
+            return seq < o.seq ? -1 : ( seq > o.seq ? 1 : 0 );
+        }
+
+        /** Worker thread */
+        private void decode() {
+            synchronized( this ) {
+                if( QUEUED != state ) {
+                    return;
+                }
+                state = DECODING;
+            }
+            TextureData d0 = null, d1 = null;
+            try {
+                d0 = source.call();
+                if( null == d0 ) {
+                    throw new IOException("No suitable TextureProvider for "+name);
+                }
+                d1 = d0;
+                final TextureMipmapBuilder builder = mipmapBuilder;
+                if( mipmap && null != builder && d0.getMipmap() && TextureMipmapBuilder.isSupported(d0) ) {
+                    d1 = builder.build(d0);
+                }
+            } catch (final Throwable t) {
+                if( null != d0 ) {
+                    d0.flush();
+                }
+                fail(t);
+                return;
+            }
+            synchronized( this ) {
+                if( CANCELLED == state ) {
+                    flushData(d0, d1);
+                    return;
+                }
+                decoded = d0;
+                data = d1;
+                state = PENDING;
+            }
+            synchronized( uploadQueue ) {
+                uploadQueue.add(this);
+            }
+            if( shutdown ) {
+                cancel(false);
+            } else {
+                scheduleUpload(0);
+            }
+        }
+
+        /**
+         * Performs one upload slice on the GL thread.
+         * @return <code>true</code> if this request is no more to be uploaded,
+         *         i.e. it has been uploaded completely, failed or was cancelled.
+         */
+        private boolean uploadStep(final GL gl) {
+            final TextureData d;
+            synchronized( this ) {
+                if( CANCELLED == state ) {
+                    releaseTexture(gl);
+                    return true;
+                }
+                state = UPLOADING;
+                d = data;
+            }
+            try {
+                if( null == texture ) {
+                    if( isSliceable(d) ) {
+                        // allocate storage only, see Texture.updateSubImageImpl(..)
+                        final TextureData shell = new TextureData(d.getGLProfile(), d.getInternalFormat(), d.getWidth(), d.getHeight(), 0,
+                                                                  d.getPixelAttributes(), false, false, d.getMustFlipVertically(), null, null);
+                        texture = new Texture(gl, shell);
+                        nextRow = 0;
+                        return false;
+                    }
+                    texture = new Texture(gl, d);
+                    return true;
+                }
+                final int rows = Math.min(rowsPerSlice, d.getHeight() - nextRow);
+                uploadRows(gl, d, nextRow, rows);
+                nextRow += rows;
+                return nextRow >= d.getHeight();
+            } catch (final Throwable t) {
+                releaseTexture(gl);
+                fail(t);
+                return true;
+            }
+        }
+
+        /** Returns whether the given data can be uploaded in slices, computing the row layout if so. */
+        private boolean isSliceable(final TextureData d) {
+            if( d.getMipmap() || null != d.getMipmapData() || d.isDataCompressed() || 0 != d.getBorder() ||
+                !( d.getBuffer() instanceof ByteBuffer ) ) {
+                return false;
+            }
+            final int bpp;
+            try {
+                bpp = GLBuffers.bytesPerPixel(d.getPixelFormat(), d.getPixelType());
+            } catch (final GLException gle) {
+                return false;
+            }
+            final int rowLength = 0 < d.getRowLength() ? d.getRowLength() : d.getWidth();
+            final int alignment = Math.max(1, d.getAlignment());
+            rowStride = ( ( rowLength * bpp + alignment - 1 ) / alignment ) * alignment;
+            rowsPerSlice = Math.max(1, sliceSize / rowStride);
+            return rowsPerSlice < d.getHeight();
+        }
+
+        private void uploadRows(final GL gl, final TextureData d, final int y, final int rows) {
+            final ByteBuffer src = (ByteBuffer) d.getBuffer();
+            final ByteBuffer slice = src.duplicate();
+            final int start = src.position() + y * rowStride;
+            slice.position(start);
+            slice.limit(Math.min(src.limit(), start + rows * rowStride));
+            if( usePBO && gl.isGL2ES3() ) {
+                if( 0 == pbos[0] ) {
+                    gl.glGenBuffers(2, pbos, 0);
+                }
+                final int pbo = pbos[pboIdx];
+                pboIdx ^= 1;
+                gl.glBindBuffer(GL2ES3.GL_PIXEL_UNPACK_BUFFER, pbo);
+                gl.glBufferData(GL2ES3.GL_PIXEL_UNPACK_BUFFER, slice.remaining(), slice, GL2ES2.GL_STREAM_DRAW);
+                texture.bind(gl);
+                final int[] align = { 0 };
+                final int[] rowLength = { 0 };
+                final int[] skipRows = { 0 };
+                final int[] skipPixels = { 0 };
+                gl.glGetIntegerv(GL.GL_UNPACK_ALIGNMENT,       align,      0);
+                gl.glGetIntegerv(GL2ES2.GL_UNPACK_ROW_LENGTH,  rowLength,  0);
+                gl.glGetIntegerv(GL2ES2.GL_UNPACK_SKIP_ROWS,   skipRows,   0);
+                gl.glGetIntegerv(GL2ES2.GL_UNPACK_SKIP_PIXELS, skipPixels, 0);
+                gl.glPixelStorei(GL.GL_UNPACK_ALIGNMENT, d.getAlignment());
+                gl.glPixelStorei(GL2ES2.GL_UNPACK_ROW_LENGTH, d.getRowLength());
+                gl.glPixelStorei(GL2ES2.GL_UNPACK_SKIP_ROWS, 0);
+                gl.glPixelStorei(GL2ES2.GL_UNPACK_SKIP_PIXELS, 0);
+                try {
+                    gl.glTexSubImage2D(texture.getTarget(), 0, 0, y, d.getWidth(), rows,
+                                       d.getPixelFormat(), d.getPixelType(), 0L);
+                } finally {
+                    gl.glPixelStorei(GL.GL_UNPACK_ALIGNMENT,       align[0]);
+                    gl.glPixelStorei(GL2ES2.GL_UNPACK_ROW_LENGTH,  rowLength[0]);
+                    gl.glPixelStorei(GL2ES2.GL_UNPACK_SKIP_ROWS,   skipRows[0]);
+                    gl.glPixelStorei(GL2ES2.GL_UNPACK_SKIP_PIXELS, skipPixels[0]);
+                    gl.glBindBuffer(GL2ES3.GL_PIXEL_UNPACK_BUFFER, 0);
+                }
+            } else {
+                final TextureData sd = new TextureData(d.getGLProfile(), d.getInternalFormat(), d.getWidth(), rows, 0,
+                                                       d.getPixelAttributes(), false, false, d.getMustFlipVertically(),
+                                                       slice.slice(), null);
+                sd.setAlignment(d.getAlignment());
+                sd.setRowLength(d.getRowLength());
+                texture.updateSubImage(gl, sd, 0, 0, y, 0, 0, d.getWidth(), rows);
+            }
+        }
+
+        /** Completes an uploaded request on the GL thread. */
+        private void finish(final GL gl) {
+            final TextureData d0, d1;
+            synchronized( this ) {
+                d0 = decoded;
+                d1 = data;
+                decoded = null;
+                data = null;
+                if( CANCELLED == state ) {
+                    releaseTexture(gl);
+                } else {
+                    state = DONE;
+                    latch.countDown();
+                }
+            }
+            flushData(d0, d1);
+        }
+
+        private void fail(final Throwable t) {
+            final TextureData d0, d1;
+            synchronized( this ) {
+                if( CANCELLED == state ) {
+                    return;
+                }
+                d0 = decoded;
+                d1 = data;
+                decoded = null;
+                data = null;
+                error = t;
+                state = FAILED;
+                latch.countDown();
+            }
+            flushData(d0, d1);
+            if( DEBUG ) {
+                System.err.println("TextureLoader: Failed "+name+": "+t);
+                t.printStackTrace();
+            }
+        }
+
+        private void releaseTexture(final GL gl) {
+            if( null != texture ) {
+                texture.destroy(gl);
+                texture = null;
+            }
+        }
+
+        @Override
+        public final boolean cancel(final boolean mayInterruptIfRunning) {
+            final TextureData d0, d1;
+            synchronized( this ) {
+                if( DONE <= state ) {
+                    return false;
+                }
+                d0 = PENDING == state ? decoded : null;
+                d1 = PENDING == state ? data : null;
+                if( PENDING == state ) {
+                    decoded = null;
+                    data = null;
+                }
+                state = CANCELLED;
+                latch.countDown();
+            }
+            decoder.remove(decodeTask);
+            if( null != d1 ) {
+                // not yet uploading, otherwise the texture is released by the upload pump
+                synchronized( uploadQueue ) {
+                    uploadQueue.remove(this);
+                }
+                flushData(d0, d1);
+            }
+            return true;
+        }
+
+        @Override
+        public final synchronized boolean isCancelled() {
+            return CANCELLED == state;
+        }
+
+        @Override
+        public final synchronized boolean isDone() {
+            return DONE <= state;
+        }
+
+        @Override
+        public final Texture get() throws InterruptedException, ExecutionException {
+            latch.await();
+            return getResult();
+        }
+
+        @Override
+        public final Texture get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if( !latch.await(timeout, unit) ) {
+                throw new TimeoutException("Texture "+name+" not loaded within "+timeout+" "+unit);
+            }
+            return getResult();
+        }
+
+        private synchronized Texture getResult() throws ExecutionException {
+            switch( state ) {
+                case DONE:
+                    return texture;
+                case FAILED:
+                    throw new ExecutionException(error);
+                default:
+                    throw new CancellationException("Texture "+name+" cancelled");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "TextureLoader.Request["+name+", priority "+priority+", seq "+seq+", state "+state+"]";
+        }
+    }
+
+    private static void flushData(final TextureData d0, final TextureData d1) {
+        if( null != d1 && d1 != d0 ) {
+            d1.flush();
+        }
+        if( null != d0 ) {
+            d0.flush();
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        DaemonThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread t = new Thread(r, prefix+"-"+count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.texture;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES2;
+
+import com.jogamp.common.nio.Buffers;
+
+import jogamp.nativewindow.ParallelBands;
+
+/**
+ * Generates the complete mipmap chain of an uncompressed {@link TextureData} on the CPU,
+ * resulting in a new {@link TextureData} holding all levels as {@link TextureData#getMipmapData() mipmap data}.
+ * <p>
+ * Building does not require a GL context, hence it is intended to be performed off the GL thread,
+ * e.g. by asset loader threads.
+ * {@link Texture} uploads all given levels at once and uses a mipmapped minification filter
+ * if the chain is complete.
+ * </p>
+ * <p>
+ * Each level is filtered from the previous one using the selected {@link Filter},
+ * while level sizes follow OpenGL, i.e. {@code max(1, size/2)}.
+ * In {@link #isSRGB() sRGB} mode, color components are filtered in linear space,
+ * alpha is always filtered as is.
+ * </p>
+ * <p>
+ * If an {@link Executor} is given, large levels are filtered in parallel horizontal bands,
+ * while the calling thread filters the first band.
+ * </p>
+ * <p>
+ * Supported are {@link GL#GL_UNSIGNED_BYTE} pixels of format
+ * {@link GL#GL_RGBA}, {@link GL#GL_BGRA}, {@link GL#GL_RGB}, {@link GL#GL_BGR}, {@link GL2ES2#GL_RG},
+ * {@link GL#GL_LUMINANCE_ALPHA}, {@link GL2ES2#GL_RED}, {@link GL#GL_LUMINANCE} and {@link GL#GL_ALPHA}
+ * without border, see {@link #isSupported(TextureData)}.
+ * </p>
+ */
+public class TextureMipmapBuilder {
+    /** Downsampling filter */
+    public static enum Filter {
+        /** Box filter, i.e. the area average, which is the exact 2x2 average for even sizes. */
+        BOX(0.5f),
+        /** Sinc filter windowed by a Kaiser window, radius 3 and alpha 4. Sharper than {@link #BOX}. */
+        KAISER(3f),
+        /** Lanczos filter, i.e. sinc filter windowed by a sinc, radius 3. Sharpest, may show ringing. */
+        LANCZOS(3f);
+
+        /** Filter radius in destination pixels */
+        public final float radius;
+
+        Filter(final float radius) {
+            this.radius = radius;
+        }
+    }
+
+    /** Minimum destination pixel count of a level to be filtered in parallel, i.e. {@value}. */
+    public static final int PARALLEL_THRESHOLD = 128*128;
+    /** Minimum destination pixel count of one parallel band. */
+    private static final int MIN_BAND_PIXELS = 16*1024;
+    /** Band scheduling for the given executors only, limited to the number of available processors. */
+    private static final ParallelBands parallelBands = new ParallelBands("TextureMipmapBuilder-Worker-", -1, PARALLEL_THRESHOLD, MIN_BAND_PIXELS);
+    private static final float KAISER_ALPHA = 4f;
+
+    private final Filter filter;
+    private final boolean sRGB;
+    private final Executor executor;
+
+    /**
+     * @param filter the downsampling {@link Filter}
+     * @param sRGB if true, color components are sRGB encoded and filtered in linear space
+     * @param executor optional {@link Executor} to filter large levels in parallel bands, may be {@code null}
+     */
+    public TextureMipmapBuilder(final Filter filter, final boolean sRGB, final Executor executor) {
+        if( null == filter ) {
+            throw new IllegalArgumentException("Null filter");
+        }
+        this.filter = filter;
+        this.sRGB = sRGB;
+        this.executor = executor;
+    }
+
+    public final Filter getFilter() { return filter; }
+    public final boolean isSRGB() { return sRGB; }
+    public final Executor getExecutor() { return executor; }
+
+    /** Returns the number of levels of a complete mipmap chain for the given size, i.e. down to 1x1. */
+    public static int getLevelCount(int width, int height) {
+        int n = 1;
+        while( 1 < width || 1 < height ) {
+            width = Math.max(1, width / 2);
+            height = Math.max(1, height / 2);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of components of the given pixel format with {@link GL#GL_UNSIGNED_BYTE} type,
+     * or {@code 0} if not supported.
+     */
+    private static int getComponentCount(final int pixelFormat) {
+        switch( pixelFormat ) {
+            case GL.GL_RGBA:
+            case GL.GL_BGRA:
+                return 4;
+            case GL.GL_RGB:
+            case GL.GL_BGR:
+                return 3;
+            case GL2ES2.GL_RG:
+            case GL.GL_LUMINANCE_ALPHA:
+                return 2;
+            case GL2ES2.GL_RED:
+            case GL.GL_LUMINANCE:
+            case GL.GL_ALPHA:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /** Returns the alpha component index of the given pixel format, or {@code -1} if none. */
+    private static int getAlphaIndex(final int pixelFormat) {
+        switch( pixelFormat ) {
+            case GL.GL_RGBA:
+            case GL.GL_BGRA:
+                return 3;
+            case GL.GL_LUMINANCE_ALPHA:
+                return 1;
+            case GL.GL_ALPHA:
+                return 0;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns true if mipmaps can be built for the given {@link TextureData}, i.e.
+     * it holds an uncompressed {@link ByteBuffer} of a supported format w/o border, otherwise false.
+     */
+    public static boolean isSupported(final TextureData data) {
+        return null != data && !data.isDataCompressed() && 0 == data.getBorder() &&
+               null == data.getMipmapData() && data.getBuffer() instanceof ByteBuffer &&
+               0 < data.getWidth() && 0 < data.getHeight() &&
+               GL.GL_UNSIGNED_BYTE == data.getPixelType() && 0 < getComponentCount(data.getPixelFormat());
+    }
+
+    /**
+     * Builds the complete mipmap chain of the given {@link TextureData}.
+     * <p>
+     * The given {@link TextureData} is not modified.
+     * Its buffer is reused as level 0 if its rows are tightly packed, otherwise level 0 is a tightly packed copy.
+     * </p>
+     * @return a new {@link TextureData} holding all levels as {@link TextureData#getMipmapData() mipmap data}
+     * @throws IllegalArgumentException if the {@link TextureData} is not {@link #isSupported(TextureData) supported}
+     */
+    public TextureData build(final TextureData data) throws IllegalArgumentException {
+        if( !isSupported(data) ) {
+            throw new IllegalArgumentException("Unsupported texture data for mipmap generation: "+data);
+        }
+        final int comps = getComponentCount(data.getPixelFormat());
+        final int alphaIndex = getAlphaIndex(data.getPixelFormat());
+        final int width = data.getWidth();
+        final int height = data.getHeight();
+        final ByteBuffer src = (ByteBuffer) data.getBuffer();
+        final int rowLength = 0 < data.getRowLength() ? data.getRowLength() : width;
+        final int alignment = Math.max(1, data.getAlignment());
+        final int srcStride = ( ( rowLength * comps + alignment - 1 ) / alignment ) * alignment;
+
+        final Buffer[] levels = new Buffer[getLevelCount(width, height)];
+        int w = width;
+        int h = height;
+        ByteBuffer level;
+        if( srcStride == width * comps && 0 == src.position() ) {
+            level = src;
+        } else {
+            level = Buffers.newDirectByteBuffer(width * comps * height);
+            final ByteBuffer in = src.duplicate();
+            final byte[] row = new byte[width * comps];
+            for(int y=0; y<height; y++) {
+                in.position(src.position() + y * srcStride);
+                in.get(row);
+                level.put(row);
+            }
+            level.rewind();
+        }
+        levels[0] = level;
+        for(int i=1; i<levels.length; i++) {
+            final int dw = Math.max(1, w / 2);
+            final int dh = Math.max(1, h / 2);
+            final ByteBuffer dst = Buffers.newDirectByteBuffer(dw * comps * dh);
+            filterLevel(level, w, h, dst, dw, dh, comps, alphaIndex);
+            levels[i] = dst;
+            level = dst;
+            w = dw;
+            h = dh;
+        }
+        final TextureData res = new TextureData(data.getGLProfile(), data.getInternalFormat(), width, height, 0,
+                                                data.getPixelAttributes(), false, data.getMustFlipVertically(),
+                                                levels, null);
+        res.setColorSpace(data.getColorSpace());
+        res.srcImageType = data.srcImageType;
+        return res;
+    }
+
+    private void filterLevel(final ByteBuffer src, final int sw, final int sh,
+                             final ByteBuffer dst, final int dw, final int dh,
+                             final int comps, final int alphaIndex) {
+        final ParallelBands.RowBand band;
+        if( Filter.BOX == filter && !sRGB && sw == 2 * dw && sh == 2 * dh ) {
+            band = new ParallelBands.RowBand() {
+                @Override
+                public void run(final int row0, final int row1) {
+                    box2x2(src, sw, dst, dw, comps, row0, row1);
+                } };
+        } else {
+            final Axis ax = new Axis(filter, sw, dw);
+            final Axis ay = ( sw == sh && dw == dh ) ? ax : new Axis(filter, sh, dh);
+            final float[][] decode = getDecodeTables(comps, alphaIndex);
+            band = new ParallelBands.RowBand() {
+                @Override
+                public void run(final int row0, final int row1) {
+                    separable(src, sw, dst, dw, comps, alphaIndex, ax, ay, decode, row0, row1);
+                } };
+        }
+        parallelBands.run(band, executor, dw, dh, "Parallel mipmap generation failed");
+    }
+
+    /** Exact 2x2 average of unsigned bytes, rounded. */
+    private static void box2x2(final ByteBuffer src, final int sw, final ByteBuffer dst, final int dw,
+                               final int comps, final int row0, final int row1) {
+        final int sStride = sw * comps;
+        final int dStride = dw * comps;
+        final ByteBuffer in = src.duplicate();
+        final ByteBuffer out = dst.duplicate();
+        final byte[] s0 = new byte[sStride];
+        final byte[] s1 = new byte[sStride];
+        final byte[] d = new byte[dStride];
+        out.position(row0 * dStride);
+        for(int y=row0; y<row1; y++) {
+            in.position(2 * y * sStride);
+            in.get(s0);
+            in.get(s1);
+            for(int x=0, si=0; x<dStride; si+=comps) {
+                for(final int e=x+comps; x<e; si++) {
+                    d[x++] = (byte) ( ( ( 0xFF & s0[si] ) + ( 0xFF & s0[si+comps] ) +
+                                        ( 0xFF & s1[si] ) + ( 0xFF & s1[si+comps] ) + 2 ) >> 2 );
+                }
+            }
+            out.put(d);
+        }
+    }
+
+    /**
+     * Separable resampling of destination rows {@code [row0, row1)}:
+     * Each required source row is decoded and filtered horizontally once,
+     * then the destination rows are filtered vertically and encoded.
+     */
+    private void separable(final ByteBuffer src, final int sw, final ByteBuffer dst, final int dw,
+                           final int comps, final int alphaIndex, final Axis ax, final Axis ay,
+                           final float[][] decode, final int row0, final int row1) {
+        final int sStride = sw * comps;
+        final int dStride = dw * comps;
+        int syMin = Integer.MAX_VALUE, syMax = -1;
+        for(int i=row0*ay.taps; i<row1*ay.taps; i++) {
+            if( 0f != ay.weight[i] ) {
+                syMin = Math.min(syMin, ay.index[i]);
+                syMax = Math.max(syMax, ay.index[i]);
+            }
+        }
+        final float[][] hrows = new float[syMax - syMin + 1][dStride];
+        final ByteBuffer in = src.duplicate();
+        final byte[] srow = new byte[sStride];
+        final float[] frow = new float[sStride];
+        for(int sy=syMin; sy<=syMax; sy++) {
+            in.position(sy * sStride);
+            in.get(srow);
+            for(int i=0; i<sStride; ) {
+                for(int c=0; c<comps; c++, i++) {
+                    frow[i] = decode[c][0xFF & srow[i]];
+                }
+            }
+            final float[] h = hrows[sy - syMin];
+            for(int x=0, t=0; x<dw; x++) {
+                final int d0 = x * comps;
+                for(final int te=t+ax.taps; t<te; t++) {
+                    final float wt = ax.weight[t];
+                    if( 0f != wt ) {
+                        final int s0 = ax.index[t] * comps;
+                        for(int c=0; c<comps; c++) {
+                            h[d0 + c] += wt * frow[s0 + c];
+                        }
+                    }
+                }
+            }
+        }
+        final byte[] linearToSRGB = sRGB ? SRGB.LINEAR_TO_SRGB : null;
+        final ByteBuffer out = dst.duplicate();
+        final byte[] d = new byte[dStride];
+        final float[] acc = new float[dStride];
+        out.position(row0 * dStride);
+        for(int y=row0; y<row1; y++) {
+            Arrays.fill(acc, 0f);
+            for(int t=y*ay.taps, te=t+ay.taps; t<te; t++) {
+                final float wt = ay.weight[t];
+                if( 0f != wt ) {
+                    final float[] h = hrows[ay.index[t] - syMin];
+                    for(int i=0; i<dStride; i++) {
+                        acc[i] += wt * h[i];
+                    }
+                }
+            }
+            for(int i=0; i<dStride; ) {
+                for(int c=0; c<comps; c++, i++) {
+                    final float v = Math.max(0f, Math.min(1f, acc[i]));
+                    if( null != linearToSRGB && c != alphaIndex ) {
+                        d[i] = linearToSRGB[(int) ( v * 65535f + 0.5f )];
+                    } else {
+                        d[i] = (byte) (int) ( v * 255f + 0.5f );
+                    }
+                }
+            }
+            out.put(d);
+        }
+    }
+
+    /** Returns the per component tables decoding an unsigned byte to its normalized, linear value. */
+    private float[][] getDecodeTables(final int comps, final int alphaIndex) {
+        final float[][] decode = new float[comps][];
+        for(int c=0; c<comps; c++) {
+            decode[c] = sRGB && c != alphaIndex ? SRGB.SRGB_TO_LINEAR : UNORM_TO_FLOAT;
+        }
+        return decode;
+    }
+
+    private static final float[] UNORM_TO_FLOAT = new float[256];
+    static {
+        for(int i=0; i<256; i++) {
+            UNORM_TO_FLOAT[i] = i / 255f;
+        }
+    }
+
+    /** Lazily initialized sRGB conversion tables */
+    private static class SRGB {
+        static final float[] SRGB_TO_LINEAR = new float[256];
+        /** Maps the linear value {@code [0..1]} quantized to 16 bits to the sRGB encoded unsigned byte. */
+        static final byte[] LINEAR_TO_SRGB = new byte[65536];
+        static {
+            for(int i=0; i<256; i++) {
+                final double s = i / 255.0;
+                SRGB_TO_LINEAR[i] = (float) ( s <= 0.04045 ? s / 12.92 : Math.pow( ( s + 0.055 ) / 1.055, 2.4 ) );
+            }
+            for(int i=0; i<65536; i++) {
+                final double l = i / 65535.0;
+                final double s = l <= 0.0031308 ? l * 12.92 : 1.055 * Math.pow(l, 1.0 / 2.4) - 0.055;
+                LINEAR_TO_SRGB[i] = (byte) (int) Math.round( s * 255.0 );
+            }
+        }
+    }
+
+    /**
+     * Filter weights of one axis, {@link #taps} per destination pixel.
+     * Source indices are clamped to the edge.
+     */
+    private static final class Axis {
+        final int taps;
+        final int[] index;
+        final float[] weight;
+
+        Axis(final Filter filter, final int srcSize, final int dstSize) {
+            final float scale = (float)srcSize / (float)dstSize;
+            final float support = filter.radius * scale;
+            taps = (int) Math.ceil( 2f * support ) + 2;
+            index = new int[dstSize * taps];
+            weight = new float[dstSize * taps];
+            for(int x=0; x<dstSize; x++) {
+                final float center = ( x + 0.5f ) * scale;
+                final int i0 = (int) Math.floor( center - support );
+                final int t0 = x * taps;
+                float sum = 0f;
+                for(int t=0; t<taps; t++) {
+                    final int i = i0 + t;
+                    final float w;
+                    if( Filter.BOX == filter ) {
+                        // area of source pixel [i, i+1] covered by destination pixel
+                        w = Math.max(0f, Math.min(center + support, i + 1) - Math.max(center - support, i));
+                    } else {
+                        w = evalSinc(filter, ( i + 0.5f - center ) / scale);
+                    }
+                    index[t0 + t] = Math.max(0, Math.min(srcSize - 1, i));
+                    weight[t0 + t] = w;
+                    sum += w;
+                }
+                for(int t=0; t<taps; t++) {
+                    weight[t0 + t] /= sum;
+                }
+            }
+        }
+    }
+
+    private static float sinc(final float x) {
+        if( Math.abs(x) < 1e-6f ) {
+            return 1f;
+        }
+        final double px = Math.PI * x;
+        return (float) ( Math.sin(px) / px );
+    }
+
+    /** Modified Bessel function of the first kind, order 0. */
+    private static double besselI0(final double x) {
+        double sum = 1.0, term = 1.0;
+        final double q = x * x / 4.0;
+        for(int k=1; k<32; k++) {
+            term *= q / ( k * k );
+            sum += term;
+            if( term < sum * 1e-12 ) {
+                break;
+            }
+        }
+        return sum;
+    }
+
+    /** Evaluates the windowed sinc filter at {@code t} destination pixels from its center. */
+    private static float evalSinc(final Filter filter, final float t) {
+        final float r = filter.radius;
+        if( Math.abs(t) >= r ) {
+            return 0f;
+        }
+        if( Filter.LANCZOS == filter ) {
+            return sinc(t) * sinc(t / r);
+        } else {
+            final double q = t / r;
+            return sinc(t) * (float) ( besselI0( KAISER_ALPHA * Math.sqrt(1.0 - q * q) ) / besselI0( KAISER_ALPHA ) );
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TextureMipmapBuilder["+filter+", sRGB "+sRGB+", executor "+(null != executor)+"]";
+    }
+}
@@ -30,6 +30,7 @@ package com.jogamp.opengl.util.texture.spi;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 
 import com.jogamp.opengl.GL;
 
@@ -52,103 +53,86 @@ public class JPEGImage {
      * @throws IOException
      */
     public static JPEGImage read(final InputStream in, final ColorSpace cs) throws IOException {
-        return new JPEGImage(in, cs);
+        return new JPEGImage(in, cs, null, 0);
+    }
+
+    /**
+     * Reads a JPEG image from the specified InputStream, using the given color space for storage,
+     * decoding restart intervals, inverse DCT and color conversion in parallel using the given {@link Executor}.
+     *
+     * @param in
+     * @param cs Storage color space, either {@link ColorSpace#RGB} or {@link ColorSpace#YCbCr}. {@link ColorSpace#YCCK} and {@link ColorSpace#CMYK} will throw an exception!
+     * @param executor the {@link Executor} to decode in parallel, may be <code>null</code> to decode on the calling thread only.
+     * @return
+     * @throws IOException
+     */
+    public static JPEGImage read(final InputStream in, final ColorSpace cs, final Executor executor) throws IOException {
+        return new JPEGImage(in, cs, executor, 0);
+    }
+
+    /**
+     * Reads a JPEG image from the specified InputStream, using the given color space for storage,
+     * at a reduced resolution of 1/2, 1/4 or 1/8 fitting into <code>maxDimension</code>,
+     * see {@link JPEGDecoder#parse(InputStream, Executor, int)}.
+     *
+     * @param in
+     * @param cs Storage color space, either {@link ColorSpace#RGB} or {@link ColorSpace#YCbCr}. {@link ColorSpace#YCCK} and {@link ColorSpace#CMYK} will throw an exception!
+     * @param executor the {@link Executor} to decode in parallel, may be <code>null</code> to decode on the calling thread only.
+     * @param maxDimension the maximum width and height of the image, zero or negative to read at full resolution.
+     *                     If the image reduced to 1/8 still exceeds <code>maxDimension</code>, it is read at 1/8.
+     * @return
+     * @throws IOException
+     */
+    public static JPEGImage read(final InputStream in, final ColorSpace cs, final Executor executor, final int maxDimension) throws IOException {
+        return new JPEGImage(in, cs, executor, maxDimension);
     }
 
     /** Reads a JPEG image from the specified InputStream, using the {@link ColorSpace#RGB}. */
     public static JPEGImage read(final InputStream in) throws IOException {
-        return new JPEGImage(in, ColorSpace.RGB);
+        return new JPEGImage(in, ColorSpace.RGB, null, 0);
     }
 
-    private static class JPEGColorSink implements JPEGDecoder.ColorSink  {
-        int width=0, height=0;
-        int sourceComponents=0;
-        ColorSpace sourceCS = ColorSpace.YCbCr;
-        int storageComponents;
-        final ColorSpace storageCS;
-        ByteBuffer data = null;
-
-        JPEGColorSink(final ColorSpace storageCM) {
-            this.storageCS = storageCM;
-            switch(storageCS) {
+    private JPEGImage(final InputStream in, final ColorSpace cs, final Executor executor, final int maxDimension) throws IOException {
+        switch(cs) {
             case RGB:
             case YCbCr:
-                storageComponents = 3;
                 break;
             default:
-                throw new IllegalArgumentException("Unsupported storage color-space: "+storageCS);
-            }
-        }
-
-        @Override
-        public final ColorSpace allocate(final int width, final int height, final ColorSpace sourceCM, final int sourceComponents) throws RuntimeException {
-            this.width = width;
-            this.height = height;
-            this.sourceComponents = sourceComponents;
-            this.sourceCS = sourceCM;
-            this.data = Buffers.newDirectByteBuffer(width * height * storageComponents);
-            return storageCS;
-        }
-
-        @Override
-        public final void storeRGB(final int x, final int y, final byte r, final byte g, final byte b) {
-            int i = ( ( height - y - 1 ) * width + x ) * storageComponents;
-            data.put(i++, r);
-            data.put(i++, g);
-            data.put(i++, b);
-            // data.put(i++, (byte)0xff);
+                throw new IllegalArgumentException("Unsupported storage color-space: "+cs);
         }
-
-        @Override
-        public final void store2(final int x, final int y, final byte c1, final byte c2) {
-            throw new RuntimeException("not supported yet");
-        }
-
-        @Override
-        public final void storeYCbCr(final int x, final int y, final byte Y, final byte Cb, final byte Cr) {
-            int i = ( ( height - y - 1 ) * width + x ) * storageComponents;
-            data.put(i++, Y);
-            data.put(i++, Cb);
-            data.put(i++, Cr);
-        }
-
-        @Override
-        public String toString() {
-            return "JPEGPixels["+width+"x"+height+", sourceComp "+sourceComponents+", sourceCS "+sourceCS+", storageCS "+storageCS+", storageComp "+storageComponents+"]";
-        }
-    };
-
-    private JPEGImage(final InputStream in, final ColorSpace cs) throws IOException {
-        pixelStorage = new JPEGColorSink(cs);
+        storageCS = cs;
         final JPEGDecoder decoder = new JPEGDecoder();
-        decoder.parse(in);
+        decoder.parse(in, executor, maxDimension);
         pixelWidth = decoder.getWidth();
         pixelHeight = decoder.getHeight();
-        decoder.getPixel(pixelStorage, pixelWidth, pixelHeight);
-        data = pixelStorage.data;
+        sourceCS = decoder.getSourceColorSpace();
+        sourceComponents = decoder.getComponentCount();
         final boolean hasAlpha = false;
 
         bytesPerPixel = 3;
         glFormat = GL.GL_RGB;
         reversedChannels = false; // RGB[A]
+        data = Buffers.newDirectByteBuffer(pixelWidth * pixelHeight * bytesPerPixel);
+        decoder.getPixels(data, pixelWidth * bytesPerPixel, bytesPerPixel, storageCS, true /* bottomUp */, pixelWidth, pixelHeight, executor);
         if(DEBUG) {
             System.err.println("JPEGImage: alpha "+hasAlpha+", bytesPerPixel "+bytesPerPixel+
                                ", pixels "+pixelWidth+"x"+pixelHeight+", glFormat 0x"+Integer.toHexString(glFormat));
             System.err.println("JPEGImage: "+decoder);
-            System.err.println("JPEGImage: "+pixelStorage);
+            System.err.println("JPEGImage: sourceComp "+sourceComponents+", sourceCS "+sourceCS+", storageCS "+storageCS);
         }
         decoder.clear(null);
     }
-    private final JPEGColorSink pixelStorage;
+    private final ColorSpace storageCS, sourceCS;
+    private final int sourceComponents;
     private final int pixelWidth, pixelHeight, glFormat, bytesPerPixel;
     private final boolean reversedChannels;
     private final ByteBuffer data;
 
     /** Returns the color space of the pixel data */
-    public ColorSpace getColorSpace() { return pixelStorage.storageCS; }
+    public ColorSpace getColorSpace() { return storageCS; }
 
     /** Returns the number of components of the pixel data */
-    public int getComponentCount() { return pixelStorage.storageComponents; }
+    public int getComponentCount() { return bytesPerPixel; }
 
     /** Returns the width of the image. */
     public int getWidth()    { return pixelWidth; }
@@ -173,5 +157,5 @@ public class JPEGImage {
     public ByteBuffer getData()  { return data; }
 
     @Override
-    public String toString() { return "JPEGImage["+pixelWidth+"x"+pixelHeight+", bytesPerPixel "+bytesPerPixel+", reversedChannels "+reversedChannels+", "+pixelStorage+", "+data+"]"; }
+    public String toString() { return "JPEGImage["+pixelWidth+"x"+pixelHeight+", bytesPerPixel "+bytesPerPixel+", reversedChannels "+reversedChannels+", sourceComp "+sourceComponents+", sourceCS "+sourceCS+", storageCS "+storageCS+", "+data+"]"; }
 }
@@ -0,0 +1,283 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.graph.curve.opengl;
+
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.graph.curve.Region;
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES2;
+import com.jogamp.opengl.GLException;
+import com.jogamp.opengl.util.GLArrayDataServer;
+
+/**
+ * Triangle index buffer of the VBO regions.
+ * <p>
+ * Indices are stored as {@link GL#GL_UNSIGNED_SHORT} and promoted to {@link GL#GL_UNSIGNED_INT}
+ * once an index exceeds {@code 0xffff}, i.e. the region holds more than 65536 vertices.
+ * </p>
+ * <p>
+ * If the profile does not support {@link GL#GL_UNSIGNED_INT} indices, see {@link #isUIntSupported(GL)},
+ * the triangles are split into sub-draws at {@link #seal(GL2ES2)},
+ * each using {@link GL#GL_UNSIGNED_SHORT} indices relative to its base vertex.
+ * {@link #draw(GL2ES2, GLArrayDataServer[])} offsets the vertex attribute pointers
+ * to the base vertex of each sub-draw.
+ * </p>
+ */
+final class RegionIndices {
+    private static final int MAX_USHORT = 0xffff;
+
+    private final int initialElementCount;
+    /** Indices as pushed, {@link GL#GL_SHORT} or {@link GL#GL_UNSIGNED_INT} if {@link #uint} */
+    private GLArrayDataServer indices;
+    private boolean uint;
+    /** Replaced 16bit index buffer, pending destruction */
+    private GLArrayDataServer obsolete;
+    /** 16bit indices relative to the base vertex of their sub-draw */
+    private GLArrayDataServer subIndices;
+    /** Sub-draws, triplets of first index, index count and base vertex */
+    private int[] subDraws;
+    private int subDrawCount;
+    private boolean useSubDraws;
+
+    RegionIndices(final int initialElementCount) {
+        this.initialElementCount = initialElementCount;
+        indices = GLArrayDataServer.createData(3, GL.GL_SHORT, initialElementCount, GL.GL_STATIC_DRAW, GL.GL_ELEMENT_ARRAY_BUFFER);
+        uint = false;
+        obsolete = null;
+        subIndices = null;
+        subDraws = new int[3*4];
+        subDrawCount = 0;
+        useSubDraws = false;
+    }
+
+    /**
+     * Returns true if the given context supports {@link GL#GL_UNSIGNED_INT} indices, otherwise false.
+     * <p>
+     * Only desktop profiles are accepted, since ES2 requires the {@code OES_element_index_uint} extension
+     * and {@link GLArrayDataServer} does not validate {@link GL#GL_UNSIGNED_INT} data on ES profiles.
+     * </p>
+     */
+    static boolean isUIntSupported(final GL gl) {
+        return !gl.isGLES();
+    }
+
+    /** Returns true if indices have been promoted to {@link GL#GL_UNSIGNED_INT}, otherwise false. */
+    boolean isUInt() { return uint; }
+
+    boolean isEmpty() {
+        return 0 >= indices.getElementCount();
+    }
+
+    /** Grows the buffer once to hold the given number of additional indices. */
+    void growIfNeeded(final int indexCount) {
+        indices.growIfNeeded(indexCount);
+    }
+
+    void put(final int idx) {
+        if( indices.sealed() ) {
+            return;
+        }
+        if( !uint && MAX_USHORT < idx ) {
+            promote();
+        }
+        if( uint ) {
+            indices.puti(idx);
+        } else {
+            indices.puts((short)idx);
+        }
+    }
+
+    private void promote() {
+        final ShortBuffer src = (ShortBuffer) indices.getBuffer();
+        final int count = null != src ? src.position() : 0;
+        final GLArrayDataServer dst = GLArrayDataServer.createData(3, GL.GL_UNSIGNED_INT,
+                                                                   Math.max(initialElementCount, 2 * ( count / 3 )),
+                                                                   GL.GL_STATIC_DRAW, GL.GL_ELEMENT_ARRAY_BUFFER);
+        for(int i=0; i<count; i++) {
+            dst.puti(src.get(i) & MAX_USHORT);
+        }
+        if( Region.DEBUG_INSTANCE ) {
+            System.err.println("RegionIndices: Promoted "+count+" indices to GL_UNSIGNED_INT");
+        }
+        obsolete = indices;
+        indices = dst;
+        uint = true;
+    }
+
+    /**
+     * Seals the indices and uploads them to the GPU,
+     * splitting them into sub-draws if 32bit indices are used but not supported.
+     */
+    void seal(final GL2ES2 gl) {
+        if( null != obsolete ) {
+            obsolete.destroy(gl);
+            obsolete = null;
+        }
+        useSubDraws = uint && !isUIntSupported(gl);
+        if( useSubDraws ) {
+            indices.seal(true); // client side only
+            if( null == subIndices || !subIndices.sealed() ) {
+                splitSubDraws();
+            }
+            subIndices.seal(gl, true);
+            subIndices.enableBuffer(gl, false);
+        } else {
+            indices.seal(gl, true);
+            indices.enableBuffer(gl, false);
+        }
+    }
+
+    private void splitSubDraws() {
+        final IntBuffer src = (IntBuffer) indices.getBuffer();
+        final int count = src.limit();
+        if( null == subIndices ) {
+            subIndices = GLArrayDataServer.createData(3, GL.GL_SHORT, Math.max(initialElementCount, count / 3),
+                                                      GL.GL_STATIC_DRAW, GL.GL_ELEMENT_ARRAY_BUFFER);
+        } else {
+            subIndices.growIfNeeded(count);
+        }
+        subDrawCount = 0;
+        int first = 0, min = 0, max = 0;
+        for(int i=0; i<count; i+=3) {
+            final int i0 = src.get(i), i1 = src.get(i+1), i2 = src.get(i+2);
+            final int tMin = Math.min(i0, Math.min(i1, i2));
+            final int tMax = Math.max(i0, Math.max(i1, i2));
+            if( MAX_USHORT < tMax - tMin ) {
+                throw new GLException("Triangle "+(i/3)+" spans more than "+(MAX_USHORT+1)+" vertices: "+i0+", "+i1+", "+i2);
+            }
+            if( first == i ) {
+                min = tMin;
+                max = tMax;
+            } else if( MAX_USHORT < Math.max(max, tMax) - Math.min(min, tMin) ) {
+                addSubDraw(src, first, i - first, min);
+                first = i;
+                min = tMin;
+                max = tMax;
+            } else {
+                min = Math.min(min, tMin);
+                max = Math.max(max, tMax);
+            }
+        }
+        if( first < count ) {
+            addSubDraw(src, first, count - first, min);
+        }
+        if( Region.DEBUG_INSTANCE ) {
+            System.err.println("RegionIndices: Split "+count+" indices into "+subDrawCount+" sub-draws");
+        }
+    }
+
+    private void addSubDraw(final IntBuffer src, final int first, final int count, final int baseVertex) {
+        if( subDraws.length < ( subDrawCount + 1 ) * 3 ) {
+            final int[] tmp = new int[subDraws.length * 2];
+            System.arraycopy(subDraws, 0, tmp, 0, subDraws.length);
+            subDraws = tmp;
+        }
+        subDraws[subDrawCount*3+0] = first;
+        subDraws[subDrawCount*3+1] = count;
+        subDraws[subDrawCount*3+2] = baseVertex;
+        subDrawCount++;
+        for(int i=first; i<first+count; i++) {
+            subIndices.puts((short)(src.get(i) - baseVertex));
+        }
+    }
+
+    /**
+     * Draws all triangles, requires {@link #seal(GL2ES2)}.
+     * <p>
+     * The given vertex attributes must be enabled and are only used for sub-draws.
+     * Elements may be {@code null}.
+     * </p>
+     */
+    void draw(final GL2ES2 gl, final GLArrayDataServer[] attributes) {
+        if( !useSubDraws ) {
+            indices.bindBuffer(gl, true); // keeps VBO binding
+            gl.glDrawElements(GL.GL_TRIANGLES, indices.getElementCount() * indices.getComponentCount(),
+                              uint ? GL.GL_UNSIGNED_INT : GL.GL_UNSIGNED_SHORT, 0);
+            indices.bindBuffer(gl, false);
+        } else {
+            subIndices.bindBuffer(gl, true); // keeps VBO binding
+            int lastBaseVertex = 0;
+            for(int i=0; i<subDrawCount; i++) {
+                final int first = subDraws[i*3+0];
+                final int baseVertex = subDraws[i*3+2];
+                if( lastBaseVertex != baseVertex ) {
+                    setBaseVertex(gl, attributes, baseVertex);
+                    lastBaseVertex = baseVertex;
+                }
+                gl.glDrawElements(GL.GL_TRIANGLES, subDraws[i*3+1], GL.GL_UNSIGNED_SHORT, (long)first * Buffers.SIZEOF_SHORT);
+            }
+            if( 0 != lastBaseVertex ) {
+                setBaseVertex(gl, attributes, 0);
+            }
+            subIndices.bindBuffer(gl, false);
+        }
+    }
+
+    private static void setBaseVertex(final GL2ES2 gl, final GLArrayDataServer[] attributes, final int baseVertex) {
+        for(int i=0; i<attributes.length; i++) {
+            final GLArrayDataServer a = attributes[i];
+            if( null != a && 0 <= a.getLocation() ) {
+                gl.glBindBuffer(GL.GL_ARRAY_BUFFER, a.getVBOName());
+                gl.glVertexAttribPointer(a.getLocation(), a.getComponentCount(), a.getComponentType(), a.getNormalized(),
+                                         a.getStride(), a.getVBOOffset() + (long)baseVertex * a.getStride());
+            }
+        }
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+    }
+
+    void clear(final GL2ES2 gl) {
+        indices.seal(gl, false);
+        indices.rewind();
+        if( null != subIndices ) {
+            subIndices.seal(gl, false);
+            subIndices.rewind();
+        }
+        subDrawCount = 0;
+        useSubDraws = false;
+    }
+
+    void destroy(final GL2ES2 gl) {
+        if( null != obsolete ) {
+            obsolete.destroy(gl);
+            obsolete = null;
+        }
+        if( null != subIndices ) {
+            subIndices.destroy(gl);
+            subIndices = null;
+        }
+        indices.destroy(gl);
+    }
+
+    @Override
+    public String toString() {
+        return "RegionIndices[uint "+uint+", subDraws "+(useSubDraws ? subDrawCount : 0)+", "+indices+"]";
+    }
+}
@@ -93,7 +93,8 @@ public class VBORegion2PVBAAES2  extends GLRegion {
     private GLArrayDataServer gca_VerticesAttr;
     private GLArrayDataServer gca_CurveParamsAttr;
     private GLArrayDataServer gca_ColorsAttr;
-    private GLArrayDataServer indicesBuffer;
+    private RegionIndices indicesBuffer;
+    private final GLArrayDataServer[] vertexAttributes;
     private final GLUniformData gcu_ColorTexUnit;
     private final float[] colorTexBBox; // x0, y0, x1, y1
     private final GLUniformData gcu_ColorTexBBox;
@@ -179,7 +180,7 @@ public class VBORegion2PVBAAES2  extends GLRegion {
         final int initialElementCount = 256;
 
         // Pass 1:
-        indicesBuffer = GLArrayDataServer.createData(3, GL.GL_SHORT, initialElementCount, GL.GL_STATIC_DRAW, GL.GL_ELEMENT_ARRAY_BUFFER);
+        indicesBuffer = new RegionIndices(initialElementCount);
 
         gca_VerticesAttr = GLArrayDataServer.createGLSL(AttributeNames.VERTEX_ATTR_NAME, 3, GL.GL_FLOAT,
                                                       false, initialElementCount, GL.GL_STATIC_DRAW);
@@ -192,6 +193,7 @@ public class VBORegion2PVBAAES2  extends GLRegion {
         } else {
             gca_ColorsAttr = null;
         }
+        vertexAttributes = new GLArrayDataServer[] { gca_VerticesAttr, gca_CurveParamsAttr, gca_ColorsAttr };
         if( hasColorTexture() ) {
             gcu_ColorTexUnit = new GLUniformData(UniformNames.gcu_ColorTexUnit, colorTexSeq.getTextureUnit());
             colorTexBBox = new float[4];
@@ -234,8 +236,7 @@ public class VBORegion2PVBAAES2  extends GLRegion {
             // Thread.dumpStack();
         }
         if( null != indicesBuffer ) {
-            indicesBuffer.seal(gl, false);
-            indicesBuffer.rewind();
+            indicesBuffer.clear(gl);
         }
         if( null != gca_VerticesAttr ) {
             gca_VerticesAttr.seal(gl, false);
@@ -253,21 +254,22 @@ public class VBORegion2PVBAAES2  extends GLRegion {
     }
 
     @Override
-    protected final void pushVertex(final float[] coords, final float[] texParams, final float[] rgba) {
-        gca_VerticesAttr.putf(coords[0]);
-        gca_VerticesAttr.putf(coords[1]);
-        gca_VerticesAttr.putf(coords[2]);
-
-        gca_CurveParamsAttr.putf(texParams[0]);
-        gca_CurveParamsAttr.putf(texParams[1]);
-        gca_CurveParamsAttr.putf(texParams[2]);
+    protected final void setupInitialComponentCount(final int vertexCount, final int indexCount) {
+        gca_VerticesAttr.growIfNeeded(vertexCount * gca_VerticesAttr.getComponentCount());
+        gca_CurveParamsAttr.growIfNeeded(vertexCount * gca_CurveParamsAttr.getComponentCount());
+        if( null != gca_ColorsAttr ) {
+            gca_ColorsAttr.growIfNeeded(vertexCount * gca_ColorsAttr.getComponentCount());
+        }
+        indicesBuffer.growIfNeeded(indexCount);
+    }
 
+    @Override
+    protected final void pushVertex(final float[] coords, final float[] texParams, final float[] rgba) {
+        gca_VerticesAttr.put(coords, 0, 3);
+        gca_CurveParamsAttr.put(texParams, 0, 3);
         if( null != gca_ColorsAttr ) {
             if( null != rgba ) {
-                gca_ColorsAttr.putf(rgba[0]);
-                gca_ColorsAttr.putf(rgba[1]);
-                gca_ColorsAttr.putf(rgba[2]);
-                gca_ColorsAttr.putf(rgba[3]);
+                gca_ColorsAttr.put(rgba, 0, 4);
             } else {
                 throw new IllegalArgumentException("Null color given for COLOR_CHANNEL rendering mode");
             }
@@ -276,14 +278,13 @@ public class VBORegion2PVBAAES2  extends GLRegion {
 
     @Override
     protected final void pushIndex(final int idx) {
-        indicesBuffer.puts((short)idx);
+        indicesBuffer.put(idx);
     }
 
     @Override
     protected void updateImpl(final GL2ES2 gl) {
         // seal buffers
-        indicesBuffer.seal(gl, true);
-        indicesBuffer.enableBuffer(gl, false);
+        indicesBuffer.seal(gl);
         gca_CurveParamsAttr.seal(gl, true);
         gca_CurveParamsAttr.enableBuffer(gl, false);
         gca_VerticesAttr.seal(gl, true);
@@ -337,7 +338,7 @@ public class VBORegion2PVBAAES2  extends GLRegion {
 
     @Override
     protected void drawImpl(final GL2ES2 gl, final RegionRenderer renderer, final int[/*1*/] sampleCount) {
-        if( 0 >= indicesBuffer.getElementCount() ) {
+        if( indicesBuffer.isEmpty() ) {
             if(DEBUG_INSTANCE) {
                 System.err.printf("VBORegion2PVBAAES2.drawImpl: Empty%n");
             }
@@ -630,7 +631,6 @@ public class VBORegion2PVBAAES2  extends GLRegion {
         if( null != gca_ColorsAttr ) {
             gca_ColorsAttr.enableBuffer(gl, true);
         }
-        indicesBuffer.bindBuffer(gl, true); // keeps VBO binding
         if( null != gcu_ColorTexUnit && colorTexSeq.isTextureAvailable() ) {
             final TextureSequence.TextureFrame frame = colorTexSeq.getNextTexture(gl);
             gl.glActiveTexture(GL.GL_TEXTURE0 + colorTexSeq.getTextureUnit());
@@ -640,13 +640,12 @@ public class VBORegion2PVBAAES2  extends GLRegion {
             gcu_ColorTexUnit.setData(colorTexSeq.getTextureUnit());
             gl.glUniform(gcu_ColorTexUnit); // Always update, since program maybe used by multiple regions
             gl.glUniform(gcu_ColorTexBBox); // Always update, since program maybe used by multiple regions
-            gl.glDrawElements(GL.GL_TRIANGLES, indicesBuffer.getElementCount() * indicesBuffer.getComponentCount(), GL.GL_UNSIGNED_SHORT, 0);
+            indicesBuffer.draw(gl, vertexAttributes);
             tex.disable(gl); // nop on core
         } else {
-            gl.glDrawElements(GL.GL_TRIANGLES, indicesBuffer.getElementCount() * indicesBuffer.getComponentCount(), GL.GL_UNSIGNED_SHORT, 0);
+            indicesBuffer.draw(gl, vertexAttributes);
         }
 
-        indicesBuffer.bindBuffer(gl, false);
         if( null != gca_ColorsAttr ) {
             gca_ColorsAttr.enableBuffer(gl, false);
         }
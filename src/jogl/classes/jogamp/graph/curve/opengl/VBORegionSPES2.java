@@ -52,7 +52,8 @@ public class VBORegionSPES2 extends GLRegion {
     private GLArrayDataServer gca_VerticesAttr = null;
     private GLArrayDataServer gca_CurveParamsAttr = null;
     private GLArrayDataServer gca_ColorsAttr;
-    private GLArrayDataServer indicesBuffer = null;
+    private RegionIndices indicesBuffer = null;
+    private final GLArrayDataServer[] vertexAttributes;
     private final GLUniformData gcu_ColorTexUnit;
     private final float[] colorTexBBox; // x0, y0, x1, y1
     private final GLUniformData gcu_ColorTexBBox;
@@ -64,7 +65,7 @@ public class VBORegionSPES2 extends GLRegion {
         rsLocal = new RenderState.ProgramLocal();
 
         final int initialElementCount = 256;
-        indicesBuffer = GLArrayDataServer.createData(3, GL.GL_SHORT, initialElementCount, GL.GL_STATIC_DRAW, GL.GL_ELEMENT_ARRAY_BUFFER);
+        indicesBuffer = new RegionIndices(initialElementCount);
 
         gca_VerticesAttr = GLArrayDataServer.createGLSL(AttributeNames.VERTEX_ATTR_NAME, 3, GL.GL_FLOAT,
                                                         false, initialElementCount, GL.GL_STATIC_DRAW);
@@ -78,6 +79,7 @@ public class VBORegionSPES2 extends GLRegion {
         } else {
             gca_ColorsAttr = null;
         }
+        vertexAttributes = new GLArrayDataServer[] { gca_VerticesAttr, gca_CurveParamsAttr, gca_ColorsAttr };
         if( hasColorTexture() ) {
             gcu_ColorTexUnit = new GLUniformData(UniformNames.gcu_ColorTexUnit, colorTexSeq.getTextureUnit());
             colorTexBBox = new float[4];
@@ -95,8 +97,7 @@ public class VBORegionSPES2 extends GLRegion {
             System.err.println("VBORegionSPES2 Clear: " + this);
         }
         if( null != indicesBuffer ) {
-            indicesBuffer.seal(gl, false);
-            indicesBuffer.rewind();
+            indicesBuffer.clear(gl);
         }
         if( null != gca_VerticesAttr ) {
             gca_VerticesAttr.seal(gl, false);
@@ -113,21 +114,22 @@ public class VBORegionSPES2 extends GLRegion {
     }
 
     @Override
-    protected final void pushVertex(final float[] coords, final float[] texParams, final float[] rgba) {
-        gca_VerticesAttr.putf(coords[0]);
-        gca_VerticesAttr.putf(coords[1]);
-        gca_VerticesAttr.putf(coords[2]);
-
-        gca_CurveParamsAttr.putf(texParams[0]);
-        gca_CurveParamsAttr.putf(texParams[1]);
-        gca_CurveParamsAttr.putf(texParams[2]);
+    protected final void setupInitialComponentCount(final int vertexCount, final int indexCount) {
+        gca_VerticesAttr.growIfNeeded(vertexCount * gca_VerticesAttr.getComponentCount());
+        gca_CurveParamsAttr.growIfNeeded(vertexCount * gca_CurveParamsAttr.getComponentCount());
+        if( null != gca_ColorsAttr ) {
+            gca_ColorsAttr.growIfNeeded(vertexCount * gca_ColorsAttr.getComponentCount());
+        }
+        indicesBuffer.growIfNeeded(indexCount);
+    }
 
+    @Override
+    protected final void pushVertex(final float[] coords, final float[] texParams, final float[] rgba) {
+        gca_VerticesAttr.put(coords, 0, 3);
+        gca_CurveParamsAttr.put(texParams, 0, 3);
         if( null != gca_ColorsAttr ) {
             if( null != rgba ) {
-                gca_ColorsAttr.putf(rgba[0]);
-                gca_ColorsAttr.putf(rgba[1]);
-                gca_ColorsAttr.putf(rgba[2]);
-                gca_ColorsAttr.putf(rgba[3]);
+                gca_ColorsAttr.put(rgba, 0, 4);
             } else {
                 throw new IllegalArgumentException("Null color given for COLOR_CHANNEL rendering mode");
             }
@@ -136,7 +138,7 @@ public class VBORegionSPES2 extends GLRegion {
 
     @Override
     protected final void pushIndex(final int idx) {
-        indicesBuffer.puts((short)idx);
+        indicesBuffer.put(idx);
     }
 
     @Override
@@ -168,8 +170,7 @@ public class VBORegionSPES2 extends GLRegion {
                 colorTexBBox[3] = box.getMaxY() * tcSy;
             }
         }
-        indicesBuffer.seal(gl, true);
-        indicesBuffer.enableBuffer(gl, false);
+        indicesBuffer.seal(gl);
         if(DEBUG_INSTANCE) {
             System.err.println("VBORegionSPES2 idx "+indicesBuffer);
             System.err.println("VBORegionSPES2 ver "+gca_VerticesAttr);
@@ -218,7 +219,7 @@ public class VBORegionSPES2 extends GLRegion {
         final int renderModes = getRenderModes();
         useShaderProgram(gl, renderer, renderModes, getQuality());
 
-        if( 0 >= indicesBuffer.getElementCount() ) {
+        if( indicesBuffer.isEmpty() ) {
             if(DEBUG_INSTANCE) {
                 System.err.printf("VBORegionSPES2.drawImpl: Empty%n");
             }
@@ -229,7 +230,6 @@ public class VBORegionSPES2 extends GLRegion {
         if( null != gca_ColorsAttr ) {
             gca_ColorsAttr.enableBuffer(gl, true);
         }
-        indicesBuffer.bindBuffer(gl, true); // keeps VBO binding
 
         if( renderer.getRenderState().isHintMaskSet(RenderState.BITHINT_BLENDING_ENABLED) ) {
             gl.glBlendFunc(GL.GL_SRC_ALPHA, GL.GL_ONE_MINUS_SRC_ALPHA);
@@ -244,13 +244,12 @@ public class VBORegionSPES2 extends GLRegion {
             gcu_ColorTexUnit.setData(colorTexSeq.getTextureUnit());
             gl.glUniform(gcu_ColorTexUnit); // Always update, since program maybe used by multiple regions
             gl.glUniform(gcu_ColorTexBBox); // Always update, since program maybe used by multiple regions
-            gl.glDrawElements(GL.GL_TRIANGLES, indicesBuffer.getElementCount() * indicesBuffer.getComponentCount(), GL.GL_UNSIGNED_SHORT, 0);
+            indicesBuffer.draw(gl, vertexAttributes);
             tex.disable(gl); // nop on core
         } else {
-            gl.glDrawElements(GL.GL_TRIANGLES, indicesBuffer.getElementCount() * indicesBuffer.getComponentCount(), GL.GL_UNSIGNED_SHORT, 0);
+            indicesBuffer.draw(gl, vertexAttributes);
         }
 
-        indicesBuffer.bindBuffer(gl, false);
         if( null != gca_ColorsAttr ) {
             gca_ColorsAttr.enableBuffer(gl, false);
         }
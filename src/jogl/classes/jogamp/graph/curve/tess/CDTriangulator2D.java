@@ -103,42 +103,7 @@ public class CDTriangulator2D implements Triangulator {
     public final void generate(final List<Triangle> sink) {
         final int loopsSize = loops.size();
         for(int i=0;i<loopsSize;i++) {
-            final Loop loop = loops.get(i);
-            int numTries = 0;
-            int size = loop.computeLoopSize();
-            while(!loop.isSimplex()){
-                final Triangle tri;
-                if(numTries > size){
-                    tri = loop.cut(false);
-                }
-                else{
-                    tri = loop.cut(true);
-                }
-                numTries++;
-
-                if(tri != null) {
-                    numTries = 0;
-                    size--;
-                    tri.setId(maxTriID++);
-                    sink.add(tri);
-                    if(DEBUG){
-                        System.err.println("CDTri.gen["+i+"].0: "+tri);
-                    }
-                }
-                if(numTries > size*2){
-                    if(DEBUG){
-                        System.err.println("CDTri.gen["+i+"].X: Triangulation not complete!");
-                    }
-                    break;
-                }
-            }
-            final Triangle tri = loop.cut(true);
-            if(tri != null) {
-                sink.add(tri);
-                if(DEBUG){
-                    System.err.println("CDTri.gen["+i+"].1: "+tri);
-                }
-            }
+            maxTriID = cutLoop(sink, loops.get(i), i, maxTriID);
         }
         if( TEST_ENABLED ) {
             final float[] tempV2 = new float[2];
@@ -159,7 +124,66 @@ public class CDTriangulator2D implements Triangulator {
         }
     }
 
+    /**
+     * Cuts the given {@link Loop} into triangles, added to the given sink.
+     * @return the next free triangle id
+     */
+    /* pp */ static int cutLoop(final List<Triangle> sink, final Loop loop, final int loopIdx, int maxTriID) {
+        int numTries = 0;
+        int size = loop.computeLoopSize();
+        while(!loop.isSimplex()){
+            final Triangle tri;
+            if(numTries > size){
+                tri = loop.cut(false);
+            }
+            else{
+                tri = loop.cut(true);
+            }
+            numTries++;
+
+            if(tri != null) {
+                numTries = 0;
+                size--;
+                tri.setId(maxTriID++);
+                sink.add(tri);
+                if(DEBUG){
+                    System.err.println("CDTri.gen["+loopIdx+"].0: "+tri);
+                }
+            }
+            if(numTries > size*2){
+                if(DEBUG){
+                    System.err.println("CDTri.gen["+loopIdx+"].X: Triangulation not complete!");
+                }
+                break;
+            }
+        }
+        final Triangle tri = loop.cut(true);
+        if(tri != null) {
+            sink.add(tri);
+            if(DEBUG){
+                System.err.println("CDTri.gen["+loopIdx+"].1: "+tri);
+            }
+        }
+        return maxTriID;
+    }
+
     private GraphOutline extractBoundaryTriangles(final List<Triangle> sink, final GraphOutline outline, final boolean hole, final float sharpness) {
+        final int sinkSize = sink.size();
+        final GraphOutline innerOutline = extractBoundaryTriangles(sink, outline, hole, sharpness, maxTriID);
+        final int triCount = sink.size() - sinkSize;
+        maxTriID += triCount;
+        addedVerticeCount += 3 * triCount;
+        return innerOutline;
+    }
+
+    /**
+     * Adds the curve triangles of the given outline to the sink, using the triangle ids starting with {@code maxTriID}.
+     * <p>
+     * Each curve triangle adds 3 new vertices.
+     * </p>
+     * @return the inner outline w/o the curve triangles, to be triangulated
+     */
+    /* pp */ static GraphOutline extractBoundaryTriangles(final List<Triangle> sink, final GraphOutline outline, final boolean hole, final float sharpness, int maxTriID) {
         final GraphOutline innerOutline = new GraphOutline();
         final ArrayList<GraphVertex> outVertices = outline.getGraphPoint();
         final int size = outVertices.size();
@@ -172,7 +196,6 @@ public class CDTriangulator2D implements Triangulator {
                 final Vertex v0 = gv0.getPoint().clone();
                 final Vertex v2 = gv2.getPoint().clone();
                 final Vertex v1 = gv1.getPoint().clone();
-                addedVerticeCount += 3;
                 final boolean[] boundaryVertices = { true, true, true };
 
                 gv0.setBoundaryContained(true);
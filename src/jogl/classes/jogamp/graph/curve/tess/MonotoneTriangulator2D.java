@@ -0,0 +1,627 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.graph.curve.tess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.jogamp.graph.curve.tess.Triangulator;
+import com.jogamp.graph.geom.Outline;
+import com.jogamp.graph.geom.Triangle;
+import com.jogamp.graph.geom.Vertex;
+import com.jogamp.opengl.math.VectorUtil;
+import com.jogamp.opengl.math.geom.AABBox;
+
+/**
+ * Sweep-line triangulation of a list of Outlines that define a set of
+ * Closed Regions with optional n holes.
+ * <p>
+ * The curve triangles and their texture coordinates are extracted
+ * as in {@link CDTriangulator2D}, the remaining inner outlines are triangulated
+ * by partitioning them into y-monotone polygons, see
+ * <i>de Berg et al., Computational Geometry, chapter 3</i>.
+ * </p>
+ * <p>
+ * Each inner outline is oriented by its nesting depth, i.e. CCW for even and CW for odd depth,
+ * all outlines are then partitioned in one sweep in O(n log n) and each monotone polygon is triangulated in linear time.
+ * The nesting depth also determines whether an outline is treated as a hole,
+ * which matches {@link CDTriangulator2D}'s container loop semantics.
+ * </p>
+ * <p>
+ * In case the outlines are degenerated, e.g. self intersecting, the triangulation
+ * falls back to {@link CDTriangulator2D}'s {@link Loop} cutting.
+ * </p>
+ */
+public class MonotoneTriangulator2D implements Triangulator {
+
+    private static final boolean DEBUG = CDTriangulator2D.DEBUG;
+
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int SPLIT = 2;
+    private static final int MERGE = 3;
+    private static final int REGULAR = 4;
+
+    private final ArrayList<Contour> contours = new ArrayList<Contour>();
+
+    private int addedVerticeCount;
+    private int maxTriID;
+
+    // Sweep state, valid during generate(..)
+    private GraphVertex[] gv;
+    private double[] x, y;
+    private int[] vnext, vprev, rank, type, helper;
+    private int[] status;
+    private int statusSize;
+    // Half edges: vertex i's boundary half-edge has index i, diagonals are appended
+    private int[] heOrg, heNext, hePrev, heNextOut, vFirstOut;
+    private int heCount;
+
+    /** Constructor for a new sweep-line triangulator
+     */
+    public MonotoneTriangulator2D() {
+        reset();
+    }
+
+    @Override
+    public final void reset() {
+        maxTriID = 0;
+        addedVerticeCount = 0;
+        contours.clear();
+    }
+
+    @Override
+    public final int getAddedVerticeCount() {
+        return addedVerticeCount;
+    }
+
+    @Override
+    public final void addCurve(final List<Triangle> sink, final Outline polyline, final float sharpness) {
+        final int depth = getNestingDepth(polyline);
+        final boolean hole = 0 != ( depth & 1 );
+        final GraphOutline outline = new GraphOutline(polyline);
+        final int sinkSize = sink.size();
+        final GraphOutline innerPoly = CDTriangulator2D.extractBoundaryTriangles(sink, outline, hole, sharpness, maxTriID);
+        final int triCount = sink.size() - sinkSize;
+        maxTriID += triCount;
+        addedVerticeCount += 3 * triCount;
+        contours.add(new Contour(innerPoly, depth));
+    }
+
+    @Override
+    public final void generate(final List<Triangle> sink) {
+        final ArrayList<Triangle> tris = new ArrayList<Triangle>();
+        boolean done;
+        try {
+            sweep(tris);
+            done = true;
+        } catch (final IllegalStateException ise) {
+            if(DEBUG) {
+                System.err.println("MonoTri.gen.X: "+ise.getMessage()+", fall back to loops");
+            }
+            done = false;
+        } finally {
+            gv = null;
+            x = null; y = null;
+            vnext = null; vprev = null; rank = null; type = null; helper = null; status = null;
+            heOrg = null; heNext = null; hePrev = null; heNextOut = null; vFirstOut = null;
+        }
+        if( done ) {
+            for(int i=0; i<tris.size(); i++) {
+                final Triangle tri = tris.get(i);
+                tri.setId(maxTriID++);
+                sink.add(tri);
+                if(DEBUG){
+                    System.err.println("MonoTri.gen.0: "+tri);
+                }
+            }
+        } else {
+            generateByLoops(sink);
+        }
+    }
+
+    /**
+     * Returns the number of already added inner outlines containing the given polyline,
+     * using the even-odd rule as {@link Loop#checkInside(Vertex)}.
+     */
+    private int getNestingDepth(final Outline polyline) {
+        final ArrayList<Vertex> vertices = polyline.getVertices();
+        final AABBox pbox = polyline.getBounds();
+        int depth = 0;
+        for(int i=0; i < contours.size(); i++) {
+            final Contour c = contours.get(i);
+            if( c.box.getMinX() > pbox.getMaxX() || c.box.getMaxX() < pbox.getMinX() ||
+                c.box.getMinY() > pbox.getMaxY() || c.box.getMaxY() < pbox.getMinY() ) {
+                continue;
+            }
+            for(int j=0; j < vertices.size(); j++) {
+                if( c.checkInside( vertices.get(j) ) ) {
+                    depth++;
+                    break;
+                }
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Fall back for degenerated outlines, cutting {@link Loop}s as {@link CDTriangulator2D}.
+     */
+    private void generateByLoops(final List<Triangle> sink) {
+        final ArrayList<Loop> loops = new ArrayList<Loop>();
+        for(int i=0; i<contours.size(); i++) {
+            final Contour c = contours.get(i);
+            if( c.inner.getGraphPoint().size() < 3 ) {
+                continue;
+            }
+            Loop loop = null;
+            if( c.isHole() ) {
+                final ArrayList<Vertex> vertices = c.inner.getVertices();
+                for(int j=0; null == loop && j < loops.size(); j++) {
+                    for(int k=0; k < vertices.size(); k++) {
+                        if( loops.get(j).checkInside( vertices.get(k) ) ) {
+                            loop = loops.get(j);
+                            break;
+                        }
+                    }
+                }
+            }
+            if( null == loop ) {
+                loops.add(new Loop(c.inner, VectorUtil.Winding.CCW));
+            } else {
+                loop.addConstraintCurve(c.inner);
+            }
+        }
+        for(int i=0; i<loops.size(); i++) {
+            maxTriID = CDTriangulator2D.cutLoop(sink, loops.get(i), i, maxTriID);
+        }
+    }
+
+    /**
+     * Partitions all inner outlines into y-monotone polygons and triangulates them.
+     * @throws IllegalStateException if the outlines are degenerated
+     */
+    private void sweep(final List<Triangle> tris) throws IllegalStateException {
+        int n = 0;
+        for(int i=0; i<contours.size(); i++) {
+            n += contours.get(i).inner.getGraphPoint().size();
+        }
+        gv = new GraphVertex[n];
+        x = new double[n];
+        y = new double[n];
+        vnext = new int[n];
+        vprev = new int[n];
+
+        // Link the vertices of each outline, CCW for even and CW for odd nesting depth
+        int count = 0, expTriCount = 0;
+        for(int i=0; i<contours.size(); i++) {
+            final Contour c = contours.get(i);
+            final ArrayList<GraphVertex> points = c.inner.getGraphPoint();
+            final int size = points.size();
+            if( size < 3 ) {
+                continue;
+            }
+            double area = 0;
+            for(int j=0; j<size; j++) {
+                final GraphVertex a = points.get(j);
+                final GraphVertex b = points.get((j+1)%size);
+                area += (double)a.getX() * b.getY() - (double)b.getX() * a.getY();
+            }
+            if( 0 == area ) {
+                continue;
+            }
+            final boolean invert = ( area > 0 ) == c.isHole();
+            for(int j=0; j<size; j++) {
+                final int v = count + j;
+                gv[v] = points.get( invert ? size - 1 - j : j );
+                x[v] = gv[v].getX();
+                y[v] = gv[v].getY();
+                vnext[v] = count + (j+1)%size;
+                vprev[v] = count + (j+size-1)%size;
+            }
+            count += size;
+            // V - 2 triangles per outer outline, V + 2 per hole
+            expTriCount += c.isHole() ? size + 2 : size - 2;
+        }
+        n = count;
+        if( 0 == n ) {
+            return;
+        }
+
+        // Sweep order from top to bottom, left to right
+        final Integer[] order = new Integer[n];
+        for(int i=0; i<n; i++) {
+            order[i] = Integer.valueOf(i);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                final int a = o1.intValue(), b = o2.intValue();
+                if( y[a] != y[b] ) {
+                    return y[a] > y[b] ? -1 : 1;
+                }
+                if( x[a] != x[b] ) {
+                    return x[a] < x[b] ? -1 : 1;
+                }
+                return a - b;
+            } });
+        rank = new int[n];
+        for(int i=0; i<n; i++) {
+            rank[order[i].intValue()] = i;
+        }
+
+        type = new int[n];
+        for(int v=0; v<n; v++) {
+            final int p = vprev[v], q = vnext[v];
+            final boolean prevBelow = rank[p] > rank[v];
+            final boolean nextBelow = rank[q] > rank[v];
+            final boolean convex = cross(x[v]-x[p], y[v]-y[p], x[q]-x[v], y[q]-y[v]) > 0;
+            if( prevBelow && nextBelow ) {
+                type[v] = convex ? START : SPLIT;
+            } else if( !prevBelow && !nextBelow ) {
+                type[v] = convex ? END : MERGE;
+            } else {
+                type[v] = REGULAR;
+            }
+        }
+
+        // Half edges, each event adds at most 2 diagonals
+        final int heCapacity = n + 4 * n;
+        heOrg = new int[heCapacity];
+        heNext = new int[heCapacity];
+        hePrev = new int[heCapacity];
+        heNextOut = new int[heCapacity];
+        vFirstOut = new int[n];
+        for(int v=0; v<n; v++) {
+            heOrg[v] = v;
+            heNext[v] = vnext[v];
+            hePrev[v] = vprev[v];
+            heNextOut[v] = -1;
+            vFirstOut[v] = v;
+        }
+        heCount = n;
+
+        // Edge e_v connects v with vnext[v], the status holds all edges left of the polygon's interior
+        helper = new int[n];
+        status = new int[n];
+        statusSize = 0;
+        for(int i=0; i<n; i++) {
+            final int v = order[i].intValue();
+            final int ep = vprev[v];
+            switch( type[v] ) {
+                case START:
+                    insertEdge(v);
+                    break;
+                case END:
+                    if( MERGE == type[helper[ep]] ) {
+                        addDiagonal(v, helper[ep]);
+                    }
+                    removeEdge(ep);
+                    break;
+                case SPLIT: {
+                    final int ej = status[findLeftEdge(v)];
+                    addDiagonal(v, helper[ej]);
+                    helper[ej] = v;
+                    insertEdge(v);
+                    break;
+                }
+                case MERGE: {
+                    if( MERGE == type[helper[ep]] ) {
+                        addDiagonal(v, helper[ep]);
+                    }
+                    removeEdge(ep);
+                    final int ej = status[findLeftEdge(v)];
+                    if( MERGE == type[helper[ej]] ) {
+                        addDiagonal(v, helper[ej]);
+                    }
+                    helper[ej] = v;
+                    break;
+                }
+                default:
+                    if( rank[vnext[v]] > rank[v] ) {
+                        // interior lies right of v
+                        if( MERGE == type[helper[ep]] ) {
+                            addDiagonal(v, helper[ep]);
+                        }
+                        removeEdge(ep);
+                        insertEdge(v);
+                    } else {
+                        final int ej = status[findLeftEdge(v)];
+                        if( MERGE == type[helper[ej]] ) {
+                            addDiagonal(v, helper[ej]);
+                        }
+                        helper[ej] = v;
+                    }
+                    break;
+            }
+        }
+
+        // Triangulate each face, i.e. monotone polygon
+        final boolean[] visited = new boolean[heCount];
+        final int[] face = new int[n];
+        final int[] sorted = new int[n];
+        final boolean[] left = new boolean[n];
+        final int[] stack = new int[n];
+        for(int h=0; h<heCount; h++) {
+            if( visited[h] ) {
+                continue;
+            }
+            int m = 0;
+            int e = h;
+            do {
+                if( m >= n || visited[e] ) {
+                    throw new IllegalStateException("Invalid face at half edge "+h);
+                }
+                visited[e] = true;
+                face[m++] = heOrg[e];
+                e = heNext[e];
+            } while( e != h );
+            triangulateMonotone(face, m, sorted, left, stack, tris);
+        }
+        if( tris.size() != expTriCount ) {
+            throw new IllegalStateException("Triangle count "+tris.size()+" != "+expTriCount);
+        }
+    }
+
+    private static double cross(final double ax, final double ay, final double bx, final double by) {
+        return ax * by - ay * bx;
+    }
+
+    /** Returns the x-coordinate of edge e_v at the given sweep line. */
+    private double xAt(final int e, final double sy) {
+        final int b = vnext[e];
+        if( y[e] == y[b] ) {
+            return Math.max(x[e], x[b]);
+        }
+        return x[e] + ( sy - y[e] ) * ( x[b] - x[e] ) / ( y[b] - y[e] );
+    }
+
+    /** Returns the status position of the edge directly left of vertex v. */
+    private int findLeftEdge(final int v) {
+        int lo = 0, hi = statusSize - 1, res = -1;
+        while( lo <= hi ) {
+            final int mid = ( lo + hi ) >>> 1;
+            if( xAt(status[mid], y[v]) <= x[v] ) {
+                res = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if( 0 > res ) {
+            throw new IllegalStateException("No edge left of vertex "+v+": "+gv[v]);
+        }
+        return res;
+    }
+
+    private void insertEdge(final int v) {
+        int lo = 0, hi = statusSize;
+        while( lo < hi ) {
+            final int mid = ( lo + hi ) >>> 1;
+            if( xAt(status[mid], y[v]) <= x[v] ) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        System.arraycopy(status, lo, status, lo + 1, statusSize - lo);
+        status[lo] = v;
+        statusSize++;
+        helper[v] = v;
+    }
+
+    private void removeEdge(final int e) {
+        for(int i=statusSize-1; i>=0; i--) {
+            if( status[i] == e ) {
+                System.arraycopy(status, i + 1, status, i, statusSize - i - 1);
+                statusSize--;
+                return;
+            }
+        }
+        throw new IllegalStateException("Edge of vertex "+e+" not in sweep status");
+    }
+
+    /** Returns the half edge leaving vertex a, whose face contains the direction towards vertex b. */
+    private int findOutEdge(final int a, final int b) {
+        int h = vFirstOut[a];
+        if( -1 == heNextOut[h] ) {
+            return h;
+        }
+        final double dx = x[b] - x[a], dy = y[b] - y[a];
+        while( -1 != h ) {
+            final int o = heOrg[heNext[h]], i = heOrg[hePrev[h]];
+            final double ox = x[o] - x[a], oy = y[o] - y[a];
+            final double ix = x[i] - x[a], iy = y[i] - y[a];
+            final boolean inside;
+            if( cross(ox, oy, ix, iy) > 0 ) {
+                inside = cross(ox, oy, dx, dy) > 0 && cross(dx, dy, ix, iy) > 0;
+            } else {
+                inside = !( cross(ix, iy, dx, dy) >= 0 && cross(dx, dy, ox, oy) >= 0 );
+            }
+            if( inside ) {
+                return h;
+            }
+            h = heNextOut[h];
+        }
+        throw new IllegalStateException("No face for diagonal "+a+" -> "+b);
+    }
+
+    private void addDiagonal(final int a, final int b) {
+        if( heCount + 2 > heOrg.length ) {
+            throw new IllegalStateException("Half edge capacity exceeded");
+        }
+        final int ha = findOutEdge(a, b);
+        final int hb = findOutEdge(b, a);
+        final int pa = hePrev[ha], pb = hePrev[hb];
+        final int d1 = heCount++, d2 = heCount++;
+        heOrg[d1] = a;
+        heOrg[d2] = b;
+        heNext[pa] = d1; hePrev[d1] = pa;
+        heNext[d1] = hb; hePrev[hb] = d1;
+        heNext[pb] = d2; hePrev[d2] = pb;
+        heNext[d2] = ha; hePrev[ha] = d2;
+        heNextOut[d1] = vFirstOut[a]; vFirstOut[a] = d1;
+        heNextOut[d2] = vFirstOut[b]; vFirstOut[b] = d2;
+    }
+
+    /**
+     * Triangulates the y-monotone CCW polygon in linear time.
+     * @throws IllegalStateException if the polygon is not y-monotone
+     */
+    private void triangulateMonotone(final int[] face, final int m, final int[] sorted, final boolean[] left,
+                                     final int[] stack, final List<Triangle> tris) throws IllegalStateException {
+        if( m < 3 ) {
+            throw new IllegalStateException("Face with "+m+" vertices");
+        }
+        int top = 0, bottom = 0;
+        for(int i=1; i<m; i++) {
+            if( rank[face[i]] < rank[face[top]] ) {
+                top = i;
+            }
+            if( rank[face[i]] > rank[face[bottom]] ) {
+                bottom = i;
+            }
+        }
+        // Merge the left chain, i.e. CCW from top to bottom, and the right chain, i.e. CW from top to bottom.
+        int l = top, r = top, k = 0;
+        sorted[k] = face[top];
+        left[k++] = true;
+        l = ( l + 1 ) % m;
+        r = ( r + m - 1 ) % m;
+        while( k < m ) {
+            final boolean takeLeft;
+            if( l == bottom && r == bottom ) {
+                takeLeft = true;
+            } else if( l == bottom ) {
+                takeLeft = false;
+            } else if( r == bottom ) {
+                takeLeft = true;
+            } else {
+                takeLeft = rank[face[l]] < rank[face[r]];
+            }
+            final int v = takeLeft ? face[l] : face[r];
+            if( rank[v] < rank[sorted[k-1]] ) {
+                throw new IllegalStateException("Face not y-monotone at vertex "+v);
+            }
+            sorted[k] = v;
+            left[k++] = takeLeft;
+            if( l == bottom && r == bottom ) {
+                break;
+            }
+            if( takeLeft ) {
+                l = ( l + 1 ) % m;
+            } else {
+                r = ( r + m - 1 ) % m;
+            }
+        }
+        if( k != m ) {
+            throw new IllegalStateException("Face chains "+k+" != "+m);
+        }
+
+        int sp = 0;
+        stack[sp++] = 0;
+        stack[sp++] = 1;
+        for(int j=2; j<m-1; j++) {
+            if( left[j] != left[stack[sp-1]] ) {
+                while( sp > 1 ) {
+                    final int a = stack[--sp];
+                    addTriangle(sorted[j], sorted[a], sorted[stack[sp-1]], tris);
+                }
+                sp = 0;
+                stack[sp++] = j - 1;
+                stack[sp++] = j;
+            } else {
+                int last = stack[--sp];
+                while( sp > 0 && isInside(sorted[j], sorted[last], sorted[stack[sp-1]], left[j]) ) {
+                    addTriangle(sorted[j], sorted[last], sorted[stack[sp-1]], tris);
+                    last = stack[--sp];
+                }
+                stack[sp++] = last;
+                stack[sp++] = j;
+            }
+        }
+        while( sp > 1 ) {
+            final int a = stack[--sp];
+            addTriangle(sorted[m-1], sorted[a], sorted[stack[sp-1]], tris);
+        }
+    }
+
+    /** Returns true if the diagonal from v to c lies inside the polygon, with b between both on v's chain. */
+    private boolean isInside(final int v, final int b, final int c, final boolean leftChain) {
+        final double cr = cross(x[b]-x[v], y[b]-y[v], x[c]-x[v], y[c]-y[v]);
+        return leftChain ? cr < 0 : cr > 0;
+    }
+
+    private void addTriangle(final int a, int b, int c, final List<Triangle> tris) {
+        if( cross(x[b]-x[a], y[b]-y[a], x[c]-x[a], y[c]-y[a]) < 0 ) {
+            final int t = b; b = c; c = t;
+        }
+        final boolean[] boundary = { gv[a].isBoundaryContained(), gv[b].isBoundaryContained(), gv[c].isBoundaryContained() };
+        tris.add( new Triangle(gv[a].getPoint(), gv[b].getPoint(), gv[c].getPoint(), boundary) );
+    }
+
+    /** Inner outline w/o curve triangles and its nesting depth. */
+    private static class Contour {
+        final GraphOutline inner;
+        final int depth;
+        final AABBox box = new AABBox();
+
+        Contour(final GraphOutline inner, final int depth) {
+            this.inner = inner;
+            this.depth = depth;
+            final ArrayList<GraphVertex> points = inner.getGraphPoint();
+            for(int i=0; i<points.size(); i++) {
+                final GraphVertex v = points.get(i);
+                box.resize(v.getX(), v.getY(), v.getZ());
+            }
+        }
+
+        final boolean isHole() { return 0 != ( depth & 1 ); }
+
+        /** Even-odd point in polygon test, as {@link Loop#checkInside(Vertex)}. */
+        final boolean checkInside(final Vertex v) {
+            if(!box.contains(v.getX(), v.getY(), v.getZ())){
+                return false;
+            }
+            final ArrayList<GraphVertex> points = inner.getGraphPoint();
+            final int size = points.size();
+            boolean inside = false;
+            for(int i=0; i<size; i++) {
+                final GraphVertex v2 = points.get(i);
+                final GraphVertex v1 = points.get((i+1)%size);
+                if ( ((v1.getY() > v.getY()) != (v2.getY() > v.getY())) &&
+                      (v.getX() < (v2.getX() - v1.getX()) * (v.getY() - v1.getY()) / (v2.getY() - v1.getY()) + v1.getX()) ){
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.graph.font.typecast;
+
+import jogamp.opengl.Debug;
+
+import com.jogamp.common.util.IntObjectHashMap;
+import com.jogamp.common.util.PropertyAccess;
+import com.jogamp.graph.font.Font;
+
+/**
+ * Bounded glyph cache of a {@link TypecastFont}, mapping symbols to {@link TypecastGlyph}s.
+ * <p>
+ * Glyphs of the pinned range <code>[0..{@link #getPinnedCount()}-1]</code>, by default Basic Latin,
+ * are kept in a direct lookup table and are never evicted.
+ * All other glyphs are kept in least recently used (LRU) order and are evicted
+ * once the number of glyphs exceeds {@link #getMaxGlyphs()}
+ * or their estimated memory footprint exceeds {@link #getMaxBytes()}.
+ * </p>
+ * <p>
+ * An evicted glyph is recreated on demand from the font's glyph table,
+ * while glyph instances still referenced by the user stay valid.
+ * </p>
+ * <p>
+ * Default limits may be set via the properties
+ * <ul>
+ *   <li><code>jogl.graph.font.glyphcache.pinned</code>, number of pinned symbols starting at <code>0</code>, defaults to {@value #DEFAULT_PINNED_COUNT}</li>
+ *   <li><code>jogl.graph.font.glyphcache.maxGlyphs</code>, maximum number of unpinned glyphs, defaults to <code>0</code>, i.e. unlimited</li>
+ *   <li><code>jogl.graph.font.glyphcache.maxBytes</code>, maximum estimated bytes of unpinned glyphs, defaults to {@value #DEFAULT_MAX_BYTES}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Instances are not thread safe, same as {@link TypecastFont}.
+ * </p>
+ */
+public final class GlyphCache {
+    /** Default number of pinned symbols, i.e. Basic Latin, {@value} */
+    public static final int DEFAULT_PINNED_COUNT = 0x80;
+    /** Default maximum estimated bytes of unpinned glyphs, {@value} */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    /** Estimated bytes of a glyph w/o its outline, i.e. metrics and bounding box */
+    private static final int GLYPH_BYTES = 256;
+    /** Estimated bytes per outline point, i.e. vertex and its share of outline and triangulation */
+    private static final int POINT_BYTES = 192;
+
+    private static final int defPinnedCount;
+    private static final int defMaxGlyphs;
+    private static final long defMaxBytes;
+
+    static {
+        Debug.initSingleton();
+        defPinnedCount = Math.max(0, Math.min(0x10000, PropertyAccess.getIntProperty("jogl.graph.font.glyphcache.pinned", true, DEFAULT_PINNED_COUNT)));
+        defMaxGlyphs = Math.max(0, PropertyAccess.getIntProperty("jogl.graph.font.glyphcache.maxGlyphs", true, 0));
+        defMaxBytes = Math.max(0L, PropertyAccess.getLongProperty("jogl.graph.font.glyphcache.maxBytes", true, DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Returns the {@link GlyphCache} of the given {@link Font}, or <code>null</code>
+     * if the font is not implemented by <i>typecast</i>.
+     */
+    public static GlyphCache get(final Font font) {
+        return font instanceof TypecastFont ? ((TypecastFont)font).getGlyphCache() : null;
+    }
+
+    private static final class Entry {
+        final TypecastGlyph glyph;
+        final int bytes;
+        Entry prev, next;
+
+        Entry(final TypecastGlyph glyph, final int bytes) {
+            this.glyph = glyph;
+            this.bytes = bytes;
+        }
+    }
+
+    private final TypecastGlyph[] pinned;
+    private final IntObjectHashMap symbol2Entry;
+    /** Sentinel of the LRU list, <code>head.next</code> is the most and <code>head.prev</code> the least recently used entry. */
+    private final Entry head = new Entry(null, 0);
+    private int maxGlyphs;
+    private long maxBytes;
+    private int pinnedGlyphs;
+    private long bytes;
+    private long hits, misses, evictions;
+
+    /** Creates a new instance using the default limits. */
+    GlyphCache() {
+        this(defPinnedCount, defMaxGlyphs, defMaxBytes);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param pinnedCount number of pinned symbols starting at <code>0</code>
+     * @param maxGlyphs maximum number of unpinned glyphs, <code>0</code> for unlimited
+     * @param maxBytes maximum estimated bytes of unpinned glyphs, <code>0</code> for unlimited
+     */
+    public GlyphCache(final int pinnedCount, final int maxGlyphs, final long maxBytes) {
+        if( 0 > pinnedCount || 0x10000 < pinnedCount ) {
+            throw new IllegalArgumentException("pinnedCount "+pinnedCount+" not within [0..0x10000]");
+        }
+        this.pinned = new TypecastGlyph[pinnedCount];
+        this.symbol2Entry = new IntObjectHashMap();
+        head.prev = head;
+        head.next = head;
+        setLimits(maxGlyphs, maxBytes);
+    }
+
+    /**
+     * Sets the limits of unpinned glyphs, evicting least recently used glyphs if required.
+     * @param maxGlyphs maximum number of unpinned glyphs, <code>0</code> for unlimited
+     * @param maxBytes maximum estimated bytes of unpinned glyphs, <code>0</code> for unlimited
+     */
+    public final void setLimits(final int maxGlyphs, final long maxBytes) {
+        if( 0 > maxGlyphs || 0 > maxBytes ) {
+            throw new IllegalArgumentException("Negative limits: maxGlyphs "+maxGlyphs+", maxBytes "+maxBytes);
+        }
+        this.maxGlyphs = maxGlyphs;
+        this.maxBytes = maxBytes;
+        evict(0, 0);
+    }
+
+    /** Returns the number of pinned symbols starting at <code>0</code>. */
+    public final int getPinnedCount() { return pinned.length; }
+    /** Returns the maximum number of unpinned glyphs, <code>0</code> for unlimited. */
+    public final int getMaxGlyphs() { return maxGlyphs; }
+    /** Returns the maximum estimated bytes of unpinned glyphs, <code>0</code> for unlimited. */
+    public final long getMaxBytes() { return maxBytes; }
+
+    /** Returns the number of cached pinned glyphs. */
+    public final int getPinnedGlyphCount() { return pinnedGlyphs; }
+    /** Returns the number of cached unpinned glyphs. */
+    public final int getGlyphCount() { return symbol2Entry.size(); }
+    /** Returns the estimated bytes of cached unpinned glyphs. */
+    public final long getBytes() { return bytes; }
+
+    /** Returns the number of lookups served by the cache. */
+    public final long getHitCount() { return hits; }
+    /** Returns the number of lookups not served by the cache, i.e. glyphs created. */
+    public final long getMissCount() { return misses; }
+    /** Returns the number of evicted glyphs. */
+    public final long getEvictionCount() { return evictions; }
+
+    /** Resets the hit, miss and eviction counter. */
+    public final void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /** Removes all glyphs, including pinned glyphs. */
+    public final void clear() {
+        for(int i=0; i<pinned.length; i++) {
+            pinned[i] = null;
+        }
+        pinnedGlyphs = 0;
+        symbol2Entry.clear();
+        head.prev = head;
+        head.next = head;
+        bytes = 0;
+    }
+
+    /**
+     * Returns the estimated bytes of a glyph with the given number of outline points.
+     */
+    static int estimateBytes(final int pointCount) {
+        return GLYPH_BYTES + pointCount * POINT_BYTES;
+    }
+
+    /**
+     * Returns the cached glyph of the given symbol, marking it as most recently used,
+     * or <code>null</code> if not cached.
+     */
+    final TypecastGlyph get(final char symbol) {
+        if( symbol < pinned.length ) {
+            final TypecastGlyph glyph = pinned[symbol];
+            if( null != glyph ) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return glyph;
+        }
+        final Entry e = (Entry) symbol2Entry.get(symbol);
+        if( null == e ) {
+            misses++;
+            return null;
+        }
+        hits++;
+        if( head.next != e ) {
+            unlink(e);
+            linkFirst(e);
+        }
+        return e.glyph;
+    }
+
+    /**
+     * Adds the given glyph as most recently used, evicting least recently used glyphs if required.
+     * @param glyph the glyph
+     * @param glyphBytes estimated bytes of the glyph, see {@link #estimateBytes(int)}
+     */
+    final void put(final TypecastGlyph glyph, final int glyphBytes) {
+        final char symbol = glyph.getSymbol();
+        if( symbol < pinned.length ) {
+            if( null == pinned[symbol] ) {
+                pinnedGlyphs++;
+            }
+            pinned[symbol] = glyph;
+            return;
+        }
+        evict(1, glyphBytes);
+        final Entry e = new Entry(glyph, glyphBytes);
+        final Entry old = (Entry) symbol2Entry.put(symbol, e);
+        if( null != old ) {
+            unlink(old);
+            bytes -= old.bytes;
+        }
+        linkFirst(e);
+        bytes += glyphBytes;
+    }
+
+    /** Evicts least recently used glyphs until the given additional glyphs and bytes fit into the limits. */
+    private void evict(final int addGlyphs, final long addBytes) {
+        while( head.prev != head &&
+               ( ( 0 < maxGlyphs && symbol2Entry.size() + addGlyphs > maxGlyphs ) ||
+                 ( 0 < maxBytes && bytes + addBytes > maxBytes ) ) ) {
+            final Entry e = head.prev;
+            unlink(e);
+            symbol2Entry.remove(e.glyph.getSymbol());
+            bytes -= e.bytes;
+            evictions++;
+        }
+    }
+
+    private void unlink(final Entry e) {
+        e.prev.next = e.next;
+        e.next.prev = e.prev;
+        e.prev = null;
+        e.next = null;
+    }
+
+    private void linkFirst(final Entry e) {
+        e.prev = head;
+        e.next = head.next;
+        head.next.prev = e;
+        head.next = e;
+    }
+
+    @Override
+    public final String toString() {
+        return "GlyphCache[pinned "+pinnedGlyphs+"/"+pinned.length+", glyphs "+symbol2Entry.size()+"/"+maxGlyphs+
+               ", bytes "+bytes+"/"+maxBytes+", hits "+hits+", misses "+misses+", evictions "+evictions+"]";
+    }
+}
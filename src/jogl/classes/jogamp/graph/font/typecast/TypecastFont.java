@@ -36,7 +36,6 @@ import jogamp.graph.font.typecast.ot.table.HdmxTable;
 import jogamp.graph.font.typecast.ot.table.ID;
 import jogamp.graph.geom.plane.AffineTransform;
 
-import com.jogamp.common.util.IntObjectHashMap;
 import com.jogamp.graph.curve.OutlineShape;
 import com.jogamp.graph.font.Font;
 import com.jogamp.graph.font.FontFactory;
@@ -52,10 +51,9 @@ class TypecastFont implements Font {
     /* pp */ final OTFont font;
     private final CmapFormat cmapFormat;
     private final int cmapentries;
-    private final IntObjectHashMap char2Glyph;
+    private final GlyphCache glyphCache;
     private final TypecastHMetrics metrics;
     private final float[] tmpV3 = new float[3];
-    // FIXME: Add cache size to limit memory usage ??
 
     public TypecastFont(final OTFontCollection fontset) {
         // this.fontset = fontset;
@@ -144,7 +142,7 @@ class TypecastFont implements Font {
                 }
             }
         }
-        char2Glyph = new IntObjectHashMap(cmapentries + cmapentries/4);
+        glyphCache = new GlyphCache();
         metrics = new TypecastHMetrics(this);
     }
 
@@ -177,9 +175,14 @@ class TypecastFont implements Font {
         return metrics;
     }
 
+    /** Returns the bounded {@link GlyphCache} of this font. */
+    final GlyphCache getGlyphCache() {
+        return glyphCache;
+    }
+
     @Override
     public Glyph getGlyph(final char symbol) {
-        TypecastGlyph result = (TypecastGlyph) char2Glyph.get(symbol);
+        TypecastGlyph result = glyphCache.get(symbol);
         if (null == result) {
             // final short code = (short) char2Code.get(symbol);
             short code = (short) cmapFormat.mapCharCode(symbol);
@@ -192,17 +195,11 @@ class TypecastFont implements Font {
                 }
             }
 
-            jogamp.graph.font.typecast.ot.OTGlyph glyph = font.getGlyph(code);
-            if(null == glyph) {
-                glyph = font.getGlyph(Glyph.ID_UNKNOWN);
-            }
-            if(null == glyph) {
-                throw new RuntimeException("Could not retrieve glyph for symbol: <"+symbol+"> "+(int)symbol+" -> glyph id "+code);
-            }
-            final OutlineShape shape = TypecastRenderer.buildShape(symbol, glyph, vertexFactory);
-            result = new TypecastGlyph(this, symbol, code, glyph.getBBox(), glyph.getAdvanceWidth(), shape);
+            final jogamp.graph.font.typecast.ot.OTGlyph glyph = getOTGlyph(symbol, code);
+            result = new TypecastGlyph(this, symbol, code, glyph.getBBox(), glyph.getAdvanceWidth());
+            final int pointCount = glyph.getPointCount();
             if(DEBUG) {
-                System.err.println("New glyph: " + (int)symbol + " ( " + symbol +" ) -> " + code + ", contours " + glyph.getPointCount() + ": " + shape);
+                System.err.println("New glyph: " + (int)symbol + " ( " + symbol +" ) -> " + code + ", contours " + pointCount);
             }
             glyph.clearPointData();
 
@@ -220,11 +217,36 @@ class TypecastFont implements Font {
                     } */
                 }
             }
-            char2Glyph.put(symbol, result);
+            glyphCache.put(result, GlyphCache.estimateBytes(pointCount));
         }
         return result;
     }
 
+    private jogamp.graph.font.typecast.ot.OTGlyph getOTGlyph(final char symbol, final short code) {
+        jogamp.graph.font.typecast.ot.OTGlyph glyph = font.getGlyph(code);
+        if(null == glyph) {
+            glyph = font.getGlyph(Glyph.ID_UNKNOWN);
+        }
+        if(null == glyph) {
+            throw new RuntimeException("Could not retrieve glyph for symbol: <"+symbol+"> "+(int)symbol+" -> glyph id "+code);
+        }
+        return glyph;
+    }
+
+    /**
+     * Builds the outline of the given glyph from the glyph table,
+     * called lazily by {@link TypecastGlyph#getShape()}.
+     */
+    final OutlineShape buildShape(final char symbol, final short code) {
+        final jogamp.graph.font.typecast.ot.OTGlyph glyph = getOTGlyph(symbol, code);
+        final OutlineShape shape = TypecastRenderer.buildShape(symbol, glyph, vertexFactory);
+        if(DEBUG) {
+            System.err.println("New shape: " + (int)symbol + " ( " + symbol +" ) -> " + code + ", contours " + glyph.getPointCount() + ": " + shape);
+        }
+        glyph.clearPointData();
+        return shape;
+    }
+
     @Override
     public final float getPixelSize(final float fontSize /* points per inch */, final float resolution) {
         return fontSize * resolution / ( 72f /* points per inch */ );
@@ -33,18 +33,50 @@ import java.io.InputStream;
 
 import jogamp.graph.font.FontConstructor;
 import jogamp.graph.font.typecast.ot.OTFontCollection;
+import jogamp.opengl.Debug;
 
+import com.jogamp.common.util.PropertyAccess;
 import com.jogamp.graph.font.Font;
 
+/**
+ * The optional property <i>jogl.graph.font.lazy</i> enables lazy font loading by default,
+ * see {@link #create(File, boolean)}.
+ */
 public class TypecastFontConstructor implements FontConstructor  {
+    private static final boolean LAZY;
+
+    static {
+        Debug.initSingleton();
+        LAZY = PropertyAccess.isPropertyDefined("jogl.graph.font.lazy", true);
+    }
 
     @Override
     public Font create(final File ffile) throws IOException {
-        return new TypecastFont( OTFontCollection.create(ffile) );
+        return create(ffile, LAZY);
     }
 
     @Override
     public Font create(final InputStream istream, final int streamLen) throws IOException {
-        return new TypecastFont( OTFontCollection.create(istream, streamLen) );
+        return create(istream, streamLen, LAZY);
+    }
+
+    /**
+     * @param ffile The font file
+     * @param lazy if <code>true</code>, the font file is memory mapped and
+     *             glyph descriptions as well as tables not required for basic glyph access are read on first access,
+     *             reducing load time and heap usage to the glyphs actually used.
+     */
+    public Font create(final File ffile, final boolean lazy) throws IOException {
+        return new TypecastFont( OTFontCollection.create(ffile, lazy) );
+    }
+
+    /**
+     * @param istream The font input stream
+     * @param streamLen the length of the font segment in the stream
+     * @param lazy if <code>true</code>, the font segment is copied into a buffer and
+     *             glyph descriptions as well as tables not required for basic glyph access are read on first access.
+     */
+    public Font create(final InputStream istream, final int streamLen, final boolean lazy) throws IOException {
+        return new TypecastFont( OTFontCollection.create(istream, streamLen, lazy) );
     }
 }
@@ -138,14 +138,16 @@ public final class TypecastGlyph implements Font.Glyph {
     public static final short INVALID_ID    = (short)((1 << 16) - 1);
     public static final short MAX_ID        = (short)((1 << 16) - 2);
 
+    private final TypecastFont font;
     private final char symbol;
-    private final OutlineShape shape; // in EM units
+    private OutlineShape shape; // in EM units, lazily built
     private final short id;
     private final Metrics metrics;
 
-    protected TypecastGlyph(final Font font, final char symbol, final short id, final AABBox bbox, final int advance, final OutlineShape shape) {
+    protected TypecastGlyph(final TypecastFont font, final char symbol, final short id, final AABBox bbox, final int advance) {
+        this.font = font;
         this.symbol = symbol;
-        this.shape = shape;
+        this.shape = null;
         this.id = id;
         this.metrics = new Metrics(font, bbox, advance);
     }
@@ -197,9 +199,18 @@ public final class TypecastGlyph implements Font.Glyph {
         return this.metrics.getAdvance(pixelSize, useFrationalMetrics);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The outline is built from the font's glyph table on first call.
+     * </p>
+     */
     @Override
     public final OutlineShape getShape() {
-        return this.shape;
+        if( null == shape ) {
+            shape = font.buildShape(symbol, id);
+        }
+        return shape;
     }
 
     @Override
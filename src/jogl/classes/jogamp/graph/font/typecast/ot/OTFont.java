@@ -52,6 +52,9 @@ package jogamp.graph.font.typecast.ot;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.jogamp.common.nio.ByteBufferInputStream;
 
 import jogamp.graph.font.typecast.ot.table.CmapTable;
 import jogamp.graph.font.typecast.ot.table.DirectoryEntry;
@@ -95,6 +98,10 @@ public class OTFont {
     private PostTable _post;
     private VheaTable _vhea;
 
+    /** Lazy mode only: the font data, otherwise <code>null</code>. */
+    private ByteBuffer _data = null;
+    private int _tablesOrigin = 0;
+
     /**
      * Constructor
      */
@@ -121,6 +128,9 @@ public class OTFont {
     }
 
     public Table getTable(final int tableType) {
+        if( null != _data ) {
+            return getTableLazy(tableType);
+        }
         for (int i = 0; i < _tables.length; i++) {
             if ((_tables[i] != null) && (_tables[i].getType() == tableType)) {
                 return _tables[i];
@@ -146,6 +156,9 @@ public class OTFont {
     }
 
     public HdmxTable getHdmxTable() {
+        if( null == _hdmx && null != _data ) {
+            _hdmx = (HdmxTable) getTable(Table.hdmx);
+        }
         return _hdmx;
     }
 
@@ -166,6 +179,9 @@ public class OTFont {
     }
 
     public PostTable getPostTable() {
+        if( null == _post && null != _data ) {
+            _post = (PostTable) getTable(Table.post);
+        }
         return _post;
     }
 
@@ -213,6 +229,67 @@ public class OTFont {
         return TableFactory.create(_fc, this, entry, dis);
     }
 
+    /**
+     * Lazy mode: Returns the table of the given type, reading it on first access.
+     * <p>
+     * Tables are indexed by their {@link TableDirectory} entry.
+     * </p>
+     */
+    private synchronized Table getTableLazy(final int tableType) {
+        for (int i = 0; i < _tables.length; i++) {
+            final DirectoryEntry entry = _tableDirectory.getEntry(i);
+            if (entry.getTag() == tableType) {
+                if (null == _tables[i]) {
+                    final ByteBuffer bb = _data.duplicate();
+                    bb.position(_tablesOrigin + entry.getOffset());
+                    bb.limit(_tablesOrigin + entry.getOffset() + entry.getLength());
+                    try {
+                        _tables[i] = TableFactory.createLazy(_fc, this, entry, bb.slice());
+                    } catch (final IOException e) {
+                        throw new RuntimeException("Could not read table "+entry+" of "+this, e);
+                    }
+                }
+                return _tables[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lazy variant of {@link #read(DataInputStream, int, int)},
+     * reading only the table directory and the tables required for basic glyph access.
+     * <p>
+     * The 'glyf' table parses each glyph description on first access,
+     * all other tables are read on first {@link #getTable(int) access}.
+     * </p>
+     * @param data OpenType/TrueType font file data, e.g. memory mapped, must not be modified afterwards.
+     * @param directoryOffset The Table Directory offset within the data.
+     * @param tablesOrigin The point the table offsets are calculated from.
+     */
+    protected void readLazy(
+            final ByteBuffer data,
+            final int directoryOffset,
+            final int tablesOrigin) throws IOException {
+        final ByteBuffer bb = data.duplicate();
+        bb.position(directoryOffset);
+        _tableDirectory = new TableDirectory(new DataInputStream(new ByteBufferInputStream(bb)));
+        _tables = new Table[_tableDirectory.getNumTables()];
+        _data = data;
+        _tablesOrigin = tablesOrigin;
+
+        // Prerequisite and commonly used tables, 'glyf' being lazy itself
+        _head = (HeadTable) getTable(Table.head);
+        _hhea = (HheaTable) getTable(Table.hhea);
+        _maxp = (MaxpTable) getTable(Table.maxp);
+        _loca = (LocaTable) getTable(Table.loca);
+        _vhea = (VheaTable) getTable(Table.vhea);
+        _cmap = (CmapTable) getTable(Table.cmap);
+        _hmtx = (HmtxTable) getTable(Table.hmtx);
+        _name = (NameTable) getTable(Table.name);
+        _os2 = (Os2Table) getTable(Table.OS_2);
+        _glyf = (GlyfTable) getTable(Table.glyf);
+    }
+
     /**
      * @param dis OpenType/TrueType font file data.
      * @param directoryOffset The Table Directory offset within the file.  For a
@@ -26,9 +26,14 @@ import java.io.DataInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import java.util.ArrayList;
 
+import com.jogamp.common.nio.ByteBufferInputStream;
+
 import jogamp.graph.font.typecast.ot.mac.ResourceHeader;
 import jogamp.graph.font.typecast.ot.mac.ResourceMap;
 import jogamp.graph.font.typecast.ot.mac.ResourceReference;
@@ -60,8 +65,18 @@ public class OTFontCollection {
      * @param file The OpenType font file
      */
     public static OTFontCollection create(final File file) throws IOException {
+        return create(file, false);
+    }
+
+    /**
+     * @param file The OpenType font file
+     * @param lazy if <code>true</code>, the font file is memory mapped and only the tables required for basic glyph access
+     *             are read, while glyph descriptions and all other tables are read on first access.
+     *             Otherwise all tables are read at once.
+     */
+    public static OTFontCollection create(final File file, final boolean lazy) throws IOException {
         final OTFontCollection fc = new OTFontCollection();
-        fc.read(file);
+        fc.read(file, lazy);
         return fc;
     }
 
@@ -70,8 +85,19 @@ public class OTFontCollection {
      * @param streamLen the length of the OpenType font segment in the stream
      */
     public static OTFontCollection create(final InputStream istream, final int streamLen) throws IOException {
+        return create(istream, streamLen, false);
+    }
+
+    /**
+     * @param istream The OpenType font input stream
+     * @param streamLen the length of the OpenType font segment in the stream
+     * @param lazy if <code>true</code>, the font segment is copied into a buffer and only the tables required for basic glyph access
+     *             are read, while glyph descriptions and all other tables are read on first access.
+     *             Otherwise all tables are read at once.
+     */
+    public static OTFontCollection create(final InputStream istream, final int streamLen, final boolean lazy) throws IOException {
         final OTFontCollection fc = new OTFontCollection();
-        fc.read(istream, streamLen);
+        fc.read(istream, streamLen, lazy);
         return fc;
     }
 
@@ -112,8 +138,9 @@ public class OTFontCollection {
 
     /**
      * @param file The OpenType font file
+     * @param lazy if <code>true</code>, memory map the file and read tables lazily
      */
-    protected void read(File file) throws IOException {
+    protected void read(File file, final boolean lazy) throws IOException {
         _pathName = file.getPath();
         _fileName = file.getName();
 
@@ -131,34 +158,55 @@ public class OTFontCollection {
             _resourceFork = true;
         }
         final int streamLen = (int) file.length();
-        final BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file), streamLen);
-        try {
-            readImpl(bis, streamLen);
-        } finally {
-            bis.close();
+        if( lazy ) {
+            // The mapping stays valid after closing the file
+            final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            final ByteBuffer data;
+            try {
+                data = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, streamLen);
+            } finally {
+                raf.close();
+            }
+            readImpl(new ByteBufferInputStream(data.duplicate()), streamLen, data);
+        } else {
+            final BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file), streamLen);
+            try {
+                readImpl(bis, streamLen, null);
+            } finally {
+                bis.close();
+            }
         }
     }
 
     /**
      * @param is The OpenType font stream
      * @param streamLen the length of the OpenType font segment in the stream
+     * @param lazy if <code>true</code>, copy the font segment into a buffer and read tables lazily
      */
-    protected void read(final InputStream is, final int streamLen) throws IOException {
+    protected void read(final InputStream is, final int streamLen, final boolean lazy) throws IOException {
         _pathName = "";
         _fileName = "";
-        final InputStream bis;
-        if( is.markSupported() ) {
-            bis = is;
+        if( lazy ) {
+            final byte[] buf = new byte[streamLen];
+            new DataInputStream(is).readFully(buf);
+            final ByteBuffer data = ByteBuffer.wrap(buf);
+            readImpl(new ByteBufferInputStream(data.duplicate()), streamLen, data);
         } else {
-            bis = new BufferedInputStream(is, streamLen);
+            final InputStream bis;
+            if( is.markSupported() ) {
+                bis = is;
+            } else {
+                bis = new BufferedInputStream(is, streamLen);
+            }
+            readImpl(bis, streamLen, null);
         }
-        readImpl(bis, streamLen);
     }
 
     /**
      * @param is The OpenType font stream, must {@link InputStream#markSupported() support mark}!
+     * @param data if not <code>null</code>, the complete font data backing <code>bis</code> for lazy table access
      */
-    private void readImpl(final InputStream bis, final int streamLen) throws IOException {
+    private void readImpl(final InputStream bis, final int streamLen, final ByteBuffer data) throws IOException {
         if( !bis.markSupported() ) {
             throw new IllegalArgumentException("stream of type "+bis.getClass().getName()+" doesn't support mark");
         }
@@ -184,7 +232,11 @@ public class OTFontCollection {
                 _fonts[i] = new OTFont(this);
                 final int offset = resourceHeader.getDataOffset() +
                         resourceReference.getDataOffset() + 4;
-                _fonts[i].read(dis, offset, offset);
+                if( null != data ) {
+                    _fonts[i].readLazy(data, offset, offset);
+                } else {
+                    _fonts[i].read(dis, offset, offset);
+                }
             }
 
         } else if (TTCHeader.isTTC(dis)) {
@@ -195,14 +247,22 @@ public class OTFontCollection {
             _fonts = new OTFont[_ttcHeader.getDirectoryCount()];
             for (int i = 0; i < _ttcHeader.getDirectoryCount(); i++) {
                 _fonts[i] = new OTFont(this);
-                _fonts[i].read(dis, _ttcHeader.getTableDirectory(i), 0);
+                if( null != data ) {
+                    _fonts[i].readLazy(data, _ttcHeader.getTableDirectory(i), 0);
+                } else {
+                    _fonts[i].read(dis, _ttcHeader.getTableDirectory(i), 0);
+                }
             }
         } else {
 
             // This is a standalone font file
             _fonts = new OTFont[1];
             _fonts[0] = new OTFont(this);
-            _fonts[0].read(dis, 0, 0);
+            if( null != data ) {
+                _fonts[0].readLazy(data, 0, 0);
+            } else {
+                _fonts[0].read(dis, 0, 0);
+            }
         }
     }
 }
@@ -50,10 +50,12 @@
 
 package jogamp.graph.font.typecast.ot.table;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.jogamp.common.nio.ByteBufferInputStream;
 
 /**
  * @version $Id: GlyfTable.java,v 1.6 2010-08-10 11:46:30 davidsch Exp $
@@ -61,59 +63,100 @@ import java.io.IOException;
  */
 public class GlyfTable implements Table {
 
+    private static final byte LAZY_NONE = 0;
+    private static final byte LAZY_PARSING = 1;
+    private static final byte LAZY_DONE = 2;
+
     private final DirectoryEntry _de;
     private final GlyfDescript[] _descript;
 
+    /** Lazy mode only: the table data, otherwise <code>null</code>. */
+    private ByteBuffer _data;
+    /** Lazy mode only: the index to location table, otherwise <code>null</code>. */
+    private LocaTable _loca;
+    /** Lazy mode only: parsing state per glyph, otherwise <code>null</code>. */
+    private byte[] _state;
+
     protected GlyfTable(
             final DirectoryEntry de,
             final DataInput di,
             final MaxpTable maxp,
             final LocaTable loca) throws IOException {
-        _de = (DirectoryEntry) de.clone();
-        _descript = new GlyfDescript[maxp.getNumGlyphs()];
+        this(de, readFully(di, de.getLength()), maxp, loca);
+
+        // Process all glyphs, composite glyphs resolve their components recursively
+        for (int i = 0; i < maxp.getNumGlyphs(); i++) {
+            parseDescription(i);
+        }
+        _data = null;
+        _loca = null;
+        _state = null;
+    }
 
+    private static ByteBuffer readFully(final DataInput di, final int length) throws IOException {
         // Buffer the whole table so we can randomly access it
-        final byte[] buf = new byte[de.getLength()];
+        final byte[] buf = new byte[length];
         di.readFully(buf);
-        final ByteArrayInputStream bais = new ByteArrayInputStream(buf);
+        return ByteBuffer.wrap(buf);
+    }
 
-        // Process all the simple glyphs
-        for (int i = 0; i < maxp.getNumGlyphs(); i++) {
-            final int len = loca.getOffset(i + 1) - loca.getOffset(i);
-            if (len > 0) {
-                bais.reset();
-                bais.skip(loca.getOffset(i));
-                final DataInputStream dis = new DataInputStream(bais);
-                final short numberOfContours = dis.readShort();
-                if (numberOfContours >= 0) {
-                    _descript[i] = new GlyfSimpleDescript(this, i, numberOfContours, dis);
-                }
-            } else {
-                _descript[i] = null;
+    /**
+     * Lazy variant, parsing each glyph description on first access only.
+     * @param data the table data from position <code>0</code>, e.g. a slice of a memory mapped font file.
+     */
+    protected GlyfTable(
+            final DirectoryEntry de,
+            final ByteBuffer data,
+            final MaxpTable maxp,
+            final LocaTable loca) {
+        _de = (DirectoryEntry) de.clone();
+        _descript = new GlyfDescript[maxp.getNumGlyphs()];
+        _data = data;
+        _loca = loca;
+        _state = new byte[maxp.getNumGlyphs()];
+    }
+
+    public GlyfDescript getDescription(final int i) {
+        if (i < _descript.length) {
+            if( null != _data ) {
+                return getDescriptionLazy(i);
             }
+            return _descript[i];
+        } else {
+            return null;
         }
+    }
 
-        // Now do all the composite glyphs
-        for (int i = 0; i < maxp.getNumGlyphs(); i++) {
-            final int len = loca.getOffset(i + 1) - loca.getOffset(i);
+    private synchronized GlyfDescript getDescriptionLazy(final int i) {
+        try {
+            return parseDescription(i);
+        } catch (final IOException e) {
+            throw new RuntimeException("Could not read glyph "+i+" of "+this, e);
+        }
+    }
+
+    private GlyfDescript parseDescription(final int i) throws IOException {
+        if( LAZY_NONE != _state[i] ) {
+            return _descript[i]; // null while parsing, i.e. a recursive composite glyph
+        }
+        _state[i] = LAZY_PARSING;
+        try {
+            final int len = _loca.getOffset(i + 1) - _loca.getOffset(i);
             if (len > 0) {
-                bais.reset();
-                bais.skip(loca.getOffset(i));
-                final DataInputStream dis = new DataInputStream(bais);
+                final ByteBuffer bb = _data.duplicate();
+                bb.position(_loca.getOffset(i));
+                final DataInputStream dis = new DataInputStream(new ByteBufferInputStream(bb));
                 final short numberOfContours = dis.readShort();
-                if (numberOfContours < 0) {
+                if (numberOfContours >= 0) {
+                    _descript[i] = new GlyfSimpleDescript(this, i, numberOfContours, dis);
+                } else {
                     _descript[i] = new GlyfCompositeDescript(this, i, dis);
                 }
             }
+        } finally {
+            _state[i] = LAZY_DONE;
         }
-    }
-
-    public GlyfDescript getDescription(final int i) {
-        if (i < _descript.length) {
-            return _descript[i];
-        } else {
-            return null;
-        }
+        return _descript[i];
     }
 
     @Override
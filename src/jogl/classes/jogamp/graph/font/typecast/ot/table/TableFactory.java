@@ -52,6 +52,9 @@ package jogamp.graph.font.typecast.ot.table;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.jogamp.common.nio.ByteBufferInputStream;
 
 import jogamp.graph.font.typecast.ot.OTFont;
 import jogamp.graph.font.typecast.ot.OTFontCollection;
@@ -63,6 +66,33 @@ import jogamp.graph.font.typecast.ot.OTFontCollection;
  */
 public class TableFactory {
 
+    /**
+     * Lazy variant of {@link #create(OTFontCollection, OTFont, DirectoryEntry, DataInputStream)},
+     * where the 'glyf' table only parses glyph descriptions on first access.
+     * @param data the table data from position <code>0</code>, e.g. a slice of a memory mapped font file.
+     */
+    public static Table createLazy(
+            final OTFontCollection fc,
+            final OTFont font,
+            final DirectoryEntry de,
+            final ByteBuffer data) throws IOException {
+        if (de.getTag() != Table.glyf) {
+            return create(fc, font, de, new DataInputStream(new ByteBufferInputStream(data)));
+        }
+        Table t = null;
+        if (fc != null) {
+            t = fc.getTable(de);
+            if (t != null) {
+                return t;
+            }
+        }
+        t = new GlyfTable(de, data, font.getMaxpTable(), font.getLocaTable());
+        if (fc != null) {
+            fc.addTable(t);
+        }
+        return t;
+    }
+
     public static Table create(
             final OTFontCollection fc,
             final OTFont font,
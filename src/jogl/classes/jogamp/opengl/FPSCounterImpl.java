@@ -31,16 +31,23 @@ import java.io.PrintStream;
 import java.util.concurrent.TimeUnit;
 
 import com.jogamp.opengl.FPSCounter;
+import com.jogamp.opengl.FrameTimeHistogram;
+import com.jogamp.opengl.FrameTimeStats;
 
 /**
  * Default implementation of FPSCounter to be used for FPSCounter implementing renderer.
  */
-public class FPSCounterImpl implements FPSCounter {
+public class FPSCounterImpl implements FPSCounter, FrameTimeStats {
     private int fpsUpdateFramesInterval;
     private PrintStream fpsOutputStream ;
     private long fpsStartTime, fpsLastUpdateTime, fpsLastPeriod, fpsTotalDuration;
     private int  fpsTotalFrames;
     private float fpsLast, fpsTotal;
+    private volatile boolean frameTimeStats;
+    private long frameTimeLast;
+    private final FrameTimeHistogram frameTimes = new FrameTimeHistogram();
+    private final FrameTimeHistogram displayTimes = new FrameTimeHistogram();
+    private final FrameTimeHistogram swapBufferTimes = new FrameTimeHistogram();
 
     /** Creates a disabled instance */
     public FPSCounterImpl() {
@@ -52,9 +59,18 @@ public class FPSCounterImpl implements FPSCounter {
      * update interval is reached.<br>
      *
      * Shall be called by actual FPSCounter implementing renderer, after display a new frame.
-     *
+     * <p>
+     * Records the frame period, if {@link #getFrameTimeStats() enabled}.
+     * </p>
      */
     public final synchronized void tickFPS() {
+        if( frameTimeStats ) {
+            final long now = System.nanoTime();
+            if( 0 != frameTimeLast ) {
+                frameTimes.record(now - frameTimeLast);
+            }
+            frameTimeLast = now;
+        }
         fpsTotalFrames++;
         if(fpsUpdateFramesInterval>0 && fpsTotalFrames%fpsUpdateFramesInterval == 0) {
             final long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
@@ -107,6 +123,10 @@ public class FPSCounterImpl implements FPSCounter {
         fpsTotalFrames = 0;
         fpsLast = 0f; fpsTotal = 0f;
         fpsLastPeriod = 0; fpsTotalDuration=0;
+        frameTimeLast = 0;
+        frameTimes.reset();
+        displayTimes.reset();
+        swapBufferTimes.reset();
     }
 
     @Override
@@ -148,4 +168,66 @@ public class FPSCounterImpl implements FPSCounter {
     public final synchronized float getTotalFPS() {
         return fpsTotal;
     }
+
+    /**
+     * Records the duration of the rendering part of a frame, if {@link #getFrameTimeStats() enabled}.
+     * <p>
+     * Allocation free and lock-free, may be called by the rendering thread for each frame.
+     * </p>
+     * @param nanos duration in nanoseconds
+     * @see #getDisplayTimes()
+     */
+    public final void recordDisplayTime(final long nanos) {
+        if( frameTimeStats ) {
+            displayTimes.record(nanos);
+        }
+    }
+
+    /**
+     * Records the duration of {@link com.jogamp.opengl.GLDrawable#swapBuffers()} of a frame,
+     * if {@link #getFrameTimeStats() enabled}.
+     * <p>
+     * Allocation free and lock-free, may be called by the rendering thread for each frame.
+     * </p>
+     * @param nanos duration in nanoseconds
+     * @see #getSwapBufferTimes()
+     */
+    public final void recordSwapBufferTime(final long nanos) {
+        if( frameTimeStats ) {
+            swapBufferTimes.record(nanos);
+        }
+    }
+
+    @Override
+    public final void setFrameTimeStats(final boolean enable) {
+        synchronized(this) {
+            frameTimeLast = 0;
+            if( enable && !frameTimeStats ) {
+                frameTimes.reset();
+                displayTimes.reset();
+                swapBufferTimes.reset();
+            }
+        }
+        frameTimeStats = enable;
+    }
+
+    @Override
+    public final boolean getFrameTimeStats() {
+        return frameTimeStats;
+    }
+
+    @Override
+    public final FrameTimeHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    @Override
+    public final FrameTimeHistogram getDisplayTimes() {
+        return displayTimes;
+    }
+
+    @Override
+    public final FrameTimeHistogram getSwapBufferTimes() {
+        return swapBufferTimes;
+    }
 }
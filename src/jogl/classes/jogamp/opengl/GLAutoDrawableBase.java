@@ -37,6 +37,8 @@ import com.jogamp.nativewindow.NativeWindowException;
 import com.jogamp.nativewindow.WindowClosingProtocol;
 import com.jogamp.nativewindow.WindowClosingProtocol.WindowClosingMode;
 import com.jogamp.opengl.FPSCounter;
+import com.jogamp.opengl.FrameTimeHistogram;
+import com.jogamp.opengl.FrameTimeStats;
 import com.jogamp.opengl.GL;
 import com.jogamp.opengl.GLAnimatorControl;
 import com.jogamp.opengl.GLAutoDrawable;
@@ -70,7 +72,7 @@ import com.jogamp.opengl.GLStateKeeper;
  * @see GLPBufferImpl
  * @see com.jogamp.newt.opengl.GLWindow
  */
-public abstract class GLAutoDrawableBase implements GLAutoDrawable, GLStateKeeper, FPSCounter, GLSharedContextSetter {
+public abstract class GLAutoDrawableBase implements GLAutoDrawable, GLStateKeeper, FPSCounter, FrameTimeStats, GLSharedContextSetter {
     public static final boolean DEBUG = GLDrawableImpl.DEBUG;
     protected final GLDrawableHelper helper = new GLDrawableHelper();
     protected final FPSCounterImpl fpsCounter = new FPSCounterImpl();
@@ -114,6 +116,7 @@ public abstract class GLAutoDrawableBase implements GLAutoDrawable, GLStateKeepe
         if(null != context && null != drawable) {
             context.setGLDrawable(drawable, false);
         }
+        helper.setFPSCounter(fpsCounter);
         resetFPSCounter();
     }
 
@@ -464,7 +467,7 @@ public abstract class GLAutoDrawableBase implements GLAutoDrawable, GLStateKeepe
                             context.setContextCreationFlags(additionalCtxCreationFlags);
                             contextCreated = true;
                             // surface is locked/unlocked implicit by context's makeCurrent/release
-                            helper.invokeGL(_drawable, context, defaultDisplayAction, defaultInitAction);
+                            helper.invokeGLDisplay(_drawable, context, defaultDisplayAction, defaultInitAction);
                         }
                     }
                 }
@@ -473,7 +476,7 @@ public abstract class GLAutoDrawableBase implements GLAutoDrawable, GLStateKeepe
                 }
             } else {
                 // surface is locked/unlocked implicit by context's makeCurrent/release
-                helper.invokeGL(drawable, context, defaultDisplayAction, defaultInitAction);
+                helper.invokeGLDisplay(drawable, context, defaultDisplayAction, defaultInitAction);
             }
         } finally {
             _lock.unlock();
@@ -739,6 +742,31 @@ public abstract class GLAutoDrawableBase implements GLAutoDrawable, GLStateKeepe
         return fpsCounter.getTotalFPS();
     }
 
+    @Override
+    public final void setFrameTimeStats(final boolean enable) {
+        fpsCounter.setFrameTimeStats(enable);
+    }
+
+    @Override
+    public final boolean getFrameTimeStats() {
+        return fpsCounter.getFrameTimeStats();
+    }
+
+    @Override
+    public final FrameTimeHistogram getFrameTimes() {
+        return fpsCounter.getFrameTimes();
+    }
+
+    @Override
+    public final FrameTimeHistogram getDisplayTimes() {
+        return fpsCounter.getDisplayTimes();
+    }
+
+    @Override
+    public final FrameTimeHistogram getSwapBufferTimes() {
+        return fpsCounter.getSwapBufferTimes();
+    }
+
     //
     // GLDrawable delegation
     //
@@ -40,10 +40,12 @@
 
 package jogamp.opengl;
 
+import java.io.File;
 import java.lang.reflect.Method;
 import java.nio.IntBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
@@ -1065,6 +1067,11 @@ public abstract class GLContextImpl extends GLContext {
                                                            final GLRendererQuirks resQuirks)
   {
       final Integer preVal = mapAvailableGLVersion(device, reqMajor, profile, resVersion, resCtp);
+      if( GLVersionMappingCache.ENABLED ) {
+          synchronized(deviceVersionAvailable) {
+              deviceVersionQuirks.put(getDeviceVersionAvailableKey(device, reqMajor, profile), resQuirks);
+          }
+      }
       final int[] preCtp = { 0 };
       final VersionNumber preVersion = null != preVal ? decomposeBits(preVal.intValue(), preCtp) : null;
       final MappedGLVersion res = new MappedGLVersion(device, reqMajor, profile, resVersion, resCtp, resQuirks, preVersion, preCtp[0]);
@@ -1094,6 +1101,23 @@ public abstract class GLContextImpl extends GLContext {
   }
 
 
+  /**
+   * {@link GLRendererQuirks} of each mapped GL version while mapping a device's GL versions
+   * for the {@link GLVersionMappingCache}, keyed like and guarded by {@link GLContext#deviceVersionAvailable}.
+   */
+  private static final IdentityHashMap<String, GLRendererQuirks> deviceVersionQuirks = new IdentityHashMap<String, GLRendererQuirks>();
+
+  /** Removes the recorded {@link GLRendererQuirks} of the given device's mapped GL versions. */
+  private static void clearDeviceVersionQuirks(final String devKey) {
+    for(final Iterator<String> keyI = deviceVersionQuirks.keySet().iterator(); keyI.hasNext(); ) {
+        final String key = keyI.next();
+        final int devSepIdx = key.lastIndexOf('-');
+        if( 0 < devSepIdx && devKey.equals(key.substring(0, devSepIdx)) ) {
+            keyI.remove();
+        }
+    }
+  }
+
   protected static void remapAvailableGLVersions(final AbstractGraphicsDevice fromDevice, final AbstractGraphicsDevice toDevice) {
     if( fromDevice == toDevice || fromDevice.getUniqueID() == toDevice.getUniqueID() ) {
         return; // NOP
@@ -1144,6 +1168,16 @@ public abstract class GLContextImpl extends GLContext {
             System.err.println(getThreadName() + ": createContextARB-MapGLVersions START (GLDesktop "+hasOpenGLDesktopSupport+", GLES "+hasOpenGLESSupport+", minorVersion "+hasMinorVersionSupport+") on "+device);
         }
         final long t0 = ( DEBUG ) ? System.nanoTime() : 0;
+        final String cacheConfig = GLVersionMappingCache.ENABLED ?
+                getMapGLVersionsCacheConfig(hasOpenGLESSupport, hasOpenGLDesktopSupport, hasMinorVersionSupport) : null;
+        if( null != cacheConfig && mapGLVersionsFromCache(device, cacheConfig) ) {
+            clearDeviceVersionQuirks(device.getUniqueID());
+            if(DEBUG) {
+                System.err.println(getThreadName() + ": createContextARB-MapGLVersions END (cached) on "+device+", total "+(System.nanoTime()-t0)/1e6 +"ms");
+                System.err.println(GLContext.dumpAvailableGLVersions(null).toString());
+            }
+            return true;
+        }
         boolean success = false;
         // Following GLProfile.GL_PROFILE_LIST_ALL order of profile detection { GL4bc, GL3bc, GL2, GL4, GL3, GL2GL3, GLES2, GL2ES2, GLES1, GL2ES1 }
         boolean hasGL4bc = false;
@@ -1291,6 +1325,12 @@ public abstract class GLContextImpl extends GLContext {
         if(success) {
             // only claim GL versions set [and hence detected] if ARB context creation was successful
             GLContext.setAvailableGLVersionsSet(device, true);
+            if( null != cacheConfig ) {
+                storeGLVersionsToCache(device, cacheConfig);
+            }
+        }
+        if( null != cacheConfig ) {
+            clearDeviceVersionQuirks(device.getUniqueID());
         }
         if(DEBUG) {
             final long t1 = System.nanoTime();
@@ -1303,6 +1343,153 @@ public abstract class GLContextImpl extends GLContext {
     }
   }
 
+  /**
+   * Returns the configuration affecting {@link #mapGLVersions(AbstractGraphicsDevice)},
+   * being part of the {@link GLVersionMappingCache} key.
+   */
+  private final String getMapGLVersionsCacheConfig(final boolean hasOpenGLESSupport, final boolean hasOpenGLDesktopSupport,
+                                                   final boolean hasMinorVersionSupport) {
+    return drawable.getFactory().getClass().getName()+
+           ", GLES "+( hasOpenGLESSupport && !GLProfile.disableOpenGLES )+
+           ", GLDesktop "+( hasOpenGLDesktopSupport && !GLProfile.disableOpenGLDesktop )+
+           ", GLCore "+!GLProfile.disableOpenGLCore+
+           ", minorVersion "+hasMinorVersionSupport+
+           ", profileAliasing "+PROFILE_ALIASING+
+           ", noFBO "+FORCE_NO_FBO_SUPPORT+
+           ", OS "+Platform.getOSType()+" "+Platform.getOSVersionNumber();
+  }
+
+  /** Mapping preference to validate a {@link GLVersionMappingCache} entry, i.e. reqMajor and reqProfile pairs. */
+  private static final int[] cacheValidationOrder = { 4, CTX_PROFILE_CORE,  3, CTX_PROFILE_CORE,
+                                                      4, CTX_PROFILE_COMPAT, 3, CTX_PROFILE_COMPAT, 2, CTX_PROFILE_COMPAT,
+                                                      3, CTX_PROFILE_ES, 2, CTX_PROFILE_ES, 1, CTX_PROFILE_ES };
+
+  /**
+   * Creates a temporary context w/ the given mapping and returns its GL vendor, renderer and version strings,
+   * or <code>null</code> if not successful.
+   */
+  private final String[] getGLStringsOfMapping(final GLVersionMappingCache.Mapping m) {
+    long _context;
+    try {
+        _context = createContextARBImpl(0, true, m.ctp, m.major, m.minor);
+    } catch (final GLException gle) {
+        if( DEBUG ) {
+            ExceptionUtils.dumpThrowable("", gle);
+        }
+        _context = 0;
+    }
+    if( 0 == _context ) {
+        return null;
+    }
+    try {
+        if( !initGLRendererAndGLVersionStrings(m.major, m.ctp) ) {
+            return null;
+        }
+        return new String[] { glVendor, glRenderer, glVersion };
+    } finally {
+        destroyContextARBImpl(_context);
+        resetStates(false); // clean context states, since creation was temporary
+    }
+  }
+
+  /**
+   * Maps the available GL versions from a valid {@link GLVersionMappingCache} entry of the device,
+   * validated by comparing the GL strings of one temporary context.
+   * An invalid entry is deleted.
+   * @return <code>true</code> if mapped from cache, otherwise <code>false</code>.
+   */
+  private final boolean mapGLVersionsFromCache(final AbstractGraphicsDevice device, final String cacheConfig) {
+    final File cacheDir = GLVersionMappingCache.getCacheDir();
+    final GLVersionMappingCache cache = GLVersionMappingCache.read(cacheDir, device.getUniqueID());
+    if( null == cache ) {
+        return false;
+    }
+    final String[] glStrings = cache.isValid(cacheConfig) ? getGLStringsOfMapping(cache.validation) : null;
+    if( null == glStrings || !cache.isSameRenderer(glStrings[0], glStrings[1], glStrings[2]) ) {
+        if( DEBUG || GLVersionMappingCache.DEBUG ) {
+            System.err.println(getThreadName() + ": createContextARB-MapGLVersions cache invalidated: "+cache+
+                               ( null != glStrings ? ", now "+glStrings[0]+", "+glStrings[1]+", "+glStrings[2] : "" ));
+        }
+        GLVersionMappingCache.delete(cacheDir, device.getUniqueID());
+        return false;
+    }
+    GLRendererQuirks.addStickyDeviceQuirks(device, new GLRendererQuirks(cache.stickyQuirks, 0, cache.stickyQuirks.length));
+    for(int i=0; i<cache.mappings.size(); i++) {
+        final GLVersionMappingCache.Mapping m = cache.mappings.get(i);
+        mapAvailableGLVersion(device, m.reqMajor, m.reqProfile, new VersionNumber(m.major, m.minor, 0), m.ctp,
+                              new GLRendererQuirks(m.quirks, 0, m.quirks.length));
+    }
+    GLContext.setAvailableGLVersionsSet(device, true);
+    if( GLVersionMappingCache.DEBUG ) {
+        System.err.println(getThreadName() + ": createContextARB-MapGLVersions cache used: "+cache);
+    }
+    return true;
+  }
+
+  /** Stores the available GL versions of the device as a {@link GLVersionMappingCache} entry. */
+  private final void storeGLVersionsToCache(final AbstractGraphicsDevice device, final String cacheConfig) {
+    final String devKey = device.getUniqueID();
+    // copy the device's entries while holding the lock, which also guards deviceVersionQuirks
+    final ArrayList<String> keys = new ArrayList<String>();
+    final ArrayList<Integer> values = new ArrayList<Integer>();
+    final ArrayList<GLRendererQuirks> quirks = new ArrayList<GLRendererQuirks>();
+    synchronized(GLContext.deviceVersionAvailable) {
+        for(final Map.Entry<String, Integer> e : GLContext.deviceVersionAvailable.entrySet()) {
+            final String key = e.getKey();
+            final int devSepIdx = key.lastIndexOf('-');
+            if( 0 < devSepIdx && devKey.equals(key.substring(0, devSepIdx)) && null != e.getValue() ) {
+                keys.add(key);
+                values.add(e.getValue());
+                quirks.add(deviceVersionQuirks.get(key));
+            }
+        }
+    }
+    final ArrayList<GLVersionMappingCache.Mapping> mappings = new ArrayList<GLVersionMappingCache.Mapping>(keys.size());
+    for(int i=0; i<keys.size(); i++) {
+        final String key = keys.get(i);
+        final int reqBits = (int) Long.parseLong(key.substring(key.lastIndexOf('-')+3), 16); // '-0x' prefix
+        final int[] ctp = { 0 };
+        final VersionNumber version = decomposeBits(values.get(i).intValue(), ctp);
+        mappings.add(new GLVersionMappingCache.Mapping(( reqBits >>> 24 ) & 0xFF, ( reqBits >>> 16 ) & 0xFF,
+                                                       version.getMajor(), version.getMinor(), ctp[0],
+                                                       getQuirkArray(quirks.get(i))));
+    }
+    GLVersionMappingCache.Mapping validation = null;
+    for(int i=0; null == validation && i<cacheValidationOrder.length; i+=2) {
+        for(int j=0; null == validation && j<mappings.size(); j++) {
+            final GLVersionMappingCache.Mapping m = mappings.get(j);
+            if( m.reqMajor == cacheValidationOrder[i] && m.reqProfile == cacheValidationOrder[i+1] ) {
+                validation = m;
+            }
+        }
+    }
+    final String[] glStrings = null != validation ? getGLStringsOfMapping(validation) : null;
+    if( null == glStrings ) {
+        return;
+    }
+    final int[] stickyQuirks = getQuirkArray(GLRendererQuirks.getStickyDeviceQuirks(device));
+    final GLVersionMappingCache cache = new GLVersionMappingCache(devKey, cacheConfig, glStrings[0], glStrings[1], glStrings[2],
+                                                                  validation, mappings, stickyQuirks);
+    final boolean ok = cache.write(GLVersionMappingCache.getCacheDir());
+    if( GLVersionMappingCache.DEBUG ) {
+        System.err.println(getThreadName() + ": createContextARB-MapGLVersions cache stored (ok "+ok+"): "+cache);
+    }
+  }
+
+  /** Returns the existing quirks of the given {@link GLRendererQuirks}, which may be <code>null</code>. */
+  private static int[] getQuirkArray(final GLRendererQuirks q) {
+    final int[] quirks = new int[GLRendererQuirks.getCount()];
+    int quirkCount = 0;
+    for(int i=0; null != q && i<GLRendererQuirks.getCount(); i++) {
+        if( q.exist(i) ) {
+            quirks[quirkCount++] = i;
+        }
+    }
+    final int[] res = new int[quirkCount];
+    System.arraycopy(quirks, 0, res, 0, quirkCount);
+    return res;
+  }
+
   /**
    * Note: Since context creation is temporary, caller need to issue {@link #resetStates(boolean)}, if creation was successful, i.e. returns true.
    * This method does not reset the states, allowing the caller to utilize the state variables.
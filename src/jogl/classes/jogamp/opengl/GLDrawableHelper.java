@@ -89,6 +89,7 @@ public class GLDrawableHelper {
   /** -1 release, 0 nop, 1 claim */
   private volatile int exclusiveContextSwitch;
   private GLAnimatorControl animatorCtrl;
+  private volatile FPSCounterImpl fpsCounter;
   private static Runnable nop = new Runnable() { @Override public void run() {} };
 
   private GLContext sharedContext;
@@ -116,6 +117,19 @@ public class GLDrawableHelper {
     sharedAutoDrawable = null;
   }
 
+  /**
+   * Sets the {@link FPSCounterImpl} receiving the display and swapBuffers durations
+   * measured within {@link #invokeGLDisplay(GLDrawable, GLContext, Runnable, Runnable) invokeGLDisplay(..)},
+   * if its {@link FPSCounterImpl#getFrameTimeStats() frame time recording} is enabled.
+   * <p>
+   * The instance is not cleared via {@link #reset()}.
+   * </p>
+   * @param fpsCounter the {@link FPSCounterImpl}, may be <code>null</code>
+   */
+  public final void setFPSCounter(final FPSCounterImpl fpsCounter) {
+    this.fpsCounter = fpsCounter;
+  }
+
   public final void setSharedContext(final GLContext thisContext, final GLContext sharedContext) throws IllegalStateException {
       if( null == sharedContext ) {
           throw new IllegalStateException("Null shared GLContext");
@@ -1144,7 +1158,38 @@ public class GLDrawableHelper {
     if(PERF_STATS) {
         invokeGLImplStats(drawable, context, runnable, initAction);
     } else {
-        invokeGLImpl(drawable, context, runnable, initAction);
+        invokeGLImpl(drawable, context, runnable, initAction, false);
+    }
+  }
+
+  /**
+   * Same as {@link #invokeGL(GLDrawable, GLContext, Runnable, Runnable) invokeGL(..)} for the given <code>displayAction</code>,
+   * additionally recording the duration of the <code>displayAction</code> and the automatic {@link GLDrawable#swapBuffers()}
+   * to the {@link #setFPSCounter(FPSCounterImpl) FPSCounterImpl}, if its frame time recording is enabled.
+   * <p>
+   * The <code>initAction</code> run on a new context is not recorded.
+   * </p>
+   *
+   * @param drawable
+   * @param context
+   * @param displayAction
+   * @param initAction
+   */
+  public final void invokeGLDisplay(final GLDrawable drawable,
+                                    final GLContext context,
+                                    final Runnable  displayAction,
+                                    final Runnable  initAction) {
+    if(null==context) {
+        if (DEBUG) {
+            ExceptionUtils.dumpThrowable("informal", new GLException("Info: GLDrawableHelper " + this + ".invokeGLDisplay(): NULL GLContext"));
+        }
+        return;
+    }
+
+    if(PERF_STATS) {
+        invokeGLImplStats(drawable, context, displayAction, initAction);
+    } else {
+        invokeGLImpl(drawable, context, displayAction, initAction, true);
     }
   }
 
@@ -1231,7 +1276,8 @@ public class GLDrawableHelper {
   private final void invokeGLImpl(final GLDrawable drawable,
           final GLContext context,
           final Runnable  runnable,
-          final Runnable  initAction) {
+          final Runnable  initAction,
+          final boolean   isDisplayAction) {
       final Thread currentThread = Thread.currentThread();
 
       Throwable glEventListenerCaught = null;
@@ -1290,8 +1336,18 @@ public class GLDrawableHelper {
                       }
                       initAction.run();
                   }
+                  final FPSCounterImpl _fpsCounter = isDisplayAction ? fpsCounter : null;
+                  final boolean recordTimes = null != _fpsCounter && _fpsCounter.getFrameTimeStats();
+                  final long t0 = recordTimes ? System.nanoTime() : 0;
                   runnable.run();
-                  if ( autoSwapBufferMode ) {
+                  if( recordTimes ) {
+                      final long t1 = System.nanoTime();
+                      _fpsCounter.recordDisplayTime(t1 - t0);
+                      if ( autoSwapBufferMode ) {
+                          drawable.swapBuffers();
+                          _fpsCounter.recordSwapBufferTime(System.nanoTime() - t1);
+                      }
+                  } else if ( autoSwapBufferMode ) {
                       drawable.swapBuffers();
                   }
               } catch (final Throwable t) {
@@ -0,0 +1,375 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.opengl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Persistent on-disk cache of the GL version mapping of one device,
+ * i.e. the available GL versions and profiles as probed by {@link GLContextImpl}
+ * including the {@link com.jogamp.opengl.GLRendererQuirks} of each mapped context,
+ * as well as the device's sticky {@link com.jogamp.opengl.GLRendererQuirks}.
+ * <p>
+ * The cache is opt-in via property <code>jogl.glprofile.cache</code>.
+ * Its directory is given via property <code>jogl.glprofile.cache.dir</code>,
+ * defaulting to <code>${user.home}/.jogamp/jogl/cache</code>.
+ * </p>
+ * <p>
+ * An entry is keyed by the device's unique ID, the JOGL version and the probing configuration.
+ * Before an entry is used, a single context is created with its validation mapping
+ * and the GL vendor, renderer and version strings are compared to the cached ones.
+ * The entry is deleted and the full probe is performed if they differ, e.g. after a driver update.
+ * </p>
+ * <p>
+ * Validation and re-probing may be tested w/ Mesa's software rasterizer, e.g. via
+ * <code>LIBGL_ALWAYS_SOFTWARE=1</code> while toggling between software and hardware rendering.
+ * </p>
+ */
+public class GLVersionMappingCache {
+    /** Enabled via property <code>jogl.glprofile.cache</code>. */
+    public static final boolean ENABLED;
+    public static final boolean DEBUG;
+    private static final String cacheDir;
+    private static final String joglVersion;
+
+    static {
+        Debug.initSingleton();
+        ENABLED = Debug.isPropertyDefined("jogl.glprofile.cache", true);
+        DEBUG = Debug.debug("GLVersionMappingCache");
+        cacheDir = Debug.getProperty("jogl.glprofile.cache.dir", true);
+        final Package p = Package.getPackage("com.jogamp.opengl");
+        final String v = null != p ? p.getImplementationVersion() : null;
+        joglVersion = null != v ? v : "unknown";
+    }
+
+    private static final String FILE_PREFIX = "glversions-";
+    private static final String FILE_SUFFIX = ".properties";
+
+    /**
+     * One mapped GL version: requested major and profile, resulting major, minor and context options,
+     * as well as the {@link com.jogamp.opengl.GLRendererQuirks} of the mapped context.
+     * <p>
+     * The quirks are not considered by {@link #equals(Object)}.
+     * </p>
+     */
+    public static class Mapping {
+        public final int reqMajor;
+        public final int reqProfile;
+        public final int major;
+        public final int minor;
+        public final int ctp;
+        /** Quirks of the mapped context */
+        public final int[] quirks;
+
+        public Mapping(final int reqMajor, final int reqProfile, final int major, final int minor, final int ctp, final int[] quirks) {
+            this.reqMajor = reqMajor;
+            this.reqProfile = reqProfile;
+            this.major = major;
+            this.minor = minor;
+            this.ctp = ctp;
+            this.quirks = quirks;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if( !( o instanceof Mapping ) ) {
+                return false;
+            }
+            final Mapping m = (Mapping)o;
+            return reqMajor == m.reqMajor && reqProfile == m.reqProfile &&
+                   major == m.major && minor == m.minor && ctp == m.ctp;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 31 * reqMajor + reqProfile;
+            h = 31 * h + major;
+            h = 31 * h + minor;
+            return 31 * h + ctp;
+        }
+
+        @Override
+        public String toString() {
+            return reqMajor+"/0x"+Integer.toHexString(reqProfile)+" -> "+major+"."+minor+"/0x"+Integer.toHexString(ctp);
+        }
+    }
+
+    public final String deviceID;
+    public final String config;
+    public final String version;
+    public final String glVendor;
+    public final String glRenderer;
+    public final String glVersion;
+    /** Mapping used to validate this entry, contained in {@link #mappings}. */
+    public final Mapping validation;
+    public final List<Mapping> mappings;
+    public final int[] stickyQuirks;
+
+    /**
+     * @param deviceID the device's unique ID
+     * @param config the probing configuration
+     * @param glVendor the GL vendor string of the context created w/ the validation mapping
+     * @param glRenderer the GL renderer string of the context created w/ the validation mapping
+     * @param glVersion the GL version string of the context created w/ the validation mapping
+     * @param validation the validation mapping
+     * @param mappings all mappings of the device
+     * @param stickyQuirks the device's sticky quirks
+     */
+    public GLVersionMappingCache(final String deviceID, final String config,
+                                 final String glVendor, final String glRenderer, final String glVersion,
+                                 final Mapping validation, final List<Mapping> mappings, final int[] stickyQuirks) {
+        this(deviceID, config, joglVersion, glVendor, glRenderer, glVersion, validation, mappings, stickyQuirks);
+    }
+
+    private GLVersionMappingCache(final String deviceID, final String config, final String version,
+                                  final String glVendor, final String glRenderer, final String glVersion,
+                                  final Mapping validation, final List<Mapping> mappings, final int[] stickyQuirks) {
+        this.deviceID = deviceID;
+        this.config = config;
+        this.version = version;
+        this.glVendor = glVendor;
+        this.glRenderer = glRenderer;
+        this.glVersion = glVersion;
+        this.validation = validation;
+        this.mappings = mappings;
+        this.stickyQuirks = stickyQuirks;
+    }
+
+    /** Returns the JOGL version entries are keyed with. */
+    public static String getJoglVersion() { return joglVersion; }
+
+    /** Returns whether this entry matches the given configuration and the current JOGL version. */
+    public final boolean isValid(final String config) {
+        return joglVersion.equals(version) && this.config.equals(config);
+    }
+
+    /** Returns whether this entry's GL strings match the given ones. */
+    public final boolean isSameRenderer(final String glVendor, final String glRenderer, final String glVersion) {
+        return this.glVendor.equals(glVendor) && this.glRenderer.equals(glRenderer) && this.glVersion.equals(glVersion);
+    }
+
+    /** Returns the cache directory, see {@link GLVersionMappingCache}. */
+    public static File getCacheDir() {
+        return AccessController.doPrivileged(new PrivilegedAction<File>() {
+            @Override
+            public File run() {
+                if( null != cacheDir ) {
+                    return new File(cacheDir);
+                }
+                return new File(Debug.getProperty("user.home", false), ".jogamp"+File.separator+"jogl"+File.separator+"cache");
+            } } );
+    }
+
+    /** Returns the file of the given device's entry within the given directory. */
+    public static File getFile(final File dir, final String deviceID) {
+        final StringBuilder sb = new StringBuilder(FILE_PREFIX);
+        for(int i=0; i<deviceID.length(); i++) {
+            final char c = deviceID.charAt(i);
+            sb.append( Character.isLetterOrDigit(c) || '.' == c || '-' == c ? c : '_' );
+        }
+        return new File(dir, sb.append(FILE_SUFFIX).toString());
+    }
+
+    /**
+     * Reads the given device's entry from the given directory.
+     * @return the entry or <code>null</code> if not existing or not readable.
+     */
+    public static GLVersionMappingCache read(final File dir, final String deviceID) {
+        final File file = getFile(dir, deviceID);
+        return AccessController.doPrivileged(new PrivilegedAction<GLVersionMappingCache>() {
+            @Override
+            public GLVersionMappingCache run() {
+                if( !file.isFile() ) {
+                    return null;
+                }
+                try {
+                    final Properties props = new Properties();
+                    final InputStream in = new FileInputStream(file);
+                    try {
+                        props.load(in);
+                    } finally {
+                        in.close();
+                    }
+                    return fromProperties(props, deviceID);
+                } catch (final Exception e) {
+                    if( DEBUG ) {
+                        System.err.println("GLVersionMappingCache: Could not read "+file+": "+e.getMessage());
+                    }
+                    return null;
+                }
+            } } );
+    }
+
+    /**
+     * Writes this entry to the given directory, replacing an existing one.
+     * @return <code>true</code> if successful, otherwise <code>false</code>
+     */
+    public final boolean write(final File dir) {
+        final File file = getFile(dir, deviceID);
+        final Properties props = toProperties();
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            @Override
+            public Boolean run() {
+                try {
+                    if( !dir.isDirectory() && !dir.mkdirs() ) {
+                        throw new IOException("Could not create directory "+dir);
+                    }
+                    // write complete file first, then replace atomically as possible
+                    final File tmp = File.createTempFile(FILE_PREFIX, ".tmp", dir);
+                    final OutputStream out = new FileOutputStream(tmp);
+                    try {
+                        props.store(out, "JOGL GL version mapping cache");
+                    } finally {
+                        out.close();
+                    }
+                    if( !tmp.renameTo(file) ) {
+                        file.delete();
+                        if( !tmp.renameTo(file) ) {
+                            tmp.delete();
+                            throw new IOException("Could not rename "+tmp+" to "+file);
+                        }
+                    }
+                    return Boolean.TRUE;
+                } catch (final IOException ioe) {
+                    if( DEBUG ) {
+                        System.err.println("GLVersionMappingCache: Could not write "+file+": "+ioe.getMessage());
+                    }
+                    return Boolean.FALSE;
+                }
+            } } ).booleanValue();
+    }
+
+    /** Deletes the given device's entry within the given directory, if existing. */
+    public static void delete(final File dir, final String deviceID) {
+        final File file = getFile(dir, deviceID);
+        AccessController.doPrivileged(new PrivilegedAction<Object>() {
+            @Override
+            public Object run() {
+                if( file.exists() && !file.delete() && DEBUG ) {
+                    System.err.println("GLVersionMappingCache: Could not delete "+file);
+                }
+                return null;
+            } } );
+    }
+
+    private Properties toProperties() {
+        final Properties props = new Properties();
+        props.setProperty("device", deviceID);
+        props.setProperty("config", config);
+        props.setProperty("jogl.version", version);
+        props.setProperty("gl.vendor", glVendor);
+        props.setProperty("gl.renderer", glRenderer);
+        props.setProperty("gl.version", glVersion);
+        props.setProperty("validation", toString(validation));
+        props.setProperty("mappings", String.valueOf(mappings.size()));
+        for(int i=0; i<mappings.size(); i++) {
+            final Mapping m = mappings.get(i);
+            props.setProperty("mapping."+i, toString(m));
+            props.setProperty("mapping."+i+".quirks", toString(m.quirks));
+        }
+        props.setProperty("quirks.sticky", toString(stickyQuirks));
+        return props;
+    }
+
+    private static GLVersionMappingCache fromProperties(final Properties props, final String deviceID) throws IllegalArgumentException {
+        if( !deviceID.equals(props.getProperty("device")) ) {
+            throw new IllegalArgumentException("Device mismatch: "+props.getProperty("device"));
+        }
+        final int count = Integer.parseInt(getRequired(props, "mappings"));
+        final List<Mapping> mappings = new ArrayList<Mapping>(count);
+        for(int i=0; i<count; i++) {
+            mappings.add(parseMapping(getRequired(props, "mapping."+i), parseQuirks(getRequired(props, "mapping."+i+".quirks"))));
+        }
+        final Mapping validation = parseMapping(getRequired(props, "validation"), null);
+        if( !mappings.contains(validation) ) {
+            throw new IllegalArgumentException("Validation mapping not contained: "+validation);
+        }
+        final int[] quirks = parseQuirks(getRequired(props, "quirks.sticky"));
+        return new GLVersionMappingCache(deviceID, getRequired(props, "config"), getRequired(props, "jogl.version"),
+                                         getRequired(props, "gl.vendor"), getRequired(props, "gl.renderer"), getRequired(props, "gl.version"),
+                                         mappings.get(mappings.indexOf(validation)), mappings, quirks);
+    }
+
+    private static String getRequired(final Properties props, final String key) throws IllegalArgumentException {
+        final String v = props.getProperty(key);
+        if( null == v ) {
+            throw new IllegalArgumentException("Missing "+key);
+        }
+        return v;
+    }
+
+    private static String toString(final Mapping m) {
+        return m.reqMajor+" "+m.reqProfile+" "+m.major+" "+m.minor+" "+m.ctp;
+    }
+
+    private static Mapping parseMapping(final String s, final int[] quirks) throws IllegalArgumentException {
+        final String[] v = s.trim().split(" ");
+        if( 5 != v.length ) {
+            throw new IllegalArgumentException("Invalid mapping: "+s);
+        }
+        return new Mapping(Integer.parseInt(v[0]), Integer.parseInt(v[1]), Integer.parseInt(v[2]),
+                           Integer.parseInt(v[3]), Integer.parseInt(v[4]), quirks);
+    }
+
+    private static String toString(final int[] quirks) {
+        final StringBuilder sb = new StringBuilder();
+        for(int i=0; i<quirks.length; i++) {
+            if( 0 < i ) {
+                sb.append(',');
+            }
+            sb.append(quirks[i]);
+        }
+        return sb.toString();
+    }
+
+    private static int[] parseQuirks(final String s) throws IllegalArgumentException {
+        final String q = s.trim();
+        final String[] qs = 0 < q.length() ? q.split(",") : new String[0];
+        final int[] quirks = new int[qs.length];
+        for(int i=0; i<qs.length; i++) {
+            quirks[i] = Integer.parseInt(qs[i].trim());
+        }
+        return quirks;
+    }
+
+    @Override
+    public String toString() {
+        return "GLVersionMappingCache["+deviceID+", jogl "+version+", config '"+config+"', "+glVendor+", "+glRenderer+", "+glVersion+
+               ", validation "+validation+", mappings "+mappings+", "+stickyQuirks.length+" sticky quirks]";
+    }
+}
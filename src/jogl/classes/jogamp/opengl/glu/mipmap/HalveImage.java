@@ -95,11 +95,6 @@ public class HalveImage {
   public static void halveImage_ubyte( final int components, final int width, final int height,
                                       final ByteBuffer datain, final ByteBuffer dataout,
                                       final int element_size, final int ysize, final int group_size ) {
-    int i, j, k;
-    int newwidth, newheight;
-    int s;
-    int t;
-
     // Handle case where there is only 1 column/row
     if( width == 1 || height == 1 ) {
       assert( !( width == 1 && height == 1 ) ); // can't be 1x1
@@ -107,31 +102,7 @@ public class HalveImage {
       return;
     }
 
-    newwidth = width / 2;
-    newheight = height / 2;
-    s = 0;
-    t = 0;
-
-    int temp = 0;
-    // piece of cake
-    for( i = 0; i < newheight; i++ ) {
-      for( j = 0; j < newwidth; j++ ) {
-        for( k = 0; k < components; k++ ) {
-          datain.position( t );
-          temp = ( 0x000000FF & datain.get() );
-          datain.position( t + group_size );
-          temp += ( 0x000000FF & datain.get() );
-          datain.position( t + ysize );
-          temp += ( 0x000000FF & datain.get() );
-          datain.position( t + ysize + group_size );
-          temp += ( 0x000000FF & datain.get() ) + 2;
-          dataout.put( (byte)(temp / 4) );
-          t += element_size;
-        }
-        t += group_size;
-      }
-      t += ysize;
-    }
+    HalveImageKernels.halve_ubyte( components, width, height, datain, dataout, element_size, ysize, group_size );
   }
 
   public static void halve1Dimage_ubyte( final int components, final int width, final int height,
@@ -866,12 +837,6 @@ public class HalveImage {
   public static void halveImage_float( final int components, final int width, final int height,
                     final ByteBuffer datain, final FloatBuffer dataout, final int element_size,
                     final int ysize, final int group_size, final boolean myswap_bytes ) {
-    int i, j, k;
-    final int l;
-    int newwidth, newheight;
-    final int s = 0;
-    int t = 0;
-    float temp = 0.0f;
     // handle case where there is only 1 column/row
     if( width == 1 || height == 1 ) {
       assert( !( width == 1 && height == 1 ) ); // can't be 1x1
@@ -880,50 +845,8 @@ public class HalveImage {
       return;
     }
 
-    newwidth = width / 2;
-    newheight = height / 2;
-
-    // Piece of cake
-    if( !myswap_bytes ) {
-      for( i = 0; i < newheight; i++ ) {
-        for( j = 0; j < newwidth; j++ ) {
-          for( k = 0; k < components; k++ ) {
-            datain.position( t );
-            temp = datain.getFloat();
-            datain.position( t + group_size );
-            temp += datain.getFloat();
-            datain.position( t + ysize );
-            temp += datain.getFloat();
-            datain.position( t + ysize + group_size );
-            temp /= 4.0f;
-            dataout.put( temp );
-            t += element_size;
-          }
-          t += group_size;
-        }
-        t += ysize;
-      }
-    } else {
-      for( i = 0; i < newheight; i++ ) {
-        for( j = 0; j < newwidth; j++ ) {
-          for( k = 0; k < components; k++ ) {
-            float buf;
-            datain.position( t );
-            buf = Mipmap.GLU_SWAP_4_BYTES( datain.getFloat() );
-            datain.position( t + group_size );
-            buf += Mipmap.GLU_SWAP_4_BYTES( datain.getFloat() );
-            datain.position( t + ysize );
-            buf += Mipmap.GLU_SWAP_4_BYTES( datain.getFloat() );
-            datain.position( t + ysize + group_size );
-            buf += Mipmap.GLU_SWAP_4_BYTES( datain.getFloat() );
-            dataout.put( buf / 4.0f );
-            t += element_size;
-          }
-          t += group_size;
-        }
-        t += ysize;
-      }
-    }
+    HalveImageKernels.halve_float( components, width, height, datain, dataout, element_size,
+                                   ysize, group_size, myswap_bytes );
   }
 
   public static void halve1Dimage_float( final int components, final int width, final int height,
@@ -1008,6 +931,10 @@ public class HalveImage {
                           pixelSizeInBytes, rowSizeInBytes, isSwap );
       return;
     }
+    if( HalveImageKernels.halvePackedPixel16( components, extract, width, height, datain, dataout,
+                                              pixelSizeInBytes, rowSizeInBytes, isSwap ) ) {
+      return;
+    }
     int ii, jj;
 
     final int halfWidth = width / 2;
@@ -0,0 +1,319 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.opengl.glu.mipmap;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.concurrent.Executor;
+
+import jogamp.nativewindow.ParallelBands;
+import jogamp.opengl.Debug;
+
+import com.jogamp.common.util.PropertyAccess;
+
+/**
+ * Specialized 2D box filter kernels used by {@link HalveImage} for the common formats,
+ * i.e. unsigned byte, float and the 16bit packed 565 and 4444 formats.
+ * <p>
+ * The kernels read whole source rows in bulk or via absolute indexed access,
+ * instead of positioning the source buffer for each sample,
+ * and produce results bit-identical to the per sample implementation.
+ * </p>
+ * <p>
+ * Large images may be halved in parallel horizontal bands of destination rows,
+ * either by {@link #setDefaultExecutor(Executor) setting} an {@link Executor}
+ * or via the following properties:
+ * <ul>
+ *   <li><code>jogl.glu.mipmap.threads</code>: Number of worker threads of the default {@link Executor},
+ *       {@code 0} disables parallel halving (default) and a negative value uses the number of available processors.</li>
+ *   <li><code>jogl.glu.mipmap.parallelThreshold</code>: Minimum destination pixel count of a level
+ *       to be halved in parallel, defaults to {@value #DEFAULT_PARALLEL_THRESHOLD}.</li>
+ * </ul>
+ * </p>
+ */
+public class HalveImageKernels {
+    /** Default minimum destination pixel count of a level to be halved in parallel, i.e. {@value}. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 256*256;
+    /** Minimum destination pixel count of one parallel band. */
+    private static final int MIN_BAND_PIXELS = 32*1024;
+    private static final ParallelBands parallelBands;
+
+    static {
+        Debug.initSingleton();
+        parallelBands = new ParallelBands("GLUMipmap-Worker-",
+                                          PropertyAccess.getIntProperty("jogl.glu.mipmap.threads", true, 0),
+                                          PropertyAccess.getIntProperty("jogl.glu.mipmap.parallelThreshold", true, DEFAULT_PARALLEL_THRESHOLD),
+                                          MIN_BAND_PIXELS);
+    }
+
+    /**
+     * Returns the {@link Executor} used for parallel halving,
+     * or {@code null} if halving is performed on the caller thread only.
+     * <p>
+     * Unless {@link #setDefaultExecutor(Executor) set} explicitly, a daemon thread pool is created lazily
+     * if property <code>jogl.glu.mipmap.threads</code> is not zero.
+     * </p>
+     */
+    public static Executor getDefaultExecutor() {
+        return parallelBands.getDefaultExecutor();
+    }
+
+    /**
+     * Sets the {@link Executor} used for parallel halving.
+     * @param executor the {@link Executor}, or {@code null} to halve on the caller thread only.
+     */
+    public static void setDefaultExecutor(final Executor executor) {
+        parallelBands.setDefaultExecutor(executor);
+    }
+
+    /**
+     * Halves all {@code newheight} destination rows, either on the caller thread
+     * or in horizontal bands using the {@link #getDefaultExecutor() default executor},
+     * where the first band is halved on the caller thread.
+     * Returns after all rows have been halved.
+     */
+    private static void halveRows(final ParallelBands.RowBand rowBand, final int newwidth, final int newheight) {
+        parallelBands.run(rowBand, getDefaultExecutor(), newwidth, newheight, "Parallel halving failed");
+    }
+
+    /**
+     * Unsigned byte kernel of {@link HalveImage#halveImage_ubyte(int, int, int, ByteBuffer, ByteBuffer, int, int, int)},
+     * requires {@code width > 1 && height > 1}.
+     * <p>
+     * Writes {@code (width/2)*(height/2)*components} bytes starting at the position of {@code dataout}
+     * and advances its position accordingly. The position of {@code datain} is not used.
+     * </p>
+     */
+    static void halve_ubyte(final int components, final int width, final int height,
+                            final ByteBuffer datain, final ByteBuffer dataout,
+                            final int element_size, final int ysize, final int group_size) {
+        final int newwidth = width / 2;
+        final int newheight = height / 2;
+        final int pixelStride = components * element_size + group_size;
+        final int rowStride = newwidth * pixelStride + ysize;
+        final int rowLen = ( newwidth - 1 ) * pixelStride + ( components - 1 ) * element_size + group_size + 1;
+        final int outRowLen = newwidth * components;
+        final int outOff = dataout.position();
+
+        halveRows(new ParallelBands.RowBand() {
+            @Override
+            public void run(final int row0, final int row1) {
+                final ByteBuffer in = datain.duplicate();
+                final ByteBuffer out = dataout.duplicate();
+                final byte[] s0 = new byte[rowLen];
+                final byte[] s1 = new byte[rowLen];
+                final byte[] d = new byte[outRowLen];
+                out.position(outOff + row0 * outRowLen);
+                for(int i=row0; i<row1; i++) {
+                    final int t = i * rowStride;
+                    in.position(t);
+                    in.get(s0, 0, rowLen);
+                    in.position(t + ysize);
+                    in.get(s1, 0, rowLen);
+                    int di = 0;
+                    if( 1 == element_size && components == group_size ) {
+                        // tightly packed pixels
+                        for(int si=0; di<outRowLen; si+=group_size) {
+                            for(final int e=di+components; di<e; si++) {
+                                d[di++] = (byte) ( ( ( 0xFF & s0[si] ) + ( 0xFF & s0[si+group_size] ) +
+                                                     ( 0xFF & s1[si] ) + ( 0xFF & s1[si+group_size] ) + 2 ) >> 2 );
+                            }
+                        }
+                    } else {
+                        for(int j=0; j<newwidth; j++) {
+                            int si = j * pixelStride;
+                            for(int k=0; k<components; k++, si+=element_size) {
+                                d[di++] = (byte) ( ( ( 0xFF & s0[si] ) + ( 0xFF & s0[si+group_size] ) +
+                                                     ( 0xFF & s1[si] ) + ( 0xFF & s1[si+group_size] ) + 2 ) >> 2 );
+                            }
+                        }
+                    }
+                    out.put(d, 0, outRowLen);
+                }
+            } }, newwidth, newheight);
+        dataout.position(outOff + newheight * outRowLen);
+    }
+
+    /**
+     * Float kernel of {@link HalveImage#halveImage_float(int, int, int, ByteBuffer, FloatBuffer, int, int, int, boolean)},
+     * requires {@code width > 1 && height > 1}.
+     * <p>
+     * Writes {@code (width/2)*(height/2)*components} floats starting at the position of {@code dataout}
+     * and advances its position accordingly. The position of {@code datain} is not used.
+     * </p>
+     */
+    static void halve_float(final int components, final int width, final int height,
+                            final ByteBuffer datain, final FloatBuffer dataout,
+                            final int element_size, final int ysize, final int group_size, final boolean myswap_bytes) {
+        final int newwidth = width / 2;
+        final int newheight = height / 2;
+        final int pixelStride = components * element_size + group_size;
+        final int rowStride = newwidth * pixelStride + ysize;
+        final int outRowLen = newwidth * components;
+        final int outOff = dataout.position();
+
+        halveRows(new ParallelBands.RowBand() {
+            @Override
+            public void run(final int row0, final int row1) {
+                final ByteBuffer in = datain.duplicate().order(datain.order());
+                final FloatBuffer out = dataout.duplicate();
+                final float[] d = new float[outRowLen];
+                out.position(outOff + row0 * outRowLen);
+                for(int i=row0; i<row1; i++) {
+                    int di = 0;
+                    for(int j=0; j<newwidth; j++) {
+                        int t = i * rowStride + j * pixelStride;
+                        for(int k=0; k<components; k++, t+=element_size) {
+                            if( !myswap_bytes ) {
+                                // The sample at t + ysize + group_size is not accumulated, as in HalveImage
+                                float temp = in.getFloat(t);
+                                temp += in.getFloat(t + group_size);
+                                temp += in.getFloat(t + ysize);
+                                d[di++] = temp / 4.0f;
+                            } else {
+                                float buf = Mipmap.GLU_SWAP_4_BYTES( in.getFloat(t) );
+                                buf += Mipmap.GLU_SWAP_4_BYTES( in.getFloat(t + group_size) );
+                                buf += Mipmap.GLU_SWAP_4_BYTES( in.getFloat(t + ysize) );
+                                buf += Mipmap.GLU_SWAP_4_BYTES( in.getFloat(t + ysize + group_size) );
+                                d[di++] = buf / 4.0f;
+                            }
+                        }
+                    }
+                    out.put(d, 0, outRowLen);
+                }
+            } }, newwidth, newheight);
+        dataout.position(outOff + newheight * outRowLen);
+    }
+
+    /**
+     * Component layout of a supported 16bit packed format,
+     * i.e. component {@code i} is {@code (ushort >> shift[i]) & max[i]}.
+     */
+    private static final class Packed16 {
+        final int[] shift;
+        final int[] max;
+        /** Per component lookup table of {@code value / (float)max} as computed by the {@link Extract} */
+        final float[][] unpack;
+
+        Packed16(final int[] shift, final int[] max) {
+            this.shift = shift;
+            this.max = max;
+            unpack = new float[shift.length][];
+            for(int c=0; c<shift.length; c++) {
+                unpack[c] = new float[max[c]+1];
+                for(int v=0; v<=max[c]; v++) {
+                    unpack[c][v] = v / (float)max[c];
+                }
+            }
+        }
+    }
+    private static final Packed16 P565 = new Packed16(new int[] { 11, 5, 0 }, new int[] { 31, 63, 31 });
+    private static final Packed16 P565rev = new Packed16(new int[] { 0, 5, 11 }, new int[] { 31, 63, 31 });
+    private static final Packed16 P4444 = new Packed16(new int[] { 12, 8, 4, 0 }, new int[] { 15, 15, 15, 15 });
+    private static final Packed16 P4444rev = new Packed16(new int[] { 0, 4, 8, 12 }, new int[] { 15, 15, 15, 15 });
+
+    private static Packed16 getPacked16(final Extract extract) {
+        final Class<?> c = extract.getClass();
+        if( Extract565.class == c ) {
+            return P565;
+        } else if( Extract565rev.class == c ) {
+            return P565rev;
+        } else if( Extract4444.class == c ) {
+            return P4444;
+        } else if( Extract4444rev.class == c ) {
+            return P4444rev;
+        }
+        return null;
+    }
+
+    /**
+     * 16bit packed 565 and 4444 kernel of
+     * {@link HalveImage#halveImagePackedPixel(int, Extract, int, int, ByteBuffer, ByteBuffer, int, int, boolean)},
+     * requires {@code width > 1 && height > 1}.
+     * <p>
+     * Writes {@code (width/2)*(height/2)} pixels starting at the position of {@code dataout},
+     * leaving its position untouched. The position of {@code datain} is not used.
+     * </p>
+     * @return {@code false} if the format is not supported, otherwise {@code true}.
+     */
+    static boolean halvePackedPixel16(final int components, final Extract extract, final int width, final int height,
+                                      final ByteBuffer datain, final ByteBuffer dataout,
+                                      final int pixelSizeInBytes, final int rowSizeInBytes, final boolean isSwap) {
+        final Packed16 fmt = getPacked16(extract);
+        if( null == fmt || 2 != pixelSizeInBytes || components != fmt.shift.length ) {
+            return false;
+        }
+        final int halfWidth = width / 2;
+        final int halfHeight = height / 2;
+        final int padBytes = rowSizeInBytes - ( width * pixelSizeInBytes );
+        final int rowStride = halfWidth * 2 * pixelSizeInBytes + padBytes + rowSizeInBytes;
+        final int outOff = dataout.position();
+
+        halveRows(new ParallelBands.RowBand() {
+            @Override
+            public void run(final int row0, final int row1) {
+                final ByteBuffer in = datain.duplicate().order(datain.order());
+                final ByteBuffer out = dataout.duplicate().order(dataout.order());
+                final int[] shift = fmt.shift;
+                final int[] max = fmt.max;
+                final float[][] unpack = fmt.unpack;
+                for(int ii=row0; ii<row1; ii++) {
+                    int src = ii * rowStride;
+                    int outIndex = outOff + ii * halfWidth * 2;
+                    for(int jj=0; jj<halfWidth; jj++, src+=2*pixelSizeInBytes, outIndex+=2) {
+                        short p0 = in.getShort(src);
+                        short p1 = in.getShort(src + pixelSizeInBytes);
+                        short p2 = in.getShort(src + rowSizeInBytes);
+                        short p3 = in.getShort(src + rowSizeInBytes + pixelSizeInBytes);
+                        if( isSwap ) {
+                            p0 = Short.reverseBytes(p0);
+                            p1 = Short.reverseBytes(p1);
+                            p2 = Short.reverseBytes(p2);
+                            p3 = Short.reverseBytes(p3);
+                        }
+                        int ushort = 0;
+                        for(int cc=0; cc<components; cc++) {
+                            final int s = shift[cc];
+                            final int m = max[cc];
+                            final float[] u = unpack[cc];
+                            // same float operations and order as Extract.extract(..), the box sum and Extract.shove(..)
+                            float total = 0.0f;
+                            total += u[ ( p0 >> s ) & m ];
+                            total += u[ ( p1 >> s ) & m ];
+                            total += u[ ( p2 >> s ) & m ];
+                            total += u[ ( p3 >> s ) & m ];
+                            total /= 4;
+                            ushort |= ( ( (int)( ( total * m ) + 0.5f ) << s ) & ( m << s ) );
+                        }
+                        out.putShort(outIndex, (short)ushort);
+                    }
+                }
+            } }, halfWidth, halfHeight);
+        return true;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.opengl.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+import jogamp.opengl.Debug;
+
+/**
+ * Releases the native memory of a direct {@link ByteBuffer} immediately,
+ * instead of waiting for its garbage collection.
+ * <p>
+ * Uses {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)} on Java 9 and later,
+ * otherwise {@code DirectByteBuffer.cleaner().clean()}.
+ * If neither is accessible, {@link #clean(ByteBuffer)} is a no-op.
+ * </p>
+ */
+public final class DirectBufferCleaner {
+    private static final boolean DEBUG = Debug.debug("DirectBufferCleaner");
+
+    private static Object theUnsafe = null;
+    private static Method invokeCleaner = null;
+    private static Method cleaner = null;
+    private static Method clean = null;
+
+    static {
+        AccessController.doPrivileged(new PrivilegedAction<Object>() {
+            @Override
+            public Object run() {
+                try {
+                    final Class<?> unsafeClazz = Class.forName("sun.misc.Unsafe");
+                    try {
+                        final Method m = unsafeClazz.getMethod("invokeCleaner", ByteBuffer.class);
+                        final Field f = unsafeClazz.getDeclaredField("theUnsafe");
+                        f.setAccessible(true);
+                        theUnsafe = f.get(null);
+                        invokeCleaner = m;
+                    } catch (final NoSuchMethodException nsme) {
+                        final Method m0 = Class.forName("java.nio.DirectByteBuffer").getMethod("cleaner");
+                        m0.setAccessible(true);
+                        final Method m1 = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                        m1.setAccessible(true);
+                        cleaner = m0;
+                        clean = m1;
+                    }
+                } catch (final Throwable t) {
+                    if( DEBUG ) {
+                        System.err.println("DirectBufferCleaner: Not available: "+t.getMessage());
+                    }
+                    theUnsafe = null;
+                    invokeCleaner = null;
+                    cleaner = null;
+                    clean = null;
+                }
+                return null;
+            } } );
+    }
+
+    private DirectBufferCleaner() {}
+
+    /** Returns true if direct buffers can be released, otherwise false. */
+    public static boolean isAvailable() {
+        return null != invokeCleaner || null != clean;
+    }
+
+    /**
+     * Releases the native memory of the given direct {@link ByteBuffer}.
+     * <p>
+     * The buffer must have been allocated via {@link ByteBuffer#allocateDirect(int)},
+     * i.e. it may not be a slice, duplicate or view.
+     * Neither the buffer nor any view of it may be accessed afterwards.
+     * </p>
+     * @return true if the memory has been released, otherwise false
+     */
+    public static boolean clean(final ByteBuffer bb) {
+        if( null == bb || !bb.isDirect() ) {
+            return false;
+        }
+        try {
+            if( null != invokeCleaner ) {
+                invokeCleaner.invoke(theUnsafe, bb);
+                return true;
+            } else if( null != clean ) {
+                final Object c = cleaner.invoke(bb);
+                if( null != c ) {
+                    clean.invoke(c);
+                    return true;
+                }
+            }
+        } catch (final Throwable t) {
+            if( DEBUG ) {
+                System.err.println("DirectBufferCleaner: Failed to release "+bb+": "+t.getMessage());
+                t.printStackTrace();
+            }
+        }
+        return false;
+    }
+}
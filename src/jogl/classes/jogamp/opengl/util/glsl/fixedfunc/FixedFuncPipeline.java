@@ -29,7 +29,9 @@
 
 package jogamp.opengl.util.glsl.fixedfunc;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
@@ -143,6 +145,14 @@ public class FixedFuncPipeline {
         if(null != shaderProgramColorTexture8Light) {
             shaderProgramColorTexture8Light.release(gl, true);
         }
+        if( 0 != quadsIndexVBO || 0 != quadsStreamVBO ) {
+            gl.glDeleteBuffers(2, new int[] { quadsIndexVBO, quadsStreamVBO }, 0);
+            quadsIndexVBO = 0;
+            quadsIndexQuadCount = 0;
+            quadsIndexType = 0;
+            quadsStreamVBO = 0;
+        }
+        quadsScratch = null;
         shaderState.destroy(gl);
     }
 
@@ -715,8 +725,10 @@ public class FixedFuncPipeline {
         }
         validate(gl, true);
         if ( GL2GL3.GL_QUADS == mode && !gl.isGL2() ) {
-            for (int j = first; j < count - 3; j += 4) {
-                gl.glDrawArrays(GL.GL_TRIANGLE_FAN, j, 4);
+            if( 0 != first % 4 || !glDrawQuadArrays(gl, first / 4, count / 4) ) {
+                for (int j = first; j < first + count - 3; j += 4) {
+                    gl.glDrawArrays(GL.GL_TRIANGLE_FAN, j, 4);
+                }
             }
         } else {
             gl.glDrawArrays(mode, first, count);
@@ -725,23 +737,10 @@ public class FixedFuncPipeline {
     public void glDrawElements(final GL2ES2 gl, final int mode, final int count, final int type, final java.nio.Buffer indices) {
         validate(gl, true);
         if ( GL2GL3.GL_QUADS == mode && !gl.isGL2() ) {
-            final int idx0 = indices.position();
-
-            if( GL.GL_UNSIGNED_BYTE == type ) {
-                final ByteBuffer b = (ByteBuffer) indices;
-                for (int j = 0; j < count; j++) {
-                    gl.glDrawArrays(GL.GL_TRIANGLE_FAN, 0x000000ff & b.get(idx0+j), 4);
-                }
-            } else if( GL.GL_UNSIGNED_SHORT == type ){
-                final ShortBuffer b = (ShortBuffer) indices;
-                for (int j = 0; j < count; j++) {
-                    gl.glDrawArrays(GL.GL_TRIANGLE_FAN, 0x0000ffff & b.get(idx0+j), 4);
-                }
-            } else {
-                final IntBuffer b = (IntBuffer) indices;
-                for (int j = 0; j < count; j++) {
-                    gl.glDrawArrays(GL.GL_TRIANGLE_FAN, 0xffffffff & b.get(idx0+j), 4);
-                }
+            final int quads = count / 4;
+            if( 0 < quads ) {
+                quadIndicesToTriangles(indices, indices.position(), type, quads);
+                glDrawQuadsScratch(gl, type, quads);
             }
         } else {
             // FIXME: Impl. VBO usage .. or unroll (see above)!
@@ -759,7 +758,33 @@ public class FixedFuncPipeline {
     public void glDrawElements(final GL2ES2 gl, final int mode, final int count, final int type, final long indices_buffer_offset) {
         validate(gl, true);
         if ( GL2GL3.GL_QUADS == mode && !gl.isGL2() ) {
-            throw new GLException("Cannot handle indexed QUADS on !GL2 w/ VBO due to lack of CPU index access");
+            final int elemVBO = gl.getBoundBuffer(GL.GL_ELEMENT_ARRAY_BUFFER);
+            if( 0 == elemVBO || !gl.isGL2ES3() || !gl.isFunctionAvailable("glMapBufferRange") ) {
+                throw new GLException("Cannot handle indexed QUADS on !GL2 w/ VBO due to lack of CPU index access");
+            }
+            final int quads = count / 4;
+            if( 0 < quads ) {
+                final ByteBuffer mapped = gl.glMapBufferRange(GL.GL_ELEMENT_ARRAY_BUFFER, indices_buffer_offset,
+                                                              quads * 4 * getIndexSize(type), GL.GL_MAP_READ_BIT);
+                if( null == mapped ) {
+                    throw new GLException("Cannot map element array buffer "+elemVBO+" for indexed QUADS");
+                }
+                try {
+                    mapped.order(ByteOrder.nativeOrder());
+                    final Buffer src;
+                    if( GL.GL_UNSIGNED_BYTE == type ) {
+                        src = mapped;
+                    } else if( GL.GL_UNSIGNED_SHORT == type ) {
+                        src = mapped.asShortBuffer();
+                    } else {
+                        src = mapped.asIntBuffer();
+                    }
+                    quadIndicesToTriangles(src, 0, type, quads);
+                } finally {
+                    gl.glUnmapBuffer(GL.GL_ELEMENT_ARRAY_BUFFER);
+                }
+                glDrawQuadsScratch(gl, type, quads);
+            }
         } else /* if( GL.GL_POINTS != mode ) */ {
             gl.glDrawElements(mode, count, type, indices_buffer_offset);
         } /* else {
@@ -768,6 +793,121 @@ public class FixedFuncPipeline {
         } */
     }
 
+    //
+    // GL_QUADS emulation via triangle indices, i.e. one glDrawElements(GL_TRIANGLES, ..) call per batch
+    //
+
+    /**
+     * Draws the given quads of the enabled arrays using the generated triangle indices of {@link #quadsIndexVBO},
+     * growing it on demand.
+     * @return false if the required index type is not supported, i.e. no quads have been drawn
+     */
+    private boolean glDrawQuadArrays(final GL2ES2 gl, final int firstQuad, final int quads) {
+        if( 0 >= quads ) {
+            return true;
+        }
+        final int quadEnd = firstQuad + quads;
+        final int type;
+        if( GL.GL_UNSIGNED_INT != quadsIndexType && quadEnd <= QUADS_MAX_USHORT_QUADS ) {
+            type = GL.GL_UNSIGNED_SHORT;
+        } else if( gl.isGL2ES3() || gl.isExtensionAvailable("GL_OES_element_index_uint") ) {
+            type = GL.GL_UNSIGNED_INT;
+        } else {
+            return false;
+        }
+        final int usrElemVBO = gl.getBoundBuffer(GL.GL_ELEMENT_ARRAY_BUFFER);
+        if( 0 == quadsIndexVBO ) {
+            final int[] name = new int[1];
+            gl.glGenBuffers(1, name, 0);
+            quadsIndexVBO = name[0];
+        }
+        gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, quadsIndexVBO);
+        if( type != quadsIndexType || quadEnd > quadsIndexQuadCount ) {
+            // grow by power of two, avoiding regeneration for slowly growing batches
+            int quadCount = Math.max(QUADS_MIN_QUADS, Integer.highestOneBit(quadEnd - 1) << 1);
+            if( GL.GL_UNSIGNED_SHORT == type ) {
+                quadCount = Math.min(quadCount, QUADS_MAX_USHORT_QUADS);
+            }
+            final ByteBuffer indices = Buffers.newDirectByteBuffer(quadCount * 6 * getIndexSize(type));
+            if( GL.GL_UNSIGNED_SHORT == type ) {
+                final ShortBuffer b = indices.asShortBuffer();
+                for(int i=0, v=0; i<quadCount; i++, v+=4) {
+                    b.put((short)v).put((short)(v+1)).put((short)(v+2)).put((short)v).put((short)(v+2)).put((short)(v+3));
+                }
+            } else {
+                final IntBuffer b = indices.asIntBuffer();
+                for(int i=0, v=0; i<quadCount; i++, v+=4) {
+                    b.put(v).put(v+1).put(v+2).put(v).put(v+2).put(v+3);
+                }
+            }
+            gl.glBufferData(GL.GL_ELEMENT_ARRAY_BUFFER, indices.capacity(), indices, GL.GL_STATIC_DRAW);
+            quadsIndexType = type;
+            quadsIndexQuadCount = quadCount;
+            if(verbose) {
+                System.err.println("FixedFuncPipeline: QUADS index buffer "+quadCount+" quads, type "+toHexString(type));
+            }
+        }
+        gl.glDrawElements(GL.GL_TRIANGLES, quads * 6, type, (long)firstQuad * 6 * getIndexSize(type));
+        gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, usrElemVBO);
+        return true;
+    }
+
+    /** Converts the given quad indices of <code>src</code> starting at <code>srcPos</code> into triangle indices of the same type in {@link #quadsScratch}. */
+    private void quadIndicesToTriangles(final Buffer src, final int srcPos, final int type, final int quads) {
+        final int size = getIndexSize(type);
+        final int bytes = quads * 6 * size;
+        if( null == quadsScratch || quadsScratch.capacity() < bytes ) {
+            quadsScratch = Buffers.newDirectByteBuffer(Math.max(bytes, null != quadsScratch ? 2 * quadsScratch.capacity() : 0));
+        }
+        final ByteBuffer dst = quadsScratch;
+        dst.clear();
+        if( GL.GL_UNSIGNED_BYTE == type ) {
+            final ByteBuffer b = (ByteBuffer) src;
+            for(int i=0, j=srcPos; i<quads; i++, j+=4) {
+                final byte v0 = b.get(j), v2 = b.get(j+2);
+                dst.put(v0).put(b.get(j+1)).put(v2).put(v0).put(v2).put(b.get(j+3));
+            }
+        } else if( GL.GL_UNSIGNED_SHORT == type ) {
+            final ShortBuffer b = (ShortBuffer) src;
+            for(int i=0, j=srcPos; i<quads; i++, j+=4) {
+                final short v0 = b.get(j), v2 = b.get(j+2);
+                dst.putShort(v0).putShort(b.get(j+1)).putShort(v2).putShort(v0).putShort(v2).putShort(b.get(j+3));
+            }
+        } else {
+            final IntBuffer b = (IntBuffer) src;
+            for(int i=0, j=srcPos; i<quads; i++, j+=4) {
+                final int v0 = b.get(j), v2 = b.get(j+2);
+                dst.putInt(v0).putInt(b.get(j+1)).putInt(v2).putInt(v0).putInt(v2).putInt(b.get(j+3));
+            }
+        }
+        dst.flip();
+    }
+
+    /** Streams the triangle indices of {@link #quadsScratch} into {@link #quadsStreamVBO} and draws them. */
+    private void glDrawQuadsScratch(final GL2ES2 gl, final int type, final int quads) {
+        final int usrElemVBO = gl.getBoundBuffer(GL.GL_ELEMENT_ARRAY_BUFFER);
+        if( 0 == quadsStreamVBO ) {
+            final int[] name = new int[1];
+            gl.glGenBuffers(1, name, 0);
+            quadsStreamVBO = name[0];
+        }
+        gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, quadsStreamVBO);
+        gl.glBufferData(GL.GL_ELEMENT_ARRAY_BUFFER, quadsScratch.remaining(), quadsScratch, GL2ES2.GL_STREAM_DRAW);
+        gl.glDrawElements(GL.GL_TRIANGLES, quads * 6, type, 0L);
+        gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, usrElemVBO);
+    }
+
+    private static int getIndexSize(final int type) {
+        switch(type) {
+            case GL.GL_UNSIGNED_BYTE:
+                return 1;
+            case GL.GL_UNSIGNED_SHORT:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+
     private final int textureEnabledCount() {
         int n=0;
         for(int i=MAX_TEXTURE_UNITS-1; i>=0; i--) {
@@ -1207,6 +1347,15 @@ public class FixedFuncPipeline {
     private ShaderProgram shaderProgramColorTexture8Light;
     private ShaderProgram shaderProgramPoints;
 
+    // GL_QUADS emulation, see glDrawQuadArrays(..) and glDrawQuadsScratch(..)
+    private static final int QUADS_MIN_QUADS = 256;
+    private static final int QUADS_MAX_USHORT_QUADS = 0x10000 / 4;
+    private int quadsIndexVBO = 0;
+    private int quadsIndexQuadCount = 0;
+    private int quadsIndexType = 0;
+    private int quadsStreamVBO = 0;
+    private ByteBuffer quadsScratch = null;
+
     private ShaderSelectionMode requestedShaderSelectionMode = ShaderSelectionMode.AUTO;
     private ShaderSelectionMode currentShaderSelectionMode = requestedShaderSelectionMode;
 
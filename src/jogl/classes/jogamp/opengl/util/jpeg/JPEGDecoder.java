@@ -56,11 +56,16 @@
 
 package jogamp.opengl.util.jpeg;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
 
+import jogamp.nativewindow.ParallelBands;
 import jogamp.opengl.Debug;
 
 import com.jogamp.common.util.ArrayHashSet;
@@ -287,6 +292,40 @@ public class JPEGDecoder {
         63
     };
 
+    /** [n] maps the natural coefficient index to its offset within a block keeping the n x n low frequencies, or -1. */
+    static final int[][] coefIndices = new int[9][];
+    static {
+        for (int n = 1; n <= 8; n <<= 1) {
+            final int[] idx = new int[64];
+            for (int i = 0; i < 64; i++) {
+                final int v = i >> 3, u = i & 7;
+                idx[i] = ( v < n && u < n ) ? v * n + u : -1;
+            }
+            coefIndices[n] = idx;
+        }
+    }
+
+    /**
+     * [n][m * n + u] reduced 1-D inverse DCT coefficients for n = 1, 2 and 4 output samples,
+     * <code>C(u)/2 * cos((2m+1) u pi / 2n) * sin(g u pi / 16) / (g sin(u pi / 16))</code>
+     * with group size <code>g = 8/n</code> and <code>C(0) = 1/sqrt(2)</code>, <code>C(u) = 1</code> otherwise.
+     */
+    static final float[][] idctScaled = new float[5][];
+    static {
+        for (int n = 1; n <= 4; n <<= 1) {
+            final int g = 8 / n;
+            final float[] t = new float[n * n];
+            for (int m = 0; m < n; m++) {
+                for (int u = 0; u < n; u++) {
+                    final double c = 0 == u ? 1.0 / Math.sqrt(2.0) : 1.0;
+                    final double box = 0 == u ? 1.0 : Math.sin(g * u * Math.PI / 16.0) / ( g * Math.sin(u * Math.PI / 16.0) );
+                    t[m * n + u] = (float) ( c / 2.0 * Math.cos( ( 2 * m + 1 ) * u * Math.PI / ( 2.0 * n ) ) * box );
+                }
+            }
+            idctScaled[n] = t;
+        }
+    }
+
     static final int dctCos1  =   4017;   // cos(pi/16)
     static final int dctSin1  =    799;   // sin(pi/16)
     static final int dctCos3  =   3406;   // cos(3*pi/16)
@@ -381,8 +420,12 @@ public class JPEGDecoder {
         int blocksPerColumnForMcu;
         int blocksPerLine;
         int blocksPerLineForMcu;
-        /** [blocksPerColumnForMcu][blocksPerLineForMcu][64]; */
-        int[][][] blocks;
+        /** Flat [blocksPerColumnForMcu * blocksPerLineForMcu * blockSize], see {@link #getBlockOffset(int, int)}. */
+        int[] blocks;
+        /** Number of coefficients stored per block, 64 or <code>n*n</code> if only the low frequencies are kept for scaled decoding. */
+        int blockSize;
+        /** Maps the natural coefficient index to its offset within a stored block, -1 if dropped. */
+        int[] coefIndex;
         int pred;
         BinObj huffmanTableAC;
         BinObj huffmanTableDC;
@@ -393,47 +436,79 @@ public class JPEGDecoder {
             this.qttIdx = qttIdx;
         }
 
-        public final void allocateBlocks(final int blocksPerColumn, final int blocksPerColumnForMcu, final int blocksPerLine, final int blocksPerLineForMcu) {
+        /**
+         * Copy sharing the coefficient {@link #blocks} and Huffman tables of <code>src</code>,
+         * but having its own DC prediction, used to decode independent restart intervals concurrently.
+         */
+        ComponentIn(final ComponentIn src) {
+            this.h = src.h;
+            this.v = src.v;
+            this.qttIdx = src.qttIdx;
+            this.blocksPerColumn = src.blocksPerColumn;
+            this.blocksPerColumnForMcu = src.blocksPerColumnForMcu;
+            this.blocksPerLine = src.blocksPerLine;
+            this.blocksPerLineForMcu = src.blocksPerLineForMcu;
+            this.blocks = src.blocks;
+            this.blockSize = src.blockSize;
+            this.coefIndex = src.coefIndex;
+            this.pred = 0;
+            this.huffmanTableAC = src.huffmanTableAC;
+            this.huffmanTableDC = src.huffmanTableDC;
+        }
+
+        /**
+         * @param lowFreqs number of low frequencies <code>n</code> per dimension to be stored per block,
+         *                 i.e. 8 for all 64 coefficients or 1, 2 or 4 for scaled baseline decoding.
+         */
+        public final void allocateBlocks(final int blocksPerColumn, final int blocksPerColumnForMcu, final int blocksPerLine, final int blocksPerLineForMcu,
+                                         final int lowFreqs) {
             this.blocksPerColumn = blocksPerColumn;
             this.blocksPerColumnForMcu = blocksPerColumnForMcu;
             this.blocksPerLine = blocksPerLine;
             this.blocksPerLineForMcu = blocksPerLineForMcu;
-            this.blocks = new int[blocksPerColumnForMcu][blocksPerLineForMcu][64];
+            this.blockSize = lowFreqs * lowFreqs;
+            this.coefIndex = coefIndices[lowFreqs];
+            this.blocks = new int[blocksPerColumnForMcu * blocksPerLineForMcu * blockSize];
         }
-        public final int[] getBlock(final int row, final int col) {
+        /** Returns the offset of the {@link #blockSize} coefficients of block [row][col] within {@link #blocks}. */
+        public final int getBlockOffset(final int row, final int col) {
             if( row >= blocksPerColumnForMcu || col >= blocksPerLineForMcu ) {
                 throw new CodecException("Out of bounds given ["+row+"]["+col+"] - "+this);
             }
-            return blocks[row][col];
+            return ( row * blocksPerLineForMcu + col ) * blockSize;
         }
 
         @Override
         public final String toString() {
-            return "CompIn[h "+h+", v "+v+", qttIdx "+qttIdx+", blocks["+blocksPerColumn+", mcu "+blocksPerColumnForMcu+"]["+blocksPerLine+", mcu "+blocksPerLineForMcu+"][64]]";
+            return "CompIn[h "+h+", v "+v+", qttIdx "+qttIdx+", blocks["+blocksPerColumn+", mcu "+blocksPerColumnForMcu+"]["+blocksPerLine+", mcu "+blocksPerLineForMcu+"]["+blockSize+"]]";
         }
     }
 
     /** The decoded components */
     static class ComponentOut {
-        private final ArrayList<byte[]> lines;
+        /** Flat plane of {@link #lineCount} lines, each {@link #lineStride} samples wide. */
+        final byte[] plane;
+        final int lineStride;
+        final int lineCount;
         final float scaleX;
         final float scaleY;
 
-        ComponentOut(final ArrayList<byte[]> lines, final float scaleX, final float scaleY) {
-            this.lines = lines;
+        ComponentOut(final byte[] plane, final int lineStride, final float scaleX, final float scaleY) {
+            this.plane = plane;
+            this.lineStride = lineStride;
+            this.lineCount = plane.length / lineStride;
             this.scaleX = scaleX;
             this.scaleY = scaleY;
         }
 
-        /** Safely returning a line, if index exceeds number of lines, last line is returned. */
-        public final byte[] getLine(final int i) {
-            final int sz = lines.size();
-            return lines.get( i < sz ? i : sz - 1);
+        /** Safely returning a line's offset within {@link #plane}, if index exceeds number of lines, last line's offset is returned. */
+        public final int getLineOffset(final int i) {
+            return ( i < lineCount ? i : lineCount - 1 ) * lineStride;
         }
 
         @Override
         public final String toString() {
-            return "CompOut[lines "+lines.size()+", scale "+scaleX+"x"+scaleY+"]";
+            return "CompOut[lines "+lineCount+", stride "+lineStride+", scale "+scaleX+"x"+scaleY+"]";
         }
     }
 
@@ -448,8 +523,15 @@ public class JPEGDecoder {
 
     private final Bitstream<InputStream> bstream = new Bitstream<InputStream>(new Bitstream.ByteInputStream(null), false /* outputMode */);
 
+    /** Minimum sample count of one parallel task, i.e. 64K samples or 1024 blocks. */
+    private static final int MIN_BAND_SAMPLES = 64*1024;
+    /** Schedules {@link #runTasks(Runnable[], Executor) tasks}, limited by the available processors and the executor's parallelism. */
+    private static final ParallelBands parallelTasks = new ParallelBands("JPEGDecoder-Worker-", -1, 1, 1);
+
     private int width = 0;
     private int height = 0;
+    private int scaleDenom = 1;
+    private Executor executor = null;
     private JFIF jfif = null;
     private EXIF exif = null;
     private Adobe adobe = null;
@@ -458,8 +540,27 @@ public class JPEGDecoder {
     public final JFIF getJFIFHeader() { return jfif; }
     public final EXIF getEXIFHeader() { return exif; }
     public final Adobe getAdobeHeader() { return adobe; }
+    /** Returns the width of the decoded image, i.e. reduced by {@link #getScaleDenominator()}. */
     public final int getWidth() { return width; }
+    /** Returns the height of the decoded image, i.e. reduced by {@link #getScaleDenominator()}. */
     public final int getHeight() { return height; }
+    /** Returns the denominator of the reduced resolution of the decoded image, i.e. 1, 2, 4 or 8. */
+    public final int getScaleDenominator() { return scaleDenom; }
+
+    /**
+     * Returns the smallest denominator <code>d</code> of 1, 2, 4 or 8,
+     * for which the image reduced to <code>ceil(width/d) x ceil(height/d)</code> fits into <code>maxDimension</code>.
+     * Returns 8 if not even the image reduced to 1/8 fits and 1 if <code>maxDimension</code> is less or equal than zero.
+     */
+    public static int getScaleDenominator(final int width, final int height, final int maxDimension) {
+        int d = 1;
+        if( 0 < maxDimension ) {
+            while( d < 8 && Math.max( ( width + d - 1 ) / d, ( height + d - 1 ) / d ) > maxDimension ) {
+                d <<= 1;
+            }
+        }
+        return d;
+    }
 
     private final void setStream(final InputStream is) {
         try {
@@ -509,13 +610,54 @@ public class JPEGDecoder {
         setStream(inputStream);
         width = 0;
         height = 0;
+        scaleDenom = 1;
         jfif = null;
         exif = null;
         adobe = null;
         components = null;
     }
     public synchronized JPEGDecoder parse(final InputStream inputStream) throws IOException {
+        return parse(inputStream, null);
+    }
+
+    /**
+     * Parses and decodes the JPEG image from the given stream.
+     * <p>
+     * If an {@link Executor} is given, independent restart intervals of baseline scans are entropy decoded
+     * and the inverse DCT of all components is performed in parallel,
+     * where the calling thread takes part and returns after all tasks are completed.
+     * The decoded samples are identical to sequential decoding.
+     * </p>
+     * @param inputStream the JPEG stream
+     * @param executor the {@link Executor} to decode in parallel, may be <code>null</code>
+     */
+    public synchronized JPEGDecoder parse(final InputStream inputStream, final Executor executor) throws IOException {
+        return parse(inputStream, executor, 0);
+    }
+
+    /**
+     * Parses and decodes the JPEG image from the given stream,
+     * optionally at a reduced resolution of 1/2, 1/4 or 1/8 fitting into <code>maxDimension</code>,
+     * see {@link #getScaleDenominator(int, int, int)}.
+     * <p>
+     * Reduced resolution is decoded in the DCT domain using only the low frequency coefficients
+     * of each 8x8 block, i.e. the DC coefficient for 1/8. Baseline images only store the low frequency coefficients,
+     * hence take a fraction of the memory and time of decoding at full resolution.
+     * The resulting samples closely approximate the average of the 2x2, 4x4 or 8x8 full resolution samples.
+     * </p>
+     * <p>
+     * See {@link #parse(InputStream, Executor)} for parallel decoding.
+     * </p>
+     * @param inputStream the JPEG stream
+     * @param executor the {@link Executor} to decode in parallel, may be <code>null</code>
+     * @param maxDimension the maximum width and height of the decoded image, zero or negative to decode at full resolution
+     * @see #getWidth()
+     * @see #getHeight()
+     * @see #getScaleDenominator()
+     */
+    public synchronized JPEGDecoder parse(final InputStream inputStream, final Executor executor, final int maxDimension) throws IOException {
         clear(inputStream);
+        this.executor = executor;
 
         final int[][] quantizationTables = new int[0x0F][]; // 4 bits
         final BinObj[] huffmanTablesAC = new BinObj[0x0F]; // Huffman table spec - 4 bits
@@ -613,8 +755,9 @@ public class JPEGDecoder {
                     final int samplesPerLine = readUInt16(); count+=2;
                     componentsCount = readUInt8(); count++;
                     frame = new Frame(progressive, precision, scanLines, samplesPerLine, componentsCount, quantizationTables);
-                    width = frame.samplesPerLine;
-                    height = frame.scanLines;
+                    scaleDenom = getScaleDenominator(frame.samplesPerLine, frame.scanLines, maxDimension);
+                    width = ( frame.samplesPerLine + scaleDenom - 1 ) / scaleDenom;
+                    height = ( frame.scanLines + scaleDenom - 1 ) / scaleDenom;
                 }
                 for (int i = 0; i < componentsCount; i++) {
                     final int componentId = readUInt8(); count++;
@@ -722,14 +865,35 @@ public class JPEGDecoder {
 
         final int compCount = frame.getCompCount();
         this.components = new ComponentOut[compCount];
+        final ArrayList<Runnable> tasks = new ArrayList<Runnable>();
         for (int i = 0; i < compCount; i++) {
             final ComponentIn component = frame.getCompByIndex(i);
             // System.err.println("JPG.parse.buildComponentData["+i+"]: "+component); // JAU
             // System.err.println("JPG.parse.buildComponentData["+i+"]: "+frame); // JAU
-            this.components[i] = new ComponentOut( output.buildComponentData(frame, component),
+            final int blockSamples = 8 / scaleDenom;
+            final int samplesPerLine = component.blocksPerLine * blockSamples;
+            final byte[] plane = new byte[ component.blocksPerColumn * blockSamples * samplesPerLine ];
+            this.components[i] = new ComponentOut( plane, samplesPerLine,
                                                    (float)component.h / (float)frame.maxH,
                                                    (float)component.v / (float)frame.maxV );
+            if( null == executor ) {
+                output.buildComponentData(frame, component, blockSamples, plane, 0, component.blocksPerColumn);
+            } else {
+                final int bandRows = Math.max(1, MIN_BAND_SAMPLES / 64 / component.blocksPerLine);
+                for(int blockRow = 0; blockRow < component.blocksPerColumn; blockRow += bandRows) {
+                    final int blockRow0 = blockRow;
+                    final int blockRow1 = Math.min(blockRow + bandRows, component.blocksPerColumn);
+                    final Frame f = frame;
+                    tasks.add(new Runnable() {
+                        @Override
+                        public void run() {
+                            new Output().buildComponentData(f, component, blockSamples, plane, blockRow0, blockRow1);
+                        } });
+                }
+            }
         }
+        runTasks(tasks.toArray(new Runnable[tasks.size()]), executor);
+        this.executor = null;
         if(DEBUG) { System.err.println("JPG.parse.X: End of processing input "+this); }
         return this;
     }
@@ -752,7 +916,8 @@ public class JPEGDecoder {
             final int blocksPerColumn = (int) Math.ceil(Math.ceil(frame.scanLines  / 8f) * component.v / maxV);
             final int blocksPerLineForMcu = mcusPerLine * component.h;
             final int blocksPerColumnForMcu = mcusPerColumn * component.v;
-            component.allocateBlocks(blocksPerColumn, blocksPerColumnForMcu, blocksPerLine, blocksPerLineForMcu);
+            // progressive refinement scans need all coefficients
+            component.allocateBlocks(blocksPerColumn, blocksPerColumnForMcu, blocksPerLine, blocksPerLineForMcu, frame.progressive ? 8 : 8 / scaleDenom);
         }
         frame.maxH = maxH;
         frame.maxV = maxV;
@@ -828,38 +993,76 @@ public class JPEGDecoder {
 
     private final Output output = new Output();
     static class Output {
-        private int blocksPerLine;
-        private int blocksPerColumn;
-        private int samplesPerLine;
-
-        private ArrayList<byte[]> buildComponentData(final Frame frame, final ComponentIn component) {
-            final ArrayList<byte[]> lines = new ArrayList<byte[]>();
-            blocksPerLine = component.blocksPerLine;
-            blocksPerColumn = component.blocksPerColumn;
-            samplesPerLine = blocksPerLine << 3;
-            final int[] R = new int[64];
-            final byte[] r = new byte[64];
-
-            for (int blockRow = 0; blockRow < blocksPerColumn; blockRow++) {
-                final int scanLine = blockRow << 3;
+        /** Scratch block for {@link #quantizeAndInverse(int[], int, int[], byte[], int, int)}. */
+        private final int[] p = new int[64];
+        /** Scratch block for {@link #quantizeAndInverseScaled(ComponentIn, int, int[], byte[], int, int, int)}. */
+        private final float[] f = new float[16];
+
+        /**
+         * Decodes the block rows [blockRow0..blockRow1) of the given component into its flat sample plane
+         * of <code>blocksPerColumn * blockSamples</code> lines of <code>blocksPerLine * blockSamples</code> samples each.
+         * @param blockSamples number of samples per block dimension, i.e. 8 for full resolution or 4, 2 or 1 for a reduced resolution.
+         */
+        private void buildComponentData(final Frame frame, final ComponentIn component, final int blockSamples, final byte[] plane,
+                                        final int blockRow0, final int blockRow1) {
+            final int blocksPerLine = component.blocksPerLine;
+            final int samplesPerLine = blocksPerLine * blockSamples;
+            final int[] qt = frame.qtt[component.qttIdx];
+
+            for (int blockRow = blockRow0; blockRow < blockRow1; blockRow++) {
+                final int scanLineOffset = blockRow * blockSamples * samplesPerLine;
                 // System.err.println("JPG.buildComponentData: row "+blockRow+"/"+blocksPerColumn+" -> scanLine "+scanLine); // JAU
-                for (int i = 0; i < 8; i++) {
-                    lines.add(new byte[samplesPerLine]);
-                }
                 for (int blockCol = 0; blockCol < blocksPerLine; blockCol++) {
                     // System.err.println("JPG.buildComponentData: col "+blockCol+"/"+blocksPerLine+", comp.qttIdx "+component.qttIdx+", qtt "+frame.qtt[component.qttIdx]); // JAU
-                    quantizeAndInverse(component.getBlock(blockRow, blockCol), r, R, frame.qtt[component.qttIdx]);
-
-                    final int sample = blockCol << 3;
-                    int offset = 0;
-                    for (int j = 0; j < 8; j++) {
-                        final byte[] line = lines.get(scanLine + j);
-                        for (int i = 0; i < 8; i++)
-                            line[sample + i] = r[offset++];
+                    if( 8 == blockSamples ) {
+                        quantizeAndInverse(component.blocks, component.getBlockOffset(blockRow, blockCol), qt,
+                                           plane, scanLineOffset + ( blockCol << 3 ), samplesPerLine);
+                    } else {
+                        quantizeAndInverseScaled(component, component.getBlockOffset(blockRow, blockCol), qt,
+                                                 plane, scanLineOffset + blockCol * blockSamples, samplesPerLine, blockSamples);
                     }
                 }
             }
-            return lines;
+        }
+
+        /**
+         * Reduced inverse DCT producing <code>n x n</code> samples of one block
+         * using only its <code>n x n</code> low frequency coefficients.
+         * <p>
+         * Each 1-D output sample <code>m</code> evaluates the 8-point inverse DCT at the center of the sample group
+         * <code>[m*8/n .. (m+1)*8/n)</code>, weighted by the group's box filter response per frequency,
+         * see {@link JPEGDecoder#idctScaled}.
+         * </p>
+         */
+        private void quantizeAndInverseScaled(final ComponentIn component, final int zzOff, final int[] qt,
+                                              final byte[] dataOut, final int dataOutOff, final int dataOutStride, final int n) {
+            final int[] zz = component.blocks;
+            final int[] coefIndex = component.coefIndex;
+            final float[] t = idctScaled[n];
+            final float[] f = this.f;
+
+            // dequant and inverse DCT on the n low frequency rows
+            for (int v = 0; v < n; v++) {
+                for (int m = 0; m < n; m++) {
+                    float s = 0f;
+                    for (int u = 0; u < n; u++) {
+                        final int i = v * 8 + u;
+                        s += t[m * n + u] * ( zz[zzOff + coefIndex[i]] * qt[i] );
+                    }
+                    f[v * n + m] = s;
+                }
+            }
+            // inverse DCT on columns and convert to 8-bit integers
+            for (int k = 0, o = dataOutOff; k < n; k++, o += dataOutStride) {
+                for (int m = 0; m < n; m++) {
+                    float s = 0f;
+                    for (int v = 0; v < n; v++) {
+                        s += t[k * n + v] * f[v * n + m];
+                    }
+                    final int sample = 128 + Math.round(s);
+                    dataOut[o + m] = (byte) ( sample < 0 ? 0 : sample > 0xFF ? 0xFF : sample );
+                }
+            }
         }
 
         // A port of poppler's IDCT method which in turn is taken from:
@@ -867,14 +1070,19 @@ public class JPEGDecoder {
         //   "Practical Fast 1-D DCT Algorithms with 11 Multiplications",
         //   IEEE Intl. Conf. on Acoustics, Speech & Signal Processing, 1989,
         //   988-991.
-        private void quantizeAndInverse(final int[] zz, final byte[] dataOut, final int[] dataIn, final int[] qt) {
+        //
+        // Operates on the flat coefficient block <code>zz[zzOff..zzOff+63]</code>
+        // and writes the 8x8 samples directly into <code>dataOut</code> at <code>dataOutOff</code>
+        // using the given line stride, i.e. w/o intermediate block copies.
+        private void quantizeAndInverse(final int[] zz, final int zzOff, final int[] qt,
+                                        final byte[] dataOut, final int dataOutOff, final int dataOutStride) {
             int v0, v1, v2, v3, v4, v5, v6, v7, t;
-            final int[] p = dataIn;
+            final int[] p = this.p;
             int i;
 
             // dequant
             for (i = 0; i < 64; i++) {
-                p[i] = zz[i] * qt[i];
+                p[i] = zz[zzOff + i] * qt[i];
             }
 
             // inverse DCT on rows
@@ -954,7 +1162,7 @@ public class JPEGDecoder {
                 if (p[1*8 + col] == 0 && p[2*8 + col] == 0 && p[3*8 + col] == 0 &&
                         p[4*8 + col] == 0 && p[5*8 + col] == 0 && p[6*8 + col] == 0 &&
                         p[7*8 + col] == 0) {
-                    t = (dctSqrt2 * dataIn[i+0] + 8192) >> 14;
+                    t = (dctSqrt2 * p[0*8 + col] + 8192) >> 14;
                     p[0*8 + col] = t;
                     p[1*8 + col] = t;
                     p[2*8 + col] = t;
@@ -1016,18 +1224,21 @@ public class JPEGDecoder {
             }
 
             // convert to 8-bit integers
-            for (i = 0; i < 64; ++i) {
-                final int sample = 128 + ((p[i] + 8) >> 4);
-                dataOut[i] = (byte) ( sample < 0 ? 0 : sample > 0xFF ? 0xFF : sample );
+            for (int j = 0, o = dataOutOff; j < 64; j += 8, o += dataOutStride) {
+                for (i = 0; i < 8; ++i) {
+                    final int sample = 128 + ((p[j + i] + 8) >> 4);
+                    dataOut[o + i] = (byte) ( sample < 0 ? 0 : sample > 0xFF ? 0xFF : sample );
+                }
             }
         }
     }
 
     static interface DecoderFunction {
-        void decode(ComponentIn component, int[] zz) throws IOException;
+        void decode(ComponentIn component, int[] zz, int zzOff) throws IOException;
     }
 
     class Decoder {
+        private final Bitstream<InputStream> bstream;
         // private int precision;
         // private int samplesPerLine;
         // private int scanLines;
@@ -1039,6 +1250,10 @@ public class JPEGDecoder {
         private int eobrun;
         private int successiveACState, successiveACNextValue;
 
+        Decoder(final Bitstream<InputStream> bstream) {
+            this.bstream = bstream;
+        }
+
         private int decodeScan(final Frame frame, final ArrayList<ComponentIn> components, int resetInterval,
                 final int spectralStart, final int spectralEnd, final int successivePrev, final int successive) throws IOException {
             // this.precision = frame.precision;
@@ -1074,6 +1289,9 @@ public class JPEGDecoder {
             } else {
                 mcuExpected = mcusPerLine * frame.mcusPerColumn;
             }
+            if( null != executor && !progressive && 0 < resetInterval && resetInterval < mcuExpected ) {
+                return decodeRestartIntervals(frame, components, resetInterval, mcuExpected);
+            }
             if (0 == resetInterval) {
                 resetInterval = mcuExpected;
             }
@@ -1089,27 +1307,8 @@ public class JPEGDecoder {
                 eobrun = 0;
 
                 try {
-                    if (componentsLength == 1) {
-                        final ComponentIn component = components.get(0);
-                        for (int n = 0; n < resetInterval; n++) {
-                            decodeBlock(component, decodeFn, mcu);
-                            mcu++;
-                        }
-                    } else {
-                        for (int n = 0; n < resetInterval; n++) {
-                            for (int i = 0; i < componentsLength; i++) {
-                                final ComponentIn component = components.get(i);
-                                final int h = component.h;
-                                final int v = component.v;
-                                for (int j = 0; j < v; j++) {
-                                    for (int k = 0; k < h; k++) {
-                                        decodeMcu(component, decodeFn, mcu, j, k);
-                                    }
-                                }
-                            }
-                            mcu++;
-                        }
-                    }
+                    decodeMcus(components, decodeFn, mcu, resetInterval);
+                    mcu += resetInterval;
                 } catch (final MarkerException markerException) {
                     if(DEBUG) { System.err.println("JPEG.decodeScan: Marker exception: "+markerException.getMessage()); markerException.printStackTrace(); }
                     return markerException.getMarker();
@@ -1138,6 +1337,108 @@ public class JPEGDecoder {
             return marker;
         }
 
+        /** Decodes <code>mcuCount</code> MCUs starting with <code>mcuStart</code>. */
+        private void decodeMcus(final ArrayList<ComponentIn> components, final DecoderFunction decodeFn,
+                                final int mcuStart, final int mcuCount) throws IOException {
+            final int componentsLength = components.size();
+            final int mcuEnd = mcuStart + mcuCount;
+            if (componentsLength == 1) {
+                final ComponentIn component = components.get(0);
+                for (int mcu = mcuStart; mcu < mcuEnd; mcu++) {
+                    decodeBlock(component, decodeFn, mcu);
+                }
+            } else {
+                for (int mcu = mcuStart; mcu < mcuEnd; mcu++) {
+                    for (int i = 0; i < componentsLength; i++) {
+                        final ComponentIn component = components.get(i);
+                        final int h = component.h;
+                        final int v = component.v;
+                        for (int j = 0; j < v; j++) {
+                            for (int k = 0; k < h; k++) {
+                                decodeMcu(component, decodeFn, mcu, j, k);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Reads the entropy coded data of a baseline scan up to the next non RSTn marker,
+         * splits it at the RSTn markers and decodes the independent restart intervals in parallel
+         * using {@link JPEGDecoder#executor}.
+         * <p>
+         * Each restart interval is decoded by its own {@link Decoder} on a copy of the scan components,
+         * since the DC predictions are reset at every restart marker.
+         * </p>
+         * @return the marker terminating the scan
+         */
+        private int decodeRestartIntervals(final Frame frame, final ArrayList<ComponentIn> components,
+                                           final int resetInterval, final int mcuExpected) throws IOException {
+            final int intervalCount = ( mcuExpected + resetInterval - 1 ) / resetInterval;
+            final ArrayList<byte[]> intervals = new ArrayList<byte[]>(intervalCount);
+            final ByteArrayOutputStream interval = new ByteArrayOutputStream(4096);
+            int marker = M_EOI;
+            int b = readUInt8();
+            while ( Bitstream.EOS != b ) {
+                if ( 0xFF == b ) {
+                    int n = readUInt8();
+                    while ( 0xFF == n ) {
+                        n = readUInt8(); // fill bytes
+                    }
+                    if ( Bitstream.EOS == n ) {
+                        break;
+                    } else if ( 0 == n ) {
+                        // keep stuffed 0, dropped by readBit()
+                        interval.write(0xFF);
+                        interval.write(0);
+                    } else if ( 0xD0 <= n && n <= 0xD7 ) { // RSTx
+                        intervals.add(interval.toByteArray());
+                        interval.reset();
+                    } else {
+                        marker = 0xFF00 | n;
+                        break;
+                    }
+                } else {
+                    interval.write(b);
+                }
+                b = readUInt8();
+            }
+            intervals.add(interval.toByteArray());
+            if(DEBUG) {
+                System.err.println("JPEG.decodeRestartIntervals: intervals "+intervals.size()+"/"+intervalCount+", resetInterval "+resetInterval+
+                                   ", mcuExpected "+mcuExpected+", u16 "+toHexString(marker)+", "+frame);
+            }
+
+            final Runnable[] tasks = new Runnable[Math.min(intervals.size(), intervalCount)];
+            for (int i = 0; i < tasks.length; i++) {
+                final byte[] data = intervals.get(i);
+                final int mcuStart = i * resetInterval;
+                final int mcuCount = Math.min(resetInterval, mcuExpected - mcuStart);
+                tasks[i] = new Runnable() {
+                    @Override
+                    public void run() {
+                        final ArrayList<ComponentIn> intervalComponents = new ArrayList<ComponentIn>(components.size());
+                        for (int j = 0; j < components.size(); j++) {
+                            intervalComponents.add(new ComponentIn(components.get(j)));
+                        }
+                        final Decoder d = new Decoder(new Bitstream<InputStream>(new Bitstream.ByteInputStream(new ByteArrayInputStream(data)), false /* outputMode */));
+                        d.mcusPerLine = frame.mcusPerLine;
+                        d.progressive = false;
+                        try {
+                            d.decodeMcus(intervalComponents, d.decodeBaseline, mcuStart, mcuCount);
+                        } catch (final CodecException codecException) {
+                            // truncated or corrupt interval, keep blocks decoded so far
+                            if(DEBUG) { System.err.println("JPEG.decodeRestartIntervals: Codec exception @ mcu "+mcuStart+": "+codecException.getMessage()); }
+                        } catch (final IOException ioe) {
+                            throw new RuntimeException(ioe); // should not happen, reading from memory
+                        }
+                    } };
+            }
+            runTasks(tasks, executor);
+            return marker;
+        }
+
         private final int readBit() throws MarkerException, IOException {
             final int bit = bstream.readBit(true /* msbFirst */);
             if( Bitstream.EOS == bit || 7 != bstream.getBitCount() ) {
@@ -1198,10 +1499,10 @@ public class JPEGDecoder {
 
         class BaselineDecoder implements DecoderFunction {
             @Override
-            public void decode(final ComponentIn component, final int[] zz) throws IOException {
+            public void decode(final ComponentIn component, final int[] zz, final int zzOff) throws IOException {
                 final int t = decodeHuffman(component.huffmanTableDC);
                 final int diff = ( t == 0 ) ? 0 : receiveAndExtend(t);
-                zz[0] = ( component.pred += diff );
+                zz[zzOff] = ( component.pred += diff );
                 int k = 1;
                 while (k < 64) {
                     final int rs = decodeHuffman(component.huffmanTableAC);
@@ -1214,30 +1515,33 @@ public class JPEGDecoder {
                         continue;
                     }
                     k += r;
-                    final int z = dctZigZag[k];
-                    zz[z] = receiveAndExtend(s);
+                    final int z = component.coefIndex[dctZigZag[k]];
+                    final int coef = receiveAndExtend(s);
+                    if ( 0 <= z ) {
+                        zz[zzOff + z] = coef;
+                    }
                     k++;
                 }
             }
         }
         class DCFirstDecoder implements DecoderFunction {
             @Override
-            public void decode(final ComponentIn component, final int[] zz) throws IOException {
+            public void decode(final ComponentIn component, final int[] zz, final int zzOff) throws IOException {
                 final int t = decodeHuffman(component.huffmanTableDC);
                 final int diff = ( t == 0 ) ? 0 : (receiveAndExtend(t) << successive);
-                zz[0] = ( component.pred += diff );
+                zz[zzOff] = ( component.pred += diff );
             }
         }
         class DCSuccessiveDecoder implements DecoderFunction {
             @Override
-            public void decode(final ComponentIn component, final int[] zz) throws IOException {
-                zz[0] |= readBit() << successive;
+            public void decode(final ComponentIn component, final int[] zz, final int zzOff) throws IOException {
+                zz[zzOff] |= readBit() << successive;
             }
         }
 
         class ACFirstDecoder implements DecoderFunction {
             @Override
-            public void decode(final ComponentIn component, final int[] zz) throws IOException {
+            public void decode(final ComponentIn component, final int[] zz, final int zzOff) throws IOException {
                 if (eobrun > 0) {
                     eobrun--;
                     return;
@@ -1256,7 +1560,7 @@ public class JPEGDecoder {
                         continue;
                     }
                     k += r;
-                    final int z = dctZigZag[k];
+                    final int z = zzOff + dctZigZag[k];
                     zz[z] = receiveAndExtend(s) * (1 << successive);
                     k++;
                 }
@@ -1264,12 +1568,12 @@ public class JPEGDecoder {
         }
         class ACSuccessiveDecoder implements DecoderFunction {
             @Override
-            public void decode(final ComponentIn component, final int[] zz) throws IOException {
+            public void decode(final ComponentIn component, final int[] zz, final int zzOff) throws IOException {
                 int k = spectralStart;
                 final int e = spectralEnd;
                 int r = 0;
                 while (k <= e) {
-                    final int z = dctZigZag[k];
+                    final int z = zzOff + dctZigZag[k];
                     switch (successiveACState) {
                     case 0: // initial state
                         final int rs = decodeHuffman(component.huffmanTableAC);
@@ -1332,16 +1636,16 @@ public class JPEGDecoder {
             final int mcuCol = mcu % mcusPerLine;
             final int blockRow = mcuRow * component.v + row;
             final int blockCol = mcuCol * component.h + col;
-            decoder.decode(component, component.getBlock(blockRow, blockCol));
+            decoder.decode(component, component.blocks, component.getBlockOffset(blockRow, blockCol));
         }
         void decodeBlock(final ComponentIn component, final DecoderFunction decoder, final int mcu) throws IOException {
             final int blockRow = (mcu / component.blocksPerLine) | 0;
             final int blockCol = mcu % component.blocksPerLine;
-            decoder.decode(component, component.getBlock(blockRow, blockCol));
+            decoder.decode(component, component.blocks, component.getBlockOffset(blockRow, blockCol));
         }
     }
 
-    private final Decoder decoder = new Decoder();
+    private final Decoder decoder = new Decoder(bstream);
 
     /** wrong color space ..
     private final void storeYCbCr2BGR(final PixelStorage pixelStorage, int x, int y, int Y, final int Cb, final int Cr)
@@ -1362,11 +1666,21 @@ public class JPEGDecoder {
         pixelStorage.storeRGB(x, y, (byte)R, (byte)G, (byte)B);
     } */
 
+    /** Returns the source color space of the parsed image, i.e. {@link ColorSpace#YCbCr} if no Adobe header is present. */
+    public final ColorSpace getSourceColorSpace() {
+        return ( null != adobe ) ? adobe.colorSpace : ColorSpace.YCbCr;
+    }
+
+    /** Returns the number of components of the parsed image. */
+    public final int getComponentCount() {
+        return null != components ? components.length : 0;
+    }
+
     public synchronized void getPixel(final JPEGDecoder.ColorSink pixelStorage, final int width, final int height) {
         final int scaleX = this.width / width, scaleY = this.height / height;
 
         final int componentCount = this.components.length;
-        final ColorSpace sourceCS = ( null != adobe ) ? adobe.colorSpace : ColorSpace.YCbCr;
+        final ColorSpace sourceCS = getSourceColorSpace();
         final ColorSpace storageCS = pixelStorage.allocate(width, height, sourceCS, componentCount);
         if( ColorSpace.RGB != storageCS && ColorSpace.YCbCr != storageCS ) {
             throw new IllegalArgumentException("Unsupported storage color space: "+storageCS);
@@ -1376,10 +1690,11 @@ public class JPEGDecoder {
         case 1: {
             // Grayscale
             final ComponentOut component1 = this.components[0];
+            final byte[] component1Plane = component1.plane;
             for (int y = 0; y < height; y++) {
-                final byte[] component1Line = component1.getLine((int)(y * component1.scaleY * scaleY));
+                final int component1Line = component1.getLineOffset((int)(y * component1.scaleY * scaleY));
                 for (int x = 0; x < width; x++) {
-                    final byte Y = component1Line[(int)(x * component1.scaleX * scaleX)];
+                    final byte Y = component1Plane[component1Line + (int)(x * component1.scaleX * scaleX)];
                     if( ColorSpace.YCbCr == storageCS ) {
                         pixelStorage.storeYCbCr(x, y, Y, (byte)0, (byte)0);
                     } else {
@@ -1395,12 +1710,12 @@ public class JPEGDecoder {
             final ComponentOut component2 = this.components[1];
             for (int y = 0; y < height; y++) {
                 final int ys = y * scaleY;
-                final byte[] component1Line = component1.getLine((int)(ys * component1.scaleY));
-                final byte[] component2Line = component1.getLine((int)(ys * component2.scaleY));
+                final int component1Line = component1.getLineOffset((int)(ys * component1.scaleY));
+                final int component2Line = component1.getLineOffset((int)(ys * component2.scaleY));
                 for (int x = 0; x < width; x++) {
                     final int xs = x * scaleX;
-                    final byte Y1 = component1Line[(int)(xs * component1.scaleX)];
-                    final byte Y2 = component2Line[(int)(xs * component2.scaleX)];
+                    final byte Y1 = component1.plane[component1Line + (int)(xs * component1.scaleX)];
+                    final byte Y2 = component1.plane[component2Line + (int)(xs * component2.scaleX)];
                     pixelStorage.store2(x, y, Y1, Y2);
                 }
             }
@@ -1413,25 +1728,28 @@ public class JPEGDecoder {
             final ComponentOut component1 = this.components[0];
             final ComponentOut component2 = this.components[1];
             final ComponentOut component3 = this.components[2];
+            final byte[] component1Plane = component1.plane;
+            final byte[] component2Plane = component2.plane;
+            final byte[] component3Plane = component3.plane;
             for (int y = 0; y < height; y++) {
                 final int ys = y * scaleY;
-                final byte[] component1Line = component1.getLine((int)(ys * component1.scaleY));
-                final byte[] component2Line = component2.getLine((int)(ys * component2.scaleY));
-                final byte[] component3Line = component3.getLine((int)(ys * component3.scaleY));
+                final int component1Line = component1.getLineOffset((int)(ys * component1.scaleY));
+                final int component2Line = component2.getLineOffset((int)(ys * component2.scaleY));
+                final int component3Line = component3.getLineOffset((int)(ys * component3.scaleY));
                 if( ColorSpace.YCbCr == storageCS ) {
                     for (int x = 0; x < width; x++) {
                         final int xs = x * scaleX;
-                        final byte Y  = component1Line[(int)(xs * component1.scaleX)];
-                        final byte Cb = component2Line[(int)(xs * component2.scaleX)];
-                        final byte Cr = component3Line[(int)(xs * component3.scaleX)];
+                        final byte Y  = component1Plane[component1Line + (int)(xs * component1.scaleX)];
+                        final byte Cb = component2Plane[component2Line + (int)(xs * component2.scaleX)];
+                        final byte Cr = component3Plane[component3Line + (int)(xs * component3.scaleX)];
                         pixelStorage.storeYCbCr(x, y, Y, Cb, Cr);
                     }
                 } else {
                     for (int x = 0; x < width; x++) {
                         final int xs = x * scaleX;
-                        final int Y  = 0x000000FF & component1Line[(int)(xs * component1.scaleX)];
-                        final int Cb = 0x000000FF & component2Line[(int)(xs * component2.scaleX)];
-                        final int Cr = 0x000000FF & component3Line[(int)(xs * component3.scaleX)];
+                        final int Y  = 0x000000FF & component1Plane[component1Line + (int)(xs * component1.scaleX)];
+                        final int Cb = 0x000000FF & component2Plane[component2Line + (int)(xs * component2.scaleX)];
+                        final int Cr = 0x000000FF & component3Plane[component3Line + (int)(xs * component3.scaleX)];
                         // storeYCbCr2BGR(pixelStorage, x, y, Y, Cb, Cr);
                         final byte R = clampTo8bit(Y + 1.402f * (Cr - 128f));
                         final byte G = clampTo8bit(Y - 0.3441363f * (Cb - 128f) - 0.71413636f * (Cr - 128f));
@@ -1450,22 +1768,26 @@ public class JPEGDecoder {
             final ComponentOut component2 = this.components[1];
             final ComponentOut component3 = this.components[2];
             final ComponentOut component4 = this.components[3];
+            final byte[] component1Plane = component1.plane;
+            final byte[] component2Plane = component2.plane;
+            final byte[] component3Plane = component3.plane;
+            final byte[] component4Plane = component4.plane;
             for (int y = 0; y < height; y++) {
                 final int ys = y * scaleY;
-                final byte[] component1Line = component1.getLine((int)(ys * component1.scaleY));
-                final byte[] component2Line = component2.getLine((int)(ys * component2.scaleY));
-                final byte[] component3Line = component3.getLine((int)(ys * component3.scaleY));
-                final byte[] component4Line = component4.getLine((int)(ys * component4.scaleY));
+                final int component1Line = component1.getLineOffset((int)(ys * component1.scaleY));
+                final int component2Line = component2.getLineOffset((int)(ys * component2.scaleY));
+                final int component3Line = component3.getLineOffset((int)(ys * component3.scaleY));
+                final int component4Line = component4.getLineOffset((int)(ys * component4.scaleY));
                 if( ColorSpace.YCbCr == storageCS ) {
                     if (ColorSpace.YCCK != sourceCS) {
                         throw new CodecException("Unsupported storage color space "+storageCS+" with source color space "+sourceCS);
                     }
                     for (int x = 0; x < width; x++) {
                         final int xs = x * scaleX;
-                        final byte Y1 = component1Line[(int)(xs * component1.scaleX)];
-                        final byte C1 = component2Line[(int)(xs * component2.scaleX)];
-                        final byte C2 = component3Line[(int)(xs * component3.scaleX)];
-                        // final byte K  = component4Line[(int)(xs * component4.scaleX)];
+                        final byte Y1 = component1Plane[component1Line + (int)(xs * component1.scaleX)];
+                        final byte C1 = component2Plane[component2Line + (int)(xs * component2.scaleX)];
+                        final byte C2 = component3Plane[component3Line + (int)(xs * component3.scaleX)];
+                        // final byte K  = component4Plane[component4Line + (int)(xs * component4.scaleX)];
                         // FIXME: YCCK is not really YCbCr, since K (black) is missing!
                         pixelStorage.storeYCbCr(x, y, Y1, C1, C2);
                     }
@@ -1473,10 +1795,10 @@ public class JPEGDecoder {
                     if (ColorSpace.CMYK == sourceCS) {
                         for (int x = 0; x < width; x++) {
                             final int xs = x * scaleX;
-                            final int cC = 0x000000FF & component1Line[(int)(xs * component1.scaleX)];
-                            final int cM = 0x000000FF & component2Line[(int)(xs * component2.scaleX)];
-                            final int cY = 0x000000FF & component3Line[(int)(xs * component3.scaleX)];
-                            final int cK = 0x000000FF & component4Line[(int)(xs * component4.scaleX)];
+                            final int cC = 0x000000FF & component1Plane[component1Line + (int)(xs * component1.scaleX)];
+                            final int cM = 0x000000FF & component2Plane[component2Line + (int)(xs * component2.scaleX)];
+                            final int cY = 0x000000FF & component3Plane[component3Line + (int)(xs * component3.scaleX)];
+                            final int cK = 0x000000FF & component4Plane[component4Line + (int)(xs * component4.scaleX)];
                             // CMYK -> RGB
                             final byte R = clampTo8bit( ( cC * cK ) / 255f );
                             final byte G = clampTo8bit( ( cM * cK ) / 255f );
@@ -1486,10 +1808,10 @@ public class JPEGDecoder {
                     } else { // ColorModel.YCCK == sourceCM
                         for (int x = 0; x < width; x++) {
                             final int xs = x * scaleX;
-                            final int Y  = 0x000000FF & component1Line[(int)(xs * component1.scaleX)];
-                            final int Cb = 0x000000FF & component2Line[(int)(xs * component2.scaleX)];
-                            final int Cr = 0x000000FF & component3Line[(int)(xs * component3.scaleX)];
-                            final int cK = 0x000000FF & component4Line[(int)(xs * component4.scaleX)];
+                            final int Y  = 0x000000FF & component1Plane[component1Line + (int)(xs * component1.scaleX)];
+                            final int Cb = 0x000000FF & component2Plane[component2Line + (int)(xs * component2.scaleX)];
+                            final int Cr = 0x000000FF & component3Plane[component3Line + (int)(xs * component3.scaleX)];
+                            final int cK = 0x000000FF & component4Plane[component4Line + (int)(xs * component4.scaleX)];
                             // YCCK -> 255f - [ R'G'B' ] -> CMYK
                             final float cC = 255f - ( Y + 1.402f * (Cr - 128f) );
                             final float cM = 255f - ( Y - 0.3441363f * (Cb - 128f) - 0.71413636f * (Cr - 128f) );
@@ -1510,6 +1832,284 @@ public class JPEGDecoder {
         }
     }
 
+    /** YCbCr -> RGB chroma terms, <code>f * (C - 128f)</code>, identical to the ones computed in {@link #getPixel(ColorSink, int, int)}. */
+    private static final float[] crR = new float[256];
+    private static final float[] cbB = new float[256];
+    private static final float[] cbG = new float[256];
+    private static final float[] crG = new float[256];
+    static {
+        for(int i=0; i<256; i++) {
+            crR[i] = 1.402f * (i - 128f);
+            cbB[i] = 1.772f * (i - 128f);
+            cbG[i] = 0.3441363f * (i - 128f);
+            crG[i] = 0.71413636f * (i - 128f);
+        }
+    }
+
+    /** Returns the sample index of each destination column <code>x</code> within the given component's line. */
+    private static int[] getColumnIndices(final ComponentOut component, final int width, final int scaleX) {
+        final int[] idx = new int[width];
+        for (int x = 0; x < width; x++) {
+            idx[x] = (int)(x * scaleX * component.scaleX);
+        }
+        return idx;
+    }
+
+    /**
+     * Bulk variant of {@link #getPixel(ColorSink, int, int)}, writing all pixels
+     * row by row into the given <code>dest</code> buffer, w/o any per pixel callback.
+     * <p>
+     * Same as {@link #getPixels(ByteBuffer, int, int, ColorSpace, boolean, int, int, Executor)}
+     * using the calling thread only.
+     * </p>
+     */
+    public void getPixels(final ByteBuffer dest, final int destStride, final int bytesPerPixel,
+                          final ColorSpace storageCS, final boolean bottomUp,
+                          final int width, final int height)
+            throws IllegalArgumentException, CodecException
+    {
+        getPixels(dest, destStride, bytesPerPixel, storageCS, bottomUp, width, height, null);
+    }
+
+    /**
+     * Bulk variant of {@link #getPixel(ColorSink, int, int)}, writing all pixels
+     * row by row into the given <code>dest</code> buffer, w/o any per pixel callback.
+     * <p>
+     * Pixel values are identical to the ones passed to the {@link ColorSink}.
+     * </p>
+     * <p>
+     * Row <code>y</code> is written at <code>dest.position() + y' * destStride</code>,
+     * with <code>y' = bottomUp ? height - y - 1 : y</code>.
+     * The position of <code>dest</code> is not modified, hence a direct <code>dest</code>
+     * may be used as-is for a texture upload.
+     * </p>
+     * <p>
+     * If an {@link Executor} is given, large images are converted in horizontal bands in parallel,
+     * where the calling thread takes part and returns after all bands are completed.
+     * </p>
+     *
+     * @param dest the destination buffer, at least <code>(height-1)*destStride + width*bytesPerPixel</code> bytes remaining
+     * @param destStride destination line stride in bytes, at least <code>width*bytesPerPixel</code>
+     * @param bytesPerPixel either 3 for <code>RGB</code> or <code>YCbCr</code>, or 4 for <code>RGBA</code> or <code>YCbCrA</code> where alpha is <code>0xff</code>
+     * @param storageCS storage color space, either {@link ColorSpace#RGB} or {@link ColorSpace#YCbCr}
+     * @param bottomUp if true, the first row is written last, i.e. OpenGL orientation
+     * @param width destination width, the image is downsampled by <code>getWidth() / width</code>
+     * @param height destination height, the image is downsampled by <code>getHeight() / height</code>
+     * @param executor the {@link Executor} to convert bands in parallel, may be <code>null</code>
+     * @throws IllegalArgumentException if the parameters or <code>dest</code> are invalid
+     * @throws CodecException if the source color space is not supported
+     */
+    public synchronized void getPixels(final ByteBuffer dest, final int destStride, final int bytesPerPixel,
+                                       final ColorSpace storageCS, final boolean bottomUp,
+                                       final int width, final int height, final Executor executor)
+            throws IllegalArgumentException, CodecException
+    {
+        if( ColorSpace.RGB != storageCS && ColorSpace.YCbCr != storageCS ) {
+            throw new IllegalArgumentException("Unsupported storage color space: "+storageCS);
+        }
+        if( 3 != bytesPerPixel && 4 != bytesPerPixel ) {
+            throw new IllegalArgumentException("Unsupported bytesPerPixel "+bytesPerPixel);
+        }
+        final int rowBytes = width * bytesPerPixel;
+        if( destStride < rowBytes ) {
+            throw new IllegalArgumentException("Invalid stride "+destStride+", must be >= "+rowBytes);
+        }
+        if( 0 < height && dest.remaining() < ( height - 1 ) * destStride + rowBytes ) {
+            throw new IllegalArgumentException("Insufficient destination bytes "+dest.remaining()+" for "+width+"x"+height+", stride "+destStride);
+        }
+        final int componentCount = this.components.length;
+        final ColorSpace sourceCS = getSourceColorSpace();
+
+        switch (componentCount) {
+            case 1:
+                break;
+            case 3:
+                if (ColorSpace.YCbCr != sourceCS) {
+                    throw new CodecException("Unsupported source color space w 3 components: "+sourceCS);
+                }
+                break;
+            case 4:
+                if (ColorSpace.YCCK != sourceCS && ColorSpace.CMYK != sourceCS) {
+                    throw new CodecException("Unsupported source color space w 4 components: "+sourceCS);
+                }
+                if( ColorSpace.RGB != storageCS && ColorSpace.YCCK != sourceCS ) {
+                    throw new CodecException("Unsupported storage color space "+storageCS+" with source color space "+sourceCS);
+                }
+                break;
+            default:
+                throw new CodecException("Unsupported color model: Space "+sourceCS+", components "+componentCount);
+        }
+
+        final PixelRows pixelRows = new PixelRows(dest.slice(), destStride, bytesPerPixel, ColorSpace.RGB == storageCS, bottomUp, width, height);
+        final int bandHeight = Math.max(1, MIN_BAND_SAMPLES / Math.max(1, width));
+        final int bandCount = null != executor ? ( height + bandHeight - 1 ) / bandHeight : 1;
+        if( 1 < bandCount ) {
+            final Runnable[] tasks = new Runnable[bandCount];
+            for(int i=0; i<bandCount; i++) {
+                final int y0 = i * bandHeight;
+                final int y1 = Math.min(y0 + bandHeight, height);
+                tasks[i] = new Runnable() {
+                    @Override
+                    public void run() {
+                        pixelRows.convert(y0, y1);
+                    } };
+            }
+            runTasks(tasks, executor);
+        } else {
+            pixelRows.convert(0, height);
+        }
+    }
+
+    /** Converts rows of the decoded components into a destination buffer, see {@link JPEGDecoder#getPixels(ByteBuffer, int, int, ColorSpace, boolean, int, int, Executor)}. */
+    private class PixelRows {
+        final ByteBuffer dest;
+        final int destStride, bytesPerPixel;
+        final boolean toRGB, bottomUp;
+        final int width, height, scaleY;
+        final ColorSpace sourceCS;
+        final int componentCount;
+        final ComponentOut c1, c2, c3, c4;
+        final int[] x1, x2, x3, x4;
+        final byte[] p1, p2, p3, p4;
+
+        PixelRows(final ByteBuffer dest, final int destStride, final int bytesPerPixel, final boolean toRGB, final boolean bottomUp,
+                  final int width, final int height) {
+            this.dest = dest;
+            this.destStride = destStride;
+            this.bytesPerPixel = bytesPerPixel;
+            this.toRGB = toRGB;
+            this.bottomUp = bottomUp;
+            this.width = width;
+            this.height = height;
+            final int scaleX = JPEGDecoder.this.width / width;
+            this.scaleY = JPEGDecoder.this.height / height;
+            this.sourceCS = getSourceColorSpace();
+            this.componentCount = components.length;
+            c1 = components[0];
+            c2 = 1 < componentCount ? components[1] : null;
+            c3 = 2 < componentCount ? components[2] : null;
+            c4 = 3 < componentCount ? components[3] : null;
+            x1 = getColumnIndices(c1, width, scaleX);
+            x2 = null != c2 ? getColumnIndices(c2, width, scaleX) : null;
+            x3 = null != c3 ? getColumnIndices(c3, width, scaleX) : null;
+            x4 = null != c4 ? getColumnIndices(c4, width, scaleX) : null;
+            p1 = c1.plane;
+            p2 = null != c2 ? c2.plane : null;
+            p3 = null != c3 ? c3.plane : null;
+            p4 = null != c4 ? c4.plane : null;
+        }
+
+        /** Converts rows [y0..y1), may be called concurrently for disjoint rows. */
+        void convert(final int y0, final int y1) {
+            final int rowBytes = width * bytesPerPixel;
+            final byte[] row = new byte[rowBytes];
+            if( 4 == bytesPerPixel ) {
+                for (int i = 3; i < rowBytes; i += 4) {
+                    row[i] = (byte)0xff;
+                }
+            }
+            final ByteBuffer dst = dest.duplicate();
+
+            for (int y = y0; y < y1; y++) {
+                final int ys = y * scaleY;
+                final int l1 = c1.getLineOffset((int)(ys * c1.scaleY));
+                switch (componentCount) {
+                    case 1: {
+                        // Grayscale
+                        if( toRGB ) {
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                final byte Y = p1[l1 + x1[x]];
+                                row[i  ] = Y;
+                                row[i+1] = Y;
+                                row[i+2] = Y;
+                            }
+                        } else {
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                row[i] = p1[l1 + x1[x]]; // Cb, Cr remain 0
+                            }
+                        }
+                    }
+                    break;
+                    case 3: {
+                        final int l2 = c2.getLineOffset((int)(ys * c2.scaleY));
+                        final int l3 = c3.getLineOffset((int)(ys * c3.scaleY));
+                        if( toRGB ) {
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                final int Y  = 0x000000FF & p1[l1 + x1[x]];
+                                final int Cb = 0x000000FF & p2[l2 + x2[x]];
+                                final int Cr = 0x000000FF & p3[l3 + x3[x]];
+                                row[i  ] = clampTo8bit(Y + crR[Cr]);
+                                row[i+1] = clampTo8bit(Y - cbG[Cb] - crG[Cr]);
+                                row[i+2] = clampTo8bit(Y + cbB[Cb]);
+                            }
+                        } else {
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                row[i  ] = p1[l1 + x1[x]];
+                                row[i+1] = p2[l2 + x2[x]];
+                                row[i+2] = p3[l3 + x3[x]];
+                            }
+                        }
+                    }
+                    break;
+                    case 4: {
+                        final int l2 = c2.getLineOffset((int)(ys * c2.scaleY));
+                        final int l3 = c3.getLineOffset((int)(ys * c3.scaleY));
+                        final int l4 = c4.getLineOffset((int)(ys * c4.scaleY));
+                        if( !toRGB ) {
+                            // FIXME: YCCK is not really YCbCr, since K (black) is missing!
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                row[i  ] = p1[l1 + x1[x]];
+                                row[i+1] = p2[l2 + x2[x]];
+                                row[i+2] = p3[l3 + x3[x]];
+                            }
+                        } else if (ColorSpace.CMYK == sourceCS) {
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                final int cC = 0x000000FF & p1[l1 + x1[x]];
+                                final int cM = 0x000000FF & p2[l2 + x2[x]];
+                                final int cY = 0x000000FF & p3[l3 + x3[x]];
+                                final int cK = 0x000000FF & p4[l4 + x4[x]];
+                                row[i  ] = clampTo8bit( ( cC * cK ) / 255f );
+                                row[i+1] = clampTo8bit( ( cM * cK ) / 255f );
+                                row[i+2] = clampTo8bit( ( cY * cK ) / 255f );
+                            }
+                        } else { // ColorModel.YCCK == sourceCM
+                            for (int x = 0, i = 0; x < width; x++, i += bytesPerPixel) {
+                                final int Y  = 0x000000FF & p1[l1 + x1[x]];
+                                final int Cb = 0x000000FF & p2[l2 + x2[x]];
+                                final int Cr = 0x000000FF & p3[l3 + x3[x]];
+                                final int cK = 0x000000FF & p4[l4 + x4[x]];
+                                final float cC = 255f - ( Y + crR[Cr] );
+                                final float cM = 255f - ( Y - cbG[Cb] - crG[Cr] );
+                                final float cY = 255f - ( Y + cbB[Cb] );
+                                row[i  ] = clampTo8bit( ( cC * cK ) / 255f );
+                                row[i+1] = clampTo8bit( ( cM * cK ) / 255f );
+                                row[i+2] = clampTo8bit( ( cY * cK ) / 255f );
+                            }
+                        }
+                    }
+                    break;
+                }
+                dst.position( ( bottomUp ? height - y - 1 : y ) * destStride );
+                dst.put(row, 0, rowBytes);
+            }
+        }
+    }
+
+    /**
+     * Runs all given tasks, either on the calling thread only if <code>executor</code> is <code>null</code>,
+     * or in parallel in contiguous groups using {@link ParallelBands}, where the calling thread runs the first group.
+     * Returns after all tasks have been completed, a task's failure is re-thrown wrapped in a {@link RuntimeException}.
+     */
+    private static void runTasks(final Runnable[] tasks, final Executor executor) {
+        parallelTasks.run(new ParallelBands.RowBand() {
+            @Override
+            public void run(final int task0, final int task1) {
+                for(int i=task0; i<task1; i++) {
+                    tasks[i].run();
+                }
+            } }, executor, 1, tasks.length, "Parallel decoding failed");
+    }
+
     private static byte clampTo8bit(final float a) {
         return (byte) ( a < 0f ? 0 : a > 255f ? 255 : a );
     }
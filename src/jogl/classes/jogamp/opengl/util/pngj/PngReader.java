@@ -4,6 +4,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.CRC32;
 import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
@@ -37,6 +44,8 @@ import jogamp.opengl.util.pngj.chunks.PngMetadata;
  * {@link #readRowsInt()}, {@link #readRowsByte()} ,etc. In general this
  * consumes more memory, but for interlaced images this is equally efficient,
  * and more so if reading a small subset of rows.<br>
+ * 4c. Or all rows are streamed to a listener, optionally inflating the IDAT
+ * stream concurrently: {@link #readRowsByte(RowByteListener, Executor)}<br>
  * 5. Read of the last row auyomatically loads the trailing chunks, and ends the
  * reader.<br>
  * 6. end() forcibly finishes/aborts the reading and closes the stream
@@ -750,6 +759,211 @@ public class PngReader {
 		return readRowsByte(0, imgInfo.rows, 1);
 	}
 
+	/**
+	 * Receives the rows read by {@link PngReader#readRowsByte(RowByteListener, Executor)}.
+	 */
+	public interface RowByteListener {
+		/**
+		 * @param row
+		 *            The scanline, same format as {@link PngReader#readRowByte(byte[], int)}. The
+		 *            buffer is reused for the next row, it is only valid during this call.
+		 * @param nrow
+		 *            Row number (0 is top)
+		 */
+		void rowRead(byte[] row, int nrow);
+	}
+
+	/**
+	 * Number of inflated rows the IDAT task of
+	 * {@link #readRowsByte(RowByteListener, Executor)} may read ahead.
+	 */
+	public static final int PIPELINE_ROWS = 8;
+
+	/**
+	 * Reads all rows in order and passes each of them to <tt>listener</tt>, in
+	 * the calling thread. This starts and ends the reading, and cannot be
+	 * combined with other reading methods.
+	 * <p>
+	 * If <tt>executor</tt> is not null and the image is not interlaced, the
+	 * IDAT stream is inflated by a task submitted to <tt>executor</tt>, reading
+	 * up to {@link #PIPELINE_ROWS} rows ahead, while the calling thread
+	 * unfilters the rows and runs the listener. Otherwise, or if the executor
+	 * rejects the task or has not started it when the first row is needed,
+	 * this is the same as calling {@link #readRowByte(byte[], int)} for each
+	 * row.
+	 *
+	 * @param listener
+	 *            Receives every row
+	 * @param executor
+	 *            Executor for the IDAT inflater task, or null
+	 */
+	public void readRowsByte(final RowByteListener listener, final Executor executor) {
+		if (rowNum != -1)
+			throw new PngjInputException("rows already read: " + rowNum);
+		final byte[] buffer = new byte[unpackedMode ? imgInfo.samplesPerRow : imgInfo.samplesPerRowPacked];
+		RowInflater rowInflater = null;
+		if (executor != null && !interlaced) {
+			if (firstChunksNotYetRead())
+				readFirstChunks();
+			allocateBuffers();
+			rowInflater = new RowInflater(PIPELINE_ROWS);
+			try {
+				executor.execute(rowInflater);
+			} catch (final RejectedExecutionException e) {
+				rowInflater = null;
+			}
+		}
+		int j = 0;
+		if (rowInflater != null) {
+			final int bytesRead = imgInfo.bytesPerRow; // NOT including the filter byte
+			final byte[] rowbfilter0 = rowbfilter;
+			try {
+				for (; j < imgInfo.rows; j++) {
+					final byte[] filtered = rowInflater.take();
+					if (filtered == null)
+						break; // task not started, read inline
+					rowNum = j;
+					// swap buffers
+					final byte[] tmp = rowb;
+					rowb = rowbprev;
+					rowbprev = tmp;
+					rowbfilter = filtered;
+					rowb[0] = 0;
+					unfilterRow(bytesRead);
+					rowb[0] = rowbfilter[0];
+					rowInflater.recycle(filtered);
+					decodeLastReadRowToByte(buffer, bytesRead);
+					listener.rowRead(buffer, j);
+				}
+			} finally {
+				rowbfilter = rowbfilter0;
+				rowInflater.finish(); // stream is ours again
+			}
+			if (j == imgInfo.rows) {
+				offset = iIdatCstream.getOffset();
+				readLastAndClose();
+				return;
+			}
+		}
+		for (; j < imgInfo.rows; j++) {
+			readRowByte(buffer, j);
+			listener.rowRead(buffer, j);
+		}
+	}
+
+	/**
+	 * Inflates the IDAT stream row by row into a ring of
+	 * {@link #buffersLen} sized buffers, see
+	 * {@link PngReader#readRowsByte(RowByteListener, Executor)}.
+	 * <p>
+	 * Either the executor runs the task or the caller claims it via
+	 * {@link #take()} or {@link #finish()}, whichever comes first, so the
+	 * caller never waits for a task the executor has queued but not started.
+	 */
+	private final class RowInflater implements Runnable {
+		private final BlockingQueue<byte[]> free;
+		private final BlockingQueue<byte[]> filled;
+		private final byte[] failed = new byte[0]; // marker
+		private final CountDownLatch done = new CountDownLatch(1);
+		private final AtomicBoolean started = new AtomicBoolean(false);
+		private boolean claimed = false; // by the caller, caller thread only
+		private volatile boolean aborted = false;
+		private volatile Throwable failure = null;
+
+		RowInflater(final int count) {
+			free = new ArrayBlockingQueue<byte[]>(count);
+			filled = new ArrayBlockingQueue<byte[]>(count + 1); // room for the marker
+			for (int i = 0; i < count; i++)
+				free.add(new byte[buffersLen]);
+		}
+
+		@Override
+		public void run() {
+			if (!started.compareAndSet(false, true))
+				return; // claimed by the caller
+			try {
+				final int len = imgInfo.bytesPerRow + 1; // including the filter byte
+				for (int j = 0; j < imgInfo.rows; j++) {
+					byte[] b;
+					while ((b = free.poll(10, TimeUnit.MILLISECONDS)) == null) {
+						if (aborted)
+							return;
+					}
+					PngHelperInternal.readBytes(idatIstream, b, 0, len);
+					final long off = iIdatCstream.getOffset();
+					if (off < 0)
+						throw new PngjExceptionInternal("bad offset ??" + off);
+					if (maxTotalBytesRead > 0 && off >= maxTotalBytesRead)
+						throw new PngjInputException("Reading IDAT: Maximum total bytes to read exceeeded: "
+								+ maxTotalBytesRead + " offset:" + off);
+					filled.add(b);
+				}
+			} catch (final Throwable t) {
+				failure = t;
+				filled.add(failed);
+			} finally {
+				done.countDown();
+			}
+		}
+
+		/**
+		 * Returns the next inflated row, or null if the task has not been
+		 * started by the executor, which is claimed by the caller then.
+		 */
+		byte[] take() {
+			boolean interrupted = false;
+			try {
+				while (true) {
+					try {
+						final byte[] b = filled.poll(10, TimeUnit.MILLISECONDS);
+						if (b == null) {
+							if (started.compareAndSet(false, true)) {
+								claimed = true;
+								return null;
+							}
+							continue; // started, wait for it
+						}
+						if (b == failed) {
+							if (failure instanceof RuntimeException)
+								throw (RuntimeException) failure;
+							if (failure instanceof Error)
+								throw (Error) failure;
+							throw new PngjInputException("error reading IDAT", failure);
+						}
+						return b;
+					} catch (final InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			} finally {
+				if (interrupted)
+					Thread.currentThread().interrupt();
+			}
+		}
+
+		void recycle(final byte[] b) {
+			free.add(b);
+		}
+
+		/** Stops reading ahead and waits until the task has ended, if started */
+		void finish() {
+			aborted = true;
+			if (claimed || started.compareAndSet(false, true))
+				return; // never started
+			boolean interrupted = false;
+			while (true) {
+				try {
+					done.await();
+					break;
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
 	/*
 	 * For the interlaced case, nrow indicates the subsampled image - the pass must be set already.
 	 *
@@ -1,9 +1,17 @@
 package jogamp.opengl.util.pngj;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Adler32;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
@@ -78,6 +86,33 @@ public class PngWriter {
 	// this only influences the 1-2-4 bitdepth format - and if we pass a ImageLine to writeRow, this is ignored
 	private boolean unpackedMode = false;
 
+	/**
+	 * Parallel encoding, see {@link #setParallelEncoding(Executor, int)}
+	 */
+	private Executor executor = null;
+	private int bandRows = 0; // 0=use default (about BAND_SIZE_DEFAULT bytes)
+	private Band band = null; // band being filled
+	private byte[] bandPrevRow = null; // last raw row of the previous band
+	private final ArrayDeque<Band> bandsPending = new ArrayDeque<Band>(); // in row order
+	private int maxBandsPending;
+	private long adler32 = 1; // of all written bands
+
+	private static final int BAND_SIZE_DEFAULT = 1024 * 1024; // 1M raw bytes
+	private static final int FULL_FLUSH = 3; // Deflater.FULL_FLUSH
+	/**
+	 * Deflater.deflate(byte[], int, int, int) w/ flush mode, available since Java 7
+	 */
+	private static final Method deflateFlush;
+	static {
+		Method m;
+		try {
+			m = Deflater.class.getMethod("deflate", byte[].class, int.class, int.class, int.class);
+		} catch (final Exception e) {
+			m = null;
+		}
+		deflateFlush = m;
+	}
+
 	public PngWriter(final OutputStream outputStream, final ImageInfo imgInfo) {
 		this(outputStream, imgInfo, "[NO FILENAME AVAILABLE]");
 	}
@@ -111,14 +146,36 @@ public class PngWriter {
 
 	private void init() {
 		datStream = new PngIDatChunkOutputStream(this.os, idatMaxSize);
-		final Deflater def = new Deflater(compLevel);
-		def.setStrategy(deflaterStrategy);
-		datStreamDeflated = new DeflaterOutputStream(datStream, def);
+		if (executor == null || deflateFlush == null) {
+			executor = null;
+			final Deflater def = new Deflater(compLevel);
+			def.setStrategy(deflaterStrategy);
+			datStreamDeflated = new DeflaterOutputStream(datStream, def);
+		} else {
+			if (bandRows <= 0)
+				bandRows = Math.max(1, BAND_SIZE_DEFAULT / (imgInfo.bytesPerRow + 1));
+			maxBandsPending = Math.max(2, 2 * Runtime.getRuntime().availableProcessors());
+			bandPrevRow = new byte[imgInfo.bytesPerRow + 1];
+		}
 		writeSignatureAndIHDR();
 		writeFirstChunks();
+		if (executor != null)
+			writeZlibHeader();
 	}
 
-	private void reportResultsForFilter(final int rown, final FilterType type, final boolean tentative) {
+	/**
+	 * zlib stream header of the parallel encoded IDAT stream, see RFC 1950
+	 */
+	private void writeZlibHeader() {
+		final int flevel = compLevel < 2 ? 0 : (compLevel < 6 ? 1 : (compLevel == 6 ? 2 : 3));
+		int header = (0x78 << 8) | (flevel << 6); // deflate w/ 32K window
+		header += 31 - (header % 31);
+		datStream.write(header >>> 8);
+		datStream.write(header & 0xff);
+	}
+
+	private static void reportResultsForFilter(final ImageInfo imgInfo, final FilterWriteStrategy filterStrat,
+			final int[] histox, final byte[] rowbfilter, final int rown, final FilterType type, final boolean tentative) {
 		Arrays.fill(histox, 0);
 		int s = 0, v;
 		for (int i = 1; i <= imgInfo.bytesPerRow; i++) {
@@ -254,42 +311,47 @@ public class PngWriter {
 	}
 
 	private void filterRow(final int rown) {
+		filterRow(imgInfo, filterStrat, histox, rown, rowb, rowbprev, rowbfilter);
+	}
+
+	private static void filterRow(final ImageInfo imgInfo, final FilterWriteStrategy filterStrat, final int[] histox,
+			final int rown, final byte[] rowb, final byte[] rowbprev, final byte[] rowbfilter) {
 		// warning: filters operation rely on: "previos row" (rowbprev) is
 		// initialized to 0 the first time
 		if (filterStrat.shouldTestAll(rown)) {
-			filterRowNone();
-			reportResultsForFilter(rown, FilterType.FILTER_NONE, true);
-			filterRowSub();
-			reportResultsForFilter(rown, FilterType.FILTER_SUB, true);
-			filterRowUp();
-			reportResultsForFilter(rown, FilterType.FILTER_UP, true);
-			filterRowAverage();
-			reportResultsForFilter(rown, FilterType.FILTER_AVERAGE, true);
-			filterRowPaeth();
-			reportResultsForFilter(rown, FilterType.FILTER_PAETH, true);
+			filterRowNone(imgInfo, rowb, rowbfilter);
+			reportResultsForFilter(imgInfo, filterStrat, histox, rowbfilter, rown, FilterType.FILTER_NONE, true);
+			filterRowSub(imgInfo, rowb, rowbfilter);
+			reportResultsForFilter(imgInfo, filterStrat, histox, rowbfilter, rown, FilterType.FILTER_SUB, true);
+			filterRowUp(imgInfo, rowb, rowbprev, rowbfilter);
+			reportResultsForFilter(imgInfo, filterStrat, histox, rowbfilter, rown, FilterType.FILTER_UP, true);
+			filterRowAverage(imgInfo, rowb, rowbprev, rowbfilter);
+			reportResultsForFilter(imgInfo, filterStrat, histox, rowbfilter, rown, FilterType.FILTER_AVERAGE, true);
+			filterRowPaeth(imgInfo, rowb, rowbprev, rowbfilter);
+			reportResultsForFilter(imgInfo, filterStrat, histox, rowbfilter, rown, FilterType.FILTER_PAETH, true);
 		}
 		final FilterType filterType = filterStrat.gimmeFilterType(rown, true);
 		rowbfilter[0] = (byte) filterType.val;
 		switch (filterType) {
 		case FILTER_NONE:
-			filterRowNone();
+			filterRowNone(imgInfo, rowb, rowbfilter);
 			break;
 		case FILTER_SUB:
-			filterRowSub();
+			filterRowSub(imgInfo, rowb, rowbfilter);
 			break;
 		case FILTER_UP:
-			filterRowUp();
+			filterRowUp(imgInfo, rowb, rowbprev, rowbfilter);
 			break;
 		case FILTER_AVERAGE:
-			filterRowAverage();
+			filterRowAverage(imgInfo, rowb, rowbprev, rowbfilter);
 			break;
 		case FILTER_PAETH:
-			filterRowPaeth();
+			filterRowPaeth(imgInfo, rowb, rowbprev, rowbfilter);
 			break;
 		default:
 			throw new PngjUnsupportedException("Filter type " + filterType + " not implemented");
 		}
-		reportResultsForFilter(rown, filterType, false);
+		reportResultsForFilter(imgInfo, filterStrat, histox, rowbfilter, rown, filterType, false);
 	}
 
 	private void prepareEncodeRow(final int rown) {
@@ -305,6 +367,10 @@ public class PngWriter {
 	}
 
 	private void filterAndSend(final int rown) {
+		if (executor != null) {
+			addRowToBand();
+			return;
+		}
 		filterRow(rown);
 		try {
 			datStreamDeflated.write(rowbfilter, 0, imgInfo.bytesPerRow + 1);
@@ -313,7 +379,198 @@ public class PngWriter {
 		}
 	}
 
+	/**
+	 * Parallel encoding: Adds the current row to the band being filled, and
+	 * submits the band to the executor once it is complete.
+	 */
+	private void addRowToBand() {
+		if (band == null)
+			band = new Band(rowNum, Math.min(bandRows, imgInfo.rows - rowNum), bandPrevRow);
+		if (!band.addRow(rowb))
+			return;
+		bandPrevRow = Arrays.copyOf(rowb, rowb.length);
+		final Band b = band;
+		band = null;
+		bandsPending.add(b);
+		try {
+			executor.execute(b);
+		} catch (final RejectedExecutionException e) {
+			b.run();
+		}
+		writeBands(maxBandsPending);
+	}
+
+	/**
+	 * Parallel encoding: Writes the finished bands in row order, waiting for
+	 * the oldest ones while more than <tt>maxPending</tt> bands are pending.
+	 */
+	private void writeBands(final int maxPending) {
+		while (!bandsPending.isEmpty()) {
+			final Band b = bandsPending.peek();
+			if (bandsPending.size() > maxPending)
+				b.await();
+			else if (!b.isDone())
+				break;
+			bandsPending.poll();
+			b.writeTo(datStream);
+			adler32 = adler32Combine(adler32, b.adler32, b.filteredLen);
+		}
+	}
+
+	/**
+	 * Adler-32 of the concatenation of two sequences, see zlib's
+	 * adler32_combine()
+	 */
+	private static long adler32Combine(final long adler1, final long adler2, final long len2) {
+		final long base = 65521;
+		final long rem = len2 % base;
+		long sum1 = adler1 & 0xffff;
+		long sum2 = (rem * sum1) % base;
+		sum1 += (adler2 & 0xffff) + base - 1;
+		sum2 += ((adler1 >>> 16) & 0xffff) + ((adler2 >>> 16) & 0xffff) + base - rem;
+		if (sum1 >= base)
+			sum1 -= base;
+		if (sum1 >= base)
+			sum1 -= base;
+		if (sum2 >= (base << 1))
+			sum2 -= (base << 1);
+		if (sum2 >= base)
+			sum2 -= base;
+		return sum1 | (sum2 << 16);
+	}
+
+	/**
+	 * Parallel encoding: A band of consecutive rows, filtered and deflated
+	 * independently of the other bands. The deflated data of all but the last
+	 * band ends with a full flush, so the concatenation of all bands is one
+	 * valid deflate stream.
+	 */
+	private final class Band implements Runnable {
+		final int firstRow;
+		final int nrows;
+		final boolean last;
+		private final byte[] prevRow; // raw, same layout as rowb
+		private byte[] raw; // raw rows w/o filter byte
+		private int filled = 0;
+		private final CountDownLatch done = new CountDownLatch(1);
+		// results
+		long adler32;
+		int filteredLen;
+		private ByteArrayOutputStream deflated;
+		private Throwable failure = null;
+
+		Band(final int firstRow, final int nrows, final byte[] prevRow) {
+			this.firstRow = firstRow;
+			this.nrows = nrows;
+			this.last = firstRow + nrows == imgInfo.rows;
+			this.prevRow = prevRow;
+			this.raw = new byte[nrows * imgInfo.bytesPerRow];
+		}
+
+		/** Returns true if the band is complete */
+		boolean addRow(final byte[] row) {
+			System.arraycopy(row, 1, raw, filled * imgInfo.bytesPerRow, imgInfo.bytesPerRow);
+			return ++filled == nrows;
+		}
+
+		@Override
+		public void run() {
+			try {
+				final int bytesPerRow = imgInfo.bytesPerRow;
+				// adaptive strategies start over w/ each band
+				final FilterWriteStrategy strat = new FilterWriteStrategy(imgInfo, filterStrat.configuredType);
+				final int[] histo = new int[256];
+				byte[] rb = new byte[bytesPerRow + 1];
+				byte[] rbprev = Arrays.copyOf(prevRow, bytesPerRow + 1);
+				final byte[] rbfilter = new byte[bytesPerRow + 1];
+				final byte[] filtered = new byte[nrows * (bytesPerRow + 1)];
+				for (int r = 0; r < nrows; r++) {
+					System.arraycopy(raw, r * bytesPerRow, rb, 1, bytesPerRow);
+					filterRow(imgInfo, strat, histo, firstRow + r, rb, rbprev, rbfilter);
+					System.arraycopy(rbfilter, 0, filtered, r * (bytesPerRow + 1), bytesPerRow + 1);
+					final byte[] tmp = rb;
+					rb = rbprev;
+					rbprev = tmp;
+				}
+				raw = null;
+				final Adler32 a = new Adler32();
+				a.update(filtered);
+				adler32 = a.getValue();
+				filteredLen = filtered.length;
+				deflated = new ByteArrayOutputStream(filtered.length / 2 + 64);
+				deflate(filtered);
+			} catch (final Throwable t) {
+				failure = t;
+			} finally {
+				done.countDown();
+			}
+		}
+
+		private void deflate(final byte[] filtered) throws IllegalAccessException, InvocationTargetException {
+			final Deflater def = new Deflater(compLevel, true); // raw, header and checksum are ours
+			try {
+				def.setStrategy(deflaterStrategy);
+				def.setInput(filtered);
+				final byte[] buf = new byte[32768];
+				int n;
+				if (last) {
+					def.finish();
+					while (!def.finished()) {
+						n = def.deflate(buf);
+						deflated.write(buf, 0, n);
+					}
+				} else {
+					while (!def.needsInput()) {
+						n = def.deflate(buf);
+						deflated.write(buf, 0, n);
+					}
+					do { // flush until the output buffer is not filled up
+						n = ((Integer) deflateFlush.invoke(def, buf, 0, buf.length, FULL_FLUSH)).intValue();
+						deflated.write(buf, 0, n);
+					} while (n == buf.length);
+				}
+			} finally {
+				def.end();
+			}
+		}
+
+		boolean isDone() {
+			return done.getCount() == 0;
+		}
+
+		void await() {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					done.await();
+					break;
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+
+		void writeTo(final OutputStream out) {
+			if (failure != null)
+				throw new PngjOutputException("error encoding rows " + firstRow + ".." + (firstRow + nrows - 1),
+						failure);
+			try {
+				deflated.writeTo(out);
+			} catch (final IOException e) {
+				throw new PngjOutputException(e);
+			}
+			deflated = null;
+		}
+	}
+
 	protected void filterRowAverage() {
+		filterRowAverage(imgInfo, rowb, rowbprev, rowbfilter);
+	}
+
+	private static void filterRowAverage(final ImageInfo imgInfo, final byte[] rowb, final byte[] rowbprev,
+			final byte[] rowbfilter) {
 		int i, j, imax;
 		imax = imgInfo.bytesPerRow;
 		for (j = 1 - imgInfo.bytesPixel, i = 1; i <= imax; i++, j++) {
@@ -322,12 +579,21 @@ public class PngWriter {
 	}
 
 	protected void filterRowNone() {
+		filterRowNone(imgInfo, rowb, rowbfilter);
+	}
+
+	private static void filterRowNone(final ImageInfo imgInfo, final byte[] rowb, final byte[] rowbfilter) {
 		for (int i = 1; i <= imgInfo.bytesPerRow; i++) {
 			rowbfilter[i] = rowb[i];
 		}
 	}
 
 	protected void filterRowPaeth() {
+		filterRowPaeth(imgInfo, rowb, rowbprev, rowbfilter);
+	}
+
+	private static void filterRowPaeth(final ImageInfo imgInfo, final byte[] rowb, final byte[] rowbprev,
+			final byte[] rowbfilter) {
 		int i, j, imax;
 		imax = imgInfo.bytesPerRow;
 		for (j = 1 - imgInfo.bytesPixel, i = 1; i <= imax; i++, j++) {
@@ -339,6 +605,10 @@ public class PngWriter {
 	}
 
 	protected void filterRowSub() {
+		filterRowSub(imgInfo, rowb, rowbfilter);
+	}
+
+	private static void filterRowSub(final ImageInfo imgInfo, final byte[] rowb, final byte[] rowbfilter) {
 		int i, j;
 		for (i = 1; i <= imgInfo.bytesPixel; i++)
 			rowbfilter[i] = rowb[i];
@@ -349,6 +619,11 @@ public class PngWriter {
 	}
 
 	protected void filterRowUp() {
+		filterRowUp(imgInfo, rowb, rowbprev, rowbfilter);
+	}
+
+	private static void filterRowUp(final ImageInfo imgInfo, final byte[] rowb, final byte[] rowbprev,
+			final byte[] rowbfilter) {
 		for (int i = 1; i <= imgInfo.bytesPerRow; i++) {
 			// rowbfilter[i] = (byte) (rowb[i] - rowbprev[i]); !!!
 			rowbfilter[i] = (byte) PngHelperInternal.filterRowUp(rowb[i], rowbprev[i]);
@@ -474,7 +749,14 @@ public class PngWriter {
 		if (rowNum != imgInfo.rows - 1)
 			throw new PngjOutputException("all rows have not been written");
 		try {
-			datStreamDeflated.finish();
+			if (executor != null) {
+				writeBands(0);
+				datStream.write((int) (adler32 >>> 24) & 0xff);
+				datStream.write((int) (adler32 >>> 16) & 0xff);
+				datStream.write((int) (adler32 >>> 8) & 0xff);
+				datStream.write((int) adler32 & 0xff);
+			} else
+				datStreamDeflated.finish();
 			datStream.flush();
 			writeLastChunks();
 			writeEndChunk();
@@ -550,6 +832,42 @@ public class PngWriter {
 		this.idatMaxSize = idatMaxSize;
 	}
 
+	/**
+	 * Enables parallel encoding.
+	 * <p>
+	 * The rows are grouped in bands, each band is filtered and deflated by a
+	 * task on <tt>executor</tt>, independently of the other bands. Adaptive
+	 * filter strategies start over with each band. The deflate streams of the
+	 * bands are concatenated at full flush boundaries, so IDAT still holds
+	 * one valid zlib stream, readable by any decoder. The compression ratio
+	 * is slightly worse, since matches do not reach into the previous band.
+	 * <p>
+	 * Requires Java 7 for the deflate flush modes, see
+	 * {@link #isParallelEncodingAvailable()}. Otherwise the image is encoded
+	 * sequentially.
+	 * <p>
+	 * This must be called just after constructor, before starting writing.
+	 *
+	 * @param executor
+	 *            null: sequential encoding (default)
+	 * @param bandRows
+	 *            rows per band, 0: use default (about 1MB of raw data)
+	 */
+	public void setParallelEncoding(final Executor executor, final int bandRows) {
+		if (datStream != null)
+			throw new PngjOutputException("must be called before starting writing");
+		this.executor = executor;
+		this.bandRows = bandRows;
+	}
+
+	/**
+	 * Returns true if {@link #setParallelEncoding(Executor, int)} is
+	 * supported by the Java runtime.
+	 */
+	public static boolean isParallelEncodingAvailable() {
+		return deflateFlush != null;
+	}
+
 	/**
 	 * if true, input stream will be closed after ending write
 	 * <p>
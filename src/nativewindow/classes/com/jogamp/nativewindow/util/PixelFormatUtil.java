@@ -29,20 +29,73 @@ package com.jogamp.nativewindow.util;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import jogamp.nativewindow.Debug;
+import jogamp.nativewindow.ParallelBands;
 
 import com.jogamp.common.nio.Buffers;
 import com.jogamp.common.util.Bitstream;
+import com.jogamp.common.util.PropertyAccess;
 
 /**
  * Pixel Rectangle Utilities.
  * <p>
  * All conversion methods are endian independent.
  * </p>
+ * <p>
+ * Large pixel rectangles may be converted in parallel horizontal bands,
+ * either by passing an {@link Executor} to
+ * {@link #convert(int, int, ByteBuffer, PixelFormat, boolean, int, ByteBuffer, PixelFormat, boolean, int, Executor) convert(.., Executor)}
+ * or globally for all conversions via the following properties:
+ * <ul>
+ *   <li><code>nativewindow.PixelFormatUtil.threads</code>: Number of worker threads of the default {@link Executor},
+ *       {@code 0} disables parallel conversion (default) and a negative value uses the number of available processors.
+ *       A positive value also limits the number of bands converted in parallel using an explicitly passed {@link Executor}.</li>
+ *   <li><code>nativewindow.PixelFormatUtil.parallelThreshold</code>: Minimum pixel count of a rectangle
+ *       to be converted in parallel, defaults to {@value #DEFAULT_PARALLEL_THRESHOLD}.</li>
+ * </ul>
+ * </p>
  */
 public class PixelFormatUtil {
     private static boolean DEBUG = false;
 
+    /** Default minimum pixel count of a rectangle to be converted in parallel, i.e. {@value}. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 512*512;
+    /** Minimum pixel count of one parallel band. */
+    private static final int MIN_BAND_PIXELS = 64*1024;
+    private static final ParallelBands parallelBands;
+
+    static {
+        Debug.initSingleton();
+        parallelBands = new ParallelBands("PixelFormatUtil-Worker-",
+                                          PropertyAccess.getIntProperty("nativewindow.PixelFormatUtil.threads", true, 0),
+                                          PropertyAccess.getIntProperty("nativewindow.PixelFormatUtil.parallelThreshold", true, DEFAULT_PARALLEL_THRESHOLD),
+                                          MIN_BAND_PIXELS);
+    }
+
+    /**
+     * Returns the {@link Executor} used for parallel conversion by all methods not passing an explicit {@link Executor},
+     * or {@code null} if conversion is performed on the caller thread only.
+     * <p>
+     * Unless {@link #setDefaultExecutor(Executor) set} explicitly, a daemon thread pool is created lazily
+     * if property <code>nativewindow.PixelFormatUtil.threads</code> is not zero.
+     * </p>
+     */
+    public static Executor getDefaultExecutor() {
+        return parallelBands.getDefaultExecutor();
+    }
+
+    /**
+     * Sets the {@link Executor} used for parallel conversion by all methods not passing an explicit {@link Executor}.
+     * @param executor the {@link Executor}, or {@code null} to convert on the caller thread only.
+     */
+    public static void setDefaultExecutor(final Executor executor) {
+        parallelBands.setDefaultExecutor(executor);
+    }
+
     public static class ComponentMap {
         /**
          * Contains the source index for each destination index,
@@ -384,10 +437,23 @@ public class PixelFormatUtil {
     public static void convert(final PixelRectangle src,
                                final ByteBuffer dst_bb, final PixelFormat dst_fmt, final boolean dst_glOriented, final int dst_lineStride)
            throws IllegalStateException
+    {
+        convert(src, dst_bb, dst_fmt, dst_glOriented, dst_lineStride, getDefaultExecutor());
+    }
+
+    /**
+     * Same as {@link #convert(PixelRectangle, ByteBuffer, PixelFormat, boolean, int)},
+     * but converting in parallel bands using the given {@link Executor}, see
+     * {@link #convert(int, int, ByteBuffer, PixelFormat, boolean, int, ByteBuffer, PixelFormat, boolean, int, Executor)}.
+     */
+    public static void convert(final PixelRectangle src,
+                               final ByteBuffer dst_bb, final PixelFormat dst_fmt, final boolean dst_glOriented, final int dst_lineStride,
+                               final Executor executor)
+           throws IllegalStateException
     {
         convert(src.getSize().getWidth(), src.getSize().getHeight(),
                 src.getPixels(), src.getPixelformat(), src.isGLOriented(), src.getStride(),
-                dst_bb, dst_fmt, dst_glOriented, dst_lineStride);
+                dst_bb, dst_fmt, dst_glOriented, dst_lineStride, executor);
     }
 
 
@@ -412,9 +478,29 @@ public class PixelFormatUtil {
      * @throws IllegalStateException
      * @throws IllegalArgumentException if {@code src_lineStride} or {@code dst_lineStride} is invalid
      */
+    public static void convert(final int width, final int height,
+                               final ByteBuffer src_bb, final PixelFormat src_fmt, final boolean src_glOriented, final int src_lineStride,
+                               final ByteBuffer dst_bb, final PixelFormat dst_fmt, final boolean dst_glOriented, final int dst_lineStride
+                              ) throws IllegalStateException, IllegalArgumentException {
+        convert(width, height, src_bb, src_fmt, src_glOriented, src_lineStride,
+                dst_bb, dst_fmt, dst_glOriented, dst_lineStride, getDefaultExecutor());
+    }
+
+    /**
+     * Same as {@link #convert(int, int, ByteBuffer, PixelFormat, boolean, int, ByteBuffer, PixelFormat, boolean, int)},
+     * but converting in parallel horizontal bands using the given {@link Executor}.
+     * <p>
+     * Parallel conversion is only performed if the pixel count reaches the threshold
+     * given by property <code>nativewindow.PixelFormatUtil.parallelThreshold</code>
+     * and the format pair is supported by a row based kernel.
+     * The caller thread converts one band itself and returns after all bands are completed.
+     * </p>
+     * @param executor the {@link Executor} to run the bands, may be {@code null} to convert on the caller thread only.
+     */
     public static void convert(final int width, final int height,
                                final ByteBuffer src_bb, final PixelFormat src_fmt, final boolean src_glOriented, int src_lineStride,
-                               final ByteBuffer dst_bb, final PixelFormat dst_fmt, final boolean dst_glOriented, int dst_lineStride
+                               final ByteBuffer dst_bb, final PixelFormat dst_fmt, final boolean dst_glOriented, int dst_lineStride,
+                               final Executor executor
                               ) throws IllegalStateException, IllegalArgumentException {
         final PixelFormat.Composition src_comp = src_fmt.comp;
         final PixelFormat.Composition dst_comp = dst_fmt.comp;
@@ -441,35 +527,28 @@ public class PixelFormatUtil {
         // final int src_comp_bitStride = src_comp.bitStride();
         final int dst_comp_bitStride = dst_comp.bitStride();
         final boolean vert_flip = src_glOriented != dst_glOriented;
-        final boolean fast_copy = src_comp.equals(dst_comp) && 0 == dst_comp_bitStride%8;
+        final RowConverter rowConv = getRowConverter(src_fmt, dst_fmt);
         if( DEBUG ) {
-            System.err.println("XXX: size "+width+"x"+height+", fast_copy "+fast_copy);
+            System.err.println("XXX: size "+width+"x"+height+", rowConverter "+rowConv);
             System.err.println("XXX: SRC fmt "+src_fmt+", "+src_comp+", stride "+src_lineStride+", isGLOrient "+src_glOriented);
             System.err.println("XXX: DST fmt "+dst_fmt+", "+dst_comp+", stride "+dst_lineStride+", isGLOrient "+dst_glOriented);
         }
 
-        if( fast_copy ) {
-            // Fast copy
-            for(int y=0; y<height; y++) {
-                int src_off = vert_flip ? ( height - 1 - y ) * src_lineStride : y * src_lineStride;
-                int dst_off = dst_lineStride*y;
-                for(int x=0; x<width; x++) {
-                    dst_bb.put(dst_off+0, src_bb.get(src_off+0)); // 1
-                    if( 2 <= dst_bpp ) {
-                        dst_bb.put(dst_off+1, src_bb.get(src_off+1)); // 2
-                        if( 3 <= dst_bpp ) {
-                            dst_bb.put(dst_off+2, src_bb.get(src_off+2)); // 3
-                            if( 4 <= dst_bpp ) {
-                                dst_bb.put(dst_off+3, src_bb.get(src_off+3)); // 4
-                            }
-                        }
-                    }
-                    src_off += src_bpp;
-                    dst_off += dst_bpp;
-                }
+        if( null != rowConv ) {
+            final int src_off = vert_flip ? ( height - 1 ) * src_lineStride : 0;
+            final int src_step = vert_flip ? -src_lineStride : src_lineStride;
+            if( 1 < parallelBands.getBandCount(executor, width, height) ) {
+                final int dst_step = dst_lineStride;
+                parallelBands.run(new ParallelBands.RowBand() {
+                    @Override
+                    public void run(final int row0, final int row1) {
+                        rowConv.convert(width, row1 - row0, src_bb, src_off + row0 * src_step, src_step, dst_bb, row0 * dst_step, dst_step);
+                    } }, executor, width, height, "Parallel conversion failed");
+            } else {
+                rowConv.convert(width, height, src_bb, src_off, src_step, dst_bb, 0, dst_lineStride);
             }
         } else {
-            // Conversion
+            // Generic conversion via Bitstream, compositions w/o RowConverter
             final ComponentMap cmap = new ComponentMap(src_fmt.comp, dst_fmt.comp);
 
             final Bitstream.ByteBufferStream srcBBS = new Bitstream.ByteBufferStream(src_bb);
@@ -508,6 +587,721 @@ public class PixelFormatUtil {
         }
     }
 
+    /**
+     * Row based conversion kernel for one specific pair of source and destination {@link PixelFormat},
+     * see {@link PixelFormatUtil#getRowConverter(PixelFormat, PixelFormat)}.
+     * <p>
+     * Instances are immutable and may be used concurrently.
+     * Byte offsets are absolute, i.e. independent of the buffer's position,
+     * which is not modified as well as the buffer's limit.
+     * </p>
+     * <p>
+     * Results are identical to the generic {@link Bitstream} based per pixel
+     * {@link PixelFormatUtil#convert(ComponentMap, PixelFormat.Composition, Bitstream, PixelFormat.Composition, Bitstream) conversion},
+     * i.e. padding bits of the destination are left untouched.
+     * </p>
+     */
+    static abstract class RowConverter {
+        /**
+         * @param width number of pixels per line
+         * @param rows number of lines to convert
+         * @param src {@link ByteBuffer} source
+         * @param srcOff absolute byte offset of the first source line
+         * @param srcStep byte distance from one source line to the next, negative for vertical flipping
+         * @param dst {@link ByteBuffer} sink
+         * @param dstOff absolute byte offset of the first destination line
+         * @param dstStep byte distance from one destination line to the next
+         */
+        abstract void convert(final int width, final int rows,
+                              final ByteBuffer src, final int srcOff, final int srcStep,
+                              final ByteBuffer dst, final int dstOff, final int dstStep);
+    }
+
+    private static final PixelFormat[] allFormats = PixelFormat.values();
+    /** Lazily populated {@link RowConverter} table, indexed by source and destination {@link PixelFormat#ordinal()}. */
+    private static final RowConverter[][] rowConverters = new RowConverter[allFormats.length][allFormats.length];
+    private static final RowConverter NO_ROW_CONVERTER = new RowConverter() {
+        @Override
+        void convert(final int width, final int rows, final ByteBuffer src, final int srcOff, final int srcStep,
+                     final ByteBuffer dst, final int dstOff, final int dstStep) {
+            throw new InternalError("n/a");
+        }
+        @Override
+        public String toString() { return "NoRowConverter"; }
+    };
+
+    /**
+     * Returns the cached {@link RowConverter} for the given pair of {@link PixelFormat}s,
+     * or {@code null} if the generic {@link Bitstream} conversion must be used.
+     * <p>
+     * The {@link RowConverter} is selected once per pair and shared afterwards.
+     * </p>
+     */
+    static RowConverter getRowConverter(final PixelFormat src_fmt, final PixelFormat dst_fmt) {
+        final RowConverter[] row = rowConverters[src_fmt.ordinal()];
+        RowConverter rc = row[dst_fmt.ordinal()];
+        if( null == rc ) {
+            // benign race, result is immutable and identical
+            rc = createRowConverter(src_fmt.comp, dst_fmt.comp);
+            if( null == rc ) {
+                rc = NO_ROW_CONVERTER;
+            }
+            row[dst_fmt.ordinal()] = rc;
+        }
+        return NO_ROW_CONVERTER != rc ? rc : null;
+    }
+
+    /** Returns {@code true} if all components are byte aligned and 8 bits wide. */
+    private static boolean isByteComponents(final PixelFormat.Composition comp) {
+        final int[] bitCount = comp.componentBitCount();
+        final int[] bitShift = comp.componentBitShift();
+        for(int i=comp.componentCount()-1; i>=0; i--) {
+            if( 8 != bitCount[i] || 0 != bitShift[i]%8 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static RowConverter createRowConverter(final PixelFormat.Composition src_comp, final PixelFormat.Composition dst_comp) {
+        if( !src_comp.isInterleaved() || !dst_comp.isInterleaved() ||
+            0 != src_comp.bitStride()%8 || 32 < src_comp.bitStride() ||
+            0 != dst_comp.bitStride()%8 || 32 < dst_comp.bitStride() )
+        {
+            return null;
+        }
+        if( src_comp.equals(dst_comp) ) {
+            return new CopyRows(dst_comp.bytesPerPixel());
+        }
+        final ComponentMap cmap = new ComponentMap(src_comp, dst_comp);
+        final boolean toY = 1 == dst_comp.componentCount() &&
+                            PixelFormat.CType.Y == dst_comp.componentOrder()[0] &&
+                            cmap.hasSrcRGB;
+        if( !toY && isByteComponents(src_comp) && isByteComponents(dst_comp) ) {
+            if( 32 == src_comp.bitStride() && 32 == dst_comp.bitStride() ) {
+                return new Swizzle32Rows(cmap, src_comp, dst_comp);
+            } else {
+                return new ByteShuffleRows(cmap, src_comp, dst_comp);
+            }
+        }
+        return new PackedRows(new PixelConverter(cmap, src_comp, dst_comp));
+    }
+
+    /** Returns a little endian duplicate of the given buffer, matching the {@link Bitstream} bit order. */
+    private static ByteBuffer dupLE(final ByteBuffer bb) {
+        return bb.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    private static void getRow(final ByteBuffer bb, final int off, final byte[] row, final int len) {
+        bb.position(off);
+        bb.get(row, 0, len);
+    }
+    private static void putRow(final ByteBuffer bb, final int off, final byte[] row, final int len) {
+        bb.position(off);
+        bb.put(row, 0, len);
+    }
+    private static void getRow(final ByteBuffer bb, final int off, final int[] row, final int len) {
+        bb.position(off);
+        bb.asIntBuffer().get(row, 0, len);
+    }
+    private static void putRow(final ByteBuffer bb, final int off, final int[] row, final int len) {
+        bb.position(off);
+        bb.asIntBuffer().put(row, 0, len);
+    }
+
+    /** Returns the destination bits not covered by any component, i.e. to be left untouched. */
+    private static int getPaddingMask(final PixelFormat.Composition comp) {
+        int used = 0;
+        final int[] mask = comp.componentBitMask();
+        final int[] shift = comp.componentBitShift();
+        for(int i=comp.componentCount()-1; i>=0; i--) {
+            used |= mask[i] << shift[i];
+        }
+        final int all = 32 == comp.bitStride() ? 0xffffffff : ( 1 << comp.bitStride() ) - 1;
+        return all & ~used;
+    }
+
+    /** Line-wise bulk copy of identical {@link PixelFormat.Composition}s. */
+    private static final class CopyRows extends RowConverter {
+        private final int bpp;
+
+        CopyRows(final int bpp) {
+            this.bpp = bpp;
+        }
+
+        @Override
+        void convert(final int width, final int rows,
+                     final ByteBuffer src, final int srcOff, final int srcStep,
+                     final ByteBuffer dst, final int dstOff, final int dstStep) {
+            final ByteBuffer s = src.duplicate();
+            final ByteBuffer d = dst.duplicate();
+            final int len = width * bpp;
+            if( len == srcStep && len == dstStep ) {
+                // contiguous, single bulk copy
+                copy(s, srcOff, d, dstOff, len * rows);
+            } else {
+                for(int y=0; y<rows; y++) {
+                    copy(s, srcOff + y * srcStep, d, dstOff + y * dstStep, len);
+                }
+            }
+        }
+        private static void copy(final ByteBuffer s, final int sOff, final ByteBuffer d, final int dOff, final int len) {
+            s.limit(sOff + len);
+            s.position(sOff);
+            d.position(dOff);
+            d.put(s);
+        }
+
+        @Override
+        public String toString() { return "CopyRows[bpp "+bpp+"]"; }
+    }
+
+    /**
+     * 32 bit to 32 bit conversion of byte wide components operating on {@link java.nio.IntBuffer} views,
+     * using a dedicated integer operation for the common component permutations.
+     */
+    private static final class Swizzle32Rows extends RowConverter {
+        private static final int GENERIC = 0;
+        private static final int IDENTITY = 1;
+        private static final int SWAP_02 = 2;
+        private static final int ROTR_8 = 3;
+        private static final int ROTL_8 = 4;
+        private static final int REVERSE = 5;
+        /** Source lane for each destination lane of the named permutations */
+        private static final int[][] permutations = {
+            null,
+            { 0, 1, 2, 3 }, // IDENTITY
+            { 2, 1, 0, 3 }, // SWAP_02, e.g. RGBA <-> BGRA
+            { 1, 2, 3, 0 }, // ROTR_8,  e.g. ARGB -> RGBA
+            { 3, 0, 1, 2 }, // ROTL_8,  e.g. RGBA -> ARGB
+            { 3, 2, 1, 0 }, // REVERSE, e.g. RGBA <-> ABGR
+        };
+        private static final String[] names = { "generic", "identity", "swap02", "rotr8", "rotl8", "reverse" };
+
+        private final int op;
+        /** Source bit-shift per destination lane, only used for {@link #GENERIC} */
+        private final int s0, s1, s2, s3;
+        /** Byte mask per destination lane, zero if not sourced */
+        private final int m0, m1, m2, m3;
+        /** Destination bits sourced from the source pixel */
+        private final int srcBits;
+        /** Destination default component bits */
+        private final int defBits;
+        /** Destination padding bits to be retained */
+        private final int padBits;
+
+        Swizzle32Rows(final ComponentMap cmap, final PixelFormat.Composition src_comp, final PixelFormat.Composition dst_comp) {
+            final int[] lanes = { -1, -1, -1, -1 };
+            final int[] srcShift = src_comp.componentBitShift();
+            final int[] dstShift = dst_comp.componentBitShift();
+            int _srcBits = 0, _defBits = 0;
+            for(int dIdx=0; dIdx<dst_comp.componentCount(); dIdx++) {
+                final int sIdx = cmap.dst2src[dIdx];
+                if( 0 <= sIdx ) {
+                    lanes[dstShift[dIdx]/8] = srcShift[sIdx]/8;
+                    _srcBits |= 0xff << dstShift[dIdx];
+                } else {
+                    _defBits |= dst_comp.defaultValue(dIdx, true);
+                }
+            }
+            int _op = GENERIC;
+            for(int i=1; i<permutations.length && GENERIC == _op; i++) {
+                _op = i;
+                for(int l=0; l<4; l++) {
+                    if( 0 <= lanes[l] && permutations[i][l] != lanes[l] ) {
+                        _op = GENERIC;
+                        break;
+                    }
+                }
+            }
+            op = _op;
+            s0 = Math.max(0, lanes[0]) * 8;  m0 = 0 <= lanes[0] ? 0xff : 0;
+            s1 = Math.max(0, lanes[1]) * 8;  m1 = 0 <= lanes[1] ? 0xff : 0;
+            s2 = Math.max(0, lanes[2]) * 8;  m2 = 0 <= lanes[2] ? 0xff : 0;
+            s3 = Math.max(0, lanes[3]) * 8;  m3 = 0 <= lanes[3] ? 0xff : 0;
+            srcBits = _srcBits;
+            defBits = _defBits;
+            padBits = getPaddingMask(dst_comp);
+        }
+
+        @Override
+        void convert(final int width, final int rows,
+                     final ByteBuffer src, final int srcOff, final int srcStep,
+                     final ByteBuffer dst, final int dstOff, final int dstStep) {
+            final ByteBuffer s = dupLE(src);
+            final ByteBuffer d = dupLE(dst);
+            final int[] srow = new int[width];
+            final int[] drow = 0 != padBits ? new int[width] : null;
+            for(int y=0; y<rows; y++) {
+                getRow(s, srcOff + y * srcStep, srow, width);
+                swizzle(srow, width);
+                if( null != drow ) {
+                    final int dOff = dstOff + y * dstStep;
+                    getRow(d, dOff, drow, width);
+                    for(int x=0; x<width; x++) {
+                        drow[x] = ( drow[x] & padBits ) | srow[x];
+                    }
+                    putRow(d, dOff, drow, width);
+                } else {
+                    putRow(d, dstOff + y * dstStep, srow, width);
+                }
+            }
+        }
+
+        private void swizzle(final int[] row, final int width) {
+            final int srcBits = this.srcBits;
+            final int defBits = this.defBits;
+            switch( op ) {
+                case IDENTITY:
+                    for(int x=0; x<width; x++) {
+                        row[x] = ( row[x] & srcBits ) | defBits;
+                    }
+                    break;
+                case SWAP_02:
+                    for(int x=0; x<width; x++) {
+                        final int p = row[x];
+                        row[x] = ( ( p & 0xff00ff00 ) | ( ( p >>> 16 ) & 0xff ) | ( ( p & 0xff ) << 16 ) ) & srcBits | defBits;
+                    }
+                    break;
+                case ROTR_8:
+                    for(int x=0; x<width; x++) {
+                        row[x] = Integer.rotateRight(row[x], 8) & srcBits | defBits;
+                    }
+                    break;
+                case ROTL_8:
+                    for(int x=0; x<width; x++) {
+                        row[x] = Integer.rotateLeft(row[x], 8) & srcBits | defBits;
+                    }
+                    break;
+                case REVERSE:
+                    for(int x=0; x<width; x++) {
+                        row[x] = Integer.reverseBytes(row[x]) & srcBits | defBits;
+                    }
+                    break;
+                default:
+                    for(int x=0; x<width; x++) {
+                        final int p = row[x];
+                        row[x] = ( ( p >>> s0 ) & m0 )         | ( ( ( p >>> s1 ) & m1 ) <<  8 ) |
+                                 ( ( ( p >>> s2 ) & m2 ) << 16 ) | ( ( ( p >>> s3 ) & m3 ) << 24 ) | defBits;
+                    }
+                    break;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Swizzle32Rows[%s, src 0x%08X, def 0x%08X, pad 0x%08X]", names[op], srcBits, defBits, padBits);
+        }
+    }
+
+    /**
+     * Conversion of byte wide components with differing pixel size, e.g. {@link PixelFormat#RGB888} &harr; {@link PixelFormat#RGBA8888},
+     * shuffling bytes of bulk transferred lines.
+     */
+    private static final class ByteShuffleRows extends RowConverter {
+        private final int sBpp, dBpp;
+        /** Source byte per destination byte, zero if not sourced, see {@link #andMask} */
+        private final int[] lane;
+        /** 0xff if destination byte is sourced, otherwise zero */
+        private final int[] andMask;
+        /** Default value per destination byte */
+        private final int[] orVal;
+        /** Destination byte is padding, i.e. to be retained */
+        private final boolean[] pad;
+        private final boolean hasPad;
+
+        ByteShuffleRows(final ComponentMap cmap, final PixelFormat.Composition src_comp, final PixelFormat.Composition dst_comp) {
+            sBpp = src_comp.bytesPerPixel();
+            dBpp = dst_comp.bytesPerPixel();
+            lane = new int[dBpp];
+            andMask = new int[dBpp];
+            orVal = new int[dBpp];
+            pad = new boolean[dBpp];
+            Arrays.fill(pad, true);
+            final int[] srcShift = src_comp.componentBitShift();
+            final int[] dstShift = dst_comp.componentBitShift();
+            for(int dIdx=0; dIdx<dst_comp.componentCount(); dIdx++) {
+                final int d = dstShift[dIdx] / 8;
+                final int sIdx = cmap.dst2src[dIdx];
+                pad[d] = false;
+                if( 0 <= sIdx ) {
+                    lane[d] = srcShift[sIdx] / 8;
+                    andMask[d] = 0xff;
+                } else {
+                    orVal[d] = dst_comp.defaultValue(dIdx, false);
+                }
+            }
+            boolean _hasPad = false;
+            for(int i=0; i<dBpp; i++) {
+                _hasPad |= pad[i];
+            }
+            hasPad = _hasPad;
+        }
+
+        @Override
+        void convert(final int width, final int rows,
+                     final ByteBuffer src, final int srcOff, final int srcStep,
+                     final ByteBuffer dst, final int dstOff, final int dstStep) {
+            final ByteBuffer s = src.duplicate();
+            final ByteBuffer d = dst.duplicate();
+            final int sLen = width * sBpp;
+            final int dLen = width * dBpp;
+            final byte[] srow = new byte[sLen];
+            final byte[] drow = new byte[dLen];
+            for(int y=0; y<rows; y++) {
+                final int dOff = dstOff + y * dstStep;
+                getRow(s, srcOff + y * srcStep, srow, sLen);
+                if( hasPad ) {
+                    getRow(d, dOff, drow, dLen);
+                    shuffleN(srow, drow, width);
+                } else if( 4 == dBpp ) {
+                    shuffle4(srow, drow, width);
+                } else if( 3 == dBpp ) {
+                    shuffle3(srow, drow, width);
+                } else {
+                    shuffleN(srow, drow, width);
+                }
+                putRow(d, dOff, drow, dLen);
+            }
+        }
+        private void shuffle4(final byte[] srow, final byte[] drow, final int width) {
+            final int l0 = lane[0], l1 = lane[1], l2 = lane[2], l3 = lane[3];
+            final int a0 = andMask[0], a1 = andMask[1], a2 = andMask[2], a3 = andMask[3];
+            final int o0 = orVal[0], o1 = orVal[1], o2 = orVal[2], o3 = orVal[3];
+            for(int x=0, so=0, dOff=0; x<width; x++, so+=sBpp, dOff+=4) {
+                drow[dOff  ] = (byte) ( ( srow[so+l0] & a0 ) | o0 );
+                drow[dOff+1] = (byte) ( ( srow[so+l1] & a1 ) | o1 );
+                drow[dOff+2] = (byte) ( ( srow[so+l2] & a2 ) | o2 );
+                drow[dOff+3] = (byte) ( ( srow[so+l3] & a3 ) | o3 );
+            }
+        }
+        private void shuffle3(final byte[] srow, final byte[] drow, final int width) {
+            final int l0 = lane[0], l1 = lane[1], l2 = lane[2];
+            final int a0 = andMask[0], a1 = andMask[1], a2 = andMask[2];
+            final int o0 = orVal[0], o1 = orVal[1], o2 = orVal[2];
+            for(int x=0, so=0, dOff=0; x<width; x++, so+=sBpp, dOff+=3) {
+                drow[dOff  ] = (byte) ( ( srow[so+l0] & a0 ) | o0 );
+                drow[dOff+1] = (byte) ( ( srow[so+l1] & a1 ) | o1 );
+                drow[dOff+2] = (byte) ( ( srow[so+l2] & a2 ) | o2 );
+            }
+        }
+        private void shuffleN(final byte[] srow, final byte[] drow, final int width) {
+            for(int x=0, so=0, dOff=0; x<width; x++, so+=sBpp, dOff+=dBpp) {
+                for(int i=0; i<dBpp; i++) {
+                    if( !pad[i] ) {
+                        drow[dOff+i] = (byte) ( ( srow[so+lane[i]] & andMask[i] ) | orVal[i] );
+                    }
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ByteShuffleRows[bpp "+sBpp+" -> "+dBpp+", lanes "+Arrays.toString(lane)+", pad "+hasPad+"]";
+        }
+    }
+
+    /**
+     * Precomputed single pixel converter for one pair of source and destination {@link PixelFormat.Composition},
+     * caching component masks, shifts, default values and lookup tables.
+     * <p>
+     * Conversion results are identical to
+     * {@link PixelFormatUtil#convert(ComponentMap, PixelFormat.Composition, Bitstream, PixelFormat.Composition, Bitstream)},
+     * however no conversion method allocates any memory, hence it is suitable for hot paths.
+     * </p>
+     * <p>
+     * Instances are immutable and may be used concurrently.
+     * Only compositions of up to 32 bits per pixel are supported.
+     * </p>
+     */
+    public static class PixelConverter {
+        private final PixelFormat.Composition srcComp;
+        private final PixelFormat.Composition dstComp;
+        private final int sCompCount, dCompCount;
+        /** Source component bit-count and mask for bitstream reading */
+        private final int[] srcBitCount, srcBitMask, srcBitShift;
+        private final int srcSkipBits;
+        /** Destination component bit-count, shift and mask for bitstream writing */
+        private final int[] dstBitCount, dstBitMask, dstBitShift;
+        private final int dstSkipBits;
+        /** Source component index per destination component, -1 if not sourced */
+        private final int[] dst2src;
+        /** Source bit-shift and mask per destination component, mask is zero if not sourced */
+        private final int[] sShift, sMask;
+        /** Source to destination value lookup table per destination component, {@code null} if identical or computed */
+        private final int[][] lut;
+        /** Source and destination mask differ per destination component, {@link #lut} is used if available */
+        private final boolean[] scale;
+        /** Destination default component bits */
+        private final int defBits;
+        /** RGB -> Y: source R, G and B component index and optional float lookup table */
+        private final boolean toY;
+        private final int[] rgbIdx;
+        private final float[][] rgbToFloat;
+
+        /**
+         * @param src source {@link PixelFormat.Composition}
+         * @param dst destination {@link PixelFormat.Composition}
+         * @throws IllegalArgumentException if a composition exceeds 32 bits per pixel
+         */
+        public PixelConverter(final PixelFormat.Composition src, final PixelFormat.Composition dst) throws IllegalArgumentException {
+            this(new ComponentMap(src, dst), src, dst);
+        }
+
+        /**
+         * @param cmap the {@link ComponentMap} of {@code src} and {@code dst}
+         * @param src source {@link PixelFormat.Composition}
+         * @param dst destination {@link PixelFormat.Composition}
+         * @throws IllegalArgumentException if a composition exceeds 32 bits per pixel
+         */
+        public PixelConverter(final ComponentMap cmap, final PixelFormat.Composition src, final PixelFormat.Composition dst) throws IllegalArgumentException {
+            if( 32 < src.bitsPerPixel() || 32 < dst.bitsPerPixel() ) {
+                throw new IllegalArgumentException("Compositions exceed 32 bits per pixel: "+src+", "+dst);
+            }
+            srcComp = src;
+            dstComp = dst;
+            sCompCount = src.componentCount();
+            dCompCount = dst.componentCount();
+            srcBitCount = src.componentBitCount();
+            srcBitMask = src.componentBitMask();
+            srcBitShift = src.componentBitShift();
+            srcSkipBits = src.bitStride() - src.bitsPerPixel();
+            dstBitCount = dst.componentBitCount();
+            dstBitMask = dst.componentBitMask();
+            dstBitShift = dst.componentBitShift();
+            dstSkipBits = dst.bitStride() - dst.bitsPerPixel();
+            dst2src = cmap.dst2src.clone();
+            sShift = new int[dCompCount];
+            sMask = new int[dCompCount];
+            lut = new int[dCompCount][];
+            scale = new boolean[dCompCount];
+            int _defBits = 0;
+            for(int dIdx=0; dIdx<dCompCount; dIdx++) {
+                final int sIdx = dst2src[dIdx];
+                if( 0 <= sIdx ) {
+                    sShift[dIdx] = srcBitShift[sIdx];
+                    sMask[dIdx] = srcBitMask[sIdx];
+                    if( srcBitMask[sIdx] != dstBitMask[dIdx] ) {
+                        scale[dIdx] = true;
+                        if( srcBitMask[sIdx] <= MAX_LUT_MASK ) {
+                            final int[] t = new int[srcBitMask[sIdx]+1];
+                            for(int v=0; v<t.length; v++) {
+                                t[v] = dst.fromFloat(src.toFloat(v, sIdx, false), dIdx, false);
+                            }
+                            lut[dIdx] = t;
+                        }
+                    }
+                } else {
+                    _defBits |= dst.defaultValue(dIdx, true);
+                }
+            }
+            defBits = _defBits;
+            toY = 1 == dCompCount && PixelFormat.CType.Y == dst.componentOrder()[0] && cmap.hasSrcRGB;
+            if( toY ) {
+                rgbIdx = new int[3];
+                rgbToFloat = new float[3][];
+                for(int i=0; i<3; i++) {
+                    final int sIdx = cmap.srcRGBA[i];
+                    rgbIdx[i] = sIdx;
+                    if( srcBitMask[sIdx] <= MAX_LUT_MASK ) {
+                        final float[] t = new float[srcBitMask[sIdx]+1];
+                        for(int v=0; v<t.length; v++) {
+                            t[v] = src.toFloat(v, sIdx, false);
+                        }
+                        rgbToFloat[i] = t;
+                    }
+                }
+            } else {
+                rgbIdx = null;
+                rgbToFloat = null;
+            }
+        }
+        private static final int MAX_LUT_MASK = 0xffff;
+
+        /** Returns the source {@link PixelFormat.Composition}. */
+        public final PixelFormat.Composition getSourceComposition() { return srcComp; }
+        /** Returns the destination {@link PixelFormat.Composition}. */
+        public final PixelFormat.Composition getDestinationComposition() { return dstComp; }
+
+        /**
+         * Converts the shifted source pixel to the shifted destination pixel,
+         * see {@link PixelFormatUtil#getShiftedI32(int, ByteBuffer, boolean)}.
+         * <p>
+         * Destination padding bits are zero.
+         * </p>
+         * @param srcPixel shifted source pixel
+         * @return shifted destination pixel
+         */
+        public final int convert(final int srcPixel) {
+            if( toY ) {
+                return toY(srcPixel);
+            }
+            int v = defBits;
+            for(int dIdx=0; dIdx<dCompCount; dIdx++) {
+                final int m = sMask[dIdx];
+                if( 0 != m ) {
+                    int c = ( srcPixel >>> sShift[dIdx] ) & m;
+                    if( scale[dIdx] ) {
+                        final int[] t = lut[dIdx];
+                        c = null != t ? t[c] : dstComp.fromFloat(srcComp.toFloat(c, dst2src[dIdx], false), dIdx, false);
+                    }
+                    v |= c << dstBitShift[dIdx];
+                }
+            }
+            return v;
+        }
+        private final int toY(final int srcPixel) {
+            final float rF = toFloat(0, srcPixel);
+            final float gF = toFloat(1, srcPixel);
+            final float bF = toFloat(2, srcPixel);
+            final float lF = ( rF + gF + bF ) * 1f / 3f; // alpha disabled, see generic conversion
+            return dstComp.fromFloat(lF, 0, true);
+        }
+        private final float toFloat(final int rgb, final int srcPixel) {
+            final int sIdx = rgbIdx[rgb];
+            final int c = ( srcPixel >>> srcBitShift[sIdx] ) & srcBitMask[sIdx];
+            final float[] t = rgbToFloat[rgb];
+            return null != t ? t[c] : srcComp.toFloat(c, sIdx, false);
+        }
+
+        /**
+         * Converts {@code count} shifted source pixel to shifted destination pixel.
+         * @param src shifted source pixel
+         * @param srcOff index of the first source pixel
+         * @param dst shifted destination pixel sink
+         * @param dstOff index of the first destination pixel
+         * @param count number of pixel to convert
+         */
+        public final void convert(final int[] src, final int srcOff, final int[] dst, final int dstOff, final int count) {
+            for(int i=0; i<count; i++) {
+                dst[dstOff+i] = convert(src[srcOff+i]);
+            }
+        }
+
+        /**
+         * Converts {@code count} consecutive pixel using absolute {@link ByteBuffer} access,
+         * i.e. the buffer's position is not used nor modified.
+         * <p>
+         * Destination padding bytes are left untouched.
+         * </p>
+         * @param src source {@link ByteBuffer}
+         * @param srcOff absolute byte offset of the first source pixel
+         * @param dst destination {@link ByteBuffer} sink
+         * @param dstOff absolute byte offset of the first destination pixel
+         * @param count number of pixel to convert
+         */
+        public final void convert(final ByteBuffer src, final int srcOff, final ByteBuffer dst, final int dstOff, final int count) {
+            final int sBpp = srcComp.bytesPerPixel();
+            final int dBpp = dstComp.bytesPerPixel();
+            final int dBytes = ( dstComp.bitsPerPixel() + 7 ) / 8;
+            for(int x=0, so=srcOff, dOff=dstOff; x<count; x++, so+=sBpp, dOff+=dBpp) {
+                int p = 0;
+                for(int i=0; i<sBpp && i<4; i++) {
+                    p |= ( 0xff & src.get(so+i) ) << 8*i;
+                }
+                final int v = convert(p);
+                for(int i=0; i<dBytes; i++) {
+                    dst.put(dOff+i, (byte) ( v >>> 8*i ));
+                }
+            }
+        }
+
+        /**
+         * Converts {@code count} consecutive pixel of the given byte arrays,
+         * see {@link #convert(ByteBuffer, int, ByteBuffer, int, int)}.
+         */
+        public final void convert(final byte[] src, final int srcOff, final byte[] dst, final int dstOff, final int count) {
+            final int sBpp = srcComp.bytesPerPixel();
+            final int dBpp = dstComp.bytesPerPixel();
+            final int dBytes = ( dstComp.bitsPerPixel() + 7 ) / 8;
+            for(int x=0, so=srcOff, dOff=dstOff; x<count; x++, so+=sBpp, dOff+=dBpp) {
+                int p = 0;
+                for(int i=0; i<sBpp && i<4; i++) {
+                    p |= ( 0xff & src[so+i] ) << 8*i;
+                }
+                final int v = convert(p);
+                for(int i=0; i<dBytes; i++) {
+                    dst[dOff+i] = (byte) ( v >>> 8*i );
+                }
+            }
+        }
+
+        /**
+         * Converts one pixel from the source {@link Bitstream} to the destination {@link Bitstream},
+         * allocation free variant of
+         * {@link PixelFormatUtil#convert(ComponentMap, PixelFormat.Composition, Bitstream, PixelFormat.Composition, Bitstream)}.
+         */
+        public final void convert(final Bitstream<ByteBuffer> dstBitStream,
+                                  final Bitstream<ByteBuffer> srcBitStream) throws IllegalStateException, IOException {
+            int p = 0;
+            for(int sIdx=0; sIdx<sCompCount; sIdx++) {
+                p |= ( srcBitStream.readBits31(srcBitCount[sIdx]) & srcBitMask[sIdx] ) << srcBitShift[sIdx];
+            }
+            srcBitStream.skip(srcSkipBits);
+            final int v = convert(p);
+            for(int dIdx=0; dIdx<dCompCount; dIdx++) {
+                dstBitStream.writeBits31(dstBitCount[dIdx], ( v >>> dstBitShift[dIdx] ) & dstBitMask[dIdx]);
+            }
+            dstBitStream.skip(dstSkipBits);
+        }
+
+        @Override
+        public String toString() {
+            return "PixelConverter[toY "+toY+", "+srcComp+" -> "+dstComp+"]";
+        }
+    }
+
+    /**
+     * Conversion of arbitrary packed components of up to 32 bits per pixel,
+     * e.g. {@link PixelFormat#RGB565} or to {@link PixelFormat#LUMINANCE},
+     * using a {@link PixelConverter} on bulk transferred lines.
+     */
+    private static final class PackedRows extends RowConverter {
+        private final PixelConverter pc;
+        private final int sBpp, dBpp;
+        private final boolean hasPad;
+
+        PackedRows(final PixelConverter pc) {
+            this.pc = pc;
+            final PixelFormat.Composition dst_comp = pc.getDestinationComposition();
+            sBpp = pc.getSourceComposition().bytesPerPixel();
+            dBpp = dst_comp.bytesPerPixel();
+            hasPad = 0 != getPaddingMask(dst_comp) || ( dst_comp.bitsPerPixel() + 7 ) / 8 < dBpp;
+        }
+
+        @Override
+        void convert(final int width, final int rows,
+                     final ByteBuffer src, final int srcOff, final int srcStep,
+                     final ByteBuffer dst, final int dstOff, final int dstStep) {
+            final ByteBuffer s = src.duplicate();
+            final ByteBuffer d = dst.duplicate();
+            final int sLen = width * sBpp;
+            final int dLen = width * dBpp;
+            final byte[] srow = new byte[sLen];
+            final byte[] drow = new byte[dLen];
+            for(int y=0; y<rows; y++) {
+                final int dOff = dstOff + y * dstStep;
+                getRow(s, srcOff + y * srcStep, srow, sLen);
+                if( hasPad ) {
+                    getRow(d, dOff, drow, dLen);
+                }
+                pc.convert(srow, 0, drow, 0, width);
+                putRow(d, dOff, drow, dLen);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "PackedRows[bpp "+sBpp+" -> "+dBpp+", pad "+hasPad+", "+pc+"]";
+        }
+    }
+
+    /**
+     * Converts one pixel from the source {@link Bitstream} to the destination {@link Bitstream}.
+     * <p>
+     * Use a cached {@link PixelConverter} for repeated conversions of the same compositions,
+     * which avoids this method's temporary allocations and recomputations.
+     * </p>
+     */
     public static void convert(final ComponentMap cmap,
                                final PixelFormat.Composition dstComp,
                                final Bitstream<ByteBuffer> dstBitStream,
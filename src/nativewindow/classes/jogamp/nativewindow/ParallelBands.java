@@ -0,0 +1,224 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.nativewindow;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processes the rows of a 2D image in parallel horizontal bands using an {@link Executor},
+ * where the first band is always processed on the caller thread.
+ * <p>
+ * Each instance holds the configuration of one user, i.e. its thread count,
+ * the minimum pixel count to process in parallel and the minimum pixel count of one band,
+ * as well as its lazily created default {@link Executor}.
+ * </p>
+ */
+public class ParallelBands {
+    /** Processes rows {@code [row0, row1)}. */
+    public static interface RowBand {
+        void run(int row0, int row1);
+    }
+
+    private final String threadNamePrefix;
+    /** Number of threads of the default executor, {@code 0} if disabled. */
+    private final int threadCount;
+    /** Maximum number of bands, i.e. the configured thread count or the number of available processors if not configured. */
+    private final int maxBands;
+    private final int threshold;
+    private final int minBandPixels;
+    private volatile Executor defaultExecutor = null;
+    private volatile boolean defaultExecutorInitialized = false;
+
+    /**
+     * @param threadNamePrefix name prefix of the default executor's worker threads
+     * @param threads number of worker threads of the default executor,
+     *        {@code 0} disables the default executor and a negative value uses the number of available processors.
+     *        A positive value also limits the number of bands processed using an explicitly passed {@link Executor}.
+     * @param threshold minimum pixel count of an image to be processed in parallel
+     * @param minBandPixels minimum pixel count of one band
+     */
+    public ParallelBands(final String threadNamePrefix, final int threads, final int threshold, final int minBandPixels) {
+        this.threadNamePrefix = threadNamePrefix;
+        this.threadCount = 0 > threads ? Runtime.getRuntime().availableProcessors() : threads;
+        this.maxBands = 0 < threads ? threads : Runtime.getRuntime().availableProcessors();
+        this.threshold = Math.max(1, threshold);
+        this.minBandPixels = Math.max(1, minBandPixels);
+    }
+
+    /**
+     * Returns the default {@link Executor}, or {@code null} if images are processed on the caller thread only.
+     * <p>
+     * Unless {@link #setDefaultExecutor(Executor) set} explicitly, a daemon thread pool is created lazily
+     * if the configured thread count is greater than one.
+     * </p>
+     */
+    public Executor getDefaultExecutor() {
+        if( !defaultExecutorInitialized ) {
+            synchronized( this ) {
+                if( !defaultExecutorInitialized ) {
+                    if( 1 < threadCount ) {
+                        defaultExecutor = createExecutor(threadCount, threadNamePrefix);
+                    }
+                    defaultExecutorInitialized = true;
+                }
+            }
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the default {@link Executor}.
+     * @param executor the {@link Executor}, or {@code null} to process images on the caller thread only.
+     */
+    public void setDefaultExecutor(final Executor executor) {
+        synchronized( this ) {
+            defaultExecutor = executor;
+            defaultExecutorInitialized = true;
+        }
+    }
+
+    private static ExecutorService createExecutor(final int threadCount, final String threadNamePrefix) {
+        final AtomicInteger threadNum = new AtomicInteger(0);
+        return Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread t = new Thread(r, threadNamePrefix+threadNum.getAndIncrement());
+                t.setDaemon(true); // don't stop JVM from shutdown
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Returns the number of horizontal bands for the given image size, {@code 1} if the {@link Executor}
+     * is {@code null} or the image is below the threshold.
+     * <p>
+     * The band count is limited by the configured thread count
+     * and by the number of threads the given {@link Executor} can run in parallel plus the caller thread.
+     * </p>
+     */
+    public int getBandCount(final Executor executor, final int width, final int height) {
+        final long pixels = (long)width * (long)height;
+        if( null == executor || pixels < threshold ) {
+            return 1;
+        }
+        final int n = (int) Math.min(maxBands, getParallelism(executor) + 1L);
+        return (int) Math.max(1, Math.min(Math.min(n, height), pixels / minBandPixels));
+    }
+
+    /** Returns the number of tasks the given {@link Executor} can run in parallel, {@link Integer#MAX_VALUE} if unknown. */
+    public static int getParallelism(final Executor executor) {
+        if( executor instanceof ThreadPoolExecutor ) {
+            final ThreadPoolExecutor tpe = (ThreadPoolExecutor)executor;
+            return Math.max(1, Math.max(tpe.getCorePoolSize(), tpe.getMaximumPoolSize()));
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Processes all {@code height} rows, either on the caller thread or in {@link #getBandCount(Executor, int, int) horizontal bands}
+     * using the given {@link Executor}, where the first band is processed on the caller thread.
+     * Returns after all rows have been processed.
+     * <p>
+     * Bands rejected or not yet started by the {@link Executor} are processed on the caller thread,
+     * hence this method never waits for a band the {@link Executor} has queued but not started.
+     * </p>
+     * @param executor the {@link Executor} to run the bands, may be {@code null} to process on the caller thread only.
+     * @param failureMessage message of the {@link RuntimeException} thrown if a band failed
+     * @throws RuntimeException if a band failed, having the first failure as its cause
+     */
+    public void run(final RowBand rowBand, final Executor executor, final int width, final int height, final String failureMessage) {
+        final int bandCount = getBandCount(executor, width, height);
+        if( 1 >= bandCount ) {
+            rowBand.run(0, height);
+            return;
+        }
+        final int bandHeight = ( height + bandCount - 1 ) / bandCount;
+        final int bands = ( height + bandHeight - 1 ) / bandHeight; // rounding may leave less bands than requested
+        final CountDownLatch done = new CountDownLatch(bands);
+        final Throwable[] failure = { null };
+        final Runnable[] tasks = new Runnable[bands];
+        for(int i=0; i<bands; i++) {
+            final int y0 = i * bandHeight;
+            final int y1 = Math.min(height, y0 + bandHeight);
+            final AtomicBoolean started = new AtomicBoolean(false);
+            tasks[i] = new Runnable() {
+                @Override
+                public void run() {
+                    if( !started.compareAndSet(false, true) ) {
+                        return; // already processed by the other side
+                    }
+                    try {
+                        rowBand.run(y0, y1);
+                    } catch (final Throwable t) {
+                        synchronized( failure ) {
+                            if( null == failure[0] ) {
+                                failure[0] = t;
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                } };
+        }
+        for(int i=1; i<bands; i++) {
+            try {
+                executor.execute(tasks[i]);
+            } catch (final RejectedExecutionException ree) {
+                tasks[i].run();
+            }
+        }
+        for(int i=0; i<bands; i++) {
+            tasks[i].run(); // first band and all bands not started by the executor
+        }
+        boolean interrupted = false;
+        while( 0 < done.getCount() ) {
+            try {
+                done.await();
+            } catch (final InterruptedException ie) {
+                interrupted = true; // started bands still write into the destination, keep waiting
+            }
+        }
+        if( interrupted ) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized( failure ) {
+            if( null != failure[0] ) {
+                throw new RuntimeException(failureMessage, failure[0]);
+            }
+        }
+    }
+}
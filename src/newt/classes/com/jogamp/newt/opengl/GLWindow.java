@@ -756,7 +756,7 @@ public class GLWindow extends GLAutoDrawableBase implements GLAutoDrawable, Wind
         try {
             if( null != context ) {
                 // surface is locked/unlocked implicit by context's makeCurrent/release
-                helper.invokeGL(drawable, context, defaultDisplayAction, defaultInitAction);
+                helper.invokeGLDisplay(drawable, context, defaultDisplayAction, defaultInitAction);
                 done = true;
             } else {
                 done = false;
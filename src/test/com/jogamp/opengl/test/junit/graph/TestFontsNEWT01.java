@@ -0,0 +1,148 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.IOException;
+
+import jogamp.graph.font.typecast.GlyphCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.Font.Glyph;
+import com.jogamp.graph.font.FontFactory;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Testing the bounded {@link GlyphCache} of typecast fonts,
+ * i.e. pinning, LRU eviction by glyph count and estimated bytes as well as
+ * recreation of evicted glyphs.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestFontsNEWT01 extends UITestCase {
+    static final char firstLatin1 = 0xC0;
+
+    public static void main(final String args[]) throws IOException {
+        final String tstname = TestFontsNEWT01.class.getName();
+        org.junit.runner.JUnitCore.main(tstname);
+    }
+
+    static Font getFont() throws IOException {
+        return FontFactory.get(IOUtil.getResource("fonts/freefont/FreeSans.ttf",
+                TestFontsNEWT01.class.getClassLoader(), TestFontsNEWT01.class).getInputStream(), true);
+    }
+
+    static void assertSameOutline(final OutlineShape exp, final OutlineShape has) {
+        Assert.assertEquals(exp.getOutlineNumber(), has.getOutlineNumber());
+        for(int i=0; i<exp.getOutlineNumber(); i++) {
+            Assert.assertEquals(exp.getOutline(i).getVertexCount(), has.getOutline(i).getVertexCount());
+        }
+        Assert.assertEquals(exp.getBounds(), has.getBounds());
+    }
+
+    @Test
+    public void test01MaxGlyphs() throws IOException {
+        final Font font = getFont();
+        final GlyphCache cache = GlyphCache.get(font);
+        Assert.assertNotNull(cache);
+        cache.setLimits(16, 0);
+        System.err.println(cache);
+
+        // pinned
+        final Glyph glyphA = font.getGlyph('A');
+        for(char c='A'; c<='Z'; c++) {
+            font.getGlyph(c);
+        }
+        Assert.assertSame(glyphA, font.getGlyph('A'));
+        Assert.assertEquals(26, cache.getPinnedGlyphCount());
+        Assert.assertEquals(0, cache.getGlyphCount());
+
+        // LRU
+        final Glyph[] glyphs = new Glyph[32];
+        for(int i=0; i<glyphs.length; i++) {
+            glyphs[i] = font.getGlyph((char)(firstLatin1+i));
+        }
+        Assert.assertEquals(16, cache.getGlyphCount());
+        Assert.assertEquals(16, cache.getEvictionCount());
+        cache.resetStats();
+        for(int i=16; i<glyphs.length; i++) {
+            Assert.assertSame(glyphs[i], font.getGlyph((char)(firstLatin1+i)));
+        }
+        Assert.assertEquals(16, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+
+        // evicted glyph is recreated, while the user's instance stays valid
+        final Glyph glyph0 = font.getGlyph(firstLatin1);
+        Assert.assertNotSame(glyphs[0], glyph0);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(glyphs[0].getID(), glyph0.getID());
+        Assert.assertEquals(glyphs[0].getAdvance(20f, true), glyph0.getAdvance(20f, true), 0f);
+        assertSameOutline(glyphs[0].getShape(), glyph0.getShape());
+        System.err.println(cache);
+    }
+
+    @Test
+    public void test02MaxBytes() throws IOException {
+        final Font font = getFont();
+        final GlyphCache cache = GlyphCache.get(font);
+        final long maxBytes = 64 * 1024;
+        cache.setLimits(0, maxBytes);
+        for(char c=firstLatin1; c<0x250; c++) {
+            font.getGlyph(c);
+            Assert.assertTrue(cache.toString(), cache.getBytes() <= maxBytes);
+        }
+        Assert.assertTrue(cache.toString(), 0 < cache.getEvictionCount());
+        final long bytes = cache.getBytes();
+        cache.setLimits(0, maxBytes / 2);
+        Assert.assertTrue(cache.toString(), cache.getBytes() <= maxBytes / 2 && cache.getBytes() < bytes);
+        System.err.println(cache);
+
+        cache.clear();
+        Assert.assertEquals(0, cache.getPinnedGlyphCount());
+        Assert.assertEquals(0, cache.getGlyphCount());
+        Assert.assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void test03LazyShape() throws IOException {
+        final Font font = getFont();
+        final String text = "Hello JogAmp ÄÖÜ";
+        for(int i=0; i<text.length(); i++) {
+            final Glyph glyph = font.getGlyph(text.charAt(i));
+            final OutlineShape shape = glyph.getShape();
+            Assert.assertNotNull(shape);
+            Assert.assertSame(shape, glyph.getShape());
+        }
+    }
+}
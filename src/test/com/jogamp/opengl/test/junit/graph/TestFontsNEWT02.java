@@ -0,0 +1,141 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+
+import jogamp.graph.font.typecast.TypecastFontConstructor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.Font.Glyph;
+import com.jogamp.graph.geom.Outline;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Testing lazy, memory mapped font loading against regular font loading,
+ * comparing names, metrics and outlines of all glyphs of the Latin ranges.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestFontsNEWT02 extends UITestCase {
+    static final String[] fontNames = {
+        "fonts/freefont/FreeMono.ttf",
+        "fonts/freefont/FreeSans.ttf",
+        "fonts/freefont/FreeSansBoldOblique.ttf",
+        "fonts/freefont/FreeSerif.ttf",
+        "fonts/freefont/FreeSerifItalic.ttf" };
+
+    static final TypecastFontConstructor fontCtor = new TypecastFontConstructor();
+
+    public static void main(final String args[]) throws IOException {
+        final String tstname = TestFontsNEWT02.class.getName();
+        org.junit.runner.JUnitCore.main(tstname);
+    }
+
+    static Font getFont(final String fname, final boolean lazy) throws IOException {
+        final URL url = TestFontsNEWT02.class.getResource(fname);
+        Assert.assertNotNull(fname, url);
+        if( "file".equals(url.getProtocol()) ) {
+            try {
+                return fontCtor.create(new File(url.toURI()), lazy);
+            } catch (final URISyntaxException e) {
+                throw new IOException(e);
+            }
+        } else {
+            final URLConnection conn = url.openConnection();
+            return fontCtor.create(conn.getInputStream(), conn.getContentLength(), lazy);
+        }
+    }
+
+    static void assertSameGlyph(final String msg, final Glyph exp, final Glyph has) {
+        Assert.assertEquals(msg, exp.getID(), has.getID());
+        Assert.assertEquals(msg, exp.getBBox(), has.getBBox());
+        Assert.assertEquals(msg, exp.getAdvance(20f, true), has.getAdvance(20f, true), 0f);
+        Assert.assertEquals(msg, exp.getAdvance(20f, false), has.getAdvance(20f, false), 0f);
+        final OutlineShape expShape = exp.getShape();
+        final OutlineShape hasShape = has.getShape();
+        Assert.assertEquals(msg, expShape.getOutlineNumber(), hasShape.getOutlineNumber());
+        for(int i=0; i<expShape.getOutlineNumber(); i++) {
+            final Outline expOutline = expShape.getOutline(i);
+            final Outline hasOutline = hasShape.getOutline(i);
+            Assert.assertEquals(msg, expOutline.getVertexCount(), hasOutline.getVertexCount());
+            for(int j=0; j<expOutline.getVertexCount(); j++) {
+                Assert.assertArrayEquals(msg, expOutline.getVertex(j).getCoord(), hasOutline.getVertex(j).getCoord(), 0f);
+                Assert.assertEquals(msg, expOutline.getVertex(j).isOnCurve(), hasOutline.getVertex(j).isOnCurve());
+            }
+        }
+    }
+
+    @Test
+    public void test01LazyEqualsRegular() throws IOException {
+        for(int i=0; i<fontNames.length; i++) {
+            final String fname = fontNames[i];
+            final Font regular = getFont(fname, false);
+            final Font lazy = getFont(fname, true);
+            Assert.assertEquals(fname, regular.getAllNames(null, "/").toString(), lazy.getAllNames(null, "/").toString());
+            Assert.assertEquals(fname, regular.getNumGlyphs(), lazy.getNumGlyphs());
+            Assert.assertEquals(fname, regular.getLineHeight(20f), lazy.getLineHeight(20f), 0f);
+            for(char c=0x20; c<0x250; c++) {
+                assertSameGlyph(fname+" char 0x"+Integer.toHexString(c), regular.getGlyph(c), lazy.getGlyph(c));
+            }
+            System.err.println(fname+": "+regular.getFullFamilyName(null)+", "+regular.getNumGlyphs()+" glyphs: OK");
+        }
+    }
+
+    @Test
+    public void test10Perf() throws IOException {
+        final int loops = 10;
+        for(int i=0; i<fontNames.length; i++) {
+            final String fname = fontNames[i];
+            for(int j=0; j<loops; j++) { // warm up
+                getFont(fname, false);
+                getFont(fname, true);
+            }
+            final long t0 = System.nanoTime();
+            for(int j=0; j<loops; j++) {
+                getFont(fname, false);
+            }
+            final long t1 = System.nanoTime();
+            for(int j=0; j<loops; j++) {
+                getFont(fname, true);
+            }
+            final long t2 = System.nanoTime();
+            System.err.printf("Perf %s: regular %.3f ms, lazy %.3f ms%n", fname,
+                              ( t1 - t0 ) / 1e6 / loops, ( t2 - t1 ) / 1e6 / loops);
+        }
+    }
+}
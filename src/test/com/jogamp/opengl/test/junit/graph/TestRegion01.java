@@ -0,0 +1,179 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jogamp.graph.geom.plane.AffineTransform;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.curve.Region;
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.FontFactory;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Testing {@link Region#addOutlineShapes(List, AffineTransform, float[], java.util.concurrent.Executor)},
+ * i.e. parallel preparation of many glyph shapes must produce the same vertices and indices
+ * as the sequential {@link Region#addOutlineShapes(List, AffineTransform, float[])},
+ * both sizing the region's buffers once via {@link Region#setupInitialComponentCount(int, int)}.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestRegion01 extends UITestCase {
+
+    public static void main(final String args[]) throws IOException {
+        final String tstname = TestRegion01.class.getName();
+        org.junit.runner.JUnitCore.main(tstname);
+    }
+
+    /** Records all pushed vertex data and indices as well as the largest requested buffer size. */
+    static class RecordingRegion extends Region {
+        float[] attributes = new float[1024];
+        int attributeCount = 0;
+        int[] indices = new int[1024];
+        int indexCount = 0;
+        int setupVertexCount = 0;
+        int setupIndexCount = 0;
+
+        RecordingRegion() {
+            super(0);
+        }
+
+        @Override
+        protected void setupInitialComponentCount(final int vertexCount, final int indexCount) {
+            setupVertexCount = Math.max(setupVertexCount, vertexCount);
+            setupIndexCount = Math.max(setupIndexCount, indexCount);
+        }
+
+        @Override
+        protected void pushVertex(final float[] coords, final float[] texParams, final float[] rgba) {
+            if( attributeCount + 10 > attributes.length ) {
+                attributes = Arrays.copyOf(attributes, attributes.length * 2);
+            }
+            System.arraycopy(coords, 0, attributes, attributeCount, 3);
+            System.arraycopy(texParams, 0, attributes, attributeCount+3, 3);
+            if( null != rgba ) {
+                System.arraycopy(rgba, 0, attributes, attributeCount+6, 4);
+            }
+            attributeCount += 10;
+        }
+
+        @Override
+        protected void pushIndex(final int idx) {
+            if( indexCount + 1 > indices.length ) {
+                indices = Arrays.copyOf(indices, indices.length * 2);
+            }
+            indices[indexCount++] = idx;
+        }
+    }
+
+    /** Returns untriangulated copies of all glyph shapes of the given text, i.e. incl. duplicates. */
+    static List<OutlineShape> getShapes(final Font font, final String text) {
+        final ArrayList<OutlineShape> shapes = new ArrayList<OutlineShape>();
+        final AffineTransform identity = new AffineTransform();
+        OutlineShape last = null;
+        for(int i=0; i<text.length(); i++) {
+            final OutlineShape shape = font.getGlyph(text.charAt(i)).getShape();
+            if( null != shape ) {
+                if( 0 == i % 7 && null != last ) {
+                    shapes.add(last);
+                }
+                last = shape.transform(identity);
+                shapes.add(last);
+            }
+        }
+        return shapes;
+    }
+
+    void testImpl(final AffineTransform t, final float[] rgba) throws IOException {
+        final Font font = FontFactory.get(FontFactory.UBUNTU).getDefault();
+        final StringBuilder sb = new StringBuilder();
+        for(char c=0x21; c<0x17F; c++) {
+            if( FontFactory.isPrintableChar(c) ) {
+                sb.append(c);
+            }
+        }
+        final String text = sb.toString();
+
+        final RecordingRegion regionSeq = new RecordingRegion();
+        final List<OutlineShape> shapesSeq = getShapes(font, text);
+        final long t0 = System.nanoTime();
+        regionSeq.addOutlineShapes(shapesSeq, t, rgba);
+        final long t1 = System.nanoTime();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            final RecordingRegion regionPar = new RecordingRegion();
+            final List<OutlineShape> shapesPar = getShapes(font, text);
+            final long t2 = System.nanoTime();
+            regionPar.addOutlineShapes(shapesPar, t, rgba, executor);
+            final long t3 = System.nanoTime();
+            System.err.printf("%d shapes: sequential %.3f ms, parallel %.3f ms%n", shapesSeq.size(), (t1-t0)/1e6, (t3-t2)/1e6);
+
+            Assert.assertEquals(regionSeq.attributeCount, regionPar.attributeCount);
+            Assert.assertEquals(regionSeq.indexCount, regionPar.indexCount);
+            Assert.assertArrayEquals(Arrays.copyOf(regionSeq.attributes, regionSeq.attributeCount),
+                                     Arrays.copyOf(regionPar.attributes, regionPar.attributeCount), 0f);
+            Assert.assertArrayEquals(Arrays.copyOf(regionSeq.indices, regionSeq.indexCount),
+                                     Arrays.copyOf(regionPar.indices, regionPar.indexCount));
+            Assert.assertEquals(regionSeq.getBounds(), regionPar.getBounds());
+            // Buffers are sized once for all shapes
+            Assert.assertEquals(regionSeq.attributeCount / 10, regionSeq.setupVertexCount);
+            Assert.assertEquals(regionSeq.indexCount, regionSeq.setupIndexCount);
+            Assert.assertEquals(regionPar.attributeCount / 10, regionPar.setupVertexCount);
+            Assert.assertEquals(regionPar.indexCount, regionPar.setupIndexCount);
+            Assert.assertTrue(regionPar.isShapeDirty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test01Parallel() throws IOException {
+        testImpl(null, null);
+    }
+
+    @Test
+    public void test02ParallelTransformColor() throws IOException {
+        final AffineTransform t = new AffineTransform();
+        final AffineTransform tmp = new AffineTransform();
+        t.translate(10f, 20f, tmp);
+        t.scale(0.5f, 2f, tmp);
+        testImpl(t, new float[] { 1f, 0f, 0f, 1f });
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import jogamp.graph.geom.plane.AffineTransform;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.curve.tess.Triangulation;
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.FontFactory;
+import com.jogamp.graph.font.FontSet;
+import com.jogamp.graph.geom.SVertex;
+import com.jogamp.graph.geom.Triangle;
+import com.jogamp.graph.geom.Vertex;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Compares {@link Triangulation.Type#MONOTONE} with {@link Triangulation.Type#CDT}
+ * using synthetic polygons and all glyphs of the bundled Ubuntu fonts,
+ * while measuring the triangulation duration.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestTriangulation01 extends UITestCase {
+    static int loops = 10;
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        final String tstname = TestTriangulation01.class.getName();
+        org.junit.runner.JUnitCore.main(tstname);
+    }
+
+    static void addPolygon(final OutlineShape shape, final int n, final float cx, final float cy, final float r0, final float r1,
+                           final Random rnd, final boolean cw) {
+        shape.addEmptyOutline();
+        for(int i=0; i<n; i++) {
+            final double a = ( cw ? -2.0 : 2.0 ) * Math.PI * i / n;
+            final float r = null != rnd ? r0 + rnd.nextFloat() * ( r1 - r0 ) : ( 0 == ( i & 1 ) ? r0 : r1 );
+            shape.addVertex(cx + r * (float)Math.cos(a), cy + r * (float)Math.sin(a), true);
+        }
+        shape.closeLastOutline(false);
+    }
+
+    static float area(final Triangle t) {
+        final Vertex[] v = t.getVertices();
+        return ( ( v[1].getX() - v[0].getX() ) * ( v[2].getY() - v[0].getY() ) -
+                 ( v[2].getX() - v[0].getX() ) * ( v[1].getY() - v[0].getY() ) ) / 2f;
+    }
+
+    /** Curve triangles use cloned vertices w/ texture coordinates, inner triangles the outline's vertices. */
+    static boolean isCurveTriangle(final Triangle t) {
+        return 0f != t.getVertices()[1].getTexCoord()[1];
+    }
+
+    static float area(final ArrayList<Triangle> triangles) {
+        float area = 0;
+        for(int i=0; i<triangles.size(); i++) {
+            area += area(triangles.get(i));
+        }
+        return area;
+    }
+
+    static float polygonArea(final OutlineShape shape, final int outline) {
+        final ArrayList<Vertex> vertices = shape.getOutline(outline).getVertices();
+        final int size = vertices.size();
+        float area = 0;
+        for(int i=0; i<size; i++) {
+            final Vertex a = vertices.get(i);
+            final Vertex b = vertices.get((i+1)%size);
+            area += a.getX() * b.getY() - b.getX() * a.getY();
+        }
+        return Math.abs(area) / 2f;
+    }
+
+    static OutlineShape copy(final OutlineShape shape, final Triangulation.Type type) {
+        final OutlineShape copy = shape.transform(new AffineTransform());
+        copy.setTriangulationType(type);
+        return copy;
+    }
+
+    /** Returns the duration of one triangulation in ns. */
+    static long triangulate(final OutlineShape shape, final Triangulation.Type type, final int loops) {
+        final OutlineShape[] shapes = new OutlineShape[loops];
+        for(int i=0; i<loops; i++) {
+            shapes[i] = copy(shape, type);
+        }
+        final long t0 = System.nanoTime();
+        for(int i=0; i<loops; i++) {
+            shapes[i].getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+        }
+        return ( System.nanoTime() - t0 ) / loops;
+    }
+
+    void testPolygon(final String name, final OutlineShape shape, final float expArea, final boolean benchCDT) {
+        final OutlineShape mono = copy(shape, Triangulation.Type.MONOTONE);
+        final ArrayList<Triangle> triangles = mono.getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+        for(int i=0; i<triangles.size(); i++) {
+            Assert.assertTrue(name+": Triangle "+i+" not CCW: "+triangles.get(i), area(triangles.get(i)) >= 0f);
+        }
+        Assert.assertEquals(name+": Area", expArea, area(triangles), expArea * 1e-4f);
+
+        final long tMono = triangulate(shape, Triangulation.Type.MONOTONE, loops);
+        final long tCDT = benchCDT ? triangulate(shape, Triangulation.Type.CDT, 1) : 0;
+        System.err.printf("%-12s: %5d triangles, MONOTONE %9.3f ms, CDT %9.3f ms%n",
+                          name, triangles.size(), tMono/1e6, tCDT/1e6);
+    }
+
+    @Test
+    public void test01SyntheticPolygons() {
+        final Random rnd = new Random(1);
+        for(int n=100; n<=4000; n*=2) {
+            final OutlineShape shape = new OutlineShape(SVertex.factory());
+            addPolygon(shape, n, 0f, 0f, 4f, 5f, rnd, false);
+            testPolygon("random "+n, shape, polygonArea(shape, 0), n <= 800);
+        }
+        for(int n=100; n<=4000; n*=2) {
+            final OutlineShape shape = new OutlineShape(SVertex.factory());
+            addPolygon(shape, n, 0f, 0f, 1f, 5f, null, true);
+            testPolygon("star "+n, shape, polygonArea(shape, 0), n <= 800);
+        }
+        {
+            // 10 x 10 holes with equal y coordinates and an island in each hole
+            final OutlineShape shape = new OutlineShape(SVertex.factory());
+            addPolygon(shape, 4, 45f, 45f, 100f, 100f, null, false);
+            float area = polygonArea(shape, 0);
+            for(int i=0; i<10; i++) {
+                for(int j=0; j<10; j++) {
+                    addPolygon(shape, 8, i*10f, j*10f, 4f, 4f, null, true);
+                    area -= polygonArea(shape, shape.getOutlineNumber()-1);
+                    addPolygon(shape, 3, i*10f, j*10f, 1f, 1f, null, false);
+                    area += polygonArea(shape, shape.getOutlineNumber()-1);
+                }
+            }
+            testPolygon("holes", shape, area, true);
+        }
+    }
+
+    @Test
+    public void test02UbuntuGlyphs() throws IOException {
+        final FontSet fontSet = FontFactory.get(FontFactory.UBUNTU);
+        final int[][] fontIDs = { { FontSet.FAMILY_REGULAR, FontSet.STYLE_NONE },
+                                  { FontSet.FAMILY_REGULAR, FontSet.STYLE_BOLD },
+                                  { FontSet.FAMILY_LIGHT, FontSet.STYLE_ITALIC },
+                                  { FontSet.FAMILY_MONOSPACED, FontSet.STYLE_NONE } };
+        for(int f=0; f<fontIDs.length; f++) {
+            final Font font = fontSet.get(fontIDs[f][0], fontIDs[f][1]);
+            final ArrayList<OutlineShape> shapes = new ArrayList<OutlineShape>();
+            for(char c=0x21; c<0x250; c++) {
+                if( FontFactory.isPrintableChar(c) ) {
+                    final OutlineShape shape = font.getGlyph(c).getShape();
+                    if( null != shape && 0 < shape.getOutlineNumber() ) {
+                        shapes.add(shape);
+                    }
+                }
+            }
+            int triCountCDT = 0, triCountMono = 0;
+            for(int i=0; i<shapes.size(); i++) {
+                final OutlineShape cdt = copy(shapes.get(i), Triangulation.Type.CDT);
+                final OutlineShape mono = copy(shapes.get(i), Triangulation.Type.MONOTONE);
+                final ArrayList<Triangle> trisCDT = cdt.getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+                final ArrayList<Triangle> trisMono = mono.getTriangles(OutlineShape.VerticesState.QUADRATIC_NURBS);
+                triCountCDT += trisCDT.size();
+                triCountMono += trisMono.size();
+                // Same curve triangles incl. texture coordinates
+                Assert.assertEquals(cdt.getAddedVerticeCount(), mono.getAddedVerticeCount());
+                for(int j=0; j<trisCDT.size() && isCurveTriangle(trisCDT.get(j)); j++) {
+                    final Vertex[] vCDT = trisCDT.get(j).getVertices();
+                    final Vertex[] vMono = trisMono.get(j).getVertices();
+                    for(int v=0; v<3; v++) {
+                        Assert.assertArrayEquals(vCDT[v].getCoord(), vMono[v].getCoord(), 0f);
+                        Assert.assertArrayEquals(vCDT[v].getTexCoord(), vMono[v].getTexCoord(), 0f);
+                    }
+                }
+                for(int j=0; j<trisMono.size(); j++) {
+                    final Triangle t = trisMono.get(j);
+                    if( !isCurveTriangle(t) ) {
+                        Assert.assertTrue(font.getName(Font.NAME_FAMILY)+": Triangle not CCW: "+t, area(t) >= 0f);
+                    }
+                }
+            }
+            long tCDT = 0, tMono = 0;
+            for(int i=0; i<shapes.size(); i++) {
+                tCDT += triangulate(shapes.get(i), Triangulation.Type.CDT, loops);
+                tMono += triangulate(shapes.get(i), Triangulation.Type.MONOTONE, loops);
+            }
+            System.err.printf("%-20s: %4d glyphs, CDT %6d triangles %9.3f ms, MONOTONE %6d triangles %9.3f ms%n",
+                              font.getFullFamilyName(null), shapes.size(), triCountCDT, tCDT/1e6, triCountMono, tMono/1e6);
+        }
+    }
+}
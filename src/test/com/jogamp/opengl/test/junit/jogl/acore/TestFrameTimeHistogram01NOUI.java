@@ -0,0 +1,187 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.acore;
+
+import java.io.IOException;
+
+import jogamp.opengl.FPSCounterImpl;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.junit.util.SingletonJunitCase;
+import com.jogamp.opengl.FrameTimeHistogram;
+
+/**
+ * Validates {@link FrameTimeHistogram} percentiles, jank counting and concurrent snapshots
+ * as well as its integration in {@link FPSCounterImpl} w/o using GL.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestFrameTimeHistogram01NOUI extends SingletonJunitCase {
+    static final long MS = 1000000L;
+
+    static void assertWithin(final long expected, final long actual) {
+        final long tolerance = Math.max(1, expected / FrameTimeHistogram.SUB_BUCKET_HALF_COUNT);
+        Assert.assertTrue("Expected "+expected+" +/- "+tolerance+", but was "+actual, Math.abs(expected - actual) <= tolerance);
+    }
+
+    @Test
+    public void test01Empty() {
+        final FrameTimeHistogram h = new FrameTimeHistogram();
+        final FrameTimeHistogram.Snapshot s = h.snapshot();
+        Assert.assertEquals(0, s.count);
+        Assert.assertEquals(0, s.max);
+        Assert.assertEquals(0, s.p99);
+        Assert.assertEquals(0f, s.getJankRatio(), 0f);
+    }
+
+    @Test
+    public void test02Percentiles() {
+        final FrameTimeHistogram h = new FrameTimeHistogram();
+        // 1..1000 ms
+        for(int i=1000; i>=1; i--) {
+            h.record(i*MS);
+        }
+        final FrameTimeHistogram.Snapshot s = h.snapshot();
+        Assert.assertEquals(1000, s.count);
+        Assert.assertEquals(1*MS, s.min);
+        Assert.assertEquals(1000*MS, s.max);
+        Assert.assertEquals(500500*MS/1000, s.mean);
+        assertWithin(500*MS, s.p50);
+        assertWithin(950*MS, s.p95);
+        assertWithin(990*MS, s.p99);
+        Assert.assertEquals(s.max, s.getValueAtPercentile(100.0));
+        Assert.assertEquals(s.min, s.getValueAtPercentile(0.0));
+        Assert.assertTrue(s.p50 <= s.p95 && s.p95 <= s.p99 && s.p99 <= s.max);
+
+        // small exact values
+        h.reset();
+        for(int i=0; i<FrameTimeHistogram.SUB_BUCKET_COUNT; i++) {
+            h.record(i);
+        }
+        final FrameTimeHistogram.Snapshot s2 = h.snapshot(s);
+        Assert.assertSame(s, s2);
+        Assert.assertEquals(FrameTimeHistogram.SUB_BUCKET_COUNT, s2.count);
+        Assert.assertEquals(FrameTimeHistogram.SUB_BUCKET_COUNT/2-1, s2.p50);
+
+        // clamping
+        h.reset();
+        h.record(-1);
+        h.record(Long.MAX_VALUE);
+        h.snapshot(s);
+        Assert.assertEquals(0, s.min);
+        Assert.assertEquals(FrameTimeHistogram.MAX_VALUE, s.max);
+    }
+
+    @Test
+    public void test03Jank() {
+        final FrameTimeHistogram h = new FrameTimeHistogram();
+        Assert.assertEquals(FrameTimeHistogram.DEFAULT_JANK_THRESHOLD, h.getJankThreshold());
+        for(int i=0; i<90; i++) {
+            h.record(16*MS);
+        }
+        for(int i=0; i<10; i++) {
+            h.record(33*MS);
+        }
+        FrameTimeHistogram.Snapshot s = h.snapshot();
+        Assert.assertEquals(10, s.jankCount);
+        Assert.assertEquals(0.1f, s.getJankRatio(), 0.0001f);
+        assertWithin(16*MS, s.p50);
+        assertWithin(33*MS, s.p95);
+
+        h.reset();
+        h.setJankThreshold(0);
+        h.record(100*MS);
+        s = h.snapshot();
+        Assert.assertEquals(0, s.jankCount);
+        Assert.assertEquals(0, s.jankThreshold);
+    }
+
+    @Test
+    public void test04ConcurrentSnapshot() throws InterruptedException {
+        final FrameTimeHistogram h = new FrameTimeHistogram();
+        final int loops = 200000;
+        final Thread recorder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for(int i=0; i<loops; i++) {
+                    h.record( ( i % 100 ) * MS );
+                }
+            } }, "FrameTimeRecorder");
+        recorder.start();
+        final FrameTimeHistogram.Snapshot s = new FrameTimeHistogram.Snapshot();
+        long lastCount = 0;
+        while( recorder.isAlive() ) {
+            h.snapshot(s);
+            Assert.assertTrue(s.count >= lastCount);
+            Assert.assertTrue(s.p50 <= s.p99);
+            Assert.assertTrue(s.max <= 99*MS);
+            lastCount = s.count;
+        }
+        recorder.join();
+        h.snapshot(s);
+        Assert.assertEquals(loops, s.count);
+        Assert.assertEquals(0, s.min);
+        Assert.assertEquals(99*MS, s.max);
+    }
+
+    @Test
+    public void test05FPSCounter() throws InterruptedException {
+        final FPSCounterImpl fps = new FPSCounterImpl();
+        Assert.assertFalse(fps.getFrameTimeStats());
+        fps.tickFPS();
+        fps.recordDisplayTime(1*MS);
+        Assert.assertEquals(0, fps.getFrameTimes().getCount());
+        Assert.assertEquals(0, fps.getDisplayTimes().getCount());
+
+        fps.setFrameTimeStats(true);
+        for(int i=0; i<5; i++) {
+            fps.recordDisplayTime(2*MS);
+            fps.recordSwapBufferTime(1*MS);
+            fps.tickFPS();
+            Thread.sleep(5);
+        }
+        // first tick starts the period
+        Assert.assertEquals(4, fps.getFrameTimes().getCount());
+        Assert.assertTrue(fps.getFrameTimes().snapshot().min >= 4*MS);
+        Assert.assertEquals(5, fps.getDisplayTimes().getCount());
+        Assert.assertEquals(5, fps.getSwapBufferTimes().getCount());
+
+        fps.resetFPSCounter();
+        Assert.assertTrue(fps.getFrameTimeStats());
+        Assert.assertEquals(0, fps.getFrameTimes().getCount());
+        Assert.assertEquals(0, fps.getDisplayTimes().getCount());
+        Assert.assertEquals(0, fps.getSwapBufferTimes().getCount());
+    }
+
+    public static void main(final String args[]) throws IOException {
+        org.junit.runner.JUnitCore.main(TestFrameTimeHistogram01NOUI.class.getName());
+    }
+}
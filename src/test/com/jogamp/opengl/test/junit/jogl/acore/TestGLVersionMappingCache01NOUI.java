@@ -0,0 +1,162 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.acore;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jogamp.opengl.GLVersionMappingCache;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.junit.util.SingletonJunitCase;
+import com.jogamp.opengl.GLRendererQuirks;
+
+/**
+ * Validates persistence and validation of {@link GLVersionMappingCache} entries w/o using GL.
+ * <p>
+ * The cache itself is enabled via property <code>jogl.glprofile.cache</code>,
+ * its GL validation may be tested via switching Mesa's software rasterizer
+ * w/ <code>LIBGL_ALWAYS_SOFTWARE=1</code> between runs.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestGLVersionMappingCache01NOUI extends SingletonJunitCase {
+    static final String deviceID = "x11_:0.0-0_unit";
+    static final String config = "TestFactory, GLES true, GLDesktop true";
+
+    // protected GLContext context option bits
+    static final int CTX_IS_ARB_CREATED = 1 << 0;
+    static final int CTX_PROFILE_COMPAT = 1 << 1;
+    static final int CTX_PROFILE_CORE   = 1 << 2;
+    static final int CTX_PROFILE_ES     = 1 << 3;
+
+    File dir;
+
+    @Before
+    public void initTest() throws IOException {
+        dir = File.createTempFile("jogl-glversions", "");
+        Assert.assertTrue(dir.delete());
+        Assert.assertTrue(dir.mkdirs());
+    }
+
+    @After
+    public void cleanupTest() {
+        final File[] files = dir.listFiles();
+        if( null != files ) {
+            for(final File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    static GLVersionMappingCache createEntry(final String renderer) {
+        final List<GLVersionMappingCache.Mapping> mappings = new ArrayList<GLVersionMappingCache.Mapping>();
+        final GLVersionMappingCache.Mapping core = new GLVersionMappingCache.Mapping(4, CTX_PROFILE_CORE, 4, 5,
+                CTX_PROFILE_CORE | CTX_IS_ARB_CREATED,
+                new int[] { GLRendererQuirks.NoSetSwapIntervalPostRetarget, GLRendererQuirks.GLFlushBeforeRelease });
+        mappings.add(core);
+        mappings.add(new GLVersionMappingCache.Mapping(2, CTX_PROFILE_COMPAT, 3, 0,
+                CTX_PROFILE_COMPAT | CTX_IS_ARB_CREATED, new int[0]));
+        mappings.add(new GLVersionMappingCache.Mapping(2, CTX_PROFILE_ES, 3, 1,
+                CTX_PROFILE_ES | CTX_IS_ARB_CREATED,
+                new int[] { GLRendererQuirks.GLFlushBeforeRelease, GLRendererQuirks.DontCloseX11Display }));
+        final int[] quirks = { GLRendererQuirks.NoSetSwapIntervalPostRetarget, GLRendererQuirks.GLFlushBeforeRelease };
+        return new GLVersionMappingCache(deviceID, config, "Mesa project", renderer, "4.5 (Core Profile) Mesa 20.0.8",
+                                         core, mappings, quirks);
+    }
+
+    @Test
+    public void test01WriteRead() {
+        Assert.assertNull(GLVersionMappingCache.read(dir, deviceID));
+        final GLVersionMappingCache c0 = createEntry("llvmpipe (LLVM 10.0.0, 256 bits)");
+        Assert.assertTrue(c0.write(dir));
+        Assert.assertTrue(GLVersionMappingCache.getFile(dir, deviceID).isFile());
+
+        final GLVersionMappingCache c1 = GLVersionMappingCache.read(dir, deviceID);
+        Assert.assertNotNull(c1);
+        Assert.assertEquals(c0.deviceID, c1.deviceID);
+        Assert.assertEquals(c0.config, c1.config);
+        Assert.assertEquals(c0.version, c1.version);
+        Assert.assertEquals(c0.validation, c1.validation);
+        Assert.assertEquals(c0.mappings, c1.mappings);
+        for(int i=0; i<c0.mappings.size(); i++) {
+            Assert.assertArrayEquals(c0.mappings.get(i).quirks, c1.mappings.get(i).quirks);
+        }
+        Assert.assertArrayEquals(c0.validation.quirks, c1.validation.quirks);
+        Assert.assertArrayEquals(c0.stickyQuirks, c1.stickyQuirks);
+        Assert.assertTrue(c1.isValid(config));
+        Assert.assertTrue(c1.isSameRenderer(c0.glVendor, c0.glRenderer, c0.glVersion));
+
+        // overwrite
+        final GLVersionMappingCache c2 = createEntry("Mesa DRI Intel(R) HD Graphics 620 (KBL GT2)");
+        Assert.assertTrue(c2.write(dir));
+        Assert.assertEquals(c2.glRenderer, GLVersionMappingCache.read(dir, deviceID).glRenderer);
+        Assert.assertEquals(1, dir.listFiles().length);
+    }
+
+    @Test
+    public void test02Validation() {
+        final GLVersionMappingCache c = createEntry("llvmpipe (LLVM 10.0.0, 256 bits)");
+        Assert.assertTrue(c.isValid(config));
+        Assert.assertFalse(c.isValid(config+", GLCore false"));
+        Assert.assertFalse(c.isSameRenderer(c.glVendor, "Mesa DRI Intel(R) HD Graphics 620 (KBL GT2)", c.glVersion));
+        Assert.assertFalse(c.isSameRenderer(c.glVendor, c.glRenderer, "4.5 (Core Profile) Mesa 21.0.0"));
+    }
+
+    @Test
+    public void test03DeleteAndCorrupt() throws IOException {
+        Assert.assertTrue(createEntry("llvmpipe").write(dir));
+        GLVersionMappingCache.delete(dir, deviceID);
+        Assert.assertNull(GLVersionMappingCache.read(dir, deviceID));
+
+        final FileOutputStream out = new FileOutputStream(GLVersionMappingCache.getFile(dir, deviceID));
+        try {
+            out.write("device=x11_:0.0-0_unit\nmappings=2\nmapping.0=4 4 4\n".getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+        Assert.assertNull(GLVersionMappingCache.read(dir, deviceID));
+        // other device's entry is not taken
+        Assert.assertTrue(createEntry("llvmpipe").write(dir));
+        Assert.assertNull(GLVersionMappingCache.read(dir, "x11_:1.0-0_unit"));
+    }
+
+    public static void main(final String args[]) throws IOException {
+        org.junit.runner.JUnitCore.main(TestGLVersionMappingCache01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.acore.anim;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.jogamp.opengl.FrameTimeHistogram;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawableFactory;
+import com.jogamp.opengl.GLEventListener;
+import com.jogamp.opengl.GLOffscreenAutoDrawable;
+import com.jogamp.opengl.GLProfile;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.PacedAnimator;
+
+/**
+ * Runs {@link PacedAnimator} on offscreen drawables, validating frame count, pacing error,
+ * in phase rendering of multiple drawables and the {@link PacedAnimator.MissedFramePolicy}.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestPacedAnimator01NEWT extends UITestCase {
+    static long duration = 1000; // ms
+    static float fps = 60f;
+
+    /** Counts frames, optionally stalling a single frame. */
+    static class FrameCounter implements GLEventListener {
+        final AtomicInteger frames = new AtomicInteger();
+        volatile int stallFrame = -1;
+        volatile long stallMillis = 0;
+
+        @Override
+        public void init(final GLAutoDrawable drawable) {}
+        @Override
+        public void dispose(final GLAutoDrawable drawable) {}
+        @Override
+        public void display(final GLAutoDrawable drawable) {
+            final int f = frames.incrementAndGet();
+            if( f == stallFrame ) {
+                try {
+                    Thread.sleep(stallMillis);
+                } catch (final InterruptedException e) { }
+            }
+        }
+        @Override
+        public void reshape(final GLAutoDrawable drawable, final int x, final int y, final int width, final int height) {}
+    }
+
+    static GLOffscreenAutoDrawable createDrawable(final GLEventListener listener) {
+        final GLProfile glp = GLProfile.getDefault();
+        final GLCapabilities caps = new GLCapabilities(glp);
+        caps.setOnscreen(false);
+        final GLOffscreenAutoDrawable glad = GLDrawableFactory.getFactory(glp).createOffscreenAutoDrawable(null, caps, null, 64, 64);
+        Assert.assertNotNull(glad);
+        glad.addGLEventListener(listener);
+        glad.display(); // realize
+        return glad;
+    }
+
+    static void runAnimator(final PacedAnimator animator, final long millis) throws InterruptedException {
+        animator.start();
+        Assert.assertTrue(animator.isStarted());
+        Assert.assertTrue(animator.isAnimating());
+        Thread.sleep(millis);
+        animator.stop();
+        Assert.assertFalse(animator.isStarted());
+        Assert.assertFalse(animator.isAnimating());
+    }
+
+    @Test
+    public void test01Pacing() throws InterruptedException {
+        final FrameCounter counter = new FrameCounter();
+        final GLOffscreenAutoDrawable glad = createDrawable(counter);
+        final PacedAnimator animator = new PacedAnimator(glad, fps);
+        animator.setFrameTimeStats(true);
+        counter.frames.set(0);
+        runAnimator(animator, duration);
+
+        final int expected = (int) ( duration * fps / 1000f );
+        final int frames = counter.frames.get();
+        final FrameTimeHistogram.Snapshot pacing = animator.getPacingErrors().snapshot();
+        final FrameTimeHistogram.Snapshot periods = animator.getFrameTimes().snapshot();
+        System.err.println("Frames "+frames+" / "+expected+", dropped "+animator.getDroppedFrames());
+        System.err.println("Pacing error: "+pacing);
+        System.err.println("Frame period: "+periods);
+        Assert.assertTrue("Too many frames "+frames+" > "+expected, frames <= expected + 2);
+        Assert.assertTrue("Too few frames "+frames+" < "+expected, frames >= expected * 3 / 4);
+        Assert.assertEquals(frames, pacing.count);
+        // median frame period close to target, 2ms tolerance
+        Assert.assertTrue("Frame period median "+periods.p50, Math.abs(periods.p50 - animator.getFramePeriod()) < 2000000L);
+        glad.destroy();
+    }
+
+    @Test
+    public void test02InPhase() throws InterruptedException {
+        final FrameCounter[] counters = new FrameCounter[3];
+        final GLOffscreenAutoDrawable[] glads = new GLOffscreenAutoDrawable[counters.length];
+        final PacedAnimator animator = new PacedAnimator(fps);
+        for(int i=0; i<counters.length; i++) {
+            counters[i] = new FrameCounter();
+            glads[i] = createDrawable(counters[i]);
+            animator.add(glads[i]);
+            counters[i].frames.set(0);
+        }
+        runAnimator(animator, duration/2);
+        final int frames = counters[0].frames.get();
+        Assert.assertTrue(frames > 0);
+        for(int i=0; i<counters.length; i++) {
+            Assert.assertEquals("Drawable "+i+" not in phase", frames, counters[i].frames.get());
+            glads[i].destroy();
+        }
+
+        // two animators sharing the same deadline grid
+        final FrameCounter c1 = new FrameCounter(), c2 = new FrameCounter();
+        final GLOffscreenAutoDrawable g1 = createDrawable(c1), g2 = createDrawable(c2);
+        final PacedAnimator a1 = new PacedAnimator(g1, fps), a2 = new PacedAnimator(g2, fps);
+        final long origin = System.nanoTime();
+        a1.setTimeOrigin(origin);
+        a2.setTimeOrigin(origin);
+        c1.frames.set(0);
+        c2.frames.set(0);
+        a1.start();
+        a2.start();
+        Thread.sleep(duration/2);
+        a1.stop();
+        a2.stop();
+        Assert.assertTrue("Not in phase: "+c1.frames.get()+" != "+c2.frames.get(), Math.abs(c1.frames.get() - c2.frames.get()) <= 2);
+        g1.destroy();
+        g2.destroy();
+    }
+
+    private void testMissedFramePolicy(final PacedAnimator.MissedFramePolicy policy) throws InterruptedException {
+        final FrameCounter counter = new FrameCounter();
+        final GLOffscreenAutoDrawable glad = createDrawable(counter);
+        final PacedAnimator animator = new PacedAnimator(glad, fps);
+        animator.setMissedFramePolicy(policy, 10);
+        final long period = animator.getFramePeriod();
+        counter.frames.set(0);
+        counter.stallFrame = 10;
+        counter.stallMillis = 5 * period / 1000000L; // miss ~5 deadlines
+        runAnimator(animator, duration);
+
+        final long dropped = animator.getDroppedFrames();
+        final int frames = counter.frames.get();
+        System.err.println(policy+": frames "+frames+", dropped "+dropped+", pacing error "+animator.getPacingErrors().snapshot());
+        if( PacedAnimator.MissedFramePolicy.CATCH_UP == policy ) {
+            Assert.assertEquals(0, dropped);
+            // caught up frames are rendered past their deadline
+            Assert.assertTrue(animator.getPacingErrors().snapshot().max >= period);
+        } else {
+            Assert.assertTrue("No dropped frames", dropped >= 3);
+        }
+        glad.destroy();
+    }
+
+    @Test
+    public void test03CatchUp() throws InterruptedException {
+        testMissedFramePolicy(PacedAnimator.MissedFramePolicy.CATCH_UP);
+    }
+
+    @Test
+    public void test04Drop() throws InterruptedException {
+        testMissedFramePolicy(PacedAnimator.MissedFramePolicy.DROP);
+    }
+
+    @Test
+    public void test05PauseResume() throws InterruptedException {
+        final FrameCounter counter = new FrameCounter();
+        final GLOffscreenAutoDrawable glad = createDrawable(counter);
+        final PacedAnimator animator = new PacedAnimator(10f); // long period, pause must interrupt waiting
+        animator.start();
+        Assert.assertTrue(animator.isStarted());
+        Assert.assertTrue(animator.isPaused());
+        Assert.assertFalse(animator.isAnimating());
+
+        animator.add(glad);
+        Assert.assertTrue(animator.isAnimating());
+        Thread.sleep(150);
+
+        final long t0 = System.currentTimeMillis();
+        Assert.assertTrue(animator.pause());
+        Assert.assertTrue(animator.isPaused());
+        Assert.assertFalse(animator.isAnimating());
+        final int frames = counter.frames.get();
+        Thread.sleep(250);
+        Assert.assertEquals(frames, counter.frames.get());
+
+        Assert.assertTrue(animator.resume());
+        Assert.assertFalse(animator.isPaused());
+        Assert.assertTrue(animator.isAnimating());
+        Thread.sleep(250);
+        Assert.assertTrue(counter.frames.get() > frames);
+
+        Assert.assertTrue(animator.stop());
+        Assert.assertTrue("Pause/stop took too long", System.currentTimeMillis() - t0 < 1000);
+        Assert.assertFalse(animator.isStarted());
+        glad.destroy();
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-time")) {
+                i++;
+                duration = MiscUtils.atol(args[i], duration);
+            } else if(args[i].equals("-fps")) {
+                i++;
+                fps = MiscUtils.atoi(args[i], (int)fps);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestPacedAnimator01NEWT.class.getName());
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.awt;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLEventListener;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.awt.GLJPanel;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.AWTRobotUtil;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.GLReadBufferUtil;
+import com.jogamp.opengl.util.awt.AWTGLPixelBuffer.AWTGLPixelBufferProvider;
+
+/**
+ * Validates {@link GLJPanel}'s synchronous and pipelined readback w/ and w/o dirty regions
+ * by painting the panel into a {@link BufferedImage}.
+ * <p>
+ * Each even frame is cleared w/ a distinct red value.
+ * Each odd frame is cleared w/ blue, while only its top-left quadrant is cleared w/ green and added as the dirty region.
+ * Hence a honored dirty region keeps the previous red value outside of the quadrant.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestGLJPanelReadback01AWT extends UITestCase {
+    static int frameCount = 10;
+
+    @BeforeClass
+    public static void initClass() {
+        GLProfile.initSingleton();
+    }
+
+    static int frameRed(final int frame) {
+        return ( frame * 20 + 10 ) & 0xff;
+    }
+
+    static class ReadbackListener implements GLEventListener {
+        final GLJPanel panel;
+        final boolean useDirtyRegion;
+        volatile int frame = 0;
+        volatile boolean pipelineAvailable;
+        volatile boolean dirtyRegionAvailable;
+
+        ReadbackListener(final GLJPanel panel, final boolean useDirtyRegion) {
+            this.panel = panel;
+            this.useDirtyRegion = useDirtyRegion;
+        }
+        @Override
+        public void init(final GLAutoDrawable drawable) {
+            pipelineAvailable = GLReadBufferUtil.isAsyncReadbackAvailable(drawable.getGL());
+            dirtyRegionAvailable = drawable.getGL().isGL2ES3();
+        }
+        @Override
+        public void dispose(final GLAutoDrawable drawable) {}
+        @Override
+        public void display(final GLAutoDrawable drawable) {
+            final GL gl = drawable.getGL();
+            final int w = drawable.getSurfaceWidth();
+            final int h = drawable.getSurfaceHeight();
+            if( useDirtyRegion && 1 == frame % 2 ) {
+                gl.glClearColor(0f, 0f, 1f, 1f);
+                gl.glClear(GL.GL_COLOR_BUFFER_BIT);
+                gl.glEnable(GL.GL_SCISSOR_TEST);
+                gl.glScissor(0, h - h/2, w/2, h/2); // top-left in AWT orientation
+                gl.glClearColor(0f, 1f, 0f, 1f);
+                gl.glClear(GL.GL_COLOR_BUFFER_BIT);
+                gl.glDisable(GL.GL_SCISSOR_TEST);
+                panel.addReadbackDirtyRegion(new Rectangle(0, 0, w/2, h/2));
+            } else {
+                gl.glClearColor(frameRed(frame)/255f, 0f, 0f, 1f);
+                gl.glClear(GL.GL_COLOR_BUFFER_BIT);
+            }
+            frame++;
+        }
+        @Override
+        public void reshape(final GLAutoDrawable drawable, final int x, final int y, final int width, final int height) {}
+    }
+
+    static void assertRed(final String msg, final int expRed, final int rgb) {
+        final int red = ( rgb >> 16 ) & 0xff;
+        final int green = ( rgb >> 8 ) & 0xff;
+        Assert.assertTrue(msg+": red "+red+" != "+expRed+", rgb 0x"+Integer.toHexString(rgb), Math.abs(red - expRed) <= 1 && green <= 1);
+    }
+    static void assertGreen(final String msg, final int rgb) {
+        final int red = ( rgb >> 16 ) & 0xff;
+        final int green = ( rgb >> 8 ) & 0xff;
+        Assert.assertTrue(msg+": not green, rgb 0x"+Integer.toHexString(rgb), red <= 1 && green >= 254);
+    }
+    static void assertBlue(final String msg, final int rgb) {
+        final int red = ( rgb >> 16 ) & 0xff;
+        final int green = ( rgb >> 8 ) & 0xff;
+        final int blue = rgb & 0xff;
+        Assert.assertTrue(msg+": not blue, rgb 0x"+Integer.toHexString(rgb), red <= 1 && green <= 1 && blue >= 254);
+    }
+
+    private void testImpl(final boolean pipelined, final boolean useDirtyRegion) throws InterruptedException {
+        final GLCapabilities caps = new GLCapabilities(GLProfile.getDefault());
+        final GLJPanel panel = new GLJPanel(caps);
+        // non singleton buffer, allowing dirty region readback
+        panel.setPixelBufferProvider(new AWTGLPixelBufferProvider(true));
+        panel.setPipelinedReadback(pipelined);
+        Assert.assertEquals(pipelined, panel.isPipelinedReadback());
+        panel.setReadbackStats(true);
+        final ReadbackListener listener = new ReadbackListener(panel, useDirtyRegion);
+        panel.addGLEventListener(listener);
+        final Dimension size = new Dimension(256, 256);
+        panel.setPreferredSize(size);
+
+        final JFrame frame = new JFrame();
+        try {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    frame.getContentPane().add(panel);
+                    frame.pack();
+                    frame.setVisible(true);
+                } } );
+        } catch( final Throwable throwable ) {
+            throwable.printStackTrace();
+            Assume.assumeNoException( throwable );
+        }
+        Assert.assertTrue(AWTRobotUtil.waitForVisible(frame, true, null));
+        Assert.assertTrue(AWTRobotUtil.waitForRealized(panel, true, null));
+        Thread.sleep(200); // settle initial reshape
+
+        final BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        final int[] painted = new int[] { 0 };
+        for(int i=0; i<frameCount; i++) {
+            try {
+                SwingUtilities.invokeAndWait(new Runnable() {
+                    public void run() {
+                        final Graphics g = image.getGraphics();
+                        panel.paint(g);
+                        g.dispose();
+                        painted[0] = listener.frame - 1;
+                    } } );
+            } catch (final Exception e) {
+                throw new RuntimeException(e);
+            }
+            final int f = painted[0];
+            if( 1 > f ) {
+                continue; // initial frame is read back synchronously
+            }
+            // last frame contained in the image
+            final int k = pipelined && listener.pipelineAvailable ? f - 1 : f;
+            final int tl = image.getRGB(image.getWidth()/4, image.getHeight()/4);
+            final int br = image.getRGB(image.getWidth()*3/4, image.getHeight()*3/4);
+            final String msg = "Frame "+f+", image of frame "+k;
+            if( useDirtyRegion && 1 == k % 2 ) {
+                assertGreen(msg+", top-left", tl);
+                if( listener.dirtyRegionAvailable ) {
+                    assertRed(msg+", bottom-right", frameRed(k-1), br);
+                } else {
+                    assertBlue(msg+", bottom-right", br);
+                }
+            } else {
+                assertRed(msg+", top-left", frameRed(k), tl);
+                assertRed(msg+", bottom-right", frameRed(k), br);
+            }
+        }
+        System.err.println("Pipelined "+pipelined+" (available "+listener.pipelineAvailable+"), dirty region "+useDirtyRegion+" (available "+listener.dirtyRegionAvailable+")");
+        System.err.println("Readback periods:   "+panel.getReadbackFramePeriods().snapshot());
+        System.err.println("Readback times:     "+panel.getReadbackTimes().snapshot());
+        System.err.println("Readback latencies: "+panel.getReadbackLatencies().snapshot());
+        Assert.assertTrue(panel.getReadbackTimes().getCount() >= frameCount);
+        Assert.assertTrue(panel.getReadbackLatencies().getCount() >= frameCount - 1);
+
+        try {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    frame.dispose();
+                } } );
+        } catch (final Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    public void test01Sync() throws InterruptedException {
+        testImpl(false, false);
+    }
+
+    @Test
+    public void test02SyncDirtyRegion() throws InterruptedException {
+        testImpl(false, true);
+    }
+
+    @Test
+    public void test03Pipelined() throws InterruptedException {
+        testImpl(true, false);
+    }
+
+    @Test
+    public void test04PipelinedDirtyRegion() throws InterruptedException {
+        testImpl(true, true);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-frames")) {
+                i++;
+                frameCount = MiscUtils.atoi(args[i], frameCount);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGLJPanelReadback01AWT.class.getName());
+    }
+}
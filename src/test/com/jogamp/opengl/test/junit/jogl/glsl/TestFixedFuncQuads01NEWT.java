@@ -0,0 +1,237 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.glsl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES1;
+import com.jogamp.opengl.GL2ES2;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawableFactory;
+import com.jogamp.opengl.GLEventListener;
+import com.jogamp.opengl.GLOffscreenAutoDrawable;
+import com.jogamp.opengl.GLPipelineFactory;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.GLRunnable;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.ImmModeSink;
+import com.jogamp.opengl.util.glsl.fixedfunc.FixedFuncUtil;
+import com.jogamp.opengl.util.glsl.fixedfunc.ShaderSelectionMode;
+
+/**
+ * Benchmarks the fixed function emulation's <code>GL_QUADS</code> rendering on a profile w/o native quads,
+ * counting the issued draw calls per frame via the trace pipeline and measuring the time per frame.
+ * <p>
+ * A grid of quads covering the viewport is rendered via {@link ImmModeSink} w/ and w/o client indices,
+ * the result is validated by reading back the framebuffer.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestFixedFuncQuads01NEWT extends UITestCase {
+    static int gridSize = 64;
+    static int frameCount = 100;
+
+    static GLProfile getQuadsEmulationProfile() {
+        if( GLProfile.isAvailable(GLProfile.GLES2) ) {
+            return GLProfile.get(GLProfile.GLES2);
+        } else if( GLProfile.isAvailable(GLProfile.GL3) ) {
+            return GLProfile.get(GLProfile.GL3);
+        }
+        return null;
+    }
+
+    static int countDrawCalls(final ByteArrayOutputStream trace) {
+        final String s = trace.toString();
+        trace.reset();
+        int n = 0;
+        for(int i = s.indexOf("glDraw"); 0 <= i; i = s.indexOf("glDraw", i+1)) {
+            n++;
+        }
+        return n;
+    }
+
+    static class QuadsListener implements GLEventListener {
+        final boolean useIndices;
+        final ByteArrayOutputStream trace;
+        ImmModeSink ims;
+        ShortBuffer indices;
+        boolean indicesAvailable;
+
+        QuadsListener(final boolean useIndices, final ByteArrayOutputStream trace) {
+            this.useIndices = useIndices;
+            this.trace = trace;
+        }
+
+        @Override
+        public void init(final GLAutoDrawable drawable) {
+            GL _gl = drawable.getGL();
+            if( null != trace ) {
+                _gl = _gl.getContext().setGL( GLPipelineFactory.create("com.jogamp.opengl.Trace", GL2ES2.class, _gl, new Object[] { new PrintStream(trace) } ) );
+            }
+            final GL2ES1 gl = FixedFuncUtil.wrapFixedFuncEmul(_gl, ShaderSelectionMode.AUTO, null, true, false);
+            indicesAvailable = gl.getContext().isCPUDataSourcingAvail();
+
+            final int quads = gridSize * gridSize;
+            ims = ImmModeSink.createFixed(quads * 4,
+                                          2, GL.GL_FLOAT, // vertex
+                                          0, GL.GL_FLOAT, // color
+                                          0, GL.GL_FLOAT, // normal
+                                          0, GL.GL_FLOAT, // texCoords
+                                          GL.GL_STATIC_DRAW);
+            indices = Buffers.newDirectShortBuffer(quads * 4);
+            final float d = 2f / gridSize;
+            ims.glBegin(ImmModeSink.GL_QUADS);
+            for(int y=0; y<gridSize; y++) {
+                for(int x=0; x<gridSize; x++) {
+                    final float x0 = -1f + x * d, y0 = -1f + y * d;
+                    ims.glVertex2f(x0,   y0);
+                    ims.glVertex2f(x0+d, y0);
+                    ims.glVertex2f(x0+d, y0+d);
+                    ims.glVertex2f(x0,   y0+d);
+                    // reverse quad order, same vertex order
+                    final int v = ( quads - 1 - ( y * gridSize + x ) ) * 4;
+                    indices.put((short)v).put((short)(v+1)).put((short)(v+2)).put((short)(v+3));
+                }
+            }
+            indices.flip();
+            ims.glEnd(gl, false);
+        }
+
+        @Override
+        public void dispose(final GLAutoDrawable drawable) {
+            ims.destroy(drawable.getGL());
+        }
+
+        @Override
+        public void display(final GLAutoDrawable drawable) {
+            final GL2ES1 gl = drawable.getGL().getGL2ES1();
+            gl.glClearColor(0f, 0f, 0f, 1f);
+            gl.glClear(GL.GL_COLOR_BUFFER_BIT);
+            gl.glColor4f(1f, 0f, 0f, 1f);
+            if( useIndices && indicesAvailable ) {
+                ims.draw(gl, indices, true);
+            } else {
+                ims.draw(gl, true);
+            }
+        }
+
+        @Override
+        public void reshape(final GLAutoDrawable drawable, final int x, final int y, final int width, final int height) {}
+    }
+
+    private void testImpl(final boolean useIndices) {
+        final GLProfile glp = getQuadsEmulationProfile();
+        Assume.assumeNotNull(glp);
+        final GLCapabilities caps = new GLCapabilities(glp);
+        caps.setOnscreen(false);
+
+        // Count draw calls via trace
+        {
+            final ByteArrayOutputStream trace = new ByteArrayOutputStream();
+            final GLOffscreenAutoDrawable glad = GLDrawableFactory.getFactory(glp).createOffscreenAutoDrawable(null, caps, null, 256, 256);
+            Assert.assertNotNull(glad);
+            final QuadsListener listener = new QuadsListener(useIndices, trace);
+            glad.addGLEventListener(listener);
+            glad.display(); // init + 1st frame
+            trace.reset();
+            glad.display();
+            final int drawCalls = countDrawCalls(trace);
+            System.err.println(glp+", quads "+gridSize*gridSize+", indices "+(useIndices && listener.indicesAvailable)+": draw calls per frame "+drawCalls);
+            Assert.assertEquals(1, drawCalls);
+            glad.destroy();
+        }
+
+        // Time per frame and validation w/o trace
+        {
+            final GLOffscreenAutoDrawable glad = GLDrawableFactory.getFactory(glp).createOffscreenAutoDrawable(null, caps, null, 256, 256);
+            final QuadsListener listener = new QuadsListener(useIndices, null);
+            glad.addGLEventListener(listener);
+            glad.display(); // warm up
+            final long t0 = System.nanoTime();
+            for(int i=0; i<frameCount; i++) {
+                glad.display();
+            }
+            final ByteBuffer pixels = Buffers.newDirectByteBuffer(256*256*4);
+            glad.invoke(true, new GLRunnable() {
+                @Override
+                public boolean run(final GLAutoDrawable drawable) {
+                    drawable.getGL().glReadPixels(0, 0, 256, 256, GL.GL_RGBA, GL.GL_UNSIGNED_BYTE, pixels);
+                    return true;
+                } });
+            final long t1 = System.nanoTime();
+            System.err.println(glp+", quads "+gridSize*gridSize+", indices "+(useIndices && listener.indicesAvailable)+": "+
+                               String.format("%.3f", ( t1 - t0 ) / 1000000.0 / frameCount)+" ms per frame");
+            for(int i=0; i<256*256; i++) {
+                final int red = pixels.get(i*4) & 0xff;
+                final int green = pixels.get(i*4+1) & 0xff;
+                if( 255 != red || 0 != green ) {
+                    Assert.fail("Pixel "+(i%256)+"/"+(i/256)+" not covered: red "+red+", green "+green);
+                }
+            }
+            glad.destroy();
+        }
+    }
+
+    @Test
+    public void test01QuadArrays() {
+        testImpl(false);
+    }
+
+    @Test
+    public void test02QuadElements() {
+        testImpl(true);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-grid")) {
+                i++;
+                gridSize = MiscUtils.atoi(args[i], gridSize);
+            } else if(args[i].equals("-frames")) {
+                i++;
+                frameCount = MiscUtils.atoi(args[i], frameCount);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestFixedFuncQuads01NEWT.class.getName());
+    }
+}
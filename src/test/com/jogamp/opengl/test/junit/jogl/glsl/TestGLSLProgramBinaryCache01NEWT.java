@@ -0,0 +1,218 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.glsl;
+
+import com.jogamp.opengl.util.GLArrayDataServer;
+import com.jogamp.opengl.util.PMVMatrix;
+import com.jogamp.opengl.util.glsl.ProgramBinaryCache;
+import com.jogamp.opengl.util.glsl.ShaderCode;
+import com.jogamp.opengl.util.glsl.ShaderProgram;
+import com.jogamp.opengl.util.glsl.ShaderState;
+import com.jogamp.opengl.test.junit.jogl.demos.es2.RedSquareES2;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.NEWTGLContext;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES2;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawable;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.GLUniformData;
+import com.jogamp.opengl.fixedfunc.GLMatrixFunc;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Testing the {@link ProgramBinaryCache}, i.e. storing and reloading linked programs,
+ * rejecting invalid entries and evicting entries by size.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestGLSLProgramBinaryCache01NEWT extends UITestCase {
+    static long durationPerTest = 10; // ms
+
+    static ShaderProgram createProgram(final GL2ES2 gl, final ProgramBinaryCache cache, final String fpBasename, final String define) {
+        final ShaderCode vp = ShaderCode.create(gl, GL2ES2.GL_VERTEX_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", "RedSquareShader", true);
+        final ShaderCode fp = ShaderCode.create(gl, GL2ES2.GL_FRAGMENT_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", fpBasename, true);
+        vp.defaultShaderCustomization(gl, true, true);
+        final int pos = fp.defaultShaderCustomization(gl, true, true);
+        if( null != define ) {
+            fp.insertShaderSource(0, pos, "\n#define "+define+" 1\n");
+        }
+        final ShaderProgram sp = new ShaderProgram();
+        sp.setBinaryCache(cache);
+        Assert.assertSame(cache, sp.getBinaryCache());
+        sp.add(vp);
+        sp.add(fp);
+        return sp;
+    }
+
+    static void render(final GLDrawable drawable, final GL2ES2 gl, final ShaderProgram sp, final int num) throws InterruptedException {
+        final ShaderState st = new ShaderState();
+        st.attachShaderProgram(gl, sp, true);
+        Assert.assertTrue(sp.inUse());
+
+        final GLArrayDataServer vertices0 = GLSLMiscHelper.createVertices(gl, st, 0, -1, GLSLMiscHelper.vertices0);
+        final GLArrayDataServer colors0 = GLSLMiscHelper.createColors(gl, st, 0, -1, GLSLMiscHelper.colors0);
+
+        final PMVMatrix pmvMatrix = new PMVMatrix();
+        final GLUniformData pmvMatrixUniform = new GLUniformData("mgl_PMVMatrix", 4, 4, pmvMatrix.glGetPMvMatrixf());
+        st.ownUniform(pmvMatrixUniform);
+        pmvMatrix.glMatrixMode(GLMatrixFunc.GL_PROJECTION);
+        pmvMatrix.glLoadIdentity();
+        pmvMatrix.gluPerspective(45.0F, (float) drawable.getSurfaceWidth() / (float) drawable.getSurfaceHeight(), 1.0F, 100.0F);
+        pmvMatrix.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+        pmvMatrix.glLoadIdentity();
+        pmvMatrix.glTranslatef(0, 0, -10);
+        Assert.assertTrue(st.uniform(gl, pmvMatrixUniform));
+        gl.glViewport(0, 0, drawable.getSurfaceWidth(), drawable.getSurfaceHeight());
+        gl.glClearColor(0, 0, 0, 1);
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        GLSLMiscHelper.displayVCArrays(drawable, gl, st, true, vertices0, colors0, true, num, durationPerTest);
+
+        st.destroy(gl);
+    }
+
+    @Test
+    public void testProgramBinaryCache01() throws InterruptedException, IOException {
+        final NEWTGLContext.WindowContext winctx = NEWTGLContext.createWindow(
+                new GLCapabilities(GLProfile.getGL2ES2()), 480, 480, true);
+        final GLDrawable drawable = winctx.context.getGLDrawable();
+        final GL2ES2 gl = winctx.context.getGL().getGL2ES2();
+        System.err.println(winctx.context);
+        final boolean available = ProgramBinaryCache.isAvailable(gl);
+        System.err.println("ProgramBinaryCache available: "+available);
+        if( !available ) {
+            NEWTGLContext.destroyWindow(winctx);
+        }
+        Assume.assumeTrue(available);
+
+        final File dir = File.createTempFile("jogl-programcache", "");
+        Assert.assertTrue(dir.delete());
+        final ProgramBinaryCache cache = new ProgramBinaryCache(dir, 32L*1024L*1024L);
+        Assert.assertTrue(dir.isDirectory());
+        Assert.assertEquals(0, cache.getEntryCount());
+
+        // 1st run: compile, link and store
+        final ShaderProgram sp0 = createProgram(gl, cache, "RedSquareShader", null);
+        Assert.assertTrue(sp0.link(gl, System.err));
+        Assert.assertFalse(sp0.isBinaryCacheHit());
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getStoreCount());
+        Assert.assertEquals(1, cache.getEntryCount());
+        render(drawable, gl, sp0, 1);
+        sp0.destroy(gl);
+
+        // 2nd run, same sources: load from cache
+        final ShaderProgram sp1 = createProgram(gl, cache, "RedSquareShader", null);
+        Assert.assertTrue(sp1.link(gl, System.err));
+        Assert.assertTrue(sp1.isBinaryCacheHit());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getStoreCount());
+        render(drawable, gl, sp1, 2);
+        sp1.destroy(gl);
+
+        // different sources: miss and store
+        final ShaderProgram sp2 = createProgram(gl, cache, "RedSquareShader2", null);
+        Assert.assertTrue(sp2.link(gl, System.err));
+        Assert.assertFalse(sp2.isBinaryCacheHit());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.getEntryCount());
+        sp2.destroy(gl);
+
+        // different defines: miss and store
+        final ShaderProgram sp3 = createProgram(gl, cache, "RedSquareShader", "CACHE_TEST_VARIANT");
+        Assert.assertTrue(sp3.link(gl, System.err));
+        Assert.assertFalse(sp3.isBinaryCacheHit());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(3, cache.getEntryCount());
+        sp3.destroy(gl);
+        System.err.println(cache);
+
+        // corrupt entry: rejected, falls back to compile and link, stored again
+        final File[] entries = dir.listFiles();
+        for(int i=0; i<entries.length; i++) {
+            final FileOutputStream out = new FileOutputStream(entries[i]);
+            out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+            out.close();
+        }
+        final ShaderProgram sp4 = createProgram(gl, cache, "RedSquareShader", null);
+        Assert.assertTrue(sp4.link(gl, System.err));
+        Assert.assertFalse(sp4.isBinaryCacheHit());
+        Assert.assertEquals(1, cache.getRejectCount());
+        Assert.assertEquals(4, cache.getMissCount());
+        Assert.assertEquals(4, cache.getStoreCount());
+        render(drawable, gl, sp4, 3);
+        sp4.destroy(gl);
+        System.err.println(cache);
+
+        // eviction: cache sized for one entry only
+        cache.clear();
+        Assert.assertEquals(0, cache.getEntryCount());
+        final ShaderProgram sp5 = createProgram(gl, cache, "RedSquareShader", null);
+        Assert.assertTrue(sp5.link(gl, System.err));
+        sp5.destroy(gl);
+        final long entrySize = cache.getSize();
+        Assert.assertTrue(0 < entrySize);
+        final ProgramBinaryCache smallCache = new ProgramBinaryCache(dir, entrySize * 3 / 2);
+        final ShaderProgram sp6 = createProgram(gl, smallCache, "RedSquareShader", "CACHE_TEST_VARIANT");
+        Assert.assertTrue(sp6.link(gl, System.err));
+        sp6.destroy(gl);
+        System.err.println(smallCache);
+        Assert.assertEquals(1, smallCache.getStoreCount());
+        Assert.assertTrue(1 <= smallCache.getEvictCount());
+        Assert.assertTrue(smallCache.getSize() <= smallCache.getMaxSize());
+        Assert.assertEquals(1, smallCache.getEntryCount());
+
+        smallCache.clear();
+        Assert.assertTrue(dir.delete());
+
+        NEWTGLContext.destroyWindow(winctx);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-time")) {
+                durationPerTest = MiscUtils.atoi(args[++i], (int)durationPerTest);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGLSLProgramBinaryCache01NEWT.class.getName());
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.glsl;
+
+import com.jogamp.opengl.util.GLArrayDataServer;
+import com.jogamp.opengl.util.PMVMatrix;
+import com.jogamp.opengl.util.glsl.ShaderCode;
+import com.jogamp.opengl.util.glsl.ShaderProgram;
+import com.jogamp.opengl.util.glsl.ShaderState;
+import com.jogamp.opengl.test.junit.jogl.demos.es2.RedSquareES2;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.NEWTGLContext;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+import java.io.IOException;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2ES2;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawable;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.GLUniformData;
+import com.jogamp.opengl.fixedfunc.GLMatrixFunc;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Testing {@link ShaderState}'s uniform and attribute handles,
+ * i.e. skipping unchanged uniform uploads, batched dirty uniform uploads
+ * and the shadowed uniform values across program switches.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestGLSLShaderState03NEWT extends UITestCase {
+    static long durationPerTest = 10; // ms
+
+    static void assertUniformValue(final GL2ES2 gl, final ShaderState st, final GLUniformData data) {
+        final float[] actual = new float[16];
+        gl.glGetUniformfv(st.shaderProgram().program(), data.getLocation(), actual, 0);
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+        final float[] expected = new float[16];
+        data.floatBufferValue().get(expected).rewind();
+        Assert.assertArrayEquals(expected, actual, 0f);
+    }
+
+    static void assertCounter(final ShaderState st, final long uploads, final long skips) {
+        Assert.assertEquals("uploads", uploads, st.getUniformUploadCount());
+        Assert.assertEquals("skips", skips, st.getUniformSkipCount());
+    }
+
+    @Test
+    public void testShaderState01Handles() throws InterruptedException {
+        final NEWTGLContext.WindowContext winctx = NEWTGLContext.createWindow(
+                new GLCapabilities(GLProfile.getGL2ES2()), 480, 480, true);
+        final GLDrawable drawable = winctx.context.getGLDrawable();
+        final GL2ES2 gl = winctx.context.getGL().getGL2ES2();
+        System.err.println(winctx.context);
+
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        final ShaderState st = new ShaderState();
+
+        final ShaderCode rsVp0 = ShaderCode.create(gl, GL2ES2.GL_VERTEX_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", "RedSquareShader", true);
+        final ShaderCode rsFp0 = ShaderCode.create(gl, GL2ES2.GL_FRAGMENT_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", "RedSquareShader", true);
+        final ShaderCode rsFp1 = ShaderCode.create(gl, GL2ES2.GL_FRAGMENT_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", "RedSquareShader2", true);
+        rsVp0.defaultShaderCustomization(gl, true, true);
+        rsFp0.defaultShaderCustomization(gl, true, true);
+        rsFp1.defaultShaderCustomization(gl, true, true);
+
+        final ShaderProgram sp0 = new ShaderProgram();
+        sp0.add(rsVp0);
+        sp0.add(rsFp0);
+        Assert.assertTrue(sp0.link(gl, System.err));
+
+        final ShaderProgram sp1 = new ShaderProgram();
+        sp1.add(rsVp0);
+        sp1.add(rsFp1);
+        Assert.assertTrue(sp1.link(gl, System.err));
+
+        st.attachShaderProgram(gl, sp0, true);
+        Assert.assertTrue(sp0.inUse());
+
+        final GLArrayDataServer vertices0 = GLSLMiscHelper.createVertices(gl, st, 0, -1, GLSLMiscHelper.vertices0);
+        final GLArrayDataServer colors0 = GLSLMiscHelper.createColors(gl, st, 0, -1, GLSLMiscHelper.colors0);
+
+        // attribute handles
+        final int verticesHandle = st.getAttribHandle(gl, vertices0);
+        final int colorsHandle = st.getAttribHandle(gl, colors0);
+        Assert.assertTrue(0 <= verticesHandle);
+        Assert.assertTrue(verticesHandle != colorsHandle);
+        Assert.assertEquals(verticesHandle, st.getAttribHandle(gl, vertices0));
+        Assert.assertSame(vertices0, st.getAttribute(verticesHandle));
+
+        vertices0.enableBuffer(gl, false);
+        Assert.assertFalse(st.isVertexAttribArrayEnabled(vertices0));
+        Assert.assertTrue(st.enableVertexAttribArray(gl, verticesHandle));
+        Assert.assertTrue(st.isVertexAttribArrayEnabled(vertices0));
+        Assert.assertTrue(st.enableVertexAttribArray(gl, verticesHandle)); // skipped
+        {
+            final int[] enabled = new int[] { 0 };
+            gl.glGetVertexAttribiv(vertices0.getLocation(), GL2ES2.GL_VERTEX_ATTRIB_ARRAY_ENABLED, enabled, 0);
+            Assert.assertEquals(GL.GL_TRUE, enabled[0]);
+        }
+        Assert.assertTrue(st.disableVertexAttribArray(gl, verticesHandle));
+        Assert.assertFalse(st.isVertexAttribArrayEnabled(vertices0));
+        {
+            final int[] enabled = new int[] { 1 };
+            gl.glGetVertexAttribiv(vertices0.getLocation(), GL2ES2.GL_VERTEX_ATTRIB_ARRAY_ENABLED, enabled, 0);
+            Assert.assertEquals(GL.GL_FALSE, enabled[0]);
+        }
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        // uniform handles
+        final PMVMatrix pmvMatrix = new PMVMatrix();
+        final GLUniformData pmvMatrixUniform = new GLUniformData("mgl_PMVMatrix", 4, 4, pmvMatrix.glGetPMvMatrixf());
+        st.ownUniform(pmvMatrixUniform);
+        final int pmvHandle = st.getUniformHandle(gl, pmvMatrixUniform);
+        Assert.assertTrue(0 <= pmvHandle);
+        Assert.assertEquals(pmvHandle, st.getUniformHandle(gl, pmvMatrixUniform));
+        Assert.assertSame(pmvMatrixUniform, st.getUniform(pmvHandle));
+        final GLUniformData unusedUniform = new GLUniformData("notExisting", 1f);
+        final int unusedHandle = st.getUniformHandle(gl, unusedUniform);
+        Assert.assertFalse(st.uniform(gl, unusedHandle));
+
+        st.resetUniformUploadCounter();
+        assertCounter(st, 0, 0);
+
+        Assert.assertTrue(st.uniform(gl, pmvHandle));
+        assertCounter(st, 1, 0);
+        Assert.assertTrue(st.uniform(gl, pmvHandle));
+        assertCounter(st, 1, 1);
+        Assert.assertTrue(st.uniform(gl, pmvMatrixUniform)); // registered, hence shadowed as well
+        assertCounter(st, 1, 2);
+        assertUniformValue(gl, st, pmvMatrixUniform);
+
+        // reshape
+        pmvMatrix.glMatrixMode(GLMatrixFunc.GL_PROJECTION);
+        pmvMatrix.glLoadIdentity();
+        pmvMatrix.gluPerspective(45.0F, (float) drawable.getSurfaceWidth() / (float) drawable.getSurfaceHeight(), 1.0F, 100.0F);
+        pmvMatrix.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+        pmvMatrix.glLoadIdentity();
+        pmvMatrix.glTranslatef(0, 0, -10);
+        Assert.assertTrue(st.uniform(gl, pmvHandle));
+        assertCounter(st, 2, 2);
+        assertUniformValue(gl, st, pmvMatrixUniform);
+        gl.glViewport(0, 0, drawable.getSurfaceWidth(), drawable.getSurfaceHeight());
+        gl.glClearColor(0, 0, 0, 1);
+
+        // batched dirty uploads
+        st.setUniformDirty(pmvHandle);
+        st.setUniformDirty(pmvHandle);
+        st.setUniformDirty(unusedHandle);
+        Assert.assertEquals(0, st.uploadDirtyUniforms(gl)); // unchanged
+        assertCounter(st, 2, 3);
+        pmvMatrix.glTranslatef(0, 0, -1);
+        st.setUniformDirty(pmvHandle);
+        Assert.assertEquals(1, st.uploadDirtyUniforms(gl));
+        Assert.assertEquals(0, st.uploadDirtyUniforms(gl)); // nothing dirty
+        assertCounter(st, 3, 3);
+        assertUniformValue(gl, st, pmvMatrixUniform);
+
+        GLSLMiscHelper.displayVCArrays(drawable, gl, st, true, vertices0, colors0, true, 1, durationPerTest);
+
+        // program switch uploads all uniforms, the shadow follows the new program
+        st.attachShaderProgram(gl, sp1, true);
+        Assert.assertTrue(sp1.inUse());
+        Assert.assertTrue(st.getUniformUploadCount() > 3);
+        st.resetUniformUploadCounter();
+        Assert.assertTrue(st.uniform(gl, pmvHandle));
+        assertCounter(st, 0, 1);
+        assertUniformValue(gl, st, pmvMatrixUniform);
+        Assert.assertTrue(st.enableVertexAttribArray(gl, verticesHandle));
+        Assert.assertTrue(st.vertexAttribPointer(gl, verticesHandle));
+        Assert.assertTrue(st.enableVertexAttribArray(gl, colorsHandle));
+        Assert.assertTrue(st.vertexAttribPointer(gl, colorsHandle));
+
+        GLSLMiscHelper.displayVCArrays(drawable, gl, st, true, vertices0, colors0, true, 2, durationPerTest);
+
+        // uniform set bypassing the ShaderState
+        pmvMatrix.glTranslatef(0, 0, 1);
+        gl.glUniform(pmvMatrixUniform);
+        pmvMatrix.glTranslatef(0, 0, -1);
+        Assert.assertTrue(st.uniform(gl, pmvHandle));
+        assertCounter(st, 0, 2); // stale shadow
+        st.invalidateUniformShadow();
+        Assert.assertTrue(st.uniform(gl, pmvHandle));
+        assertCounter(st, 1, 2);
+        assertUniformValue(gl, st, pmvMatrixUniform);
+
+        // release loses all handles
+        st.destroy(gl);
+
+        NEWTGLContext.destroyWindow(winctx);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-time")) {
+                durationPerTest = MiscUtils.atoi(args[++i], (int)durationPerTest);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGLSLShaderState03NEWT.class.getName());
+    }
+}
@@ -0,0 +1,386 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.glu;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jogamp.opengl.glu.mipmap.Extract;
+import jogamp.opengl.glu.mipmap.Extract4444;
+import jogamp.opengl.glu.mipmap.Extract4444rev;
+import jogamp.opengl.glu.mipmap.Extract565;
+import jogamp.opengl.glu.mipmap.Extract565rev;
+import jogamp.opengl.glu.mipmap.HalveImage;
+import jogamp.opengl.glu.mipmap.HalveImageKernels;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+
+/**
+ * Validates the {@link HalveImage} kernels for unsigned byte, float and 16bit packed 565 and 4444 formats
+ * being bit-identical to the former per sample implementation, sequential and in parallel,
+ * and compares their duration per format.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestHalveImage01NOUI {
+    static int size = 2048;
+    static int loops = 3;
+
+    //
+    // Former per sample implementation as reference
+    //
+
+    static void halveImage_ubyte_ref( final int components, final int width, final int height,
+                                      final ByteBuffer datain, final ByteBuffer dataout,
+                                      final int element_size, final int ysize, final int group_size ) {
+        final int newwidth = width / 2;
+        final int newheight = height / 2;
+        int t = 0;
+        for( int i = 0; i < newheight; i++ ) {
+            for( int j = 0; j < newwidth; j++ ) {
+                for( int k = 0; k < components; k++ ) {
+                    datain.position( t );
+                    int temp = ( 0x000000FF & datain.get() );
+                    datain.position( t + group_size );
+                    temp += ( 0x000000FF & datain.get() );
+                    datain.position( t + ysize );
+                    temp += ( 0x000000FF & datain.get() );
+                    datain.position( t + ysize + group_size );
+                    temp += ( 0x000000FF & datain.get() ) + 2;
+                    dataout.put( (byte)(temp / 4) );
+                    t += element_size;
+                }
+                t += group_size;
+            }
+            t += ysize;
+        }
+    }
+
+    static void halveImage_float_ref( final int components, final int width, final int height,
+                                      final ByteBuffer datain, final FloatBuffer dataout, final int element_size,
+                                      final int ysize, final int group_size, final boolean myswap_bytes ) {
+        final int newwidth = width / 2;
+        final int newheight = height / 2;
+        int t = 0;
+        for( int i = 0; i < newheight; i++ ) {
+            for( int j = 0; j < newwidth; j++ ) {
+                for( int k = 0; k < components; k++ ) {
+                    if( !myswap_bytes ) {
+                        datain.position( t );
+                        float temp = datain.getFloat();
+                        datain.position( t + group_size );
+                        temp += datain.getFloat();
+                        datain.position( t + ysize );
+                        temp += datain.getFloat();
+                        datain.position( t + ysize + group_size );
+                        temp /= 4.0f;
+                        dataout.put( temp );
+                    } else {
+                        datain.position( t );
+                        float buf = swap( datain.getFloat() );
+                        datain.position( t + group_size );
+                        buf += swap( datain.getFloat() );
+                        datain.position( t + ysize );
+                        buf += swap( datain.getFloat() );
+                        datain.position( t + ysize + group_size );
+                        buf += swap( datain.getFloat() );
+                        dataout.put( buf / 4.0f );
+                    }
+                    t += element_size;
+                }
+                t += group_size;
+            }
+            t += ysize;
+        }
+    }
+    static float swap( final float f ) {
+        return Float.intBitsToFloat( Float.floatToRawIntBits( f ) );
+    }
+
+    static void halveImagePackedPixel_ref( final int components, final Extract extract, final int width,
+                                           final int height, final ByteBuffer datain, final ByteBuffer dataout,
+                                           final int pixelSizeInBytes, final int rowSizeInBytes, final boolean isSwap ) {
+        final int halfWidth = width / 2;
+        final int halfHeight = height / 2;
+        int src = 0;
+        final int padBytes = rowSizeInBytes - ( width * pixelSizeInBytes );
+        int outIndex = 0;
+        for( int ii = 0; ii < halfHeight; ii++ ) {
+            for( int jj = 0; jj < halfWidth; jj++ ) {
+                final float totals[] = new float[4];
+                final float extractTotals[][] = new float[4][4];
+                datain.position( src );
+                extract.extract( isSwap, datain, extractTotals[0] );
+                datain.position( src + pixelSizeInBytes );
+                extract.extract( isSwap, datain, extractTotals[1] );
+                datain.position( src + rowSizeInBytes );
+                extract.extract( isSwap, datain, extractTotals[2] );
+                datain.position( src + rowSizeInBytes + pixelSizeInBytes );
+                extract.extract( isSwap, datain, extractTotals[3] );
+                for( int cc = 0; cc < components; cc++ ) {
+                    totals[cc] = 0.0f;
+                    for( int kk = 0; kk < 4; kk++ ) {
+                        totals[cc] += extractTotals[kk][cc];
+                    }
+                    totals[cc] /= 4;
+                }
+                extract.shove( totals, outIndex, dataout );
+                outIndex++;
+                src += pixelSizeInBytes + pixelSizeInBytes;
+            }
+            src += padBytes;
+            src += rowSizeInBytes;
+        }
+    }
+
+    //
+    // Test data and formats
+    //
+
+    static ByteBuffer createImage(final int byteCount, final long seed) {
+        final ByteBuffer bb = ByteBuffer.allocateDirect(byteCount).order(ByteOrder.nativeOrder());
+        final Random rnd = new Random(seed);
+        for(int i=0; i<byteCount; i++) {
+            bb.put(i, (byte)rnd.nextInt());
+        }
+        return bb;
+    }
+
+    static ByteBuffer createFloatImage(final int floatCount, final long seed) {
+        final ByteBuffer bb = ByteBuffer.allocateDirect(floatCount*4).order(ByteOrder.nativeOrder());
+        final Random rnd = new Random(seed);
+        for(int i=0; i<floatCount; i++) {
+            bb.putFloat(i*4, rnd.nextFloat());
+        }
+        return bb;
+    }
+
+    static ByteBuffer createOutput(final int byteCount) {
+        return ByteBuffer.allocateDirect(byteCount).order(ByteOrder.nativeOrder());
+    }
+
+    /** Row size in bytes incl. padding to the given alignment. */
+    static int rowSize(final int width, final int groupSize, final int alignment) {
+        final int r = width * groupSize;
+        return 0 == r % alignment ? r : r + alignment - r % alignment;
+    }
+
+    static final int[] ubyteComponents = { 4, 3, 1 };
+    static final String[] ubyteNames = { "RGBA ubyte", "RGB ubyte", "LUM ubyte" };
+    static final Extract[] packedExtracts = { new Extract565(), new Extract565rev(), new Extract4444(), new Extract4444rev() };
+    static final int[] packedComponents = { 3, 3, 4, 4 };
+    static final String[] packedNames = { "565", "565rev", "4444", "4444rev" };
+
+    static void assertEquals(final String msg, final ByteBuffer exp, final ByteBuffer has, final int byteCount) {
+        for(int i=0; i<byteCount; i++) {
+            if( exp.get(i) != has.get(i) ) {
+                Assert.fail(msg+": Mismatch at byte "+i+": expected "+exp.get(i)+", has "+has.get(i));
+            }
+        }
+    }
+
+    void validateUByte(final int width, final int height, final int alignment) {
+        for(int f=0; f<ubyteComponents.length; f++) {
+            final int c = ubyteComponents[f];
+            final int ysize = rowSize(width, c, alignment);
+            final ByteBuffer in = createImage(ysize*height, width*31+height);
+            final int outBytes = (width/2)*(height/2)*c;
+            final ByteBuffer exp = createOutput(outBytes);
+            final ByteBuffer has = createOutput(outBytes);
+            halveImage_ubyte_ref(c, width, height, in, exp, 1, ysize, c);
+            HalveImage.halveImage_ubyte(c, width, height, in, has, 1, ysize, c);
+            Assert.assertEquals(exp.position(), has.position());
+            assertEquals(ubyteNames[f]+" "+width+"x"+height+"/"+alignment, exp, has, outBytes);
+        }
+    }
+
+    void validateFloat(final int width, final int height, final boolean swap) {
+        final int c = 4;
+        final int ysize = width * c * 4;
+        final ByteBuffer in = createFloatImage(width*height*c, width*17+height);
+        final int outFloats = (width/2)*(height/2)*c;
+        final FloatBuffer exp = createOutput(outFloats*4).asFloatBuffer();
+        final FloatBuffer has = createOutput(outFloats*4).asFloatBuffer();
+        halveImage_float_ref(c, width, height, in, exp, 4, ysize, c*4, swap);
+        HalveImage.halveImage_float(c, width, height, in, has, 4, ysize, c*4, swap);
+        Assert.assertEquals(exp.position(), has.position());
+        for(int i=0; i<outFloats; i++) {
+            Assert.assertEquals("float "+width+"x"+height+", swap "+swap+" at "+i,
+                                Float.floatToRawIntBits(exp.get(i)), Float.floatToRawIntBits(has.get(i)));
+        }
+    }
+
+    void validatePacked(final int width, final int height, final int alignment, final boolean swap) {
+        for(int f=0; f<packedExtracts.length; f++) {
+            final int rowSize = rowSize(width, 2, alignment);
+            final ByteBuffer in = createImage(rowSize*height, width*13+height);
+            final int outBytes = (width/2)*(height/2)*2;
+            final ByteBuffer exp = createOutput(outBytes);
+            final ByteBuffer has = createOutput(outBytes);
+            halveImagePackedPixel_ref(packedComponents[f], packedExtracts[f], width, height, in, exp, 2, rowSize, swap);
+            HalveImage.halveImagePackedPixel(packedComponents[f], packedExtracts[f], width, height, in, has, 2, rowSize, swap);
+            Assert.assertEquals(exp.position(), has.position());
+            assertEquals(packedNames[f]+" "+width+"x"+height+"/"+alignment+", swap "+swap, exp, has, outBytes);
+        }
+    }
+
+    void validateAll() {
+        final int[][] sizes = { { 2, 2 }, { 64, 32 }, { 33, 17 }, { 256, 256 }, { 1024, 512 } };
+        for(int i=0; i<sizes.length; i++) {
+            final int w = sizes[i][0], h = sizes[i][1];
+            validateUByte(w, h, 1);
+            validateUByte(w, h, 4);
+            validateFloat(w, h, false);
+            validateFloat(w, h, true);
+            validatePacked(w, h, 1, false);
+            validatePacked(w, h, 4, true);
+        }
+    }
+
+    @Test
+    public void test01Identical() {
+        HalveImageKernels.setDefaultExecutor(null);
+        validateAll();
+    }
+
+    @Test
+    public void test02IdenticalParallel() {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            HalveImageKernels.setDefaultExecutor(executor);
+            validateAll();
+        } finally {
+            HalveImageKernels.setDefaultExecutor(null);
+            executor.shutdown();
+        }
+    }
+
+    //
+    // Performance
+    //
+
+    static abstract class Halver {
+        abstract void halve(boolean ref);
+    }
+
+    static long measure(final Halver h, final boolean ref) {
+        long best = Long.MAX_VALUE;
+        for(int l=0; l<loops; l++) {
+            final long t0 = System.nanoTime();
+            h.halve(ref);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    static void measure(final String name, final Halver h, final ExecutorService executor) {
+        HalveImageKernels.setDefaultExecutor(null);
+        final long tRef = measure(h, true);
+        final long tSeq = measure(h, false);
+        HalveImageKernels.setDefaultExecutor(executor);
+        final long tPar = measure(h, false);
+        HalveImageKernels.setDefaultExecutor(null);
+        System.err.printf("%-10s %4dx%4d: former %9.3f ms, kernel %9.3f ms (%5.1fx), parallel %9.3f ms (%5.1fx)%n",
+                          name, size, size, tRef/1e6, tSeq/1e6, (double)tRef/tSeq, tPar/1e6, (double)tRef/tPar);
+    }
+
+    @Test
+    public void test03Perf() {
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for(int f=0; f<ubyteComponents.length; f++) {
+                final int c = ubyteComponents[f];
+                final ByteBuffer in = createImage(size*size*c, 1);
+                final ByteBuffer out = createOutput((size/2)*(size/2)*c);
+                measure(ubyteNames[f], new Halver() {
+                    @Override
+                    void halve(final boolean ref) {
+                        out.clear();
+                        if( ref ) {
+                            halveImage_ubyte_ref(c, size, size, in, out, 1, size*c, c);
+                        } else {
+                            HalveImage.halveImage_ubyte(c, size, size, in, out, 1, size*c, c);
+                        }
+                    } }, executor);
+            }
+            {
+                final ByteBuffer in = createFloatImage(size*size*4, 1);
+                final FloatBuffer out = createOutput((size/2)*(size/2)*4*4).asFloatBuffer();
+                measure("RGBA float", new Halver() {
+                    @Override
+                    void halve(final boolean ref) {
+                        out.clear();
+                        if( ref ) {
+                            halveImage_float_ref(4, size, size, in, out, 4, size*16, 16, false);
+                        } else {
+                            HalveImage.halveImage_float(4, size, size, in, out, 4, size*16, 16, false);
+                        }
+                    } }, executor);
+            }
+            for(int f=0; f<packedExtracts.length; f++) {
+                final int c = packedComponents[f];
+                final Extract e = packedExtracts[f];
+                final ByteBuffer in = createImage(size*size*2, 1);
+                final ByteBuffer out = createOutput((size/2)*(size/2)*2);
+                measure(packedNames[f], new Halver() {
+                    @Override
+                    void halve(final boolean ref) {
+                        if( ref ) {
+                            halveImagePackedPixel_ref(c, e, size, size, in, out, 2, size*2, false);
+                        } else {
+                            HalveImage.halveImagePackedPixel(c, e, size, size, in, out, 2, size*2, false);
+                        }
+                    } }, executor);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-size")) {
+                i++;
+                size = MiscUtils.atoi(args[i], size);
+            } else if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestHalveImage01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.util;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import com.jogamp.opengl.GL;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.util.GLArrayDataClient;
+import com.jogamp.opengl.util.GLArrayDataServer;
+
+/**
+ * Fills {@link GLArrayDataClient} instances with 1M elements via scalar and bulk put methods,
+ * validating their content and measuring the duration w/ geometric and linear growth.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestGLArrayDataClient01NOUI {
+    static final int comps = 3;
+    static int elements = 1 << 20;
+    static int loops = 3;
+
+    static float value(final int i) {
+        return i * 0.5f;
+    }
+
+    static GLArrayDataClient create(final float growthFactor) {
+        final GLArrayDataClient a = GLArrayDataClient.createGLSL("data", comps, GL.GL_FLOAT, false, 256);
+        a.setGrowthFactor(growthFactor);
+        return a;
+    }
+
+    static void fillScalar(final GLArrayDataClient a, final int elementCount) {
+        for(int i=0; i<elementCount*comps; i++) {
+            a.putf(value(i));
+        }
+    }
+
+    static void fillBulk(final GLArrayDataClient a, final int elementCount) {
+        final float[] tmp = new float[comps*64];
+        for(int i=0; i<elementCount; i+=64) {
+            final int n = Math.min(64, elementCount - i);
+            for(int j=0; j<n*comps; j++) {
+                tmp[j] = value(i*comps+j);
+            }
+            a.putElements(tmp, 0, n);
+        }
+    }
+
+    static void validate(final GLArrayDataClient a, final int elementCount) {
+        a.seal(true);
+        Assert.assertEquals(elementCount, a.getElementCount());
+        final FloatBuffer fb = (FloatBuffer) a.getBuffer();
+        Assert.assertEquals(elementCount*comps, fb.limit());
+        for(int i=0; i<elementCount*comps; i++) {
+            Assert.assertEquals(value(i), fb.get(i), 0f);
+        }
+    }
+
+    @Test
+    public void test01Content() {
+        final int elementCount = 100003;
+        {
+            final GLArrayDataClient a = create(GLArrayDataClient.DEFAULT_GROWTH_FACTOR);
+            fillScalar(a, elementCount);
+            validate(a, elementCount);
+        }
+        {
+            final GLArrayDataClient a = create(GLArrayDataClient.DEFAULT_GROWTH_FACTOR);
+            fillBulk(a, elementCount);
+            validate(a, elementCount);
+        }
+        {
+            final GLArrayDataClient a = create(1f);
+            fillBulk(a, elementCount);
+            validate(a, elementCount);
+        }
+        {
+            final GLArrayDataClient a = create(GLArrayDataClient.DEFAULT_GROWTH_FACTOR);
+            Assert.assertTrue(a.reserve(elementCount));
+            Assert.assertFalse(a.reserve(elementCount));
+            fillBulk(a, elementCount);
+            Assert.assertFalse(a.growIfNeeded(0));
+            validate(a, elementCount);
+            Assert.assertEquals(elementCount*comps, a.getBuffer().capacity());
+        }
+        {
+            // seal/unseal keeps content and continues at the end
+            final GLArrayDataClient a = create(GLArrayDataClient.DEFAULT_GROWTH_FACTOR);
+            fillScalar(a, 10);
+            a.seal(true);
+            a.putf(1f); // ignored
+            a.seal(false);
+            final float[] tmp = new float[comps*10];
+            for(int i=0; i<tmp.length; i++) {
+                tmp[i] = value(10*comps+i);
+            }
+            a.put(tmp, 0, tmp.length);
+            validate(a, 20);
+        }
+    }
+
+    @Test
+    public void test02BulkTypes() {
+        final GLArrayDataServer a = GLArrayDataServer.createData(3, GL.GL_SHORT, 4, GL.GL_STATIC_DRAW, GL.GL_ELEMENT_ARRAY_BUFFER);
+        final short[] tmp = new short[] { 0, 1, 2, 2, 1, 3 };
+        for(int i=0; i<1000; i++) {
+            a.put(tmp, 0, tmp.length);
+        }
+        a.seal(true);
+        Assert.assertEquals(2000, a.getElementCount());
+        final ShortBuffer sb = (ShortBuffer) a.getBuffer();
+        for(int i=0; i<sb.limit(); i++) {
+            Assert.assertEquals(tmp[i%tmp.length], sb.get(i));
+        }
+        try {
+            a.seal(false);
+            a.put(new float[] { 0f }, 0, 1);
+            Assert.fail("GLException expected for mismatching buffer class");
+        } catch(final com.jogamp.opengl.GLException e) {
+            // expected
+        }
+    }
+
+    static long fill(final float growthFactor, final boolean bulk, final boolean reserve, final int elementCount) {
+        long best = Long.MAX_VALUE;
+        for(int l=0; l<loops; l++) {
+            final GLArrayDataClient a = create(growthFactor);
+            final long t0 = System.nanoTime();
+            if( reserve ) {
+                a.reserve(elementCount);
+            }
+            if( bulk ) {
+                fillBulk(a, elementCount);
+            } else {
+                fillScalar(a, elementCount);
+            }
+            best = Math.min(best, System.nanoTime() - t0);
+            a.seal(true);
+            Assert.assertEquals(elementCount, a.getElementCount());
+        }
+        return best;
+    }
+
+    @Test
+    public void test03Perf() {
+        // Linear growth is quadratic, hence measured with 1/16 of the elements only
+        final int linearElements = elements / 16;
+        final long tLinScalar = fill(1f, false, false, linearElements);
+        final long tGeoScalar = fill(GLArrayDataClient.DEFAULT_GROWTH_FACTOR, false, false, elements);
+        final long tGeoBulk = fill(GLArrayDataClient.DEFAULT_GROWTH_FACTOR, true, false, elements);
+        final long tResBulk = fill(GLArrayDataClient.DEFAULT_GROWTH_FACTOR, true, true, elements);
+        System.err.printf("linear  growth, scalar put: %7d elements %9.3f ms%n", linearElements, tLinScalar/1e6);
+        System.err.printf("geom.   growth, scalar put: %7d elements %9.3f ms%n", elements, tGeoScalar/1e6);
+        System.err.printf("geom.   growth, bulk put  : %7d elements %9.3f ms%n", elements, tGeoBulk/1e6);
+        System.err.printf("reserve,        bulk put  : %7d elements %9.3f ms%n", elements, tResBulk/1e6);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-elements")) {
+                i++;
+                elements = MiscUtils.atoi(args[i], elements);
+            } else if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGLArrayDataClient01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawableFactory;
+import com.jogamp.opengl.GLEventListener;
+import com.jogamp.opengl.GLOffscreenAutoDrawable;
+import com.jogamp.opengl.GLProfile;
+import com.jogamp.opengl.GLRunnable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.GLReadBufferUtil;
+
+/**
+ * Validates the asynchronous PBO ring readback mode of {@link GLReadBufferUtil}
+ * against the synchronous mode using an offscreen drawable cleared w/ a distinct color per frame.
+ * <p>
+ * On profiles w/o PBO support the synchronous fallback is validated.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestGLReadBufferUtilAsync01NEWT extends UITestCase {
+    static int frameCount = 10;
+
+    static int frameRed(final int frame) {
+        return ( frame * 20 + 10 ) & 0xff;
+    }
+
+    /** Clears each frame w/ a distinct red value and reads it back, storing the delivered red values. */
+    static class ReadbackListener implements GLEventListener {
+        final GLReadBufferUtil readBuffer = new GLReadBufferUtil(true, false);
+        final ArrayList<Integer> delivered = new ArrayList<Integer>();
+        int frame = 0;
+        boolean asyncAvailable;
+
+        @Override
+        public void init(final GLAutoDrawable drawable) {
+            asyncAvailable = GLReadBufferUtil.isAsyncReadbackAvailable(drawable.getGL());
+        }
+        @Override
+        public void dispose(final GLAutoDrawable drawable) {
+            readBuffer.dispose(drawable.getGL());
+        }
+        @Override
+        public void display(final GLAutoDrawable drawable) {
+            final GL gl = drawable.getGL();
+            gl.glClearColor(frameRed(frame)/255f, 0f, 0f, 1f);
+            gl.glClear(GL.GL_COLOR_BUFFER_BIT);
+            frame++;
+            if( readBuffer.readPixels(gl, false) ) {
+                addDelivered();
+            }
+        }
+        void addDelivered() {
+            final ByteBuffer bb = (ByteBuffer) readBuffer.getPixelBuffer().buffer;
+            delivered.add( Integer.valueOf( bb.get(0) & 0xff ) );
+        }
+        @Override
+        public void reshape(final GLAutoDrawable drawable, final int x, final int y, final int width, final int height) {}
+    }
+
+    private void testImpl(final int latency) {
+        final GLProfile glp = GLProfile.getDefault();
+        final GLCapabilities caps = new GLCapabilities(glp);
+        caps.setOnscreen(false);
+        final GLOffscreenAutoDrawable glad = GLDrawableFactory.getFactory(glp).createOffscreenAutoDrawable(null, caps, null, 64, 64);
+        Assert.assertNotNull(glad);
+        final ReadbackListener listener = new ReadbackListener();
+        listener.readBuffer.setAsyncLatency(latency);
+        Assert.assertEquals(latency, listener.readBuffer.getAsyncLatency());
+        glad.addGLEventListener(listener);
+        for(int i=0; i<frameCount; i++) {
+            glad.display();
+        }
+        final boolean async = 0 < latency && listener.asyncAvailable;
+        System.err.println("Latency "+latency+", async "+async+", delivered "+listener.delivered);
+        if( async ) {
+            Assert.assertEquals(frameCount - latency, listener.delivered.size());
+            Assert.assertEquals(latency, listener.readBuffer.getAsyncPendingCount());
+            glad.invoke(true, new GLRunnable() {
+                @Override
+                public boolean run(final GLAutoDrawable drawable) {
+                    while( listener.readBuffer.readPendingPixels(drawable.getGL()) ) {
+                        listener.addDelivered();
+                    }
+                    return true;
+                } });
+            Assert.assertEquals(0, listener.readBuffer.getAsyncPendingCount());
+        }
+        Assert.assertEquals(frameCount, listener.delivered.size());
+        for(int i=0; i<frameCount; i++) {
+            final int red = listener.delivered.get(i).intValue();
+            Assert.assertTrue("Frame "+i+": red "+red+" != "+frameRed(i), Math.abs(red - frameRed(i)) <= 1);
+        }
+        final int w = listener.readBuffer.getTextureData().getWidth();
+        final int h = listener.readBuffer.getTextureData().getHeight();
+        Assert.assertEquals(64, w);
+        Assert.assertEquals(64, h);
+        glad.destroy();
+    }
+
+    @Test
+    public void test01Sync() {
+        testImpl(0);
+    }
+
+    @Test
+    public void test02AsyncLatency1() {
+        testImpl(1);
+    }
+
+    @Test
+    public void test03AsyncLatency3() {
+        testImpl(3);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-frames")) {
+                i++;
+                frameCount = MiscUtils.atoi(args[i], frameCount);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGLReadBufferUtilAsync01NEWT.class.getName());
+    }
+}
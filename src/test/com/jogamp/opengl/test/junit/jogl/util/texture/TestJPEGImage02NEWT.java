@@ -0,0 +1,244 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+
+import jogamp.opengl.util.jpeg.JPEGDecoder;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.TextureData.ColorSpace;
+
+/**
+ * Testing the bulk {@link JPEGDecoder#getPixels(ByteBuffer, int, int, ColorSpace, boolean, int, int)} path
+ * against the per pixel {@link JPEGDecoder.ColorSink} callback path
+ * for baseline, progressive, grayscale, CMYK and YCCK JPEG files.
+ * <p>
+ * Also measures the pixel conversion time of both methods.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestJPEGImage02NEWT extends UITestCase {
+    static final String[] fileNames = { "bug745_qttdef_post_frame.jpg", "j1-baseline.jpg", "j2-progressive.jpg", "j3-baseline_gray.jpg",
+                                        "test-cmyk-01.jpg", "test-ycck-01.jpg",
+                                        "test-ntscN_3-01-160x90-60pct-yuv422h-base.jpg", "test-ntscN_3-01-160x90-60pct-yuv422h-prog.jpg",
+                                        "test-ntscN_3-01-160x90-90pct-yuv444-base.jpg", "test-ntscN_3-01-160x90-90pct-yuv444-prog.jpg" };
+    static final int perfLoops = 20;
+
+    /** Stores top-down RGB[A] or YCbCr[A] pixels via the per pixel callbacks. */
+    static class TestColorSink implements JPEGDecoder.ColorSink {
+        final ColorSpace storageCS;
+        final int bytesPerPixel;
+        int width, stride;
+        ByteBuffer data;
+
+        TestColorSink(final ColorSpace storageCS, final int bytesPerPixel) {
+            this.storageCS = storageCS;
+            this.bytesPerPixel = bytesPerPixel;
+        }
+        @Override
+        public ColorSpace allocate(final int width, final int height, final ColorSpace sourceCS, final int sourceComponents) {
+            this.width = width;
+            this.stride = width * bytesPerPixel;
+            this.data = Buffers.newDirectByteBuffer(stride * height);
+            if( 4 == bytesPerPixel ) {
+                for(int i=3; i<data.capacity(); i+=4) {
+                    data.put(i, (byte)0xff);
+                }
+            }
+            return storageCS;
+        }
+        @Override
+        public void store2(final int x, final int y, final byte c1, final byte c2) {
+            throw new RuntimeException("not supported");
+        }
+        @Override
+        public void storeRGB(final int x, final int y, final byte r, final byte g, final byte b) {
+            store(x, y, r, g, b);
+        }
+        @Override
+        public void storeYCbCr(final int x, final int y, final byte Y, final byte Cb, final byte Cr) {
+            store(x, y, Y, Cb, Cr);
+        }
+        private void store(final int x, final int y, final byte c1, final byte c2, final byte c3) {
+            int i = y * stride + x * bytesPerPixel;
+            data.put(i++, c1);
+            data.put(i++, c2);
+            data.put(i++, c3);
+        }
+    }
+
+    static byte[] readAll(final String fname) throws IOException {
+        final URLConnection urlConn = IOUtil.getResource(fname, TestJPEGImage02NEWT.class.getClassLoader(), TestJPEGImage02NEWT.class);
+        Assert.assertNotNull(urlConn);
+        final InputStream in = urlConn.getInputStream();
+        try {
+            return IOUtil.copyStream2ByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    static JPEGDecoder parse(final byte[] data) throws IOException {
+        final JPEGDecoder decoder = new JPEGDecoder();
+        decoder.parse(new ByteArrayInputStream(data));
+        return decoder;
+    }
+
+    static boolean isSupported(final JPEGDecoder decoder, final ColorSpace storageCS) {
+        return ColorSpace.RGB == storageCS || ColorSpace.CMYK != decoder.getSourceColorSpace();
+    }
+
+    static void assertEquals(final String msg, final ByteBuffer exp, final int expStride, final ByteBuffer has, final int hasStride,
+                             final int rowBytes, final int height, final boolean bottomUp) {
+        for(int y=0; y<height; y++) {
+            final int yh = bottomUp ? height - y - 1 : y;
+            for(int i=0; i<rowBytes; i++) {
+                final byte e = exp.get(y * expStride + i);
+                final byte h = has.get(has.position() + yh * hasStride + i);
+                if( e != h ) {
+                    Assert.assertEquals(msg+": byte "+i+" of row "+y, e, h);
+                }
+            }
+        }
+    }
+
+    private void testImpl(final String fname, final ColorSpace storageCS, final int bytesPerPixel, final int padding, final boolean bottomUp) throws IOException {
+        final JPEGDecoder decoder = parse(readAll(fname));
+        if( !isSupported(decoder, storageCS) ) {
+            return;
+        }
+        final int width = decoder.getWidth();
+        final int height = decoder.getHeight();
+
+        final TestColorSink sink = new TestColorSink(storageCS, bytesPerPixel);
+        decoder.getPixel(sink, width, height);
+
+        final int rowBytes = width * bytesPerPixel;
+        final int stride = rowBytes + padding;
+        final ByteBuffer dest = Buffers.newDirectByteBuffer(3 + stride * height);
+        dest.position(3);
+        decoder.getPixels(dest, stride, bytesPerPixel, storageCS, bottomUp, width, height);
+        Assert.assertEquals(3, dest.position());
+
+        final String msg = fname+", "+storageCS+", bpp "+bytesPerPixel+", padding "+padding+", bottomUp "+bottomUp;
+        assertEquals(msg, sink.data, sink.stride, dest, stride, rowBytes, height, bottomUp);
+        if( 4 == bytesPerPixel ) {
+            for(int y=0; y<height; y++) {
+                for(int x=0; x<width; x++) {
+                    Assert.assertEquals(msg+": alpha", (byte)0xff, dest.get(3 + y * stride + x * 4 + 3));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test01RGB() throws IOException {
+        for(int i=0; i<fileNames.length; i++) {
+            testImpl(fileNames[i], ColorSpace.RGB, 3, 0, false);
+            testImpl(fileNames[i], ColorSpace.RGB, 3, 5, true);
+        }
+    }
+
+    @Test
+    public void test02RGBA() throws IOException {
+        for(int i=0; i<fileNames.length; i++) {
+            testImpl(fileNames[i], ColorSpace.RGB, 4, 0, true);
+            testImpl(fileNames[i], ColorSpace.RGB, 4, 8, false);
+        }
+    }
+
+    @Test
+    public void test03YCbCr() throws IOException {
+        for(int i=0; i<fileNames.length; i++) {
+            testImpl(fileNames[i], ColorSpace.YCbCr, 3, 0, false);
+            testImpl(fileNames[i], ColorSpace.YCbCr, 4, 1, true);
+        }
+    }
+
+    @Test
+    public void test10Perf() throws IOException {
+        for(int i=0; i<fileNames.length; i++) {
+            final String fname = fileNames[i];
+            final JPEGDecoder decoder = parse(readAll(fname));
+            final int width = decoder.getWidth();
+            final int height = decoder.getHeight();
+            final TestColorSink sink = new TestColorSink(ColorSpace.RGB, 3);
+            final ByteBuffer dest = Buffers.newDirectByteBuffer(width * height * 3);
+            // warm up
+            for(int j=0; j<perfLoops; j++) {
+                decoder.getPixel(sink, width, height);
+                decoder.getPixels(dest, width * 3, 3, ColorSpace.RGB, false, width, height);
+            }
+
+            final long t0 = System.nanoTime();
+            for(int j=0; j<perfLoops; j++) {
+                decoder.getPixel(sink, width, height);
+            }
+            final long t1 = System.nanoTime();
+            for(int j=0; j<perfLoops; j++) {
+                decoder.getPixels(dest, width * 3, 3, ColorSpace.RGB, false, width, height);
+            }
+            final long t2 = System.nanoTime();
+            assertEquals(fname, sink.data, sink.stride, dest, width * 3, width * 3, height, false);
+            System.err.printf("Perf %s %dx%d, %s %d comps -> RGB: callback %.3f ms, bulk %.3f ms%n",
+                              fname, width, height, decoder.getSourceColorSpace(), decoder.getComponentCount(),
+                              ( t1 - t0 ) / 1e6 / perfLoops, ( t2 - t1 ) / 1e6 / perfLoops);
+        }
+    }
+
+    @Test
+    public void test11PerfDecode() throws IOException {
+        for(int i=0; i<fileNames.length; i++) {
+            final String fname = fileNames[i];
+            final byte[] data = readAll(fname);
+            parse(data); // warm up
+            final long t0 = System.nanoTime();
+            for(int j=0; j<perfLoops; j++) {
+                parse(data);
+            }
+            final long t1 = System.nanoTime();
+            System.err.printf("Perf %s %d bytes: parse %.3f ms%n", fname, data.length, ( t1 - t0 ) / 1e6 / perfLoops);
+        }
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestJPEGImage02NEWT.class.getName());
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import jogamp.opengl.util.jpeg.JPEGDecoder;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.TextureData.ColorSpace;
+
+/**
+ * Testing parallel JPEG decoding, i.e. restart intervals, inverse DCT and color conversion
+ * decoded on an {@link java.util.concurrent.Executor}, against sequential decoding
+ * for all test JPEG files and a large synthetic image w/ restart markers encoded via AWT ImageIO.
+ * <p>
+ * Also measures decoding time of both methods.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestJPEGImage03AWT extends UITestCase {
+    static final int perfWidth = 2048;
+    static final int perfHeight = 2048;
+    static final int perfLoops = 5;
+
+    static ExecutorService executor;
+
+    @BeforeClass
+    public static void initClass() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterClass
+    public static void releaseClass() {
+        executor.shutdown();
+    }
+
+    static ByteBuffer decode(final byte[] data, final boolean parallel) throws IOException {
+        final JPEGDecoder decoder = new JPEGDecoder();
+        decoder.parse(new ByteArrayInputStream(data), parallel ? executor : null);
+        final int width = decoder.getWidth();
+        final int height = decoder.getHeight();
+        final ByteBuffer dest = Buffers.newDirectByteBuffer(width * height * 4);
+        decoder.getPixels(dest, width * 4, 4, ColorSpace.RGB, true, width, height, parallel ? executor : null);
+        return dest;
+    }
+
+    static void assertEquals(final String msg, final ByteBuffer exp, final ByteBuffer has) {
+        Assert.assertEquals(msg+": size", exp.capacity(), has.capacity());
+        for(int i=0; i<exp.capacity(); i++) {
+            final byte e = exp.get(i);
+            final byte h = has.get(i);
+            if( e != h ) {
+                Assert.assertEquals(msg+": byte "+i, e, h);
+            }
+        }
+    }
+
+    /** Encodes the given image as a baseline JPEG w/ a restart marker every <code>restartInterval</code> MCUs. */
+    static byte[] encode(final BufferedImage image, final int restartInterval) throws IOException {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        final ImageWriteParam param = writer.getDefaultWriteParam();
+        final IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
+        final String formatName = "javax_imageio_jpeg_image_1.0";
+        final IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(formatName);
+        final IIOMetadataNode markerSequence = (IIOMetadataNode) root.getElementsByTagName("markerSequence").item(0);
+        final IIOMetadataNode dri = new IIOMetadataNode("dri");
+        dri.setAttribute("interval", String.valueOf(restartInterval));
+        markerSequence.insertBefore(dri, markerSequence.getFirstChild());
+        metadata.setFromTree(formatName, root);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ImageOutputStream ios = ImageIO.createImageOutputStream(bytes);
+        try {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, metadata), param);
+        } finally {
+            ios.close();
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    static BufferedImage createImage(final int width, final int height) {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Random rnd = new Random(width * 31 + height);
+        for(int y=0; y<height; y++) {
+            for(int x=0; x<width; x++) {
+                final int r = ( x * 255 / width ) ^ ( rnd.nextInt() & 0x0f );
+                final int g = ( y * 255 / height );
+                final int b = ( ( x + y ) / 16 ) % 2 == 0 ? 0x20 : 0xe0;
+                image.setRGB(x, y, ( r << 16 ) | ( g << 8 ) | b);
+            }
+        }
+        return image;
+    }
+
+    @Test
+    public void test01Files() throws IOException {
+        for(int i=0; i<TestJPEGImage02NEWT.fileNames.length; i++) {
+            final String fname = TestJPEGImage02NEWT.fileNames[i];
+            final byte[] data = TestJPEGImage02NEWT.readAll(fname);
+            assertEquals(fname, decode(data, false), decode(data, true));
+        }
+    }
+
+    @Test
+    public void test02RestartIntervals() throws IOException {
+        final BufferedImage image = createImage(333, 257);
+        final int[] intervals = { 1, 2, 7, 21, 22, 1000 };
+        for(int i=0; i<intervals.length; i++) {
+            final byte[] data = encode(image, intervals[i]);
+            assertEquals("restart interval "+intervals[i], decode(data, false), decode(data, true));
+        }
+    }
+
+    @Test
+    public void test10Perf() throws IOException {
+        final byte[] data = encode(createImage(perfWidth, perfHeight), perfWidth / 16);
+        final ByteBuffer exp = decode(data, false);
+        assertEquals("warm up", exp, decode(data, true));
+
+        final long t0 = System.nanoTime();
+        for(int j=0; j<perfLoops; j++) {
+            decode(data, false);
+        }
+        final long t1 = System.nanoTime();
+        for(int j=0; j<perfLoops; j++) {
+            decode(data, true);
+        }
+        final long t2 = System.nanoTime();
+        System.err.printf("Perf %dx%d JPEG %d bytes, restart interval %d: sequential %.3f ms, parallel %.3f ms, %d cpus%n",
+                          perfWidth, perfHeight, data.length, perfWidth / 16,
+                          ( t1 - t0 ) / 1e6 / perfLoops, ( t2 - t1 ) / 1e6 / perfLoops, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestJPEGImage03AWT.class.getName());
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import jogamp.opengl.util.jpeg.JPEGDecoder;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.TextureData.ColorSpace;
+import com.jogamp.opengl.util.texture.spi.JPEGImage;
+
+/**
+ * Testing reduced resolution JPEG decoding at 1/2, 1/4 and 1/8 in the DCT domain
+ * against the box filtered full resolution image for all test JPEG files.
+ * <p>
+ * Also measures decoding time of both methods.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestJPEGImage04NEWT extends UITestCase {
+    static final int[] scaleDenoms = { 2, 4, 8 };
+    static final int perfLoops = 20;
+    static final float maxMeanDiffLuma = 4f;
+    static final float maxMeanDiffChroma = 16f;
+
+    static JPEGDecoder parse(final byte[] data, final int maxDimension) throws IOException {
+        final JPEGDecoder decoder = new JPEGDecoder();
+        decoder.parse(new ByteArrayInputStream(data), null, maxDimension);
+        return decoder;
+    }
+
+    static ByteBuffer getPixels(final JPEGDecoder decoder, final ColorSpace storageCS) {
+        final int width = decoder.getWidth();
+        final int height = decoder.getHeight();
+        final ByteBuffer dest = Buffers.newDirectByteBuffer(width * height * 3);
+        decoder.getPixels(dest, width * 3, 3, storageCS, false, width, height);
+        return dest;
+    }
+
+    @Test
+    public void test01ScaleDenominator() {
+        Assert.assertEquals(1, JPEGDecoder.getScaleDenominator(640, 480, 0));
+        Assert.assertEquals(1, JPEGDecoder.getScaleDenominator(640, 480, -1));
+        Assert.assertEquals(1, JPEGDecoder.getScaleDenominator(640, 480, 640));
+        Assert.assertEquals(2, JPEGDecoder.getScaleDenominator(640, 480, 639));
+        Assert.assertEquals(2, JPEGDecoder.getScaleDenominator(480, 640, 320));
+        Assert.assertEquals(4, JPEGDecoder.getScaleDenominator(641, 480, 161));
+        Assert.assertEquals(8, JPEGDecoder.getScaleDenominator(641, 480, 81));
+        Assert.assertEquals(8, JPEGDecoder.getScaleDenominator(641, 480, 80));
+        Assert.assertEquals(8, JPEGDecoder.getScaleDenominator(6000, 4000, 16));
+    }
+
+    private void testImpl(final String fname, final int scaleDenom) throws IOException {
+        final byte[] data = TestJPEGImage02NEWT.readAll(fname);
+        final JPEGDecoder full = parse(data, 0);
+        final int fullWidth = full.getWidth();
+        final int fullHeight = full.getHeight();
+        final int width = ( fullWidth + scaleDenom - 1 ) / scaleDenom;
+        final int height = ( fullHeight + scaleDenom - 1 ) / scaleDenom;
+
+        final JPEGDecoder scaled = parse(data, Math.max(width, height));
+        Assert.assertEquals(fname, scaleDenom, scaled.getScaleDenominator());
+        Assert.assertEquals(fname, width, scaled.getWidth());
+        Assert.assertEquals(fname, height, scaled.getHeight());
+        // Luma is box filtered exactly by the reduced IDCT, while subsampled chroma keeps its coarser resolution
+        // and hence may differ more from the box filtered full resolution image.
+        final ColorSpace storageCS = TestJPEGImage02NEWT.isSupported(full, ColorSpace.YCbCr) ? ColorSpace.YCbCr : ColorSpace.RGB;
+        final ByteBuffer fullPixels = getPixels(full, storageCS);
+        final ByteBuffer scaledPixels = getPixels(scaled, storageCS);
+
+        // compare against the box filtered full resolution image, excluding partial boxes at the right and bottom edge
+        for(int c=0; c<3; c++) {
+            long sumDiff = 0;
+            int maxDiff = 0, count = 0;
+            for(int y=0; y<fullHeight/scaleDenom; y++) {
+                for(int x=0; x<fullWidth/scaleDenom; x++) {
+                    int sum = 0;
+                    for(int j=0; j<scaleDenom; j++) {
+                        for(int i=0; i<scaleDenom; i++) {
+                            sum += 0xff & fullPixels.get( ( ( y * scaleDenom + j ) * fullWidth + x * scaleDenom + i ) * 3 + c );
+                        }
+                    }
+                    final int exp = ( sum + scaleDenom * scaleDenom / 2 ) / ( scaleDenom * scaleDenom );
+                    final int has = 0xff & scaledPixels.get( ( y * width + x ) * 3 + c );
+                    final int diff = Math.abs(exp - has);
+                    sumDiff += diff;
+                    maxDiff = Math.max(maxDiff, diff);
+                    count++;
+                }
+            }
+            final float meanDiff = (float)sumDiff / (float)count;
+            final float maxMeanDiff = ( ColorSpace.RGB == storageCS || 0 == c ) ? maxMeanDiffLuma : maxMeanDiffChroma;
+            System.err.printf("%s 1/%d %s[%d]: %dx%d -> %dx%d, mean diff %.3f, max diff %d%n",
+                              fname, scaleDenom, storageCS, c, fullWidth, fullHeight, width, height, meanDiff, maxDiff);
+            Assert.assertTrue(fname+" 1/"+scaleDenom+" "+storageCS+"["+c+"]: mean diff "+meanDiff, meanDiff < maxMeanDiff);
+        }
+    }
+
+    @Test
+    public void test02Files() throws IOException {
+        for(int i=0; i<TestJPEGImage02NEWT.fileNames.length; i++) {
+            for(int j=0; j<scaleDenoms.length; j++) {
+                testImpl(TestJPEGImage02NEWT.fileNames[i], scaleDenoms[j]);
+            }
+        }
+    }
+
+    @Test
+    public void test03JPEGImage() throws IOException {
+        final String fname = "test-ycck-01.jpg";
+        final byte[] data = TestJPEGImage02NEWT.readAll(fname);
+        final JPEGImage full = JPEGImage.read(new ByteArrayInputStream(data));
+        final JPEGImage scaled = JPEGImage.read(new ByteArrayInputStream(data), ColorSpace.RGB, null, 128);
+        Assert.assertEquals(( full.getWidth() + 7 ) / 8, scaled.getWidth());
+        Assert.assertEquals(( full.getHeight() + 7 ) / 8, scaled.getHeight());
+        Assert.assertEquals(scaled.getWidth() * scaled.getHeight() * scaled.getBytesPerPixel(), scaled.getData().capacity());
+    }
+
+    @Test
+    public void test10Perf() throws IOException {
+        for(int i=0; i<TestJPEGImage02NEWT.fileNames.length; i++) {
+            final String fname = TestJPEGImage02NEWT.fileNames[i];
+            final byte[] data = TestJPEGImage02NEWT.readAll(fname);
+            final JPEGDecoder full = parse(data, 0);
+            if( !TestJPEGImage02NEWT.isSupported(full, ColorSpace.RGB) ) {
+                continue;
+            }
+            final int maxDim = Math.max(full.getWidth(), full.getHeight()) / 8;
+            for(int j=0; j<perfLoops; j++) { // warm up
+                getPixels(parse(data, 0), ColorSpace.RGB);
+                getPixels(parse(data, maxDim), ColorSpace.RGB);
+            }
+            final long t0 = System.nanoTime();
+            for(int j=0; j<perfLoops; j++) {
+                getPixels(parse(data, 0), ColorSpace.RGB);
+            }
+            final long t1 = System.nanoTime();
+            for(int j=0; j<perfLoops; j++) {
+                getPixels(parse(data, maxDim), ColorSpace.RGB);
+            }
+            final long t2 = System.nanoTime();
+            System.err.printf("Perf %s %dx%d: full %.3f ms, 1/8 %.3f ms%n", fname, full.getWidth(), full.getHeight(),
+                              ( t1 - t0 ) / 1e6 / perfLoops, ( t2 - t1 ) / 1e6 / perfLoops);
+        }
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestJPEGImage04NEWT.class.getName());
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.nativewindow.util.Dimension;
+import com.jogamp.nativewindow.util.PixelFormat;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.PNGPixelRect;
+
+/**
+ * Testing pipelined PNG decoding, i.e. inflating on an executor thread
+ * while unfiltering and converting rows on the calling thread,
+ * against the sequential decoding for all test PNG files and destination formats.
+ * <p>
+ * Also measures decoding time of both methods.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestPNGPixelRect02NEWT extends UITestCase {
+    static final PixelFormat[] destFmts = { null, PixelFormat.LUMINANCE, PixelFormat.RGB888, PixelFormat.BGR888,
+                                            PixelFormat.RGBA8888, PixelFormat.BGRA8888, PixelFormat.ARGB8888, PixelFormat.ABGR8888 };
+    static final int perfWidth = 2048;
+    static final int perfHeight = 2048;
+
+    static ExecutorService executor;
+
+    @BeforeClass
+    public static void initClass() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public static void releaseClass() {
+        executor.shutdown();
+    }
+
+    static byte[] readAll(final String basename) throws IOException {
+        final URLConnection urlConn = IOUtil.getResource(basename+".png", TestPNGPixelRect02NEWT.class.getClassLoader(), TestPNGPixelRect02NEWT.class);
+        if( null == urlConn ) {
+            throw new IOException("Cannot find "+basename+".png");
+        }
+        final InputStream in = urlConn.getInputStream();
+        try {
+            return IOUtil.copyStream2ByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    static void assertEquals(final String msg, final PNGPixelRect exp, final PNGPixelRect has) {
+        Assert.assertEquals(msg, exp.getPixelformat(), has.getPixelformat());
+        Assert.assertEquals(msg, exp.getSize(), has.getSize());
+        Assert.assertEquals(msg, exp.getStride(), has.getStride());
+        Assert.assertEquals(msg, exp.isGLOriented(), has.isGLOriented());
+        final ByteBuffer e = exp.getPixels();
+        final ByteBuffer h = has.getPixels();
+        Assert.assertEquals(msg, e.limit(), h.limit());
+        for(int i=0; i<e.limit(); i++) {
+            if( e.get(i) != h.get(i) ) {
+                Assert.assertEquals(msg+", byte "+i, e.get(i), h.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRead01_AllFormats() throws IOException {
+        for(int i=0; i<PNGTstFiles.allBasenames.length; i++) {
+            final String basename = PNGTstFiles.allBasenames[i];
+            final byte[] data = readAll(basename);
+            for(int j=0; j<destFmts.length; j++) {
+                for(int k=0; k<2; k++) {
+                    final boolean glOriented = 0 == k;
+                    final String msg = basename+" -> "+destFmts[j]+", glOriented "+glOriented;
+                    final PNGPixelRect exp = PNGPixelRect.read(new ByteArrayInputStream(data), destFmts[j], true /* directBuffer */,
+                                                               0 /* destMinStrideInBytes */, glOriented);
+                    final PNGPixelRect has = PNGPixelRect.read(new ByteArrayInputStream(data), destFmts[j], k == 0 /* directBuffer */,
+                                                               0 /* destMinStrideInBytes */, glOriented, executor);
+                    assertEquals(msg, exp, has);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRead02_Stride() throws IOException {
+        final byte[] data = readAll(PNGTstFiles.allBasenames[0]);
+        final PNGPixelRect exp = PNGPixelRect.read(new ByteArrayInputStream(data), PixelFormat.RGBA8888, true /* directBuffer */,
+                                                   160*4+12 /* destMinStrideInBytes */, true);
+        final PNGPixelRect has = PNGPixelRect.read(new ByteArrayInputStream(data), PixelFormat.RGBA8888, true /* directBuffer */,
+                                                   160*4+12 /* destMinStrideInBytes */, true, executor);
+        assertEquals("stride", exp, has);
+    }
+
+    @Test
+    public void testRead03_TaskNotStarted() throws IOException {
+        // queues the inflater task w/o running it, e.g. a saturated pool or the decoding thread's own pool
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        final Executor starved = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                queued.add(command);
+            } };
+        final byte[] data = readAll(PNGTstFiles.allBasenames[0]);
+        final PNGPixelRect exp = PNGPixelRect.read(new ByteArrayInputStream(data), PixelFormat.RGBA8888, true /* directBuffer */,
+                                                   0 /* destMinStrideInBytes */, true);
+        final PNGPixelRect has = PNGPixelRect.read(new ByteArrayInputStream(data), PixelFormat.RGBA8888, true /* directBuffer */,
+                                                   0 /* destMinStrideInBytes */, true, starved);
+        assertEquals("not started", exp, has);
+        Assert.assertEquals(1, queued.size());
+        queued.get(0).run(); // late start must be a no-op
+    }
+
+    @Test
+    public void testPerf01() throws IOException {
+        final Random rnd = new Random(0x2014);
+        final int stride = 4 * perfWidth;
+        final ByteBuffer pixels = Buffers.newDirectByteBuffer(stride * perfHeight);
+        for(int y=0; y<perfHeight; y++) {
+            for(int x=0; x<stride; x++) {
+                // smooth gradient w/ some noise, compresses like a typical image
+                pixels.put(y*stride+x, (byte) ( x/4 + y + ( x & 3 ) * 64 + rnd.nextInt(8) ));
+            }
+        }
+        final PNGPixelRect image = new PNGPixelRect(PixelFormat.RGBA8888, new Dimension(perfWidth, perfHeight), stride, false, pixels, 72, 72);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        image.write(out, true);
+        final byte[] data = out.toByteArray();
+
+        for(int i=0; i<3; i++) {
+            final long t0 = System.nanoTime();
+            final PNGPixelRect exp = PNGPixelRect.read(new ByteArrayInputStream(data), PixelFormat.BGRA8888, true, 0, true);
+            final long t1 = System.nanoTime();
+            final PNGPixelRect has = PNGPixelRect.read(new ByteArrayInputStream(data), PixelFormat.BGRA8888, true, 0, true, executor);
+            final long t2 = System.nanoTime();
+            assertEquals("perf", exp, has);
+            System.err.printf("Perf %dx%d PNG %d bytes RGBA8888 -> BGRA8888: sequential %.3f ms, pipelined %.3f ms%n",
+                              perfWidth, perfHeight, data.length, ( t1 - t0 ) / 1e6, ( t2 - t1 ) / 1e6);
+        }
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestPNGPixelRect02NEWT.class.getName());
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.nativewindow.util.Dimension;
+import com.jogamp.nativewindow.util.PixelFormat;
+
+import jogamp.opengl.util.pngj.FilterType;
+import jogamp.opengl.util.pngj.ImageInfo;
+import jogamp.opengl.util.pngj.PngWriter;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.PNGPixelRect;
+
+/**
+ * Testing parallel PNG encoding in row bands, each deflated independently:
+ * Images written in parallel must decode to the same pixels as the source,
+ * for all test PNG files, band sizes and filter strategies.
+ * <p>
+ * Also measures encoding time for different thread counts.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestPNGPixelRect03NEWT extends UITestCase {
+    static final int perfWidth = 2048;
+    static final int perfHeight = 2048;
+
+    static PNGPixelRect read(final byte[] data, final PixelFormat destFmt) throws IOException {
+        return PNGPixelRect.read(new ByteArrayInputStream(data), destFmt, false /* directBuffer */, 0 /* destMinStrideInBytes */, false /* destIsGLOriented */);
+    }
+
+    static void assertSamePixels(final String msg, final PNGPixelRect exp, final PNGPixelRect has) {
+        Assert.assertEquals(msg, exp.getPixelformat(), has.getPixelformat());
+        Assert.assertEquals(msg, exp.getSize(), has.getSize());
+        final ByteBuffer e = exp.getPixels();
+        final ByteBuffer h = has.getPixels();
+        Assert.assertEquals(msg, e.limit(), h.limit());
+        for(int i=0; i<e.limit(); i++) {
+            if( e.get(i) != h.get(i) ) {
+                Assert.assertEquals(msg+", byte "+i, e.get(i), h.get(i));
+            }
+        }
+    }
+
+    static ByteBuffer newImage(final int width, final int height, final int bytesPerPixel, final Random rnd) {
+        final int stride = bytesPerPixel * width;
+        final ByteBuffer pixels = Buffers.newDirectByteBuffer(stride * height);
+        for(int y=0; y<height; y++) {
+            for(int x=0; x<stride; x++) {
+                // smooth gradient w/ some noise, compresses like a typical image
+                pixels.put(y*stride+x, (byte) ( x/bytesPerPixel + y + ( x % bytesPerPixel ) * 64 + rnd.nextInt(4) ));
+            }
+        }
+        return pixels;
+    }
+
+    @Test
+    public void testWrite01_AllFiles() throws IOException {
+        Assume.assumeTrue(PngWriter.isParallelEncodingAvailable());
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for(int i=0; i<PNGTstFiles.allBasenames.length; i++) {
+                final String basename = PNGTstFiles.allBasenames[i];
+                final URLConnection urlConn = IOUtil.getResource(basename+".png", this.getClass().getClassLoader(), this.getClass());
+                if( null == urlConn ) {
+                    throw new IOException("Cannot find "+basename+".png");
+                }
+                final PNGPixelRect image = PNGPixelRect.read(urlConn.getInputStream(), null, false /* directBuffer */, 0 /* destMinStrideInBytes */, false /* destIsGLOriented */);
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                image.write(out, true, executor);
+                assertSamePixels(basename, image, read(out.toByteArray(), image.getPixelformat()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWrite02_BandsAndFilters() throws IOException {
+        Assume.assumeTrue(PngWriter.isParallelEncodingAvailable());
+        final int width = 97, height = 61, bytesPerPixel = 3;
+        final ByteBuffer pixels = newImage(width, height, bytesPerPixel, new Random(0x2014));
+        final PNGPixelRect exp = new PNGPixelRect(PixelFormat.RGB888, new Dimension(width, height), width * bytesPerPixel, false, pixels, 72, 72);
+        final FilterType[] filterTypes = { FilterType.FILTER_DEFAULT, FilterType.FILTER_AGGRESSIVE, FilterType.FILTER_VERYAGGRESSIVE,
+                                           FilterType.FILTER_CYCLIC, FilterType.FILTER_NONE, FilterType.FILTER_PAETH };
+        final int[] bandRows = { 1, 2, 7, 60, 61, 100 };
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for(int f=0; f<filterTypes.length; f++) {
+                for(int b=0; b<bandRows.length; b++) {
+                    final ImageInfo imi = new ImageInfo(width, height, 8 /* bitdepth */, false /* alpha */, false /* grayscale */, false /* indexed */);
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    final PngWriter png = new PngWriter(out, imi);
+                    png.setFilterType(filterTypes[f]);
+                    png.setParallelEncoding(executor, bandRows[b]);
+                    final byte[] row = new byte[width * bytesPerPixel];
+                    for(int y=0; y<height; y++) {
+                        pixels.position(y * row.length);
+                        pixels.get(row);
+                        png.writeRowByte(row, y);
+                    }
+                    pixels.clear();
+                    png.end();
+                    assertSamePixels(filterTypes[f]+", bandRows "+bandRows[b], exp, read(out.toByteArray(), exp.getPixelformat()));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPerf01() throws IOException {
+        final Random rnd = new Random(0x2014);
+        final ByteBuffer pixels = newImage(perfWidth, perfHeight, 4, rnd);
+        final PNGPixelRect image = new PNGPixelRect(PixelFormat.RGBA8888, new Dimension(perfWidth, perfHeight), 4 * perfWidth, false, pixels, 72, 72);
+        final int cpus = Runtime.getRuntime().availableProcessors();
+        final int[] threadCounts = 4 < cpus ? new int[] { 0, 1, 2, 4, cpus } : new int[] { 0, 1, 2, 4 };
+        for(int i=0; i<threadCounts.length; i++) {
+            final int threads = threadCounts[i];
+            final ExecutorService executor = 0 < threads ? Executors.newFixedThreadPool(threads) : null;
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final long t0 = System.nanoTime();
+                image.write(out, true, executor);
+                final long t1 = System.nanoTime();
+                System.err.printf("Perf %dx%d RGBA8888 PNG: threads %d (sequential if 0), %d bytes, %.3f ms%n",
+                                  perfWidth, perfHeight, threads, out.size(), ( t1 - t0 ) / 1e6);
+                if( 0 == i ) {
+                    assertSamePixels("perf", image, read(out.toByteArray(), image.getPixelformat()));
+                }
+            } finally {
+                if( null != executor ) {
+                    executor.shutdown();
+                }
+            }
+        }
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestPNGPixelRect03NEWT.class.getName());
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.Bitstream;
+import com.jogamp.nativewindow.util.PixelFormat;
+import com.jogamp.nativewindow.util.PixelFormatUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Testing PixelFormatUtil's row based conversion kernels
+ * against the generic per pixel Bitstream conversion
+ * using random test data, including strides, endian-order, vertical flipping and all PixelFormat conversions.
+ * <p>
+ * Also measures conversion time of both methods.
+ * </p>
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestPixelFormatUtil02NEWT extends UITestCase {
+    static final int perfWidth = 1024;
+    static final int perfHeight = 1024;
+
+    /** Reference conversion using the generic per pixel Bitstream conversion, or a plain byte copy for identical formats. */
+    static void convertGeneric(final int width, final int height,
+                               final ByteBuffer src_bb, final PixelFormat src_fmt, final boolean src_glOriented, final int src_lineStride,
+                               final ByteBuffer dst_bb, final PixelFormat dst_fmt, final boolean dst_glOriented, final int dst_lineStride)
+                                       throws IOException
+    {
+        final PixelFormat.Composition src_comp = src_fmt.comp;
+        final PixelFormat.Composition dst_comp = dst_fmt.comp;
+        final boolean vert_flip = src_glOriented != dst_glOriented;
+        if( src_comp.equals(dst_comp) ) {
+            final int rowLen = src_comp.bytesPerPixel() * width;
+            for(int y=0; y<height; y++) {
+                final int src_off = vert_flip ? ( height - 1 - y ) * src_lineStride : y * src_lineStride;
+                for(int i=0; i<rowLen; i++) {
+                    dst_bb.put(y * dst_lineStride + i, src_bb.get(src_off + i));
+                }
+            }
+            return;
+        }
+        final PixelFormatUtil.ComponentMap cmap = new PixelFormatUtil.ComponentMap(src_comp, dst_comp);
+        final Bitstream<ByteBuffer> srcBitStream = new Bitstream<ByteBuffer>(new Bitstream.ByteBufferStream(src_bb), false /* outputMode */);
+        srcBitStream.setThrowIOExceptionOnEOF(true);
+        for(int y=0; y<height; y++) {
+            final Bitstream<ByteBuffer> dstBitStream = new Bitstream<ByteBuffer>(new Bitstream.ByteBufferStream(dst_bb), true /* outputMode */);
+            dstBitStream.setThrowIOExceptionOnEOF(true);
+            dstBitStream.skip(y * dst_lineStride * 8);
+            final int src_off = vert_flip ? ( height - 1 - y ) * src_lineStride * 8 : y * src_lineStride * 8;
+            srcBitStream.position(src_off);
+            for(int x=0; x<width; x++) {
+                PixelFormatUtil.convert(cmap, dst_comp, dstBitStream, src_comp, srcBitStream);
+            }
+            dstBitStream.close();
+        }
+    }
+
+    static ByteBuffer newBuffer(final int size, final boolean direct, final ByteOrder order, final Random rnd) {
+        final ByteBuffer bb = direct ? Buffers.newDirectByteBuffer(size) : ByteBuffer.allocate(size);
+        bb.order(order);
+        for(int i=0; i<size; i++) {
+            bb.put(i, (byte)rnd.nextInt(256));
+        }
+        return bb;
+    }
+
+    void testConversion(final boolean direct, final ByteOrder order, final int srcPad, final int dstPad,
+                        final boolean srcGLOriented, final boolean dstGLOriented) throws IOException {
+        final Random rnd = new Random(0x2014);
+        final int width = 17, height = 5;
+        for(final PixelFormat srcFmt : PixelFormat.values()) {
+            final int srcStride = srcFmt.comp.bytesPerPixel() * width + srcPad;
+            final ByteBuffer src = newBuffer(srcStride * height, direct, order, rnd);
+            for(final PixelFormat dstFmt : PixelFormat.values()) {
+                final int dstStride = dstFmt.comp.bytesPerPixel() * width + dstPad;
+                final ByteBuffer dstExp = newBuffer(dstStride * height, direct, order, rnd);
+                final ByteBuffer dstHas = newBuffer(dstStride * height, direct, order, rnd);
+                dstHas.put(dstExp);
+                dstHas.clear();
+                dstExp.clear();
+                convertGeneric(width, height, src, srcFmt, srcGLOriented, srcStride,
+                               dstExp, dstFmt, dstGLOriented, dstStride);
+                PixelFormatUtil.convert(width, height, src, srcFmt, srcGLOriented, srcStride,
+                                        dstHas, dstFmt, dstGLOriented, dstStride);
+                Assert.assertEquals(0, src.position());
+                Assert.assertEquals(0, dstHas.position());
+                for(int i=0; i<dstStride * height; i++) {
+                    if( dstExp.get(i) != dstHas.get(i) ) {
+                        Assert.assertEquals(String.format("%s -> %s: byte %d of line %d", srcFmt, dstFmt, i % dstStride, i / dstStride),
+                                            dstExp.get(i), dstHas.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConversion01_S000_BE_TL_TL() throws IOException {
+        testConversion(false, ByteOrder.BIG_ENDIAN, 0, 0, false, false);
+    }
+    @Test
+    public void testConversion02_S000_LE_TL_TL_Direct() throws IOException {
+        testConversion(true, ByteOrder.LITTLE_ENDIAN, 0, 0, false, false);
+    }
+    @Test
+    public void testConversion03_S003_BE_TL_BL() throws IOException {
+        testConversion(false, ByteOrder.BIG_ENDIAN, 3, 0, false, true);
+    }
+    @Test
+    public void testConversion04_S005_LE_BL_TL_Direct() throws IOException {
+        testConversion(true, ByteOrder.LITTLE_ENDIAN, 0, 5, true, false);
+    }
+    @Test
+    public void testConversion05_S007_BE_BL_BL_Direct() throws IOException {
+        testConversion(true, ByteOrder.BIG_ENDIAN, 7, 1, true, true);
+    }
+
+    void testParallel(final ExecutorService executor, final PixelFormat srcFmt, final PixelFormat dstFmt,
+                      final boolean srcGLOriented, final boolean dstGLOriented) {
+        final Random rnd = new Random(0x2014);
+        final int width = 1000, height = 701; // above threshold, uneven bands
+        final int dstStride = dstFmt.comp.bytesPerPixel() * width + 3;
+        final ByteBuffer src = newBuffer(srcFmt.comp.bytesPerPixel() * width * height, true, ByteOrder.nativeOrder(), rnd);
+        final ByteBuffer dstExp = newBuffer(dstStride * height, true, ByteOrder.nativeOrder(), rnd);
+        final ByteBuffer dstHas = Buffers.newDirectByteBuffer(dstStride * height);
+        dstHas.put(dstExp);
+        dstHas.clear();
+        dstExp.clear();
+        final long t0 = System.nanoTime();
+        PixelFormatUtil.convert(width, height, src, srcFmt, srcGLOriented, 0, dstExp, dstFmt, dstGLOriented, dstStride, null);
+        final long t1 = System.nanoTime();
+        PixelFormatUtil.convert(width, height, src, srcFmt, srcGLOriented, 0, dstHas, dstFmt, dstGLOriented, dstStride, executor);
+        final long t2 = System.nanoTime();
+        System.err.printf("Parallel %dx%d %s -> %s: serial %.3f ms, parallel %.3f ms%n", width, height, srcFmt, dstFmt,
+                          ( t1 - t0 ) / 1e6, ( t2 - t1 ) / 1e6);
+        Assert.assertEquals(dstExp, dstHas);
+    }
+
+    @Test
+    public void testParallel01() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            testParallel(executor, PixelFormat.RGBA8888, PixelFormat.BGRA8888, false, false);
+            testParallel(executor, PixelFormat.RGBA8888, PixelFormat.BGRA8888, true, false);
+            testParallel(executor, PixelFormat.RGB888, PixelFormat.RGBA8888, false, true);
+            testParallel(executor, PixelFormat.RGB565, PixelFormat.LUMINANCE, true, false);
+            testParallel(executor, PixelFormat.RGBA8888, PixelFormat.RGBA8888, true, false);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    void testPerf(final PixelFormat srcFmt, final PixelFormat dstFmt) throws IOException {
+        final Random rnd = new Random(0x2014);
+        final ByteBuffer src = newBuffer(srcFmt.comp.bytesPerPixel() * perfWidth * perfHeight, true, ByteOrder.nativeOrder(), rnd);
+        final ByteBuffer dst = Buffers.newDirectByteBuffer(dstFmt.comp.bytesPerPixel() * perfWidth * perfHeight);
+        final long t0 = System.nanoTime();
+        convertGeneric(perfWidth, perfHeight, src, srcFmt, false, 0, dst, dstFmt, true, dstFmt.comp.bytesPerPixel() * perfWidth);
+        final long t1 = System.nanoTime();
+        for(int i=0; i<10; i++) {
+            PixelFormatUtil.convert(perfWidth, perfHeight, src, srcFmt, false, 0, dst, dstFmt, true, 0);
+        }
+        final long t2 = System.nanoTime();
+        System.err.printf("Perf %dx%d %s -> %s: generic %.3f ms, kernel %.3f ms%n", perfWidth, perfHeight, srcFmt, dstFmt,
+                          ( t1 - t0 ) / 1e6, ( t2 - t1 ) / 10e6);
+    }
+
+    @Test
+    public void testPerf01() throws IOException {
+        testPerf(PixelFormat.RGBA8888, PixelFormat.BGRA8888);
+        testPerf(PixelFormat.RGBA8888, PixelFormat.RGBA8888);
+        testPerf(PixelFormat.RGB888, PixelFormat.RGBA8888);
+        testPerf(PixelFormat.ARGB8888, PixelFormat.RGBA8888);
+        testPerf(PixelFormat.RGB565, PixelFormat.RGBA8888);
+        testPerf(PixelFormat.RGBA8888, PixelFormat.LUMINANCE);
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestPixelFormatUtil02NEWT.class.getName());
+    }
+}
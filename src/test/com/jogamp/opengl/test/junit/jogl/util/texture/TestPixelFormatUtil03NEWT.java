@@ -0,0 +1,168 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import com.jogamp.common.util.Bitstream;
+import com.jogamp.nativewindow.util.PixelFormat;
+import com.jogamp.nativewindow.util.PixelFormatUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Testing PixelFormatUtil.PixelConverter's allocation free conversion
+ * against the static per pixel Bitstream conversion for all PixelFormat conversions
+ * and comparing their performance.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestPixelFormatUtil03NEWT extends UITestCase {
+    static final int pixelCount = 64;
+    static final int perfPixelCount = 1024*1024;
+
+    static Bitstream<ByteBuffer> newBitstream(final ByteBuffer bb, final boolean outputMode) {
+        final Bitstream<ByteBuffer> bs = new Bitstream<ByteBuffer>(new Bitstream.ByteBufferStream(bb), outputMode);
+        bs.setThrowIOExceptionOnEOF(true);
+        return bs;
+    }
+
+    static ByteBuffer newBuffer(final int size, final Random rnd) {
+        final ByteBuffer bb = ByteBuffer.allocate(size);
+        for(int i=0; i<size; i++) {
+            bb.put(i, (byte)rnd.nextInt(256));
+        }
+        return bb;
+    }
+
+    @Test
+    public void testConversion01() throws IOException {
+        final Random rnd = new Random(0x2014);
+        for(final PixelFormat srcFmt : PixelFormat.values()) {
+            final ByteBuffer src = newBuffer(srcFmt.comp.bytesPerPixel() * pixelCount, rnd);
+            for(final PixelFormat dstFmt : PixelFormat.values()) {
+                final int dBpp = dstFmt.comp.bytesPerPixel();
+                final PixelFormatUtil.ComponentMap cmap = new PixelFormatUtil.ComponentMap(srcFmt.comp, dstFmt.comp);
+                final PixelFormatUtil.PixelConverter pc = new PixelFormatUtil.PixelConverter(cmap, srcFmt.comp, dstFmt.comp);
+
+                // Reference
+                final ByteBuffer dstExp = ByteBuffer.allocate(dBpp * pixelCount);
+                {
+                    final Bitstream<ByteBuffer> srcBS = newBitstream(src, false);
+                    final Bitstream<ByteBuffer> dstBS = newBitstream(dstExp, true);
+                    for(int i=0; i<pixelCount; i++) {
+                        PixelFormatUtil.convert(cmap, dstFmt.comp, dstBS, srcFmt.comp, srcBS);
+                    }
+                    dstBS.close();
+                }
+                // Bitstream
+                final ByteBuffer dstHas1 = ByteBuffer.allocate(dBpp * pixelCount);
+                {
+                    final Bitstream<ByteBuffer> srcBS = newBitstream(src, false);
+                    final Bitstream<ByteBuffer> dstBS = newBitstream(dstHas1, true);
+                    for(int i=0; i<pixelCount; i++) {
+                        pc.convert(dstBS, srcBS);
+                    }
+                    dstBS.close();
+                }
+                Assert.assertEquals(srcFmt+" -> "+dstFmt, dstExp, dstHas1);
+
+                // Span on ByteBuffer
+                final ByteBuffer dstHas2 = ByteBuffer.allocate(dBpp * pixelCount);
+                pc.convert(src, 0, dstHas2, 0, pixelCount);
+                Assert.assertEquals(srcFmt+" -> "+dstFmt, dstExp, dstHas2);
+
+                // Single shifted pixel
+                for(int i=0; i<pixelCount; i++) {
+                    src.position(i*srcFmt.comp.bytesPerPixel());
+                    dstExp.position(i*dBpp);
+                    final int srcPixel = PixelFormatUtil.getShiftedI32(srcFmt.comp.bytesPerPixel(), src, true);
+                    final int expPixel = PixelFormatUtil.getShiftedI32(dBpp, dstExp, true);
+                    Assert.assertEquals(srcFmt+" -> "+dstFmt+" @ "+i, expPixel, pc.convert(srcPixel));
+                }
+                src.position(0);
+            }
+        }
+    }
+
+    void testPerf(final PixelFormat srcFmt, final PixelFormat dstFmt) throws IOException {
+        final Random rnd = new Random(0x2014);
+        final ByteBuffer src = newBuffer(srcFmt.comp.bytesPerPixel() * perfPixelCount, rnd);
+        final ByteBuffer dst = ByteBuffer.allocate(dstFmt.comp.bytesPerPixel() * perfPixelCount);
+        final PixelFormatUtil.ComponentMap cmap = new PixelFormatUtil.ComponentMap(srcFmt.comp, dstFmt.comp);
+        final PixelFormatUtil.PixelConverter pc = new PixelFormatUtil.PixelConverter(cmap, srcFmt.comp, dstFmt.comp);
+        final int[] srcPixels = new int[perfPixelCount];
+        final int[] dstPixels = new int[perfPixelCount];
+        for(int i=0; i<perfPixelCount; i++) {
+            srcPixels[i] = rnd.nextInt();
+        }
+        final long t0 = System.nanoTime();
+        {
+            final Bitstream<ByteBuffer> srcBS = newBitstream(src, false);
+            final Bitstream<ByteBuffer> dstBS = newBitstream(dst, true);
+            for(int i=0; i<perfPixelCount; i++) {
+                PixelFormatUtil.convert(cmap, dstFmt.comp, dstBS, srcFmt.comp, srcBS);
+            }
+        }
+        final long t1 = System.nanoTime();
+        {
+            final Bitstream<ByteBuffer> srcBS = newBitstream(src, false);
+            final Bitstream<ByteBuffer> dstBS = newBitstream(dst, true);
+            for(int i=0; i<perfPixelCount; i++) {
+                pc.convert(dstBS, srcBS);
+            }
+        }
+        final long t2 = System.nanoTime();
+        pc.convert(src, 0, dst, 0, perfPixelCount);
+        final long t3 = System.nanoTime();
+        pc.convert(srcPixels, 0, dstPixels, 0, perfPixelCount);
+        final long t4 = System.nanoTime();
+        System.err.printf("Perf %d pixel %s -> %s: static bitstream %.3f ms, converter bitstream %.3f ms, span %.3f ms, int[] %.3f ms%n",
+                          perfPixelCount, srcFmt, dstFmt, ( t1 - t0 ) / 1e6, ( t2 - t1 ) / 1e6, ( t3 - t2 ) / 1e6, ( t4 - t3 ) / 1e6);
+    }
+
+    @Test
+    public void testPerf01() throws IOException {
+        for(int i=0; i<3; i++) { // warm up
+            testPerf(PixelFormat.RGBA8888, PixelFormat.BGRA8888);
+        }
+        testPerf(PixelFormat.RGB888, PixelFormat.RGBA8888);
+        testPerf(PixelFormat.RGB565, PixelFormat.BGRA8888);
+        testPerf(PixelFormat.BGRA8888, PixelFormat.LUMINANCE);
+    }
+
+    public static void main(final String args[]) {
+        org.junit.runner.JUnitCore.main(TestPixelFormatUtil03NEWT.class.getName());
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLDrawableFactory;
+import com.jogamp.opengl.GLOffscreenAutoDrawable;
+import com.jogamp.opengl.GLProfile;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.Animator;
+import com.jogamp.opengl.util.texture.Texture;
+import com.jogamp.opengl.util.texture.TextureData;
+import com.jogamp.opengl.util.texture.TextureLoader;
+import com.jogamp.opengl.util.texture.TextureMipmapBuilder;
+
+/**
+ * Loads textures asynchronously via {@link TextureLoader} into an animated offscreen drawable,
+ * covering decoding via the registered providers, sliced uploads w/ and w/o PBO,
+ * cancellation and the shared context mode.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestTextureLoader01NEWT extends UITestCase {
+    static long timeout = 10000; // ms
+    static final String[] pngFiles = { "test-ntscN_3-01-160x90.png", "test-ntscN_4-01-160x90.png",
+                                       "test-ntscI_3-01-160x90.png", "test-ntscI_4-01-160x90.png",
+                                       "test-ntscP_3-01-160x90.png", "test-ntscP_4-01-160x90.png" };
+
+    GLOffscreenAutoDrawable glad;
+    Animator animator;
+
+    @Before
+    public void initTest() {
+        final GLProfile glp = GLProfile.getDefault();
+        final GLCapabilities caps = new GLCapabilities(glp);
+        caps.setOnscreen(false);
+        glad = GLDrawableFactory.getFactory(glp).createOffscreenAutoDrawable(null, caps, null, 64, 64);
+        Assert.assertNotNull(glad);
+        glad.display(); // realize
+        animator = new Animator(glad);
+        animator.start();
+    }
+
+    @After
+    public void cleanupTest() {
+        animator.stop();
+        glad.destroy();
+        glad = null;
+        animator = null;
+    }
+
+    static TextureData createData(final int width, final int height) {
+        final ByteBuffer bb = Buffers.newDirectByteBuffer(width*height*4);
+        for(int i=0; i<width*height*4; i++) {
+            bb.put(i, (byte)i);
+        }
+        return new TextureData(GLProfile.getDefault(), GL.GL_RGBA, width, height, 0, GL.GL_RGBA, GL.GL_UNSIGNED_BYTE,
+                               false, false, false, bb, null);
+    }
+
+    private void testPNGImpl(final boolean sharedContext, final TextureMipmapBuilder builder) throws Exception {
+        final TextureLoader loader = new TextureLoader(glad, 0);
+        loader.setUseSharedContext(sharedContext);
+        loader.setMipmapBuilder(builder);
+        try {
+            final ArrayList<TextureLoader.Request> requests = new ArrayList<TextureLoader.Request>();
+            for(int i=0; i<pngFiles.length; i++) {
+                final InputStream stream = TestTextureLoader01NEWT.class.getResourceAsStream(pngFiles[i]);
+                Assert.assertNotNull(stream);
+                requests.add(loader.load(stream, null != builder, "png", i));
+            }
+            for(final TextureLoader.Request r : requests) {
+                final Texture tex = r.get(timeout, TimeUnit.MILLISECONDS);
+                Assert.assertNotNull(tex);
+                Assert.assertTrue(r.isDone());
+                Assert.assertEquals(160, tex.getImageWidth());
+                Assert.assertEquals(90, tex.getImageHeight());
+            }
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void test01PNG() throws Exception {
+        testPNGImpl(false, null);
+    }
+
+    @Test
+    public void test02PNGMipmapBuilder() throws Exception {
+        testPNGImpl(false, new TextureMipmapBuilder(TextureMipmapBuilder.Filter.BOX, false, null));
+    }
+
+    private void testSlicedImpl(final boolean usePBO) throws Exception {
+        final TextureLoader loader = new TextureLoader(glad, 1);
+        loader.setUsePBO(usePBO);
+        loader.setSliceSize(64*1024);
+        loader.setUploadBudget(1000000L);
+        try {
+            final TextureLoader.Request r = loader.load(createData(512, 384), 0);
+            final Texture tex = r.get(timeout, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(512, tex.getImageWidth());
+            Assert.assertEquals(384, tex.getImageHeight());
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void test03Sliced() throws Exception {
+        testSlicedImpl(false);
+    }
+
+    @Test
+    public void test04SlicedPBO() throws Exception {
+        testSlicedImpl(true);
+    }
+
+    @Test
+    public void test05Cancel() throws Exception {
+        final TextureLoader loader = new TextureLoader(glad, 1);
+        loader.setSliceSize(16*1024);
+        try {
+            final ArrayList<TextureLoader.Request> requests = new ArrayList<TextureLoader.Request>();
+            for(int i=0; i<8; i++) {
+                requests.add(loader.load(createData(256, 256), 0));
+            }
+            for(int i=0; i<requests.size(); i+=2) {
+                requests.get(i).cancel(false);
+            }
+            for(int i=0; i<requests.size(); i++) {
+                final TextureLoader.Request r = requests.get(i);
+                if( 0 == i % 2 ) {
+                    Assert.assertTrue(r.isCancelled());
+                    try {
+                        r.get();
+                        Assert.fail("Cancelled request delivered texture");
+                    } catch (final CancellationException ce) { }
+                } else {
+                    Assert.assertNotNull(r.get(timeout, TimeUnit.MILLISECONDS));
+                }
+            }
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void test06Priority() throws Exception {
+        final TextureLoader loader = new TextureLoader(glad, 1);
+        try {
+            final TextureLoader.Request blocker = loader.load(createData(1024, 1024), 0);
+            final TextureLoader.Request low = loader.load(createData(64, 64), 0);
+            final TextureLoader.Request high = loader.load(createData(64, 64), 0);
+            high.setPriority(10);
+            Assert.assertEquals(10, high.getPriority());
+            Assert.assertNotNull(blocker.get(timeout, TimeUnit.MILLISECONDS));
+            Assert.assertNotNull(low.get(timeout, TimeUnit.MILLISECONDS));
+            Assert.assertNotNull(high.get(timeout, TimeUnit.MILLISECONDS));
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void test07SharedContext() throws Exception {
+        testPNGImpl(true, null);
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-timeout")) {
+                i++;
+                timeout = MiscUtils.atol(args[i], timeout);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestTextureLoader01NEWT.class.getName());
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2014 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.jogamp.opengl.GL;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.FixMethodOrder;
+import org.junit.runners.MethodSorters;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.util.texture.TextureData;
+import com.jogamp.opengl.util.texture.TextureMipmapBuilder;
+import com.jogamp.opengl.util.texture.TextureMipmapBuilder.Filter;
+
+/**
+ * Validates the mipmap chains of {@link TextureMipmapBuilder} for all {@link Filter}s w/ and w/o sRGB,
+ * sequential and in parallel, and measures their duration.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class TestTextureMipmapBuilder01NOUI {
+    static int size = 2048;
+    static int loops = 3;
+
+    static TextureData createData(final int width, final int height, final int pixelFormat, final int comps,
+                                  final ByteBuffer pixels) {
+        return new TextureData(null, pixelFormat, width, height, 0, pixelFormat, GL.GL_UNSIGNED_BYTE,
+                               false, false, false, pixels, null);
+    }
+
+    static ByteBuffer createRandom(final int byteCount, final long seed) {
+        final ByteBuffer bb = Buffers.newDirectByteBuffer(byteCount);
+        final Random rnd = new Random(seed);
+        for(int i=0; i<byteCount; i++) {
+            bb.put(i, (byte)rnd.nextInt());
+        }
+        return bb;
+    }
+
+    static void assertChain(final TextureData res, final int width, final int height, final int comps) {
+        final Buffer[] levels = res.getMipmapData();
+        Assert.assertNotNull(levels);
+        Assert.assertEquals(TextureMipmapBuilder.getLevelCount(width, height), levels.length);
+        int w = width, h = height;
+        for(int i=0; i<levels.length; i++) {
+            Assert.assertEquals("level "+i, w*h*comps, levels[i].remaining());
+            w = Math.max(1, w/2);
+            h = Math.max(1, h/2);
+        }
+        Assert.assertEquals(1, w*h);
+    }
+
+    @Test
+    public void test01LevelCount() {
+        Assert.assertEquals(1, TextureMipmapBuilder.getLevelCount(1, 1));
+        Assert.assertEquals(2, TextureMipmapBuilder.getLevelCount(2, 1));
+        Assert.assertEquals(3, TextureMipmapBuilder.getLevelCount(5, 3));
+        Assert.assertEquals(12, TextureMipmapBuilder.getLevelCount(2048, 1024));
+        Assert.assertEquals(13, TextureMipmapBuilder.getLevelCount(4096, 16));
+    }
+
+    @Test
+    public void test02Box() {
+        final int w = 64, h = 32, comps = 4;
+        final ByteBuffer pixels = createRandom(w*h*comps, 1);
+        final TextureData res = new TextureMipmapBuilder(Filter.BOX, false, null).build(createData(w, h, GL.GL_RGBA, comps, pixels));
+        assertChain(res, w, h, comps);
+        Assert.assertSame(pixels, res.getMipmapData()[0]); // tightly packed, reused
+        final ByteBuffer l1 = (ByteBuffer) res.getMipmapData()[1];
+        for(int y=0; y<h/2; y++) {
+            for(int x=0; x<w/2; x++) {
+                for(int c=0; c<comps; c++) {
+                    final int s = ( 0xFF & pixels.get(((2*y  )*w+2*x  )*comps+c) ) + ( 0xFF & pixels.get(((2*y  )*w+2*x+1)*comps+c) ) +
+                                  ( 0xFF & pixels.get(((2*y+1)*w+2*x  )*comps+c) ) + ( 0xFF & pixels.get(((2*y+1)*w+2*x+1)*comps+c) );
+                    Assert.assertEquals((s+2)/4, 0xFF & l1.get((y*w/2+x)*comps+c));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test03ConstantAllFilters() {
+        final int w = 37, h = 21, comps = 3;
+        final ByteBuffer pixels = Buffers.newDirectByteBuffer(w*h*comps);
+        for(int i=0; i<w*h; i++) {
+            pixels.put((byte)77).put((byte)128).put((byte)255);
+        }
+        pixels.rewind();
+        for(final Filter f : Filter.values()) {
+            for(int srgb=0; srgb<2; srgb++) {
+                final TextureData res = new TextureMipmapBuilder(f, 0 != srgb, null).build(createData(w, h, GL.GL_RGB, comps, pixels));
+                assertChain(res, w, h, comps);
+                final Buffer[] levels = res.getMipmapData();
+                for(int i=1; i<levels.length; i++) {
+                    final ByteBuffer l = (ByteBuffer) levels[i];
+                    for(int j=0; j<l.remaining(); j+=comps) {
+                        Assert.assertEquals(f+", sRGB "+srgb+", level "+i, 77, 0xFF & l.get(j));
+                        Assert.assertEquals(f+", sRGB "+srgb+", level "+i, 128, 0xFF & l.get(j+1));
+                        Assert.assertEquals(f+", sRGB "+srgb+", level "+i, 255, 0xFF & l.get(j+2));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test04SRGB() {
+        // black and white checker w/ alternating alpha
+        final ByteBuffer pixels = Buffers.newDirectByteBuffer(2*2*4);
+        pixels.put(new byte[] { 0, 0, 0, 0,  (byte)255, (byte)255, (byte)255, (byte)255,
+                                (byte)255, (byte)255, (byte)255, (byte)255,  0, 0, 0, 0 });
+        pixels.rewind();
+        final ByteBuffer lin = (ByteBuffer) new TextureMipmapBuilder(Filter.BOX, false, null).build(createData(2, 2, GL.GL_RGBA, 4, pixels)).getMipmapData()[1];
+        final ByteBuffer srgb = (ByteBuffer) new TextureMipmapBuilder(Filter.BOX, true, null).build(createData(2, 2, GL.GL_RGBA, 4, pixels)).getMipmapData()[1];
+        for(int c=0; c<3; c++) {
+            Assert.assertEquals(128, 0xFF & lin.get(c));
+            Assert.assertEquals(188, 0xFF & srgb.get(c)); // linear 0.5
+        }
+        Assert.assertEquals(128, 0xFF & lin.get(3));
+        Assert.assertEquals(128, 0xFF & srgb.get(3)); // alpha is linear
+    }
+
+    @Test
+    public void test05RowLength() {
+        // 3 RGB pixels per row, padded to 4 byte alignment
+        final int w = 3, h = 2, comps = 3, stride = 12;
+        final ByteBuffer pixels = Buffers.newDirectByteBuffer(stride*h);
+        for(int y=0; y<h; y++) {
+            for(int i=0; i<w*comps; i++) {
+                pixels.put(y*stride+i, (byte)(10*y+i));
+            }
+        }
+        final TextureData data = createData(w, h, GL.GL_RGB, comps, pixels);
+        data.setAlignment(4);
+        final TextureData res = new TextureMipmapBuilder(Filter.BOX, false, null).build(data);
+        assertChain(res, w, h, comps);
+        final ByteBuffer l0 = (ByteBuffer) res.getMipmapData()[0];
+        for(int y=0; y<h; y++) {
+            for(int i=0; i<w*comps; i++) {
+                Assert.assertEquals(10*y+i, l0.get(y*w*comps+i));
+            }
+        }
+    }
+
+    @Test
+    public void test06Parallel() {
+        final int w = 1024, h = 768, comps = 4;
+        final ByteBuffer pixels = createRandom(w*h*comps, 2);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            for(final Filter f : Filter.values()) {
+                for(int srgb=0; srgb<2; srgb++) {
+                    final Buffer[] seq = new TextureMipmapBuilder(f, 0 != srgb, null).build(createData(w, h, GL.GL_RGBA, comps, pixels)).getMipmapData();
+                    final Buffer[] par = new TextureMipmapBuilder(f, 0 != srgb, executor).build(createData(w, h, GL.GL_RGBA, comps, pixels)).getMipmapData();
+                    Assert.assertEquals(seq.length, par.length);
+                    for(int i=0; i<seq.length; i++) {
+                        Assert.assertEquals(f+", sRGB "+srgb+", level "+i, seq[i], par[i]);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static long measure(final TextureMipmapBuilder builder, final TextureData data) {
+        long best = Long.MAX_VALUE;
+        for(int l=0; l<loops; l++) {
+            final long t0 = System.nanoTime();
+            builder.build(data);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    @Test
+    public void test07Perf() {
+        final int comps = 4;
+        final TextureData data = createData(size, size, GL.GL_RGBA, comps, createRandom(size*size*comps, 3));
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for(final Filter f : Filter.values()) {
+                for(int srgb=0; srgb<2; srgb++) {
+                    final long tSeq = measure(new TextureMipmapBuilder(f, 0 != srgb, null), data);
+                    final long tPar = measure(new TextureMipmapBuilder(f, 0 != srgb, executor), data);
+                    System.err.printf("%-7s sRGB %5b %4dx%4d RGBA: sequential %9.3f ms, parallel %9.3f ms%n",
+                                      f, 0 != srgb, size, size, tSeq/1e6, tPar/1e6);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static void main(final String args[]) throws IOException {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-size")) {
+                i++;
+                size = MiscUtils.atoi(args[i], size);
+            } else if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestTextureMipmapBuilder01NOUI.class.getName());
+    }
+}